@@ -0,0 +1,16 @@
+#!/usr/bin/env bash
+# Fails when the coze-api jar was built without the Java 21 overlay.
+set -euo pipefail
+
+jar=$(ls api/target/coze-api-*.jar | grep -v -e sources -e javadoc | head -n 1)
+echo "checking ${jar}"
+
+if ! unzip -p "${jar}" META-INF/MANIFEST.MF | grep -q "^Multi-Release: true"; then
+  echo "Multi-Release: true is missing from the manifest of ${jar}"
+  exit 1
+fi
+if ! unzip -l "${jar}" | grep -q "META-INF/versions/21/"; then
+  echo "META-INF/versions/21 is missing from ${jar}"
+  exit 1
+fi
+echo "multi-release jar OK"
@@ -1,9 +1,16 @@
 package com.coze.openapi.client.common;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import lombok.experimental.SuperBuilder;
 
 @Data
@@ -13,4 +20,51 @@ public class BaseReq {
   @JsonIgnore private Integer connectTimeout;
   @JsonIgnore private Integer readTimeout;
   @JsonIgnore private Integer writeTimeout;
+
+  /* Priority of this call, null means NORMAL. */
+  @JsonIgnore private RequestPriority priority;
+
+  /*
+   * Overall time budget of this call and of every call made on its behalf (retries, polls, page
+   * fetches). Per-attempt timeouts are capped to the time left.
+   * */
+  @JsonIgnore @ToString.Exclude @EqualsAndHashCode.Exclude private Deadline deadline;
+
+  // 给传输层的附加对象（如多租户凭证），按类型存放，不属于请求模型，也不会被序列化
+  @JsonIgnore
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  @Getter(AccessLevel.NONE)
+  private final Map<Class<?>, Object> tags = new HashMap<>(2);
+
+  /*
+   * The value attached to this call under type, null when there is none. Like OkHttp request tags,
+   * these carry objects of the service layer, e.g. the per-call Auth, without the request model
+   * depending on them.
+   * */
+  public <T> T tag(Class<? extends T> type) {
+    return type.cast(tags.get(type));
+  }
+
+  /*
+   * Attach value to this call under type, replacing the previous one; null removes it.
+   * */
+  public <T> void tag(Class<T> type, T value) {
+    if (value == null) {
+      tags.remove(type);
+    } else {
+      tags.put(type, type.cast(value));
+    }
+  }
+
+  /*
+   * Copy the settings that follow-up calls made on behalf of this one inherit: tags (such as the
+   * credential), priority and deadline.
+   * */
+  public void inherit(BaseReq origin) {
+    this.tags.clear();
+    this.tags.putAll(origin.tags);
+    this.priority = origin.priority;
+    this.deadline = origin.deadline;
+  }
 }
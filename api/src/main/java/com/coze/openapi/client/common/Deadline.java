@@ -0,0 +1,52 @@
+package com.coze.openapi.client.common;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * An absolute point in time by which a whole operation must be finished, including its retries,
+ * polls and page fetches. Every call made on behalf of the operation only gets the time that is
+ * left, and fails with DeadlineExceededException once none is left.
+ *
+ * It is measured with System.nanoTime, so it is not affected by wall clock adjustments.
+ * */
+public final class Deadline {
+  private final long deadlineNanos;
+
+  private Deadline(long deadlineNanos) {
+    this.deadlineNanos = deadlineNanos;
+  }
+
+  /*
+   * A deadline the given duration from now.
+   * */
+  public static Deadline after(long duration, TimeUnit unit) {
+    return new Deadline(System.nanoTime() + unit.toNanos(duration));
+  }
+
+  /*
+   * Time left before the deadline, 0 once it has passed.
+   * */
+  public long remaining(TimeUnit unit) {
+    long left = deadlineNanos - System.nanoTime();
+    return left <= 0 ? 0 : unit.convert(left, TimeUnit.NANOSECONDS);
+  }
+
+  public boolean isExpired() {
+    return deadlineNanos - System.nanoTime() <= 0;
+  }
+
+  /*
+   * The earlier of this deadline and other, other may be null.
+   * */
+  public Deadline minimum(Deadline other) {
+    if (other == null) {
+      return this;
+    }
+    return other.deadlineNanos - deadlineNanos < 0 ? other : this;
+  }
+
+  @Override
+  public String toString() {
+    return "Deadline(remaining=" + remaining(TimeUnit.MILLISECONDS) + "ms)";
+  }
+}
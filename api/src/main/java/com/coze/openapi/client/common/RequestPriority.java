@@ -0,0 +1,12 @@
+package com.coze.openapi.client.common;
+
+/*
+ * Scheduling priority of a call when priority lanes are enabled, see CozeAPI.Builder.priorityLanes.
+ * */
+public enum RequestPriority {
+  /* User-facing calls, started before any queued call of lower priority. */
+  HIGH,
+  NORMAL,
+  /* Batch work, limited to a share of the concurrent calls. */
+  LOW
+}
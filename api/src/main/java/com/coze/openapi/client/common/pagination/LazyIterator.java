@@ -0,0 +1,34 @@
+package com.coze.openapi.client.common.pagination;
+
+import java.util.Iterator;
+import java.util.function.Supplier;
+
+/*
+ * Defers creating the underlying iterator until it is first used. The async list APIs use it so
+ * that no page is fetched on the callback thread; iterating still fetches pages synchronously.
+ * */
+public class LazyIterator<T> implements Iterator<T> {
+  private final Supplier<Iterator<T>> supplier;
+  private Iterator<T> delegate;
+
+  public LazyIterator(Supplier<Iterator<T>> supplier) {
+    this.supplier = supplier;
+  }
+
+  private Iterator<T> delegate() {
+    if (delegate == null) {
+      delegate = supplier.get();
+    }
+    return delegate;
+  }
+
+  @Override
+  public boolean hasNext() {
+    return delegate().hasNext();
+  }
+
+  @Override
+  public T next() {
+    return delegate().next();
+  }
+}
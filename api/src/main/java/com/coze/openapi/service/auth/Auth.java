@@ -1,6 +1,14 @@
 package com.coze.openapi.service.auth;
 
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.coze.openapi.client.common.BaseReq;
+
 public abstract class Auth {
+  private static final AtomicLong INSTANCES = new AtomicLong();
+
+  // 进程内唯一，不会像 identityHashCode 那样在两个 Auth 之间重复
+  private final long instanceID = INSTANCES.incrementAndGet();
 
   protected String accessToken;
   protected String refreshToken;
@@ -17,6 +25,31 @@ public abstract class Auth {
     return "Bearer";
   }
 
+  /*
+   * Identifies this Auth object within the process, for state kept per credential such as rate
+   * limits. Two Auth objects never share an ID, even when they hold the same token.
+   * */
+  public final long instanceID() {
+    return instanceID;
+  }
+
+  /*
+   * Use this credential for the call of req instead of the Auth of the CozeAPI, so one
+   * multi-tenant CozeAPI can serve many tenants. Follow-up calls made on behalf of the call
+   * (polls, cancels, page fetches) inherit it. Returns req.
+   * */
+  public <T extends BaseReq> T attach(T req) {
+    req.tag(Auth.class, this);
+    return req;
+  }
+
+  /*
+   * The credential attached to req, null when the Auth of the CozeAPI applies.
+   * */
+  public static Auth of(BaseReq req) {
+    return req == null ? null : req.tag(Auth.class);
+  }
+
   /**
    * 获取token
    *
@@ -23,12 +23,12 @@ import com.coze.openapi.client.auth.OAuthToken;
 import com.coze.openapi.client.common.BaseResp;
 import com.coze.openapi.client.exception.CozeAuthException;
 import com.coze.openapi.client.exception.CozeError;
+import com.coze.openapi.service.service.transport.TransportProfile;
 import com.coze.openapi.service.utils.UserAgentInterceptor;
 import com.coze.openapi.service.utils.Utils;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.reactivex.Single;
-import okhttp3.ConnectionPool;
 import okhttp3.OkHttpClient;
 import okhttp3.ResponseBody;
 import retrofit2.HttpException;
@@ -274,6 +274,7 @@ public abstract class OAuthClient {
     protected int readTimeout;
     protected int connectTimeout;
     protected OkHttpClient client;
+    protected TransportProfile transportProfile;
     protected Logger logger;
 
     @SuppressWarnings("unchecked")
@@ -316,6 +317,11 @@ public abstract class OAuthClient {
       return self();
     }
 
+    public T transportProfile(TransportProfile transportProfile) {
+      this.transportProfile = transportProfile;
+      return self();
+    }
+
     public T logger(Logger logger) {
       this.logger = logger;
       return self();
@@ -353,8 +359,10 @@ public abstract class OAuthClient {
     }
 
     protected OkHttpClient defaultClient(Duration readTimeout, Duration connectTimeout) {
-      return new OkHttpClient.Builder()
-          .connectionPool(new ConnectionPool(5, 1, TimeUnit.SECONDS))
+      TransportProfile profile =
+          this.transportProfile == null ? TransportProfile.defaults() : this.transportProfile;
+      return profile
+          .applyTo(new OkHttpClient.Builder())
           .readTimeout(readTimeout.toMillis(), TimeUnit.MILLISECONDS)
           .connectTimeout(connectTimeout.toMillis(), TimeUnit.MILLISECONDS)
           .addInterceptor(new UserAgentInterceptor())
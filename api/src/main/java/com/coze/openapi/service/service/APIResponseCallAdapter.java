@@ -32,7 +32,34 @@ public class APIResponseCallAdapter<R> implements CallAdapter<R, Call<R>> {
     return new Call<R>() {
       @Override
       public Response<R> execute() throws IOException {
-        Response<R> response = call.execute();
+        return handle(call.execute());
+      }
+
+      @Override
+      public void enqueue(Callback<R> callback) {
+        Call<R> adapted = this;
+        call.enqueue(
+            new Callback<R>() {
+              @Override
+              public void onResponse(Call<R> call, Response<R> response) {
+                Response<R> handled;
+                try {
+                  handled = handle(response);
+                } catch (Exception e) {
+                  callback.onFailure(adapted, e);
+                  return;
+                }
+                callback.onResponse(adapted, handled);
+              }
+
+              @Override
+              public void onFailure(Call<R> call, Throwable t) {
+                callback.onFailure(adapted, t);
+              }
+            });
+      }
+
+      private Response<R> handle(Response<R> response) {
         if (!response.isSuccessful()) {
           logger.warn("HTTP error: " + response.code() + " " + response.message());
           String errStr = "http exception";
@@ -63,26 +90,6 @@ public class APIResponseCallAdapter<R> implements CallAdapter<R, Call<R>> {
         return response;
       }
 
-      @Override
-      public void enqueue(Callback<R> callback) {
-        call.enqueue(
-            new Callback<R>() {
-              @Override
-              public void onResponse(Call<R> call, Response<R> response) {
-                try {
-                  callback.onResponse(call, execute());
-                } catch (Exception e) {
-                  onFailure(call, e);
-                }
-              }
-
-              @Override
-              public void onFailure(Call<R> call, Throwable t) {
-                callback.onFailure(call, t);
-              }
-            });
-      }
-
       @Override
       public boolean isExecuted() {
         return call.isExecuted();
@@ -0,0 +1,125 @@
+package com.coze.openapi.service.service;
+
+import com.coze.openapi.api.*;
+import com.coze.openapi.service.service.audio.AsyncAudioService;
+import com.coze.openapi.service.service.bots.AsyncBotService;
+import com.coze.openapi.service.service.chat.AsyncChatService;
+import com.coze.openapi.service.service.common.Lazy;
+import com.coze.openapi.service.service.conversation.AsyncConversationService;
+import com.coze.openapi.service.service.dataset.AsyncDatasetService;
+import com.coze.openapi.service.service.file.AsyncFileService;
+import com.coze.openapi.service.service.template.AsyncTemplateService;
+import com.coze.openapi.service.service.workflow.AsyncWorkflowService;
+import com.coze.openapi.service.service.workspace.AsyncWorkspaceService;
+
+import retrofit2.Retrofit;
+
+/*
+ * Non-blocking view of CozeAPI. Every method returns a CompletableFuture that is completed on the
+ * OkHttp dispatcher threads, so no caller thread is parked while a request is in flight.
+ *
+ * Obtain it with CozeAPI.async(); it shares the transport, auth and executors of its CozeAPI.
+ * */
+public class AsyncCozeAPI {
+  private final Lazy<AsyncWorkspaceService> workspaceAPI;
+  private final Lazy<AsyncBotService> botAPI;
+  private final Lazy<AsyncConversationService> conversationAPI;
+  private final Lazy<AsyncFileService> fileAPI;
+  private final Lazy<AsyncDatasetService> datasetAPI;
+  private final Lazy<AsyncWorkflowService> workflowAPI;
+  private final Lazy<AsyncChatService> chatAPI;
+  private final Lazy<AsyncAudioService> audioAPI;
+  private final Lazy<AsyncTemplateService> templateAPI;
+
+  // 和 CozeAPI 一样，服务和接口代理在第一次使用时才创建
+  AsyncCozeAPI(Retrofit retrofit) {
+    this.workspaceAPI =
+        Lazy.of(() -> new AsyncWorkspaceService(retrofit.create(WorkspaceAPI.class)));
+    this.botAPI = Lazy.of(() -> new AsyncBotService(retrofit.create(BotAPI.class)));
+    this.conversationAPI =
+        Lazy.of(
+            () ->
+                new AsyncConversationService(
+                    retrofit.create(ConversationAPI.class),
+                    retrofit.create(ConversationMessageAPI.class)));
+    this.fileAPI = Lazy.of(() -> new AsyncFileService(retrofit.create(FileAPI.class)));
+    this.datasetAPI =
+        Lazy.of(
+            () ->
+                new AsyncDatasetService(
+                    retrofit.create(DatasetAPI.class),
+                    retrofit.create(DatasetDocumentAPI.class),
+                    retrofit.create(DatasetImageAPI.class)));
+    this.workflowAPI =
+        Lazy.of(
+            () ->
+                new AsyncWorkflowService(
+                    retrofit.create(WorkflowRunAPI.class),
+                    retrofit.create(WorkflowRunHistoryAPI.class)));
+    this.chatAPI =
+        Lazy.of(
+            () ->
+                new AsyncChatService(
+                    retrofit.create(ChatAPI.class), retrofit.create(ChatMessageAPI.class)));
+    this.audioAPI =
+        Lazy.of(
+            () ->
+                new AsyncAudioService(
+                    retrofit.create(AudioVoiceAPI.class),
+                    retrofit.create(AudioRoomAPI.class),
+                    retrofit.create(AudioSpeechAPI.class),
+                    retrofit.create(AudioTranscriptionAPI.class)));
+    this.templateAPI = Lazy.of(() -> new AsyncTemplateService(retrofit.create(TemplateAPI.class)));
+  }
+
+  /*
+   * Create every service now, see CozeAPI.Builder.eagerServices.
+   * */
+  void initServices() {
+    workspaceAPI.get();
+    botAPI.get();
+    conversationAPI.get();
+    fileAPI.get();
+    datasetAPI.get();
+    workflowAPI.get();
+    chatAPI.get();
+    audioAPI.get();
+    templateAPI.get();
+  }
+
+  public AsyncWorkspaceService workspaces() {
+    return this.workspaceAPI.get();
+  }
+
+  public AsyncBotService bots() {
+    return this.botAPI.get();
+  }
+
+  public AsyncConversationService conversations() {
+    return this.conversationAPI.get();
+  }
+
+  public AsyncFileService files() {
+    return this.fileAPI.get();
+  }
+
+  public AsyncDatasetService datasets() {
+    return this.datasetAPI.get();
+  }
+
+  public AsyncWorkflowService workflows() {
+    return this.workflowAPI.get();
+  }
+
+  public AsyncChatService chat() {
+    return this.chatAPI.get();
+  }
+
+  public AsyncAudioService audio() {
+    return this.audioAPI.get();
+  }
+
+  public AsyncTemplateService templates() {
+    return this.templateAPI.get();
+  }
+}
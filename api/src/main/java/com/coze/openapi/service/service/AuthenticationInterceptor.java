@@ -1,19 +1,25 @@
 package com.coze.openapi.service.service;
 
 import java.io.IOException;
-import java.util.Objects;
 
 import com.coze.openapi.service.auth.Auth;
+import com.coze.openapi.service.service.common.MissingCredentialException;
+import com.coze.openapi.service.utils.Utils;
 
 import okhttp3.Interceptor;
 import okhttp3.Request;
 import okhttp3.Response;
 
+/*
+ * Adds the token of the call's own credential (Auth.attach) or, when it has none, of the client's
+ * Auth. A multi-tenant client has no Auth of its own, so every call must carry one.
+ * */
 public class AuthenticationInterceptor implements Interceptor {
   private final Auth auth;
+  // 上一次生成的 Authorization，token 不变时直接复用
+  private volatile Authorization cached;
 
   AuthenticationInterceptor(Auth auth) {
-    Objects.requireNonNull(auth, "Auth required");
     this.auth = auth;
   }
 
@@ -23,8 +29,43 @@ public class AuthenticationInterceptor implements Interceptor {
         chain
             .request()
             .newBuilder()
-            .header("Authorization", auth.tokenType() + " " + auth.token())
+            .header("Authorization", authorization(chain.request()))
             .build();
     return chain.proceed(request);
   }
+
+  /*
+   * The Authorization header value of request. It is only rebuilt when the credential or its
+   * token changed since the previous call.
+   * */
+  String authorization(Request request) throws IOException {
+    Auth auth = Utils.requestAuth(request);
+    if (auth == null) {
+      auth = this.auth;
+    }
+    if (auth == null) {
+      throw new MissingCredentialException(
+          "no credential: attach an Auth to calls of a multi-tenant CozeAPI");
+    }
+    String token = auth.token();
+    Authorization cached = this.cached;
+    if (cached != null && cached.auth == auth && cached.token.equals(token)) {
+      return cached.value;
+    }
+    cached = new Authorization(auth, token, auth.tokenType() + " " + token);
+    this.cached = cached;
+    return cached.value;
+  }
+
+  private static final class Authorization {
+    private final Auth auth;
+    private final String token;
+    private final String value;
+
+    Authorization(Auth auth, String token, String value) {
+      this.auth = auth;
+      this.token = token;
+      this.value = value;
+    }
+  }
 }
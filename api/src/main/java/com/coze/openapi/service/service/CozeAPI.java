@@ -1,8 +1,15 @@
 package com.coze.openapi.service.service;
 
+import java.io.IOException;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
@@ -12,58 +19,134 @@ import com.coze.openapi.service.auth.Auth;
 import com.coze.openapi.service.config.Consts;
 import com.coze.openapi.service.service.audio.AudioService;
 import com.coze.openapi.service.service.bots.BotService;
+import com.coze.openapi.service.service.cache.MetadataCache;
+import com.coze.openapi.service.service.cache.MetadataCacheConfig;
+import com.coze.openapi.service.service.cache.MetadataCacheInterceptor;
 import com.coze.openapi.service.service.chat.ChatService;
+import com.coze.openapi.service.service.circuitbreaker.CircuitBreakerConfig;
+import com.coze.openapi.service.service.circuitbreaker.CircuitBreakerInterceptor;
+import com.coze.openapi.service.service.circuitbreaker.CircuitState;
+import com.coze.openapi.service.service.coalescing.CoalescingCallFactory;
+import com.coze.openapi.service.service.codec.JsonCodec;
+import com.coze.openapi.service.service.codec.JsonCodecConverterFactory;
+import com.coze.openapi.service.service.codec.JsonCodecs;
 import com.coze.openapi.service.service.common.CozeLoggerFactory;
+import com.coze.openapi.service.service.common.Lazy;
+import com.coze.openapi.service.service.common.StreamExecutors;
+import com.coze.openapi.service.service.common.VirtualThreads;
+import com.coze.openapi.service.service.compression.GzipRequestInterceptor;
+import com.coze.openapi.service.service.compression.RequestCompressionConfig;
+import com.coze.openapi.service.service.compression.RequestCompressionStats;
 import com.coze.openapi.service.service.conversation.ConversationService;
 import com.coze.openapi.service.service.dataset.DatasetService;
 import com.coze.openapi.service.service.file.FileService;
+import com.coze.openapi.service.service.hedging.HedgingCallFactory;
+import com.coze.openapi.service.service.hedging.HedgingConfig;
+import com.coze.openapi.service.service.hedging.HedgingStats;
+import com.coze.openapi.service.service.loadbalance.EndpointStats;
+import com.coze.openapi.service.service.loadbalance.LoadBalancer;
+import com.coze.openapi.service.service.loadbalance.LoadBalancerConfig;
+import com.coze.openapi.service.service.loadbalance.LoadBalancingInterceptor;
+import com.coze.openapi.service.service.priority.PriorityCallFactory;
+import com.coze.openapi.service.service.priority.PriorityConfig;
+import com.coze.openapi.service.service.ratelimit.RateLimitConfig;
+import com.coze.openapi.service.service.ratelimit.RateLimitInterceptor;
+import com.coze.openapi.service.service.retry.RetryInterceptor;
+import com.coze.openapi.service.service.retry.RetryPolicy;
+import com.coze.openapi.service.service.spool.MutationSpool;
+import com.coze.openapi.service.service.spool.SpoolConfig;
 import com.coze.openapi.service.service.template.TemplateService;
+import com.coze.openapi.service.service.transport.BulkheadCallFactory;
+import com.coze.openapi.service.service.transport.BulkheadConfig;
+import com.coze.openapi.service.service.transport.ConcurrencyLimitConfig;
+import com.coze.openapi.service.service.transport.ConcurrencyLimitInterceptor;
+import com.coze.openapi.service.service.transport.LaneStats;
+import com.coze.openapi.service.service.transport.TransportProfile;
+import com.coze.openapi.service.service.transport.TransportStats;
+import com.coze.openapi.service.service.transport.TransportWarmer;
+import com.coze.openapi.service.service.transport.WarmupConfig;
+import com.coze.openapi.service.service.transport.WarmupReport;
 import com.coze.openapi.service.service.websocket.WebsocketsClient;
 import com.coze.openapi.service.service.workflow.WorkflowService;
 import com.coze.openapi.service.service.workspace.WorkspaceService;
 import com.coze.openapi.service.utils.UserAgentInterceptor;
-import com.coze.openapi.service.utils.Utils;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
-import io.jsonwebtoken.lang.Strings;
-import okhttp3.ConnectionPool;
+import okhttp3.Call;
+import okhttp3.Dispatcher;
 import okhttp3.Interceptor;
 import okhttp3.OkHttpClient;
 import retrofit2.Retrofit;
-import retrofit2.converter.jackson.JacksonConverterFactory;
 
 public class CozeAPI {
   private static final Logger logger = CozeLoggerFactory.getLogger();
   private final String baseURL;
   private final ExecutorService executorService;
+  private final ExecutorService streamExecutor;
+  private final boolean ownsStreamExecutor;
+  private final OkHttpClient unaryClient;
+  private final OkHttpClient streamClient;
+  private final ConcurrencyLimitInterceptor concurrencyLimit;
+  private final PriorityCallFactory priorityLanes;
+  private final CircuitBreakerInterceptor circuitBreaker;
+  private final HedgingCallFactory hedging;
+  private final MetadataCache metadataCache;
+  private final GzipRequestInterceptor requestCompression;
+  private final LoadBalancer loadBalancer;
+  private final CompletableFuture<WarmupReport> warmup;
   private final Auth auth;
-  private final WorkspaceService workspaceAPI;
-  private final BotService botAPI;
-  private final ConversationService conversationAPI;
-  private final FileService fileAPI;
-  private final DatasetService datasetAPI;
-  private final WorkflowService workflowAPI;
-  private final ChatService chatAPI;
-  private final AudioService audioAPI;
-  private final TemplateService templateAPI;
-  private final WebsocketsClient websocket;
+  private final Lazy<WorkspaceService> workspaceAPI;
+  private final Lazy<BotService> botAPI;
+  private final Lazy<ConversationService> conversationAPI;
+  private final Lazy<FileService> fileAPI;
+  private final Lazy<DatasetService> datasetAPI;
+  private final Lazy<WorkflowService> workflowAPI;
+  private final Lazy<ChatService> chatAPI;
+  private final Lazy<AudioService> audioAPI;
+  private final Lazy<TemplateService> templateAPI;
+  private final Lazy<WebsocketsClient> websocket;
+  private final Lazy<AsyncCozeAPI> asyncAPI;
 
   private CozeAPI(
       String baseURL,
       ExecutorService executorService,
+      ExecutorService streamExecutor,
+      boolean ownsStreamExecutor,
+      OkHttpClient unaryClient,
+      OkHttpClient streamClient,
+      ConcurrencyLimitInterceptor concurrencyLimit,
+      PriorityCallFactory priorityLanes,
+      CircuitBreakerInterceptor circuitBreaker,
+      HedgingCallFactory hedging,
+      MetadataCache metadataCache,
+      GzipRequestInterceptor requestCompression,
+      LoadBalancer loadBalancer,
+      CompletableFuture<WarmupReport> warmup,
       Auth auth,
-      WorkspaceService workspaceAPI,
-      BotService botAPI,
-      ConversationService conversationAPI,
-      FileService fileAPI,
-      DatasetService knowledgeAPI,
-      WorkflowService workflowAPI,
-      ChatService chatAPI,
-      AudioService audioAPI,
-      TemplateService templateAPI,
-      WebsocketsClient websocket) {
+      Lazy<WorkspaceService> workspaceAPI,
+      Lazy<BotService> botAPI,
+      Lazy<ConversationService> conversationAPI,
+      Lazy<FileService> fileAPI,
+      Lazy<DatasetService> knowledgeAPI,
+      Lazy<WorkflowService> workflowAPI,
+      Lazy<ChatService> chatAPI,
+      Lazy<AudioService> audioAPI,
+      Lazy<TemplateService> templateAPI,
+      Lazy<WebsocketsClient> websocket,
+      Lazy<AsyncCozeAPI> asyncAPI) {
     this.baseURL = baseURL;
     this.executorService = executorService;
+    this.streamExecutor = streamExecutor;
+    this.ownsStreamExecutor = ownsStreamExecutor;
+    this.unaryClient = unaryClient;
+    this.streamClient = streamClient;
+    this.concurrencyLimit = concurrencyLimit;
+    this.priorityLanes = priorityLanes;
+    this.circuitBreaker = circuitBreaker;
+    this.hedging = hedging;
+    this.metadataCache = metadataCache;
+    this.requestCompression = requestCompression;
+    this.loadBalancer = loadBalancer;
+    this.warmup = warmup;
     this.auth = auth;
     this.workspaceAPI = workspaceAPI;
     this.botAPI = botAPI;
@@ -75,60 +158,204 @@ public class CozeAPI {
     this.audioAPI = audioAPI;
     this.templateAPI = templateAPI;
     this.websocket = websocket;
+    this.asyncAPI = asyncAPI;
   }
 
   public WorkspaceService workspaces() {
-    return this.workspaceAPI;
+    return this.workspaceAPI.get();
   }
 
   public BotService bots() {
-    return this.botAPI;
+    return this.botAPI.get();
   }
 
   public ConversationService conversations() {
-    return this.conversationAPI;
+    return this.conversationAPI.get();
   }
 
   public FileService files() {
-    return this.fileAPI;
+    return this.fileAPI.get();
   }
 
   public DatasetService datasets() {
-    return this.datasetAPI;
+    return this.datasetAPI.get();
   }
 
   public WorkflowService workflows() {
-    return this.workflowAPI;
+    return this.workflowAPI.get();
   }
 
   public ChatService chat() {
-    return this.chatAPI;
+    return this.chatAPI.get();
   }
 
   public AudioService audio() {
-    return this.audioAPI;
+    return this.audioAPI.get();
   }
 
   public TemplateService templates() {
-    return this.templateAPI;
+    return this.templateAPI.get();
   }
 
   public WebsocketsClient websockets() {
-    return this.websocket;
+    return this.websocket.get();
+  }
+
+  /*
+   * The CompletableFuture based counterpart of the services above.
+   * */
+  public AsyncCozeAPI async() {
+    return this.asyncAPI.get();
+  }
+
+  /*
+   * Create every service, API proxy and the websocket client now instead of on first use. See
+   * Builder.eagerServices.
+   * */
+  private void initServices() {
+    this.workspaceAPI.get();
+    this.botAPI.get();
+    this.conversationAPI.get();
+    this.fileAPI.get();
+    this.datasetAPI.get();
+    this.workflowAPI.get();
+    this.chatAPI.get();
+    this.audioAPI.get();
+    this.templateAPI.get();
+    this.websocket.get();
+    this.asyncAPI.get().initServices();
   }
 
   public void shutdownExecutor() {
     Objects.requireNonNull(
         this.executorService, "executorService must be set in order to shut down");
     this.executorService.shutdown();
+    // 只关闭由 CozeAPI 自己创建的 stream executor，外部传入的由调用方负责
+    if (this.ownsStreamExecutor) {
+      this.streamExecutor.shutdown();
+    }
+    if (this.loadBalancer != null) {
+      this.loadBalancer.close();
+    }
+  }
+
+  /*
+   * The shared executor that reads the SSE streams of chat and workflow calls.
+   * */
+  public ExecutorService streamExecutor() {
+    return this.streamExecutor;
+  }
+
+  /*
+   * Current usage of the unary and streaming transport lanes.
+   * */
+  public TransportStats transportStats() {
+    TransportStats.TransportStatsBuilder stats =
+        TransportStats.builder().bulkhead(this.unaryClient != this.streamClient)
+            .unary(LaneStats.of(this.unaryClient)).stream(LaneStats.of(this.streamClient));
+    if (this.concurrencyLimit != null) {
+      stats
+          .unaryLimit(this.concurrencyLimit.unaryLimit().stats())
+          .streamLimit(this.concurrencyLimit.streamLimit().stats());
+    }
+    if (this.priorityLanes != null) {
+      stats.priority(this.priorityLanes.stats());
+    }
+    return stats.build();
+  }
+
+  /*
+   * Circuit state of every endpoint called so far, keyed like BotAPI.list. Empty when no circuit
+   * breaker is configured.
+   * */
+  public Map<String, CircuitState> circuitStates() {
+    if (this.circuitBreaker == null) {
+      return Collections.emptyMap();
+    }
+    return this.circuitBreaker.states();
+  }
+
+  /*
+   * Hedged calls and their outcome, all zero when hedging is not enabled.
+   * */
+  public HedgingStats hedgingStats() {
+    if (this.hedging == null) {
+      return HedgingStats.builder().build();
+    }
+    return this.hedging.stats();
+  }
+
+  /*
+   * The metadata cache, for stats and explicit invalidation; null when not enabled.
+   * */
+  public MetadataCache metadataCache() {
+    return this.metadataCache;
+  }
+
+  /*
+   * Bytes saved and time spent by request body compression, all zero when not enabled.
+   * */
+  public RequestCompressionStats requestCompressionStats() {
+    if (this.requestCompression == null) {
+      return RequestCompressionStats.builder().build();
+    }
+    return this.requestCompression.stats();
+  }
+
+  /*
+   * Load and health of every base URL, empty unless several were given to Builder.baseURLs.
+   * */
+  public List<EndpointStats> endpointStats() {
+    if (this.loadBalancer == null) {
+      return Collections.emptyList();
+    }
+    return this.loadBalancer.stats();
+  }
+
+  /*
+   * Completes when the transport warm-up started by build() finished, e.g. for a readiness probe.
+   * Without warm-up it is already completed with a ready report.
+   * */
+  public CompletableFuture<WarmupReport> warmup() {
+    return this.warmup;
+  }
+
+  /*
+   * Open a durable spool for message and document writes on config.getDirectory(), see
+   * MutationSpool. Mutations left in the directory by a previous process are sent again. The
+   * caller owns the spool and closes it before shutting down this client.
+   * */
+  public MutationSpool newSpool(SpoolConfig config) throws IOException {
+    return new MutationSpool(conversations().messages(), datasets().documents(), config);
   }
 
   public static class Builder {
     private String baseURL = Consts.COZE_COM_BASE_URL;
+    private List<String> baseURLs;
+    private LoadBalancerConfig loadBalancerConfig;
     private Auth auth;
     private OkHttpClient client;
     private int readTimeout = 5000;
     private int connectTimeout = 5000;
+    private ExecutorService streamExecutor;
+    private Integer maxStreamWorkers;
+    private BulkheadConfig bulkheadConfig;
+    private TransportProfile transportProfile;
+    private boolean virtualThreads;
+    private RetryPolicy retryPolicy;
+    private RateLimitConfig rateLimitConfig;
+    private CircuitBreakerConfig circuitBreakerConfig;
+    private HedgingConfig hedgingConfig;
+    private boolean coalesceRequests;
+    private MetadataCacheConfig metadataCacheConfig;
+    private RequestCompressionConfig requestCompressionConfig;
+    private WarmupConfig warmupConfig;
+    private boolean multiTenant;
+    private boolean eagerServices;
+    private boolean streamingRequestBodies;
+    private PriorityConfig priorityConfig;
+    private ConcurrencyLimitConfig unaryConcurrencyLimit;
+    private ConcurrencyLimitConfig streamConcurrencyLimit;
 
     public Builder logger(Logger logger) {
       CozeLoggerFactory.setLogger(logger);
@@ -137,6 +364,26 @@ public class CozeAPI {
 
     public Builder baseURL(String url) {
       this.baseURL = url;
+      this.baseURLs = null;
+      return this;
+    }
+
+    /*
+     * Spread calls over several equivalent gateways, with health checking and failover. REST
+     * calls and websockets both follow the picked endpoint; the websocket URL of each base URL is
+     * derived like for baseURL. See LoadBalancerConfig for the selection and failover rules.
+     * */
+    public Builder baseURLs(List<String> urls) {
+      if (urls == null || urls.isEmpty()) {
+        throw new IllegalArgumentException("urls must not be empty");
+      }
+      this.baseURL = urls.get(0);
+      this.baseURLs = new ArrayList<>(urls);
+      return this;
+    }
+
+    public Builder loadBalancing(LoadBalancerConfig loadBalancerConfig) {
+      this.loadBalancerConfig = loadBalancerConfig;
       return this;
     }
 
@@ -145,6 +392,40 @@ public class CozeAPI {
       return this;
     }
 
+    /*
+     * Serve many tenants with one client: connection pool, dispatcher and service proxies are
+     * shared, and each call carries the credential of its tenant, attached with Auth.attach. auth may then be
+     * omitted; when set, it is used for calls without a credential of their own.
+     * */
+    public Builder multiTenant(boolean multiTenant) {
+      this.multiTenant = multiTenant;
+      return this;
+    }
+
+    /*
+     * Services, API proxies and the websocket client are created on first use, so short-lived
+     * processes only pay for what they call. For long-running servers, eagerServices(true)
+     * creates and validates all of them in build(), so a broken API declaration fails at startup
+     * and the first request of each service does not pay for it, neither does the first streamed
+     * event for the readers of JsonCodecs.STREAM_TYPES. Combine it with warmup to also open
+     * connections ahead of time.
+     * */
+    public Builder eagerServices(boolean eagerServices) {
+      this.eagerServices = eagerServices;
+      return this;
+    }
+
+    /*
+     * By default every JSON request body is serialized into a byte array first and sent with a
+     * Content-Length. true serializes bodies straight into the connection without a length (chunked
+     * on HTTP/1.1), see JsonCodecConverterFactory; it saves memory and time to first byte for large
+     * bodies such as document uploads, but some proxies refuse chunked requests.
+     * */
+    public Builder streamingRequestBodies(boolean streamingRequestBodies) {
+      this.streamingRequestBodies = streamingRequestBodies;
+      return this;
+    }
+
     public Builder client(OkHttpClient client) {
       this.client = client;
       return this;
@@ -160,67 +441,434 @@ public class CozeAPI {
       return this;
     }
 
+    /*
+     * Use the given executor to read SSE streams. All streams of this CozeAPI share it, one task
+     * per stream. The caller keeps ownership of the executor.
+     * */
+    public Builder streamExecutor(ExecutorService streamExecutor) {
+      this.streamExecutor = streamExecutor;
+      return this;
+    }
+
+    /*
+     * Bound the number of threads used to read SSE streams. This is a hard cap on open streams: a
+     * stream started while every worker is busy fails at once with a RequestRejectedException. Ignored
+     * when streamExecutor is set. Defaults to StreamExecutors.DEFAULT_MAX_WORKERS, or unbounded with
+     * virtualThreads; 0 means unbounded.
+     * */
+    public Builder maxStreamWorkers(int maxStreamWorkers) {
+      this.maxStreamWorkers = maxStreamWorkers;
+      return this;
+    }
+
+    /*
+     * Enable the bulkhead mode: streaming calls and websockets get their own dispatcher and
+     * connection pool, separate from the unary calls.
+     * */
+    public Builder bulkhead(BulkheadConfig bulkheadConfig) {
+      this.bulkheadConfig = bulkheadConfig;
+      return this;
+    }
+
+    /*
+     * Connection pool, dispatcher and socket settings for REST, SSE and websocket traffic. When a
+     * custom client is set, the profile overrides its pool and dispatcher.
+     * */
+    public Builder transportProfile(TransportProfile transportProfile) {
+      this.transportProfile = transportProfile;
+      return this;
+    }
+
+    /*
+     * Run the OkHttp dispatcher, the SSE stream readers and the websocket event handlers on virtual
+     * threads. Requires Java 21 or later; on older runtimes a warning is logged and platform
+     * threads are used. A custom streamExecutor is kept as is.
+     * */
+    public Builder virtualThreads(boolean virtualThreads) {
+      this.virtualThreads = virtualThreads;
+      return this;
+    }
+
+    /*
+     * Retry transient failures (connection errors, 408/429/5xx, rate-limit error codes) with
+     * jittered exponential backoff, within a retry budget shared by all calls of this client. See
+     * RetryPolicy for the defaults.
+     * */
+    public Builder retryPolicy(RetryPolicy retryPolicy) {
+      this.retryPolicy = retryPolicy;
+      return this;
+    }
+
+    /*
+     * Pace outbound calls per credential and endpoint. The limiter may be shared between several
+     * CozeAPI instances; each Auth instance is a separate credential.
+     * */
+    public Builder rateLimit(RateLimitConfig rateLimitConfig) {
+      this.rateLimitConfig = rateLimitConfig;
+      return this;
+    }
+
+    /*
+     * Stop calling an endpoint for a while once too many of its recent calls failed or were slow.
+     * Calls to an open circuit fail fast with CircuitBreakerOpenException, including chat and
+     * workflow streams. See CircuitBreakerConfig for the thresholds.
+     * */
+    public Builder circuitBreaker(CircuitBreakerConfig circuitBreakerConfig) {
+      this.circuitBreakerConfig = circuitBreakerConfig;
+      return this;
+    }
+
+    /*
+     * Send a second copy of slow read calls (the retrieve endpoints by default) and use whichever
+     * answers first. See HedgingConfig for the delay and the hedge budget, and hedgingStats() for
+     * the outcome.
+     * */
+    public Builder hedging(HedgingConfig hedgingConfig) {
+      this.hedgingConfig = hedgingConfig;
+      return this;
+    }
+
+    /*
+     * Let identical GET calls that are in flight at the same time share one round trip, e.g. many
+     * threads retrieving the same bot. Canceling one of them does not affect the others.
+     * */
+    public Builder coalesceRequests(boolean coalesceRequests) {
+      this.coalesceRequests = coalesceRequests;
+      return this;
+    }
+
+    /*
+     * Serve bot, workspace, voice and dataset metadata reads from an in-process cache. Calls of
+     * this client that change one of these resources invalidate its cached entries; changes made
+     * elsewhere are picked up once the TTL expires, or through metadataCache().invalidate.
+     * */
+    public Builder metadataCache(MetadataCacheConfig metadataCacheConfig) {
+      this.metadataCacheConfig = metadataCacheConfig;
+      return this;
+    }
+
+    /*
+     * Send large request bodies of the configured endpoints (chat, document upload and workflow
+     * runs by default) with Content-Encoding: gzip.
+     * */
+    public Builder requestCompression(RequestCompressionConfig requestCompressionConfig) {
+      this.requestCompressionConfig = requestCompressionConfig;
+      return this;
+    }
+
+    /*
+     * Resolve the API and websocket hosts and open pooled connections in the background as soon as
+     * the client is built, and keep them alive for at least WarmupConfig.keepAliveMillis. See
+     * CozeAPI.warmup() for the outcome.
+     * */
+    public Builder warmup(WarmupConfig warmupConfig) {
+      this.warmupConfig = warmupConfig;
+      return this;
+    }
+
+    /*
+     * Schedule calls by BaseReq.priority: HIGH calls start before queued NORMAL and LOW ones, and
+     * LOW calls only get a bounded share of the concurrent calls. Blocking calls wait on the
+     * calling thread, enqueued calls are handed to the dispatcher once they got a slot.
+     * */
+    public Builder priorityLanes(PriorityConfig priorityConfig) {
+      this.priorityConfig = priorityConfig;
+      return this;
+    }
+
+    /*
+     * Adapt the number of in-flight requests to the observed latency. Unary calls and streams are
+     * limited separately, both with the given settings. Calls over the limit fail with
+     * ConcurrencyLimitExceededException; see transportStats() for the current limits.
+     * */
+    public Builder concurrencyLimit(ConcurrencyLimitConfig config) {
+      return concurrencyLimit(config, config);
+    }
+
+    public Builder concurrencyLimit(ConcurrencyLimitConfig unary, ConcurrencyLimitConfig stream) {
+      this.unaryConcurrencyLimit = unary;
+      this.streamConcurrencyLimit = stream;
+      return this;
+    }
+
     public CozeAPI build() {
-      if (this.auth == null) {
+      if (this.auth == null && !this.multiTenant) {
         throw new IllegalArgumentException("auth must be set");
       }
-      if (this.client == null) {
-        this.client =
+      // 与 client 一样用局部变量，build 不修改 Builder 的字段
+      TransportProfile transportProfile = this.transportProfile;
+      if (this.warmupConfig != null && (this.client == null || transportProfile != null)) {
+        transportProfile = warmProfile(transportProfile, this.warmupConfig);
+      }
+      // 装饰后的 client 只用于本次 build，Builder 可以重复 build 而不会叠加拦截器
+      OkHttpClient client = this.client;
+      if (client == null) {
+        client =
             defaultClient(
-                Duration.ofMillis(this.readTimeout), Duration.ofMillis(this.connectTimeout));
+                transportProfile,
+                Duration.ofMillis(this.readTimeout),
+                Duration.ofMillis(this.connectTimeout));
       } else {
-        this.client = parseClient(this.client);
+        client = parseClient(client);
+        if (transportProfile != null) {
+          client = transportProfile.applyTo(client.newBuilder()).build();
+        }
+      }
+      // 缓存放在最前面，命中时不经过重试、熔断和限流
+      MetadataCache metadataCache = null;
+      if (this.metadataCacheConfig != null) {
+        metadataCache = new MetadataCache(this.metadataCacheConfig);
+        client =
+            client.newBuilder().addInterceptor(new MetadataCacheInterceptor(metadataCache)).build();
+      }
+      // 压缩放在重试之前，每个请求只压缩一次
+      GzipRequestInterceptor requestCompression = null;
+      if (this.requestCompressionConfig != null) {
+        requestCompression = new GzipRequestInterceptor(this.requestCompressionConfig);
+        client = client.newBuilder().addInterceptor(requestCompression).build();
+      }
+      if (this.retryPolicy != null && !hasInterceptor(client, RetryInterceptor.class)) {
+        client = client.newBuilder().addInterceptor(new RetryInterceptor(this.retryPolicy)).build();
+      }
+      // 熔断放在重试之后，每次重试都要经过熔断判断，熔断打开后不再重试
+      CircuitBreakerInterceptor circuitBreaker = null;
+      if (this.circuitBreakerConfig != null) {
+        circuitBreaker = new CircuitBreakerInterceptor(this.circuitBreakerConfig);
+        client = client.newBuilder().addInterceptor(circuitBreaker).build();
       }
-      if (this.baseURL == null || this.baseURL.isEmpty()) {
-        this.baseURL = Consts.COZE_COM_BASE_URL;
+      // 放在重试之后，每次重试也需要先拿到 permit
+      if (this.rateLimitConfig != null && !hasInterceptor(client, RateLimitInterceptor.class)) {
+        client =
+            client
+                .newBuilder()
+                .addInterceptor(new RateLimitInterceptor(this.rateLimitConfig, this.auth))
+                .build();
+      }
+      ConcurrencyLimitInterceptor concurrencyLimit = null;
+      if (this.unaryConcurrencyLimit != null && this.streamConcurrencyLimit != null) {
+        concurrencyLimit =
+            new ConcurrencyLimitInterceptor(
+                this.unaryConcurrencyLimit, this.streamConcurrencyLimit);
+        client = client.newBuilder().addInterceptor(concurrencyLimit).build();
+      }
+      // 放在最里层，每次重试都重新选择节点
+      LoadBalancer loadBalancer = null;
+      if (this.baseURLs != null && this.baseURLs.size() > 1) {
+        loadBalancer =
+            new LoadBalancer(
+                this.baseURLs,
+                this.loadBalancerConfig == null
+                    ? LoadBalancerConfig.defaultConfig()
+                    : this.loadBalancerConfig);
+        client =
+            client.newBuilder().addInterceptor(new LoadBalancingInterceptor(loadBalancer)).build();
+      }
+      boolean useVirtualThreads = this.virtualThreads && VirtualThreads.isSupported();
+      if (this.virtualThreads && !useVirtualThreads) {
+        logger.warn("virtual threads require Java 21 or later, fall back to platform threads");
+      }
+      if (useVirtualThreads) {
+        client = client.newBuilder().dispatcher(virtualDispatcher(client.dispatcher())).build();
+      }
+      String baseURL = this.baseURL;
+      if (baseURL == null || baseURL.isEmpty()) {
+        baseURL = Consts.COZE_COM_BASE_URL;
       }
 
-      ObjectMapper mapper = Utils.getMapper();
-      Retrofit retrofit = defaultRetrofit(client, mapper, this.baseURL);
+      JsonCodec codec = JsonCodecs.get();
+      OkHttpClient unaryClient = client;
+      OkHttpClient streamClient = client;
+      Call.Factory callFactory = client;
+      if (this.bulkheadConfig != null) {
+        BulkheadCallFactory bulkhead = BulkheadCallFactory.create(client, this.bulkheadConfig);
+        unaryClient = bulkhead.unaryClient();
+        streamClient = bulkhead.streamClient();
+        callFactory = bulkhead;
+      }
+      // 对冲的请求同样要按优先级排队
+      PriorityCallFactory priorityLanes = null;
+      if (this.priorityConfig != null) {
+        priorityLanes = new PriorityCallFactory(callFactory, this.priorityConfig);
+        callFactory = priorityLanes;
+        int maxConcurrent = priorityLanes.stats().getMaxConcurrent();
+        if (maxConcurrent < this.priorityConfig.getMaxConcurrent()) {
+          logger.warn(
+              "priority lanes run at most {} calls at once, the dispatcher limit; raise"
+                  + " maxRequestsPerHost to allow maxConcurrent={}",
+              maxConcurrent,
+              this.priorityConfig.getMaxConcurrent());
+        }
+      }
+      HedgingCallFactory hedging = null;
+      if (this.hedgingConfig != null) {
+        hedging = new HedgingCallFactory(callFactory, this.hedgingConfig);
+        callFactory = hedging;
+      }
+      // 合并放在最外层，合并后的请求只对冲一次
+      if (this.coalesceRequests) {
+        callFactory = new CoalescingCallFactory(callFactory);
+      }
+      if (loadBalancer != null) {
+        loadBalancer.startHealthCheck(unaryClient);
+      }
+      Retrofit retrofit =
+          defaultRetrofit(
+              callFactory, codec, baseURL, this.eagerServices, this.streamingRequestBodies);
       ExecutorService executorService = client.dispatcher().executorService();
-      WorkspaceService workspaceAPI = new WorkspaceService(retrofit.create(WorkspaceAPI.class));
-      BotService botAPI = new BotService(retrofit.create(BotAPI.class));
-      ConversationService conversationAPI =
-          new ConversationService(
-              retrofit.create(ConversationAPI.class),
-              retrofit.create(ConversationMessageAPI.class));
-      FileService fileAPI = new FileService(retrofit.create(FileAPI.class));
-      DatasetService knowledgeAPI =
-          new DatasetService(
-              retrofit.create(DatasetAPI.class),
-              retrofit.create(DatasetDocumentAPI.class),
-              retrofit.create(DatasetImageAPI.class));
-      WorkflowService workflowAPI =
-          new WorkflowService(
-              retrofit.create(WorkflowRunAPI.class),
-              retrofit.create(WorkflowRunHistoryAPI.class),
-              retrofit.create(WorkflowChatAPI.class));
-      ChatService chatAPI =
-          new ChatService(retrofit.create(ChatAPI.class), retrofit.create(ChatMessageAPI.class));
-      AudioService audioAPI =
-          new AudioService(
-              retrofit.create(AudioVoiceAPI.class),
-              retrofit.create(AudioRoomAPI.class),
-              retrofit.create(AudioSpeechAPI.class),
-              retrofit.create(AudioTranscriptionAPI.class));
-      TemplateService templateAPI = new TemplateService(retrofit.create(TemplateAPI.class));
-      WebsocketsClient websocket =
-          new WebsocketsClient(
-              this.client, Strings.replace(this.baseURL, "https://api", "wss://ws"));
-      return new CozeAPI(
-          this.baseURL,
-          executorService,
-          this.auth,
-          workspaceAPI,
-          botAPI,
-          conversationAPI,
-          fileAPI,
-          knowledgeAPI,
-          workflowAPI,
-          chatAPI,
-          audioAPI,
-          templateAPI,
-          websocket);
+      boolean ownsStreamExecutor = this.streamExecutor == null;
+      ExecutorService streamExecutor =
+          ownsStreamExecutor ? newStreamExecutor(useVirtualThreads) : this.streamExecutor;
+      // 服务和接口代理在第一次使用时才创建，缩短冷启动时间
+      Lazy<WorkspaceService> workspaceAPI =
+          Lazy.of(() -> new WorkspaceService(retrofit.create(WorkspaceAPI.class)));
+      Lazy<BotService> botAPI = Lazy.of(() -> new BotService(retrofit.create(BotAPI.class)));
+      Lazy<ConversationService> conversationAPI =
+          Lazy.of(
+              () ->
+                  new ConversationService(
+                      retrofit.create(ConversationAPI.class),
+                      retrofit.create(ConversationMessageAPI.class)));
+      Lazy<FileService> fileAPI = Lazy.of(() -> new FileService(retrofit.create(FileAPI.class)));
+      Lazy<DatasetService> knowledgeAPI =
+          Lazy.of(
+              () ->
+                  new DatasetService(
+                      retrofit.create(DatasetAPI.class),
+                      retrofit.create(DatasetDocumentAPI.class),
+                      retrofit.create(DatasetImageAPI.class)));
+      Lazy<WorkflowService> workflowAPI =
+          Lazy.of(
+              () ->
+                  new WorkflowService(
+                      retrofit.create(WorkflowRunAPI.class),
+                      retrofit.create(WorkflowRunHistoryAPI.class),
+                      retrofit.create(WorkflowChatAPI.class),
+                      streamExecutor));
+      Lazy<ChatService> chatAPI =
+          Lazy.of(
+              () ->
+                  new ChatService(
+                      retrofit.create(ChatAPI.class),
+                      retrofit.create(ChatMessageAPI.class),
+                      streamExecutor));
+      Lazy<AudioService> audioAPI =
+          Lazy.of(
+              () ->
+                  new AudioService(
+                      retrofit.create(AudioVoiceAPI.class),
+                      retrofit.create(AudioRoomAPI.class),
+                      retrofit.create(AudioSpeechAPI.class),
+                      retrofit.create(AudioTranscriptionAPI.class)));
+      Lazy<TemplateService> templateAPI =
+          Lazy.of(() -> new TemplateService(retrofit.create(TemplateAPI.class)));
+      String websocketURL = LoadBalancer.websocketURL(baseURL);
+      OkHttpClient websocketClient = streamClient;
+      Lazy<WebsocketsClient> websocket =
+          Lazy.of(
+              () ->
+                  new WebsocketsClient(
+                      websocketClient,
+                      websocketURL,
+                      useVirtualThreads
+                          ? VirtualThreads.threadFactory("coze-websocket")
+                          : Executors.defaultThreadFactory()));
+      CompletableFuture<WarmupReport> warmup;
+      if (this.warmupConfig != null) {
+        TransportWarmer warmer = new TransportWarmer(this.warmupConfig);
+        List<String> urls =
+            this.baseURLs == null ? Collections.singletonList(baseURL) : this.baseURLs;
+        for (String url : urls) {
+          warmer.add(unaryClient, url);
+          if (streamClient != unaryClient) {
+            warmer.add(streamClient, url);
+          }
+          if (this.warmupConfig.isWebsocketHost()) {
+            warmer.addWebsocket(streamClient, LoadBalancer.websocketURL(url));
+          }
+        }
+        warmup = warmer.start();
+      } else {
+        warmup = CompletableFuture.completedFuture(WarmupReport.skipped());
+      }
+      CozeAPI api =
+          new CozeAPI(
+              baseURL,
+              executorService,
+              streamExecutor,
+              ownsStreamExecutor,
+              unaryClient,
+              streamClient,
+              concurrencyLimit,
+              priorityLanes,
+              circuitBreaker,
+              hedging,
+              metadataCache,
+              requestCompression,
+              loadBalancer,
+              warmup,
+              this.auth,
+              workspaceAPI,
+              botAPI,
+              conversationAPI,
+              fileAPI,
+              knowledgeAPI,
+              workflowAPI,
+              chatAPI,
+              audioAPI,
+              templateAPI,
+              websocket,
+              Lazy.of(() -> new AsyncCozeAPI(retrofit)));
+      if (this.eagerServices) {
+        api.initServices();
+        codec.prepare(JsonCodecs.STREAM_TYPES);
+      }
+      return api;
+    }
+
+    private ExecutorService newStreamExecutor(boolean useVirtualThreads) {
+      if (!useVirtualThreads) {
+        return StreamExecutors.newStreamExecutor(
+            this.maxStreamWorkers == null
+                ? StreamExecutors.DEFAULT_MAX_WORKERS
+                : this.maxStreamWorkers);
+      }
+      // 虚拟线程很便宜，默认不限制
+      if (this.maxStreamWorkers != null && this.maxStreamWorkers > 0) {
+        // 仍然限制并发读取的流数量，只是 worker 换成虚拟线程
+        return StreamExecutors.newStreamExecutor(
+            this.maxStreamWorkers, VirtualThreads.threadFactory("coze-stream"));
+      }
+      return VirtualThreads.newExecutor("coze-stream");
+    }
+
+    // 预热的连接至少保留 keepAliveMillis，避免在第一个请求到来之前被回收
+    private static TransportProfile warmProfile(TransportProfile profile, WarmupConfig warmup) {
+      TransportProfile base = profile == null ? TransportProfile.defaults() : profile;
+      if (base.getKeepAliveMillis() >= warmup.getKeepAliveMillis()
+          && base.getMaxIdleConnections() >= warmup.getConnections()) {
+        return base;
+      }
+      return base.toBuilder()
+          .keepAliveMillis(Math.max(base.getKeepAliveMillis(), warmup.getKeepAliveMillis()))
+          .maxIdleConnections(Math.max(base.getMaxIdleConnections(), warmup.getConnections()))
+          .build();
+    }
+
+    // 保留原 dispatcher 的并发限制，只替换执行线程
+    private static Dispatcher virtualDispatcher(Dispatcher origin) {
+      Dispatcher dispatcher = new Dispatcher(VirtualThreads.newExecutor("coze-dispatcher"));
+      dispatcher.setMaxRequests(origin.getMaxRequests());
+      dispatcher.setMaxRequestsPerHost(origin.getMaxRequestsPerHost());
+      return dispatcher;
+    }
+
+    private static boolean hasInterceptor(OkHttpClient client, Class<?> type) {
+      for (Interceptor interceptor : client.interceptors()) {
+        if (type.isInstance(interceptor)) {
+          return true;
+        }
+      }
+      return false;
     }
 
     // 确保加上了 Auth 拦截器
@@ -229,6 +877,9 @@ public class CozeAPI {
       boolean hasTimeoutInterceptor = false;
       boolean hasUserAgentInterceptor = false;
       for (Interceptor interceptor : client.interceptors()) {
+        if (interceptor instanceof RequestDecorationInterceptor) {
+          return client;
+        }
         if (interceptor instanceof AuthenticationInterceptor) {
           hasAuthInterceptor = true;
         }
@@ -243,6 +894,9 @@ public class CozeAPI {
         return client;
       }
       OkHttpClient.Builder builder = client.newBuilder();
+      if (!hasAuthInterceptor && !hasTimeoutInterceptor && !hasUserAgentInterceptor) {
+        return builder.addInterceptor(new RequestDecorationInterceptor(this.auth)).build();
+      }
       if (!hasAuthInterceptor) {
         builder.addInterceptor(new AuthenticationInterceptor(this.auth));
       }
@@ -255,22 +909,30 @@ public class CozeAPI {
       return builder.build();
     }
 
-    private OkHttpClient defaultClient(Duration readTimeout, Duration connectTimeout) {
-      return new OkHttpClient.Builder()
-          .connectionPool(new ConnectionPool(5, 1, TimeUnit.SECONDS))
+    private OkHttpClient defaultClient(
+        TransportProfile transportProfile, Duration readTimeout, Duration connectTimeout) {
+      TransportProfile profile =
+          transportProfile == null ? TransportProfile.defaults() : transportProfile;
+      return profile
+          .applyTo(new OkHttpClient.Builder())
           .readTimeout(readTimeout.toMillis(), TimeUnit.MILLISECONDS)
           .connectTimeout(connectTimeout.toMillis(), TimeUnit.MILLISECONDS)
-          .addInterceptor(new AuthenticationInterceptor(this.auth)) // 添加拦截器，在请求头中增加 token
-          .addInterceptor(new TimeoutInterceptor()) // 添加拦截器，设置超时时间
-          .addInterceptor(new UserAgentInterceptor()) // 添加拦截器，设置 user-agent
+          // 在请求头中增加 token 和 user-agent，并设置超时时间
+          .addInterceptor(new RequestDecorationInterceptor(this.auth))
           .build();
     }
 
-    private Retrofit defaultRetrofit(OkHttpClient client, ObjectMapper mapper, String baseURL) {
+    private Retrofit defaultRetrofit(
+        Call.Factory callFactory,
+        JsonCodec codec,
+        String baseURL,
+        boolean validateEagerly,
+        boolean streamingRequestBodies) {
       return new Retrofit.Builder()
           .baseUrl(baseURL)
-          .client(client)
-          .addConverterFactory(JacksonConverterFactory.create(mapper))
+          .validateEagerly(validateEagerly)
+          .callFactory(callFactory)
+          .addConverterFactory(JsonCodecConverterFactory.create(codec, streamingRequestBodies))
           .addCallAdapterFactory(APIResponseCallAdapterFactory.create())
           .build();
     }
@@ -0,0 +1,40 @@
+package com.coze.openapi.service.service;
+
+import java.io.IOException;
+
+import com.coze.openapi.service.auth.Auth;
+import com.coze.openapi.service.utils.UserAgentInterceptor;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/*
+ * The default first stage of every call: adds the Authorization and user agent headers in a
+ * single copy of the request, then applies the per-call timeouts and deadline. Does the same as
+ * AuthenticationInterceptor, UserAgentInterceptor and TimeoutInterceptor in a row.
+ *
+ * The user agent headers are computed once per process and the Authorization value is reused
+ * until the token changes, so decorating a call allocates little more than the new request.
+ * */
+public class RequestDecorationInterceptor implements Interceptor {
+  private final AuthenticationInterceptor authentication;
+  private final TimeoutInterceptor timeouts = new TimeoutInterceptor();
+
+  public RequestDecorationInterceptor(Auth auth) {
+    this.authentication = new AuthenticationInterceptor(auth);
+  }
+
+  @Override
+  public Response intercept(Chain chain) throws IOException {
+    Request request = chain.request();
+    Request decorated =
+        request
+            .newBuilder()
+            .header("Authorization", authentication.authorization(request))
+            .header("User-Agent", UserAgentInterceptor.USER_AGENT)
+            .header("X-Coze-Client-User-Agent", UserAgentInterceptor.CLIENT_USER_AGENT)
+            .build();
+    return timeouts.proceed(chain, decorated);
+  }
+}
@@ -1,20 +1,50 @@
 package com.coze.openapi.service.service;
 
 import java.io.IOException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 import com.coze.openapi.client.common.BaseReq;
+import com.coze.openapi.client.common.Deadline;
+import com.coze.openapi.service.service.common.DeadlineExceededException;
+import com.coze.openapi.service.service.common.StreamExecutors;
 
+import okhttp3.Call;
 import okhttp3.Interceptor;
+import okhttp3.MediaType;
 import okhttp3.Request;
 import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
 
 public class TimeoutInterceptor implements Interceptor {
 
+  private static final class TimerHolder {
+    static final ScheduledThreadPoolExecutor timer = newTimer();
+
+    private static ScheduledThreadPoolExecutor newTimer() {
+      ScheduledThreadPoolExecutor timer =
+          new ScheduledThreadPoolExecutor(1, StreamExecutors.threadFactory("coze-deadline"));
+      // 大多数请求在截止时间之前完成，及时移除已取消的定时任务
+      timer.setRemoveOnCancelPolicy(true);
+      return timer;
+    }
+  }
+
   @Override
   public Response intercept(Chain chain) throws IOException {
-    Request request = chain.request();
+    return proceed(chain, chain.request());
+  }
 
+  /*
+   * Apply the timeouts and deadline of request and proceed with it, for interceptors that decorate
+   * the request before.
+   * */
+  Response proceed(Chain chain, Request request) throws IOException {
     // 从请求中获取 BaseReq 对象
     Object tag = request.tag(BaseReq.class);
     if (!(tag instanceof BaseReq)) {
@@ -35,6 +65,111 @@ public class TimeoutInterceptor implements Interceptor {
       newChain = newChain.withWriteTimeout(baseReq.getWriteTimeout(), TimeUnit.MILLISECONDS);
     }
 
-    return newChain.proceed(request);
+    Deadline deadline = baseReq.getDeadline();
+    if (deadline == null) {
+      return newChain.proceed(request);
+    }
+    return proceedWithin(newChain, request, deadline);
+  }
+
+  /*
+   * Cap the per-attempt timeouts to the time left and cancel the call when the deadline passes,
+   * including while the response body is being read.
+   * */
+  private static Response proceedWithin(Chain chain, Request request, Deadline deadline)
+      throws IOException {
+    // 向上取整，超时和取消都不会早于截止时间触发，否则失败不会被识别为 DeadlineExceededException
+    long remaining =
+        TimeUnit.NANOSECONDS.toMillis(deadline.remaining(TimeUnit.NANOSECONDS) + 999_999);
+    if (remaining <= 0) {
+      throw new DeadlineExceededException("deadline exceeded before sending " + request.url());
+    }
+    chain =
+        chain
+            .withConnectTimeout(cap(chain.connectTimeoutMillis(), remaining), TimeUnit.MILLISECONDS)
+            .withReadTimeout(cap(chain.readTimeoutMillis(), remaining), TimeUnit.MILLISECONDS)
+            .withWriteTimeout(cap(chain.writeTimeoutMillis(), remaining), TimeUnit.MILLISECONDS);
+
+    Call call = chain.call();
+    ScheduledFuture<?> expiry =
+        TimerHolder.timer.schedule(call::cancel, remaining, TimeUnit.MILLISECONDS);
+    Response response;
+    try {
+      response = chain.proceed(request);
+    } catch (IOException e) {
+      expiry.cancel(false);
+      throw translate(e, expired(deadline, expiry), request);
+    }
+    if (response.body() == null) {
+      expiry.cancel(false);
+      return response;
+    }
+    return response
+        .newBuilder()
+        .body(new DeadlineBody(response.body(), deadline, expiry, request))
+        .build();
+  }
+
+  private static int cap(int timeoutMillis, long remaining) {
+    // 0 表示不限制超时
+    if (timeoutMillis > 0 && timeoutMillis <= remaining) {
+      return timeoutMillis;
+    }
+    return (int) Math.min(remaining, Integer.MAX_VALUE);
+  }
+
+  // 定时器已经执行过，说明这次调用是被截止时间取消的
+  private static boolean expired(Deadline deadline, ScheduledFuture<?> expiry) {
+    return deadline.isExpired() || (expiry.isDone() && !expiry.isCancelled());
+  }
+
+  private static IOException translate(IOException e, boolean expired, Request request) {
+    if (e instanceof DeadlineExceededException || !expired) {
+      return e;
+    }
+    return new DeadlineExceededException("deadline exceeded while calling " + request.url(), e);
+  }
+
+  private static final class DeadlineBody extends ResponseBody {
+    private final ResponseBody delegate;
+    private final BufferedSource source;
+
+    DeadlineBody(
+        ResponseBody delegate, Deadline deadline, ScheduledFuture<?> expiry, Request request) {
+      this.delegate = delegate;
+      this.source =
+          Okio.buffer(
+              new ForwardingSource(delegate.source()) {
+                @Override
+                public long read(Buffer sink, long byteCount) throws IOException {
+                  try {
+                    return super.read(sink, byteCount);
+                  } catch (IOException e) {
+                    throw translate(e, expired(deadline, expiry), request);
+                  }
+                }
+
+                @Override
+                public void close() throws IOException {
+                  expiry.cancel(false);
+                  super.close();
+                }
+              });
+    }
+
+    @Override
+    public MediaType contentType() {
+      return delegate.contentType();
+    }
+
+    @Override
+    public long contentLength() {
+      return delegate.contentLength();
+    }
+
+    @Override
+    public BufferedSource source() {
+      return source;
+    }
   }
 }
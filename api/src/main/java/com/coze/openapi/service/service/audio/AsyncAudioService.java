@@ -0,0 +1,40 @@
+package com.coze.openapi.service.service.audio;
+
+import com.coze.openapi.api.AudioRoomAPI;
+import com.coze.openapi.api.AudioSpeechAPI;
+import com.coze.openapi.api.AudioTranscriptionAPI;
+import com.coze.openapi.api.AudioVoiceAPI;
+
+public class AsyncAudioService {
+  private final AsyncVoiceService voiceAPI;
+  private final AsyncRoomService roomAPI;
+  private final AsyncSpeechService speechAPI;
+  private final AsyncTranscriptionService transcriptionAPI;
+
+  public AsyncAudioService(
+      AudioVoiceAPI voiceAPI,
+      AudioRoomAPI roomAPI,
+      AudioSpeechAPI speechAPI,
+      AudioTranscriptionAPI transcriptionAPI) {
+    this.voiceAPI = new AsyncVoiceService(voiceAPI);
+    this.roomAPI = new AsyncRoomService(roomAPI);
+    this.speechAPI = new AsyncSpeechService(speechAPI);
+    this.transcriptionAPI = new AsyncTranscriptionService(transcriptionAPI);
+  }
+
+  public AsyncVoiceService voices() {
+    return this.voiceAPI;
+  }
+
+  public AsyncRoomService rooms() {
+    return this.roomAPI;
+  }
+
+  public AsyncSpeechService speech() {
+    return this.speechAPI;
+  }
+
+  public AsyncTranscriptionService transcription() {
+    return this.transcriptionAPI;
+  }
+}
@@ -0,0 +1,26 @@
+package com.coze.openapi.service.service.audio;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.coze.openapi.api.AudioRoomAPI;
+import com.coze.openapi.client.audio.rooms.CreateRoomReq;
+import com.coze.openapi.client.audio.rooms.CreateRoomResp;
+import com.coze.openapi.service.utils.Utils;
+
+public class AsyncRoomService {
+  private final AudioRoomAPI roomApi;
+
+  public AsyncRoomService(AudioRoomAPI roomApi) {
+    this.roomApi = roomApi;
+  }
+
+  public CompletableFuture<CreateRoomResp> create(CreateRoomReq req) {
+    return Utils.executeAsync(
+        roomApi.create(req, req),
+        resp -> {
+          CreateRoomResp data = resp.getData();
+          data.setLogID(resp.getLogID());
+          return data;
+        });
+  }
+}
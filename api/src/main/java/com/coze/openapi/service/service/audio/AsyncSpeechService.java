@@ -0,0 +1,26 @@
+package com.coze.openapi.service.service.audio;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.coze.openapi.api.AudioSpeechAPI;
+import com.coze.openapi.client.audio.speech.CreateSpeechReq;
+import com.coze.openapi.client.audio.speech.CreateSpeechResp;
+import com.coze.openapi.service.utils.Utils;
+
+public class AsyncSpeechService {
+  private final AudioSpeechAPI api;
+
+  public AsyncSpeechService(AudioSpeechAPI api) {
+    this.api = api;
+  }
+
+  public CompletableFuture<CreateSpeechResp> create(CreateSpeechReq req) {
+    return Utils.executeRawAsync(
+        api.create(req, req),
+        response -> {
+          CreateSpeechResp resp = new CreateSpeechResp(response.body());
+          resp.setLogID(Utils.getLogID(response));
+          return resp;
+        });
+  }
+}
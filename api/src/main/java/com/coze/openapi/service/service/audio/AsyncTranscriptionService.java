@@ -0,0 +1,26 @@
+package com.coze.openapi.service.service.audio;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.coze.openapi.api.AudioTranscriptionAPI;
+import com.coze.openapi.client.audio.transcriptions.CreateTranscriptionsReq;
+import com.coze.openapi.client.audio.transcriptions.CreateTranscriptionsResp;
+import com.coze.openapi.service.utils.Utils;
+
+public class AsyncTranscriptionService {
+  private final AudioTranscriptionAPI transcriptionAPI;
+
+  public AsyncTranscriptionService(AudioTranscriptionAPI transcriptionAPI) {
+    this.transcriptionAPI = transcriptionAPI;
+  }
+
+  public CompletableFuture<CreateTranscriptionsResp> create(CreateTranscriptionsReq req) {
+    return Utils.executeAsync(
+        transcriptionAPI.create(TranscriptionService.filePart(req), req),
+        resp -> {
+          CreateTranscriptionsResp data = resp.getData();
+          data.setLogID(resp.getLogID());
+          return data;
+        });
+  }
+}
@@ -0,0 +1,54 @@
+package com.coze.openapi.service.service.audio;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.coze.openapi.api.AudioVoiceAPI;
+import com.coze.openapi.client.audio.voices.CloneVoiceReq;
+import com.coze.openapi.client.audio.voices.CloneVoiceResp;
+import com.coze.openapi.client.audio.voices.ListVoiceReq;
+import com.coze.openapi.client.audio.voices.model.Voice;
+import com.coze.openapi.client.common.pagination.LazyIterator;
+import com.coze.openapi.client.common.pagination.PageFetcher;
+import com.coze.openapi.client.common.pagination.PageNumBasedPaginator;
+import com.coze.openapi.client.common.pagination.PageRequest;
+import com.coze.openapi.client.common.pagination.PageResp;
+import com.coze.openapi.client.common.pagination.PageResponse;
+import com.coze.openapi.service.utils.Utils;
+
+public class AsyncVoiceService {
+  private final AudioVoiceAPI api;
+  private final VoiceService voiceService;
+
+  public AsyncVoiceService(AudioVoiceAPI api) {
+    this.api = api;
+    this.voiceService = new VoiceService(api);
+  }
+
+  public CompletableFuture<CloneVoiceResp> clone(CloneVoiceReq req) {
+    return Utils.executeAsync(voiceService.cloneCall(req), resp -> resp.getData());
+  }
+
+  public CompletableFuture<PageResp<Voice>> list(ListVoiceReq req) {
+    if (req == null) {
+      throw new IllegalArgumentException("req is required");
+    }
+
+    Integer pageNum = req.getPageNum();
+    Integer pageSize = req.getPageSize();
+    PageFetcher<Voice> pageFetcher = voiceService.pageFetcher(req);
+    PageRequest initialRequest = PageRequest.builder().pageNum(pageNum).pageSize(pageSize).build();
+
+    return Utils.executeAsync(
+        api.list(req.getFilterSystemVoice(), pageNum, pageSize, req),
+        resp -> {
+          PageResponse<Voice> firstPage = VoiceService.toPage(resp.getData(), initialRequest);
+          return PageResp.<Voice>builder()
+              .items(firstPage.getData())
+              .iterator(
+                  new LazyIterator<>(() -> new PageNumBasedPaginator<>(pageFetcher, pageSize)))
+              .hasMore(firstPage.isHasMore())
+              .logID(firstPage.getLogID())
+              .build();
+        });
+  }
+}
@@ -5,7 +5,6 @@ import java.io.File;
 import com.coze.openapi.api.AudioTranscriptionAPI;
 import com.coze.openapi.client.audio.transcriptions.CreateTranscriptionsReq;
 import com.coze.openapi.client.audio.transcriptions.CreateTranscriptionsResp;
-import com.coze.openapi.client.common.BaseReq;
 import com.coze.openapi.client.common.BaseResponse;
 import com.coze.openapi.service.utils.Utils;
 
@@ -21,21 +20,29 @@ public class TranscriptionService {
   }
 
   public CreateTranscriptionsResp create(CreateTranscriptionsReq req) {
+    BaseResponse<CreateTranscriptionsResp> resp =
+        Utils.execute(transcriptionAPI.create(filePart(req), req));
+    CreateTranscriptionsResp data = resp.getData();
+    data.setLogID(resp.getLogID());
+    return data;
+  }
+
+  static MultipartBody.Part filePart(CreateTranscriptionsReq req) {
     if (req.getFilePath() != null) {
       File file = new File(req.getFilePath());
-      return uploadFile(file, file.getName(), req);
+      return filePart(file, file.getName());
     }
     if (req.getFileBytes() != null) {
-      return uploadFile(req.getFileBytes(), req.getFileName(), req);
+      return filePart(req.getFileBytes(), req.getFileName());
     }
     if (req.getFile() != null) {
-      return uploadFile(req.getFile(), req.getFileName(), req);
+      return filePart(req.getFile(), req.getFileName());
     }
     throw new IllegalArgumentException("file source is required");
   }
 
   /** Internal unified upload processing method */
-  private CreateTranscriptionsResp uploadFile(Object fileSource, String filename, BaseReq req) {
+  private static MultipartBody.Part filePart(Object fileSource, String filename) {
     RequestBody requestFile;
     if (fileSource instanceof File) {
       MediaType mediaType = MediaType.parse("multipart/form-data");
@@ -45,11 +52,6 @@ public class TranscriptionService {
       requestFile = RequestBody.create(mediaType, (byte[]) fileSource);
     }
 
-    MultipartBody.Part body = MultipartBody.Part.createFormData("file", filename, requestFile);
-
-    BaseResponse<CreateTranscriptionsResp> resp = Utils.execute(transcriptionAPI.create(body, req));
-    CreateTranscriptionsResp data = resp.getData();
-    data.setLogID(resp.getLogID());
-    return data;
+    return MultipartBody.Part.createFormData("file", filename, requestFile);
   }
 }
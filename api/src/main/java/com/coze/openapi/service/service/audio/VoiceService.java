@@ -8,6 +8,7 @@ import com.coze.openapi.client.audio.voices.CloneVoiceResp;
 import com.coze.openapi.client.audio.voices.ListVoiceReq;
 import com.coze.openapi.client.audio.voices.ListVoiceResp;
 import com.coze.openapi.client.audio.voices.model.Voice;
+import com.coze.openapi.client.common.BaseResponse;
 import com.coze.openapi.client.common.pagination.PageFetcher;
 import com.coze.openapi.client.common.pagination.PageNumBasedPaginator;
 import com.coze.openapi.client.common.pagination.PageRequest;
@@ -18,6 +19,7 @@ import com.coze.openapi.service.utils.Utils;
 import okhttp3.MediaType;
 import okhttp3.MultipartBody;
 import okhttp3.RequestBody;
+import retrofit2.Call;
 
 public class VoiceService {
   private final AudioVoiceAPI api;
@@ -27,6 +29,10 @@ public class VoiceService {
   }
 
   public CloneVoiceResp clone(CloneVoiceReq req) {
+    return Utils.execute(cloneCall(req)).getData();
+  }
+
+  Call<BaseResponse<CloneVoiceResp>> cloneCall(CloneVoiceReq req) {
     MediaType textPlainType = MediaType.parse("text/plain");
     RequestBody voiceName = RequestBody.create(textPlainType, req.getVoiceName());
     RequestBody audioFormat = RequestBody.create(textPlainType, req.getAudioFormat().getValue());
@@ -53,9 +59,7 @@ public class VoiceService {
     MultipartBody.Part filePart =
         MultipartBody.Part.createFormData("file", file.getName(), fileBody);
 
-    return Utils.execute(
-            api.clone(filePart, voiceName, audioFormat, language, voiceID, previewText, text, req))
-        .getData();
+    return api.clone(filePart, voiceName, audioFormat, language, voiceID, previewText, text, req);
   }
 
   public PageResp<Voice> list(ListVoiceReq req) {
@@ -65,24 +69,9 @@ public class VoiceService {
 
     Integer pageNum = req.getPageNum();
     Integer pageSize = req.getPageSize();
-    Boolean filterSystemVoice = req.getFilterSystemVoice();
 
     // 创建分页获取器
-    PageFetcher<Voice> pageFetcher =
-        request -> {
-          ListVoiceResp resp =
-              Utils.execute(
-                      api.list(filterSystemVoice, request.getPageNum(), request.getPageSize(), req))
-                  .getData();
-
-          return PageResponse.<Voice>builder()
-              .hasMore(resp.getVoiceList().size() == request.getPageSize())
-              .data(resp.getVoiceList())
-              .pageNum(request.getPageNum())
-              .pageSize(request.getPageSize())
-              .logID(resp.getLogID())
-              .build();
-        };
+    PageFetcher<Voice> pageFetcher = pageFetcher(req);
 
     // 创建分页器
     PageNumBasedPaginator<Voice> paginator = new PageNumBasedPaginator<>(pageFetcher, pageSize);
@@ -99,4 +88,24 @@ public class VoiceService {
         .logID(currentPage.getLogID())
         .build();
   }
+
+  PageFetcher<Voice> pageFetcher(ListVoiceReq req) {
+    Boolean filterSystemVoice = req.getFilterSystemVoice();
+    return request ->
+        toPage(
+            Utils.execute(
+                    api.list(filterSystemVoice, request.getPageNum(), request.getPageSize(), req))
+                .getData(),
+            request);
+  }
+
+  static PageResponse<Voice> toPage(ListVoiceResp resp, PageRequest request) {
+    return PageResponse.<Voice>builder()
+        .hasMore(resp.getVoiceList().size() == request.getPageSize())
+        .data(resp.getVoiceList())
+        .pageNum(request.getPageNum())
+        .pageSize(request.getPageSize())
+        .logID(resp.getLogID())
+        .build();
+  }
 }
@@ -0,0 +1,38 @@
+package com.coze.openapi.service.service.batching;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/*
+ * How DocumentBatcher merges single document calls.
+ *
+ * A batch is sent maxDelayMillis after its first call, or as soon as it holds maxCreateBatch
+ * documents (the create API accepts at most 10) or maxDeleteBatch document IDs. At most
+ * maxConcurrency batches are sent at the same time.
+ *
+ * When the server rejects a batch with a Coze error that is not in transientCodes, for example
+ * because of one invalid document, its calls are sent again one by one so that only the offending
+ * call fails.
+ * */
+@Getter
+@Builder(toBuilder = true)
+@ToString
+public class DocumentBatchConfig {
+  @Builder.Default private long maxDelayMillis = 20;
+  @Builder.Default private int maxCreateBatch = 10;
+  @Builder.Default private int maxDeleteBatch = 100;
+  @Builder.Default private int maxConcurrency = 4;
+
+  @Builder.Default
+  private Set<Integer> transientCodes =
+      new HashSet<>(Arrays.asList(408, 429, 500, 502, 503, 504, 4013, 5000));
+
+  public static DocumentBatchConfig defaultConfig() {
+    return DocumentBatchConfig.builder().build();
+  }
+}
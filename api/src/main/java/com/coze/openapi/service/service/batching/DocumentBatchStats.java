@@ -0,0 +1,18 @@
+package com.coze.openapi.service.service.batching;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/*
+ * Calls given to a DocumentBatcher and the requests it sent for them.
+ * */
+@Getter
+@Builder
+@ToString
+public class DocumentBatchStats {
+  private final long calls;
+  private final long requests;
+  /* Rejected batches that were split into single calls. */
+  private final long splits;
+}
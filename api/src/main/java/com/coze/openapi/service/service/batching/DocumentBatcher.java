@@ -0,0 +1,343 @@
+package com.coze.openapi.service.service.batching;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.coze.openapi.client.common.BaseReq;
+import com.coze.openapi.client.dataset.document.CreateDocumentReq;
+import com.coze.openapi.client.dataset.document.CreateDocumentResp;
+import com.coze.openapi.client.dataset.document.DeleteDocumentReq;
+import com.coze.openapi.client.dataset.document.DeleteDocumentResp;
+import com.coze.openapi.client.dataset.document.model.Document;
+import com.coze.openapi.client.dataset.document.model.DocumentBase;
+import com.coze.openapi.client.exception.CozeApiException;
+import com.coze.openapi.service.auth.Auth;
+import com.coze.openapi.service.service.common.StreamExecutors;
+import com.coze.openapi.service.service.dataset.DocumentService;
+import com.coze.openapi.service.utils.Utils;
+
+/*
+ * Merges single document create and delete calls into batched requests, see DocumentBatchConfig.
+ *
+ * Creates are merged when they go to the same dataset with the same chunk strategy and format
+ * type; each caller gets the documents created for its own document bases. When the response does
+ * not list one document per document base they cannot be told apart, and every call of the batch
+ * fails with IllegalStateException (the documents were created, so the calls are not resent one
+ * by one).
+ *
+ * Deletes carry no dataset, document IDs of any dataset are merged into one request.
+ *
+ * Calls with per-call options (Auth, Deadline, timeouts or priority on BaseReq) are sent on their
+ * own, since a merged request can only carry the options of one of them.
+ * */
+public class DocumentBatcher implements Closeable {
+  private static final String DELETE_KEY = "delete";
+
+  private final DocumentService documents;
+  private final DocumentBatchConfig config;
+  private final ScheduledExecutorService timer;
+  private final ExecutorService sender;
+  private final Map<String, Batch<?, ?>> open = new HashMap<>();
+  private final AtomicLong calls = new AtomicLong();
+  private final AtomicLong requests = new AtomicLong();
+  private final AtomicLong splits = new AtomicLong();
+  private boolean closed;
+
+  public DocumentBatcher(DocumentService documents, DocumentBatchConfig config) {
+    this.documents = documents;
+    this.config = config;
+    this.timer =
+        Executors.newSingleThreadScheduledExecutor(
+            StreamExecutors.threadFactory("coze-batch-timer"));
+    this.sender =
+        Executors.newFixedThreadPool(
+            config.getMaxConcurrency(), StreamExecutors.threadFactory("coze-batch"));
+  }
+
+  public CompletableFuture<CreateDocumentResp> create(CreateDocumentReq req) {
+    String key =
+        "create "
+            + req.getDatasetID()
+            + " "
+            + Utils.toJson(req.getChunkStrategy())
+            + " "
+            + Utils.toJson(req.getFormatType());
+    return submit(
+        key, req, req.getDocumentBases().size(), config.getMaxCreateBatch(), CreateBatch::new);
+  }
+
+  public CompletableFuture<DeleteDocumentResp> delete(DeleteDocumentReq req) {
+    return submit(
+        DELETE_KEY, req, req.getDocumentIDs().size(), config.getMaxDeleteBatch(), DeleteBatch::new);
+  }
+
+  /*
+   * Send every open batch now instead of waiting for its delay.
+   * */
+  public synchronized void flush() {
+    for (Batch<?, ?> batch : new ArrayList<>(open.values())) {
+      dispatch(batch);
+    }
+  }
+
+  public DocumentBatchStats stats() {
+    return DocumentBatchStats.builder()
+        .calls(calls.get())
+        .requests(requests.get())
+        .splits(splits.get())
+        .build();
+  }
+
+  /*
+   * Send the open batches and stop accepting calls. Batches already handed to the sender finish.
+   * */
+  @Override
+  public void close() {
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      flush();
+      closed = true;
+    }
+    timer.shutdownNow();
+    sender.shutdown();
+  }
+
+  private <Q extends BaseReq, R> CompletableFuture<R> submit(
+      String key, Q req, int size, int maxSize, BatchFactory<Q, R> factory) {
+    calls.incrementAndGet();
+    CompletableFuture<R> future = new CompletableFuture<>();
+    synchronized (this) {
+      if (closed) {
+        throw new IllegalStateException("batcher is closed");
+      }
+      if (!isBatchable(req) || size >= maxSize) {
+        Batch<Q, R> single = factory.create(this, "");
+        single.add(req, size, future);
+        send(single);
+        return future;
+      }
+      @SuppressWarnings("unchecked")
+      Batch<Q, R> batch = (Batch<Q, R>) open.get(key);
+      if (batch != null && batch.size + size > maxSize) {
+        dispatch(batch);
+        batch = null;
+      }
+      if (batch == null) {
+        Batch<Q, R> created = factory.create(this, key);
+        created.timer =
+            timer.schedule(
+                () -> expire(created), config.getMaxDelayMillis(), TimeUnit.MILLISECONDS);
+        open.put(key, created);
+        batch = created;
+      }
+      batch.add(req, size, future);
+      if (batch.size >= maxSize) {
+        dispatch(batch);
+      }
+    }
+    return future;
+  }
+
+  private static boolean isBatchable(BaseReq req) {
+    return Auth.of(req) == null
+        && req.getDeadline() == null
+        && req.getPriority() == null
+        && req.getConnectTimeout() == null
+        && req.getReadTimeout() == null
+        && req.getWriteTimeout() == null;
+  }
+
+  private synchronized void expire(Batch<?, ?> batch) {
+    if (open.get(batch.key) == batch) {
+      dispatch(batch);
+    }
+  }
+
+  // 调用方持有 this 的锁
+  private void dispatch(Batch<?, ?> batch) {
+    open.remove(batch.key, batch);
+    if (batch.timer != null) {
+      batch.timer.cancel(false);
+    }
+    send(batch);
+  }
+
+  private void send(Batch<?, ?> batch) {
+    sender.execute(batch::send);
+  }
+
+  boolean isSplittable(RuntimeException error) {
+    for (Throwable t = error; t != null; t = t.getCause()) {
+      if (t instanceof IOException) {
+        return false;
+      }
+      if (t instanceof CozeApiException) {
+        return !config.getTransientCodes().contains(((CozeApiException) t).getCode());
+      }
+    }
+    return false;
+  }
+
+  private interface BatchFactory<Q extends BaseReq, R> {
+    Batch<Q, R> create(DocumentBatcher batcher, String key);
+  }
+
+  /*
+   * Calls merged into one request. size counts document bases or document IDs.
+   * */
+  private abstract static class Batch<Q extends BaseReq, R> {
+    final DocumentBatcher batcher;
+    final String key;
+    final List<Q> calls = new ArrayList<>();
+    final List<CompletableFuture<R>> futures = new ArrayList<>();
+    int size;
+    ScheduledFuture<?> timer;
+
+    Batch(DocumentBatcher batcher, String key) {
+      this.batcher = batcher;
+      this.key = key;
+    }
+
+    void add(Q req, int size, CompletableFuture<R> future) {
+      this.calls.add(req);
+      this.futures.add(future);
+      this.size += size;
+    }
+
+    /* Send the merged request and return the result of every call, in order. */
+    abstract List<R> sendMerged();
+
+    abstract R sendOne(Q req);
+
+    void send() {
+      batcher.requests.incrementAndGet();
+      try {
+        List<R> results = calls.size() == 1 ? single() : sendMerged();
+        for (int i = 0; i < futures.size(); i++) {
+          futures.get(i).complete(results.get(i));
+        }
+      } catch (RuntimeException e) {
+        if (calls.size() > 1 && batcher.isSplittable(e)) {
+          // 整批被拒绝时逐个重发，只让出错的调用失败
+          batcher.splits.incrementAndGet();
+          splitAndSend();
+          return;
+        }
+        futures.forEach(future -> future.completeExceptionally(e));
+      }
+    }
+
+    private List<R> single() {
+      List<R> results = new ArrayList<>();
+      results.add(sendOne(calls.get(0)));
+      return results;
+    }
+
+    private void splitAndSend() {
+      for (int i = 0; i < calls.size(); i++) {
+        batcher.requests.incrementAndGet();
+        try {
+          futures.get(i).complete(sendOne(calls.get(i)));
+        } catch (RuntimeException e) {
+          futures.get(i).completeExceptionally(e);
+        }
+      }
+    }
+  }
+
+  private static final class CreateBatch extends Batch<CreateDocumentReq, CreateDocumentResp> {
+    CreateBatch(DocumentBatcher batcher, String key) {
+      super(batcher, key);
+    }
+
+    @Override
+    CreateDocumentResp sendOne(CreateDocumentReq req) {
+      return batcher.documents.create(req);
+    }
+
+    @Override
+    List<CreateDocumentResp> sendMerged() {
+      CreateDocumentReq first = calls.get(0);
+      List<DocumentBase> bases = new ArrayList<>();
+      for (CreateDocumentReq req : calls) {
+        bases.addAll(req.getDocumentBases());
+      }
+      CreateDocumentResp resp =
+          batcher.documents.create(
+              CreateDocumentReq.builder()
+                  .datasetID(first.getDatasetID())
+                  .documentBases(bases)
+                  .chunkStrategy(first.getChunkStrategy())
+                  .formatType(first.getFormatType())
+                  .build());
+
+      List<Document> documents = resp.getDocumentInfos();
+      // 服务端按 document_bases 的顺序返回。数量对不上时无法分给各个调用方，也不能逐个重发
+      // （文档已经创建，重发会重复创建），只能让整批失败，不把别人的文档交给调用方
+      if (documents == null || documents.size() != bases.size()) {
+        throw new IllegalStateException(
+            "merged create returned "
+                + (documents == null ? 0 : documents.size())
+                + " documents for "
+                + bases.size()
+                + " document bases, they cannot be assigned to the calls, log id "
+                + resp.getLogID());
+      }
+      List<CreateDocumentResp> results = new ArrayList<>();
+      int offset = 0;
+      for (CreateDocumentReq req : calls) {
+        int count = req.getDocumentBases().size();
+        results.add(
+            CreateDocumentResp.builder()
+                .code(resp.getCode())
+                .msg(resp.getMsg())
+                .detail(resp.getDetail())
+                .logID(resp.getLogID())
+                .documentInfos(new ArrayList<>(documents.subList(offset, offset + count)))
+                .build());
+        offset += count;
+      }
+      return results;
+    }
+  }
+
+  private static final class DeleteBatch extends Batch<DeleteDocumentReq, DeleteDocumentResp> {
+    DeleteBatch(DocumentBatcher batcher, String key) {
+      super(batcher, key);
+    }
+
+    @Override
+    DeleteDocumentResp sendOne(DeleteDocumentReq req) {
+      return batcher.documents.delete(req);
+    }
+
+    @Override
+    List<DeleteDocumentResp> sendMerged() {
+      List<Long> documentIDs = new ArrayList<>();
+      for (DeleteDocumentReq req : calls) {
+        documentIDs.addAll(req.getDocumentIDs());
+      }
+      DeleteDocumentResp resp =
+          batcher.documents.delete(DeleteDocumentReq.builder().documentIDs(documentIDs).build());
+
+      List<DeleteDocumentResp> results = new ArrayList<>();
+      for (int i = 0; i < calls.size(); i++) {
+        results.add(DeleteDocumentResp.builder().logID(resp.getLogID()).build());
+      }
+      return results;
+    }
+  }
+}
@@ -0,0 +1,73 @@
+package com.coze.openapi.service.service.bots;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.coze.openapi.api.BotAPI;
+import com.coze.openapi.client.bots.*;
+import com.coze.openapi.client.bots.model.SimpleBot;
+import com.coze.openapi.client.common.pagination.LazyIterator;
+import com.coze.openapi.client.common.pagination.PageFetcher;
+import com.coze.openapi.client.common.pagination.PageNumBasedPaginator;
+import com.coze.openapi.client.common.pagination.PageRequest;
+import com.coze.openapi.client.common.pagination.PageResp;
+import com.coze.openapi.client.common.pagination.PageResponse;
+import com.coze.openapi.service.utils.Utils;
+
+public class AsyncBotService {
+
+  private final BotAPI api;
+  private final BotService botService;
+
+  public AsyncBotService(BotAPI api) {
+    this.api = api;
+    this.botService = new BotService(api);
+  }
+
+  /*
+   * The first page is fetched asynchronously; iterating past it fetches the following pages
+   * synchronously, like BotService.list.
+   * */
+  public CompletableFuture<PageResp<SimpleBot>> list(ListBotReq req) {
+    if (req == null) {
+      throw new IllegalArgumentException("req is required");
+    }
+
+    Integer pageNum = req.getPageNum() == null ? 1 : req.getPageNum();
+    Integer pageSize = req.getPageSize() == null ? 20 : req.getPageSize();
+    PageFetcher<SimpleBot> pageFetcher = botService.getSimpleBotPageFetcher(req);
+    PageRequest initialRequest = PageRequest.builder().pageNum(pageNum).pageSize(pageSize).build();
+
+    return Utils.executeAsync(
+        api.list(req.getSpaceID(), pageNum, pageSize, req),
+        resp -> {
+          PageResponse<SimpleBot> firstPage = BotService.toPage(resp, initialRequest);
+          return PageResp.<SimpleBot>builder()
+              .total(firstPage.getTotal())
+              .items(firstPage.getData())
+              .iterator(
+                  new LazyIterator<>(() -> new PageNumBasedPaginator<>(pageFetcher, pageSize)))
+              .logID(firstPage.getLogID())
+              .hasMore(firstPage.isHasMore())
+              .build();
+        });
+  }
+
+  public CompletableFuture<RetrieveBotResp> retrieve(RetrieveBotReq req) {
+    return Utils.executeAsync(
+        api.retrieve(req.getBotID(), req),
+        resp -> RetrieveBotResp.builder().bot(resp.getData()).logID(resp.getLogID()).build());
+  }
+
+  public CompletableFuture<CreateBotResp> create(CreateBotReq req) {
+    return Utils.executeAsync(api.create(req, req), resp -> resp.getData());
+  }
+
+  public CompletableFuture<UpdateBotResp> update(UpdateBotReq req) {
+    return Utils.executeAsync(
+        api.update(req, req), resp -> UpdateBotResp.builder().logID(resp.getLogID()).build());
+  }
+
+  public CompletableFuture<PublishBotResp> publish(PublishBotReq req) {
+    return Utils.executeAsync(api.publish(req, req), resp -> resp.getData());
+  }
+}
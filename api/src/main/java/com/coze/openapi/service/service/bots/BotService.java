@@ -46,26 +46,29 @@ public class BotService {
         .build();
   }
 
-  private PageFetcher<SimpleBot> getSimpleBotPageFetcher(ListBotReq req) {
+  PageFetcher<SimpleBot> getSimpleBotPageFetcher(ListBotReq req) {
     String spaceID = req.getSpaceID();
 
     // 创建分页获取器
     PageFetcher<SimpleBot> pageFetcher =
-        request -> {
-          BaseResponse<ListBotResp> resp =
-              Utils.execute(api.list(spaceID, request.getPageNum(), request.getPageSize(), req));
-          return PageResponse.<SimpleBot>builder()
-              .hasMore(resp.getData().getBots().size() == request.getPageSize())
-              .data(resp.getData().getBots())
-              .pageNum(request.getPageNum())
-              .pageSize(request.getPageSize())
-              .total(resp.getData().getTotal())
-              .logID(resp.getLogID())
-              .build();
-        };
+        request ->
+            toPage(
+                Utils.execute(api.list(spaceID, request.getPageNum(), request.getPageSize(), req)),
+                request);
     return pageFetcher;
   }
 
+  static PageResponse<SimpleBot> toPage(BaseResponse<ListBotResp> resp, PageRequest request) {
+    return PageResponse.<SimpleBot>builder()
+        .hasMore(resp.getData().getBots().size() == request.getPageSize())
+        .data(resp.getData().getBots())
+        .pageNum(request.getPageNum())
+        .pageSize(request.getPageSize())
+        .total(resp.getData().getTotal())
+        .logID(resp.getLogID())
+        .build();
+  }
+
   public RetrieveBotResp retrieve(RetrieveBotReq req) {
     BaseResponse<Bot> resp = Utils.execute(api.retrieve(req.getBotID(), req));
     return RetrieveBotResp.builder().bot(resp.getData()).logID(resp.getLogID()).build();
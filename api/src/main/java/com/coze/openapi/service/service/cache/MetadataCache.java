@@ -0,0 +1,144 @@
+package com.coze.openapi.service.service.cache;
+
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/*
+ * Size-bounded LRU store of metadata responses, each entry expiring after the TTL of its resource.
+ * */
+public class MetadataCache {
+  private final MetadataCacheConfig config;
+  private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  // 每次失效递增，失效前发出的读请求不再写入缓存
+  private final Map<MetadataResource, Long> generations = new EnumMap<>(MetadataResource.class);
+
+  private long hits;
+  private long misses;
+  private long evictions;
+  private long expirations;
+  private long invalidations;
+
+  public MetadataCache(MetadataCacheConfig config) {
+    this.config = config;
+    for (MetadataResource resource : MetadataResource.values()) {
+      generations.put(resource, 0L);
+    }
+  }
+
+  /*
+   * A copy of the cached response of the key, null when absent or expired.
+   * */
+  synchronized Response get(String key, Request request) {
+    Entry entry = entries.get(key);
+    if (entry != null && entry.expiresAt - System.nanoTime() <= 0) {
+      entries.remove(key);
+      expirations++;
+      entry = null;
+    }
+    if (entry == null) {
+      misses++;
+      return null;
+    }
+    hits++;
+    return entry.toResponse(request);
+  }
+
+  synchronized long generation(MetadataResource resource) {
+    return generations.get(resource);
+  }
+
+  /*
+   * Store a response read at the given generation, unless the resource was invalidated since.
+   * */
+  synchronized void put(
+      String key, MetadataResource resource, long generation, Response response, byte[] body) {
+    long ttl = config.ttlMillis(resource);
+    if (ttl <= 0 || generations.get(resource) != generation) {
+      return;
+    }
+    entries.put(
+        key,
+        new Entry(
+            resource, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ttl), response, body));
+    Iterator<Entry> eldest = entries.values().iterator();
+    while (entries.size() > config.getMaxEntries() && eldest.hasNext()) {
+      eldest.next();
+      eldest.remove();
+      evictions++;
+    }
+  }
+
+  /*
+   * Drop the cached responses of the resource.
+   * */
+  public synchronized void invalidate(MetadataResource resource) {
+    generations.put(resource, generations.get(resource) + 1);
+    Iterator<Entry> it = entries.values().iterator();
+    while (it.hasNext()) {
+      if (it.next().resource == resource) {
+        it.remove();
+        invalidations++;
+      }
+    }
+  }
+
+  public synchronized void invalidateAll() {
+    for (MetadataResource resource : MetadataResource.values()) {
+      invalidate(resource);
+    }
+  }
+
+  public synchronized MetadataCacheStats stats() {
+    return MetadataCacheStats.builder()
+        .size(entries.size())
+        .hits(hits)
+        .misses(misses)
+        .evictions(evictions)
+        .expirations(expirations)
+        .invalidations(invalidations)
+        .build();
+  }
+
+  private static final class Entry {
+    private final MetadataResource resource;
+    private final long expiresAt;
+    private final Protocol protocol;
+    private final int code;
+    private final String message;
+    private final Headers headers;
+    private final MediaType contentType;
+    private final byte[] body;
+
+    Entry(MetadataResource resource, long expiresAt, Response response, byte[] body) {
+      this.resource = resource;
+      this.expiresAt = expiresAt;
+      this.protocol = response.protocol();
+      this.code = response.code();
+      this.message = response.message();
+      this.headers = response.headers();
+      this.contentType = response.body() == null ? null : response.body().contentType();
+      this.body = body;
+    }
+
+    Response toResponse(Request request) {
+      return new Response.Builder()
+          .request(request)
+          .protocol(protocol)
+          .code(code)
+          .message(message)
+          .headers(headers)
+          .body(ResponseBody.create(contentType, body))
+          .build();
+    }
+  }
+}
@@ -0,0 +1,40 @@
+package com.coze.openapi.service.service.cache;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/*
+ * Size and freshness of the metadata cache. A TTL of 0 disables caching of that resource.
+ * */
+@Getter
+@Builder(toBuilder = true)
+@ToString
+public class MetadataCacheConfig {
+  /* Responses kept at most, the least recently used one is evicted first. */
+  @Builder.Default private int maxEntries = 1000;
+
+  @Builder.Default private long botsTtlMillis = 60_000;
+  @Builder.Default private long workspacesTtlMillis = 300_000;
+  @Builder.Default private long voicesTtlMillis = 300_000;
+  @Builder.Default private long datasetsTtlMillis = 60_000;
+
+  public long ttlMillis(MetadataResource resource) {
+    switch (resource) {
+      case BOTS:
+        return botsTtlMillis;
+      case WORKSPACES:
+        return workspacesTtlMillis;
+      case VOICES:
+        return voicesTtlMillis;
+      case DATASETS:
+        return datasetsTtlMillis;
+      default:
+        return 0;
+    }
+  }
+
+  public static MetadataCacheConfig defaultConfig() {
+    return MetadataCacheConfig.builder().build();
+  }
+}
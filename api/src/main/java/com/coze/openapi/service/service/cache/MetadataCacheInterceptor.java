@@ -0,0 +1,85 @@
+package com.coze.openapi.service.service.cache;
+
+import java.io.IOException;
+
+import com.coze.openapi.service.utils.Utils;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/*
+ * Application interceptor serving metadata reads from the MetadataCache, and invalidating the
+ * cached resource when a call changes it.
+ *
+ * Only successful GET responses with code 0 are cached, keyed by URL and Authorization header.
+ * */
+public class MetadataCacheInterceptor implements Interceptor {
+  private final MetadataCache cache;
+
+  public MetadataCacheInterceptor(MetadataCache cache) {
+    this.cache = cache;
+  }
+
+  public MetadataCache cache() {
+    return cache;
+  }
+
+  @Override
+  public Response intercept(Chain chain) throws IOException {
+    Request request = chain.request();
+    String endpoint = Utils.endpointKey(request);
+
+    MetadataResource written = MetadataResource.writtenBy(endpoint);
+    if (written != null) {
+      try {
+        return chain.proceed(request);
+      } finally {
+        // 无论成功与否都失效，请求可能已在服务端生效
+        cache.invalidate(written);
+      }
+    }
+
+    MetadataResource read = MetadataResource.readBy(endpoint);
+    if (read == null || !"GET".equals(request.method())) {
+      return chain.proceed(request);
+    }
+    String key = key(request);
+    Response cached = cache.get(key, request);
+    if (cached != null) {
+      return cached;
+    }
+    long generation = cache.generation(read);
+    Response response = chain.proceed(request);
+    ResponseBody body = response.body();
+    if (!response.isSuccessful() || body == null) {
+      return response;
+    }
+    byte[] bytes;
+    try {
+      bytes = body.bytes();
+    } finally {
+      body.close();
+    }
+    if (isOk(bytes)) {
+      cache.put(key, read, generation, response, bytes);
+    }
+    return response.newBuilder().body(ResponseBody.create(body.contentType(), bytes)).build();
+  }
+
+  static String key(Request request) {
+    String authorization = request.header("Authorization");
+    return request.url() + (authorization == null ? "" : " " + authorization);
+  }
+
+  private static boolean isOk(byte[] body) {
+    try {
+      JsonNode code = Utils.getMapper().readTree(body).get("code");
+      return code != null && code.asInt(-1) == 0;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+}
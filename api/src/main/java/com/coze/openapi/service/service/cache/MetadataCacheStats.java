@@ -0,0 +1,23 @@
+package com.coze.openapi.service.service.cache;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/*
+ * Counters of the metadata cache since the client was built.
+ *
+ * evictions: entries dropped because the cache was full. expirations: entries found past their TTL.
+ * invalidations: entries dropped by a local change or an explicit invalidate call.
+ * */
+@Getter
+@Builder
+@ToString
+public class MetadataCacheStats {
+  private final int size;
+  private final long hits;
+  private final long misses;
+  private final long evictions;
+  private final long expirations;
+  private final long invalidations;
+}
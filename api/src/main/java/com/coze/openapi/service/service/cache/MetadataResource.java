@@ -0,0 +1,48 @@
+package com.coze.openapi.service.service.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * Groups of rarely changing metadata that may be cached, with the endpoints that read them and the
+ * endpoints whose calls invalidate them.
+ * */
+public enum MetadataResource {
+  BOTS,
+  WORKSPACES,
+  VOICES,
+  DATASETS;
+
+  private static final Map<String, MetadataResource> READS = new HashMap<>();
+  private static final Map<String, MetadataResource> WRITES = new HashMap<>();
+
+  static {
+    READS.put("BotAPI.retrieve", BOTS);
+    READS.put("BotAPI.list", BOTS);
+    READS.put("WorkspaceAPI.list", WORKSPACES);
+    READS.put("AudioVoiceAPI.list", VOICES);
+    READS.put("DatasetAPI.list", DATASETS);
+
+    WRITES.put("BotAPI.create", BOTS);
+    WRITES.put("BotAPI.update", BOTS);
+    WRITES.put("BotAPI.publish", BOTS);
+    WRITES.put("AudioVoiceAPI.clone", VOICES);
+    WRITES.put("DatasetAPI.create", DATASETS);
+    WRITES.put("DatasetAPI.update", DATASETS);
+    WRITES.put("DatasetAPI.delete", DATASETS);
+  }
+
+  /*
+   * The resource read by the endpoint, null when its responses are not cacheable.
+   * */
+  public static MetadataResource readBy(String endpoint) {
+    return READS.get(endpoint);
+  }
+
+  /*
+   * The resource changed by the endpoint, null when it changes no cached resource.
+   * */
+  public static MetadataResource writtenBy(String endpoint) {
+    return WRITES.get(endpoint);
+  }
+}
@@ -0,0 +1,23 @@
+package com.coze.openapi.service.service.chat;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.coze.openapi.api.ChatMessageAPI;
+import com.coze.openapi.client.chat.message.ListMessageReq;
+import com.coze.openapi.client.chat.message.ListMessageResp;
+import com.coze.openapi.service.utils.Utils;
+
+public class AsyncChatMessageService {
+
+  private final ChatMessageAPI chatMessageApi;
+
+  public AsyncChatMessageService(ChatMessageAPI chatMessageApi) {
+    this.chatMessageApi = chatMessageApi;
+  }
+
+  public CompletableFuture<ListMessageResp> list(ListMessageReq req) {
+    return Utils.executeAsync(
+        chatMessageApi.list(req.getConversationID(), req.getChatID(), req),
+        resp -> ListMessageResp.builder().logID(resp.getLogID()).messages(resp.getData()).build());
+  }
+}
@@ -0,0 +1,266 @@
+package com.coze.openapi.service.service.chat;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+
+import com.coze.openapi.api.ChatAPI;
+import com.coze.openapi.api.ChatMessageAPI;
+import com.coze.openapi.client.chat.CancelChatReq;
+import com.coze.openapi.client.chat.CancelChatResp;
+import com.coze.openapi.client.chat.CreateChatReq;
+import com.coze.openapi.client.chat.CreateChatResp;
+import com.coze.openapi.client.chat.RetrieveChatReq;
+import com.coze.openapi.client.chat.RetrieveChatResp;
+import com.coze.openapi.client.chat.SubmitToolOutputsReq;
+import com.coze.openapi.client.chat.SubmitToolOutputsResp;
+import com.coze.openapi.client.chat.message.ListMessageReq;
+import com.coze.openapi.client.chat.model.Chat;
+import com.coze.openapi.client.chat.model.ChatPoll;
+import com.coze.openapi.client.chat.model.ChatStatus;
+import com.coze.openapi.client.common.BaseReq;
+import com.coze.openapi.client.common.Deadline;
+import com.coze.openapi.service.service.common.CozeLoggerFactory;
+import com.coze.openapi.service.service.common.DeadlineExceededException;
+import com.coze.openapi.service.service.common.StreamExecutors;
+import com.coze.openapi.service.utils.Utils;
+
+public class AsyncChatService {
+
+  private final ChatAPI chatAPI;
+  private final AsyncChatMessageService chatMessageAPI;
+  private static final Logger logger = CozeLoggerFactory.getLogger();
+
+  private static final class PollerHolder {
+    static final ScheduledExecutorService poller =
+        Executors.newSingleThreadScheduledExecutor(StreamExecutors.threadFactory("coze-poll"));
+  }
+
+  /*
+   * The step of a createAndPoll that is running now: a request, or the timer of the next poll.
+   * Cancelling the future returned to the caller cancels that step, and no further step starts.
+   * */
+  private static final class PollChain {
+    private final CompletableFuture<?> result;
+    private final AtomicReference<Future<?>> current = new AtomicReference<>();
+
+    PollChain(CompletableFuture<?> result) {
+      this.result = result;
+      result.whenComplete(
+          (value, error) -> {
+            if (result.isCancelled()) {
+              cancel(current.get());
+            }
+          });
+    }
+
+    boolean isCancelled() {
+      return result.isCancelled();
+    }
+
+    <F extends Future<?>> F track(F step) {
+      current.set(step);
+      // 取消发生在 set 之前时，上面的回调看不到这个 step
+      if (result.isCancelled()) {
+        cancel(step);
+      }
+      return step;
+    }
+
+    private static void cancel(Future<?> step) {
+      if (step != null) {
+        step.cancel(true);
+      }
+    }
+  }
+
+  public AsyncChatService(ChatAPI chatAPI, ChatMessageAPI chatMessageAPI) {
+    this.chatAPI = chatAPI;
+    this.chatMessageAPI = new AsyncChatMessageService(chatMessageAPI);
+  }
+
+  public AsyncChatMessageService message() {
+    return this.chatMessageAPI;
+  }
+
+  /*
+   * Call the Chat API with non-streaming to send messages to a published Coze bot.
+   * docs en: https://www.coze.com/docs/developer_guides/chat_v3
+   * docs zh: https://www.coze.cn/docs/developer_guides/chat_v3
+   * */
+  public CompletableFuture<CreateChatResp> create(CreateChatReq req) {
+    req.disableStream();
+    String conversationID = req.getConversationID();
+    req.clearBeforeReq();
+    return Utils.executeAsync(
+        chatAPI.chat(conversationID, req, req),
+        resp -> CreateChatResp.builder().chat(resp.getData()).logID(resp.getLogID()).build());
+  }
+
+  /*
+   * Same as ChatService.createAndPoll, but the chat status is polled by a timer instead of a
+   * sleeping caller thread.
+   *
+   * timeout: The maximum time to wait for the chat to complete, in seconds. null or <= 0 means no
+   * limit.
+   *
+   * Cancelling the returned future cancels the request in flight and stops polling. The chat itself
+   * is not cancelled on the server.
+   * */
+  public CompletableFuture<ChatPoll> createAndPoll(CreateChatReq req, Long timeout) {
+    long start = System.currentTimeMillis() / 1000;
+    CompletableFuture<ChatPoll> future = new CompletableFuture<>();
+    PollChain chain = new PollChain(future);
+    chain
+        .track(create(req))
+        .thenCompose(
+            resp -> {
+              Chat chat = resp.getChat();
+              // 不论是定时检查还是 retrieve 等子请求先发现截止时间已过，都走同一个取消路径
+              return poll(chat, start, timeout, req, chain)
+                  .whenComplete(
+                      (result, error) -> {
+                        Deadline deadline = req.getDeadline();
+                        if (error != null && deadline != null && deadline.isExpired()) {
+                          cancelAfterDeadline(chat, req);
+                        }
+                      });
+            })
+        .thenCompose(
+            chat -> {
+              ListMessageReq listReq = ListMessageReq.of(chat.getConversationID(), chat.getID());
+              listReq.inherit(req);
+              return chain
+                  .track(message().list(listReq))
+                  .thenApply(resp -> new ChatPoll(chat, resp.getMessages()));
+            })
+        .whenComplete(
+            (poll, error) -> {
+              if (error != null) {
+                future.completeExceptionally(error);
+              } else {
+                future.complete(poll);
+              }
+            });
+    return future;
+  }
+
+  public CompletableFuture<ChatPoll> createAndPoll(CreateChatReq req) {
+    return createAndPoll(req, null);
+  }
+
+  private CompletableFuture<Chat> poll(
+      Chat chat, long start, Long timeout, BaseReq origin, PollChain chain) {
+    if (!ChatStatus.IN_PROGRESS.equals(chat.getStatus())) {
+      return CompletableFuture.completedFuture(chat);
+    }
+    Deadline deadline = origin.getDeadline();
+    long delay = 1000;
+    if (deadline != null) {
+      delay = Math.min(delay, deadline.remaining(TimeUnit.MILLISECONDS));
+    }
+    CompletableFuture<Chat> next = new CompletableFuture<>();
+    chain.track(
+        PollerHolder.poller.schedule(
+            () -> {
+              if (chain.isCancelled()) {
+                return;
+              }
+              CompletableFuture<Chat> step;
+              if (deadline != null && deadline.isExpired()) {
+                step = new CompletableFuture<>();
+                step.completeExceptionally(
+                    new DeadlineExceededException(
+                        "chat " + chat.getID() + " not completed before deadline"));
+              } else if (timeout != null
+                  && timeout > 0
+                  && (System.currentTimeMillis() / 1000) - start > timeout) {
+                logger.warn("Chat timeout: " + timeout + " seconds, cancel Chat");
+                // The chat can be cancelled before its completed.
+                CancelChatReq cancelReq = CancelChatReq.of(chat.getConversationID(), chat.getID());
+                cancelReq.inherit(origin);
+                step = chain.track(cancel(cancelReq)).thenApply(resp -> chat);
+              } else {
+                RetrieveChatReq retrieveReq =
+                    RetrieveChatReq.of(chat.getConversationID(), chat.getID());
+                retrieveReq.inherit(origin);
+                step =
+                    chain
+                        .track(retrieve(retrieveReq))
+                        .thenCompose(resp -> poll(resp.getChat(), start, timeout, origin, chain));
+              }
+              step.whenComplete(
+                  (result, error) -> {
+                    if (error != null) {
+                      next.completeExceptionally(error);
+                    } else {
+                      next.complete(result);
+                    }
+                  });
+            },
+            delay,
+            TimeUnit.MILLISECONDS));
+    return next;
+  }
+
+  /*
+   * Same as ChatService: the chat is cancelled on a best effort basis once the caller's deadline
+   * has passed, without waiting for the result.
+   * */
+  private void cancelAfterDeadline(Chat chat, BaseReq origin) {
+    logger.warn("Chat deadline exceeded, cancel Chat " + chat.getID());
+    CancelChatReq cancelReq = CancelChatReq.of(chat.getConversationID(), chat.getID());
+    cancelReq.inherit(origin);
+    cancelReq.setDeadline(null);
+    cancel(cancelReq)
+        .whenComplete(
+            (resp, error) -> {
+              if (error != null) {
+                logger.warn("cancel Chat " + chat.getID() + " failed: " + error);
+              }
+            });
+  }
+
+  /*
+   * Get the detailed information of the chat.
+   * docs en: https://www.coze.com/docs/developer_guides/retrieve_chat
+   * docs zh: https://www.coze.cn/docs/developer_guides/retrieve_chat
+   * */
+  public CompletableFuture<RetrieveChatResp> retrieve(RetrieveChatReq req) {
+    return Utils.executeAsync(
+        chatAPI.retrieve(req.getConversationID(), req.getChatID(), req),
+        resp -> RetrieveChatResp.builder().chat(resp.getData()).logID(resp.getLogID()).build());
+  }
+
+  /*
+   * Call this API to cancel an ongoing chat.
+   * docs en: https://www.coze.com/docs/developer_guides/chat_cancel
+   * docs zh: https://www.coze.cn/docs/developer_guides/chat_cancel
+   * */
+  public CompletableFuture<CancelChatResp> cancel(CancelChatReq req) {
+    return Utils.executeAsync(
+        chatAPI.cancel(req, req),
+        resp -> CancelChatResp.builder().chat(resp.getData()).logID(resp.getLogID()).build());
+  }
+
+  /*
+   * Call this API to submit the results of tool execution.
+   * docs en: https://www.coze.com/docs/developer_guides/chat_submit_tool_outputs
+   * docs zh: https://www.coze.cn/docs/developer_guides/chat_submit_tool_outputs
+   */
+  public CompletableFuture<SubmitToolOutputsResp> submitToolOutputs(SubmitToolOutputsReq req) {
+    req.disableStream();
+    String conversationID = req.getConversationID();
+    String chatID = req.getChatID();
+    req.clearBeforeReq();
+    return Utils.executeAsync(
+        chatAPI.submitToolOutputs(conversationID, chatID, req, req),
+        resp ->
+            SubmitToolOutputsResp.builder().chat(resp.getData()).logID(resp.getLogID()).build());
+  }
+}
@@ -1,6 +1,7 @@
 package com.coze.openapi.service.service.chat;
 
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
@@ -22,8 +23,11 @@ import com.coze.openapi.client.chat.model.ChatEvent;
 import com.coze.openapi.client.chat.model.ChatPoll;
 import com.coze.openapi.client.chat.model.ChatStatus;
 import com.coze.openapi.client.common.BaseResponse;
+import com.coze.openapi.client.common.Deadline;
 import com.coze.openapi.service.service.common.ChatStream;
 import com.coze.openapi.service.service.common.CozeLoggerFactory;
+import com.coze.openapi.service.service.common.DeadlineExceededException;
+import com.coze.openapi.service.service.common.StreamExecutors;
 import com.coze.openapi.service.utils.Utils;
 
 import io.reactivex.Flowable;
@@ -32,11 +36,18 @@ public class ChatService {
 
   private final ChatAPI chatAPI;
   private final ChatMessageService chatMessageAPI;
+  private final ExecutorService streamExecutor;
   private static final Logger logger = CozeLoggerFactory.getLogger();
 
   public ChatService(ChatAPI chatAPI, ChatMessageAPI chatMessageAPI) {
+    this(chatAPI, chatMessageAPI, StreamExecutors.defaultExecutor());
+  }
+
+  public ChatService(
+      ChatAPI chatAPI, ChatMessageAPI chatMessageAPI, ExecutorService streamExecutor) {
     this.chatAPI = chatAPI;
     this.chatMessageAPI = new ChatMessageService(chatMessageAPI);
+    this.streamExecutor = streamExecutor;
   }
 
   public ChatMessageService message() {
@@ -74,6 +85,9 @@ public class ChatService {
    *
    * timeout: The maximum time to wait for the chat to complete. The chat will be cancelled after the progress of it
    * exceed timeout. The unit is second.
+   *
+   * A Deadline set on req bounds the whole operation instead: when it passes, the chat is cancelled
+   * and DeadlineExceededException is thrown.
    * */
   public ChatPoll createAndPoll(CreateChatReq req, Long timeout) throws Exception {
     Objects.requireNonNull(timeout, "timeout is required");
@@ -88,27 +102,70 @@ public class ChatService {
     // 处理一开始没有传入 ConversationID 的情况
     conversationID = chat.getConversationID();
     String chatID = chat.getID();
+    Deadline deadline = req.getDeadline();
     long start = System.currentTimeMillis() / 1000;
-    while (ChatStatus.IN_PROGRESS.equals(chat.getStatus())) {
-      TimeUnit.SECONDS.sleep(1);
-      if (timeout != null && timeout > 0) {
-        if ((System.currentTimeMillis() / 1000) - start > timeout) {
-          logger.warn("Chat timeout: " + timeout + " seconds, cancel Chat");
-          // The chat can be cancelled before its completed.
-          cancel(CancelChatReq.of(conversationID, chatID));
+    try {
+      while (ChatStatus.IN_PROGRESS.equals(chat.getStatus())) {
+        sleep(deadline);
+        if (deadline != null && deadline.isExpired()) {
+          throw new DeadlineExceededException("chat " + chatID + " not completed before deadline");
+        }
+        if (timeout != null && timeout > 0) {
+          if ((System.currentTimeMillis() / 1000) - start > timeout) {
+            logger.warn("Chat timeout: " + timeout + " seconds, cancel Chat");
+            // The chat can be cancelled before its completed.
+            CancelChatReq cancelReq = CancelChatReq.of(conversationID, chatID);
+            cancelReq.inherit(req);
+            cancel(cancelReq);
+            break;
+          }
+        }
+
+        RetrieveChatReq retrieveReq = RetrieveChatReq.of(conversationID, chatID);
+        retrieveReq.inherit(req);
+        chat = retrieve(retrieveReq).getChat();
+        if (ChatStatus.COMPLETED.equals(chat.getStatus())) {
+          logger.info(
+              "Chat completed, spend " + (System.currentTimeMillis() / 1000 - start) + " seconds");
           break;
         }
       }
-
-      chat = retrieve(RetrieveChatReq.of(conversationID, chatID)).getChat();
-      if (ChatStatus.COMPLETED.equals(chat.getStatus())) {
-        logger.info(
-            "Chat completed, spend " + (System.currentTimeMillis() / 1000 - start) + " seconds");
-        break;
+      ListMessageReq listReq = ListMessageReq.of(conversationID, chatID);
+      listReq.inherit(req);
+      ListMessageResp resp = message().list(listReq);
+      return new ChatPoll(chat, resp.getMessages());
+    } catch (Exception e) {
+      if (deadline != null
+          && deadline.isExpired()
+          && ChatStatus.IN_PROGRESS.equals(chat.getStatus())) {
+        cancelAfterDeadline(conversationID, chatID, req);
       }
+      throw e;
+    }
+  }
+
+  private static void sleep(Deadline deadline) throws InterruptedException {
+    long millis = 1000;
+    if (deadline != null) {
+      millis = Math.min(millis, deadline.remaining(TimeUnit.MILLISECONDS));
+    }
+    TimeUnit.MILLISECONDS.sleep(millis);
+  }
+
+  /*
+   * The chat would keep running on the server after the caller gave up, cancel it on a best
+   * effort basis. The cancel call itself is not bound by the expired deadline.
+   * */
+  private void cancelAfterDeadline(String conversationID, String chatID, CreateChatReq origin) {
+    logger.warn("Chat deadline exceeded, cancel Chat " + chatID);
+    CancelChatReq cancelReq = CancelChatReq.of(conversationID, chatID);
+    cancelReq.inherit(origin);
+    cancelReq.setDeadline(null);
+    try {
+      cancel(cancelReq);
+    } catch (Exception e) {
+      logger.warn("cancel Chat " + chatID + " failed: " + e);
     }
-    ListMessageResp resp = message().list(ListMessageReq.of(conversationID, chatID));
-    return new ChatPoll(chat, resp.getMessages());
   }
 
   /*
@@ -157,7 +214,8 @@ public class ChatService {
     String conversationID = req.getConversationID();
     String chatID = req.getChatID();
     req.clearBeforeReq();
-    return ChatStream.stream(chatAPI.streamSubmitToolOutputs(conversationID, chatID, req, req));
+    return ChatStream.stream(
+        chatAPI.streamSubmitToolOutputs(conversationID, chatID, req, req), streamExecutor);
   }
 
   /*
@@ -169,6 +227,6 @@ public class ChatService {
     req.enableStream();
     String conversationID = req.getConversationID();
     req.clearBeforeReq();
-    return ChatStream.stream(chatAPI.stream(conversationID, req, req));
+    return ChatStream.stream(chatAPI.stream(conversationID, req, req), streamExecutor);
   }
 }
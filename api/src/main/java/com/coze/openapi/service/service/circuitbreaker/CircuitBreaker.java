@@ -0,0 +1,117 @@
+package com.coze.openapi.service.service.circuitbreaker;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Count-based circuit breaker of a single endpoint, see CircuitBreakerConfig.
+ * */
+public class CircuitBreaker {
+  private final String endpoint;
+  private final CircuitBreakerConfig config;
+  private final long slowCallNanos;
+
+  private CircuitState state = CircuitState.CLOSED;
+  // 环形窗口，记录最近 slidingWindowSize 次调用结果
+  private final boolean[] failed;
+  private final boolean[] slow;
+  private int recorded;
+  private int next;
+  private int failures;
+  private int slowCalls;
+
+  private long openedAt;
+  private int probesStarted;
+  private int probesSucceeded;
+
+  public CircuitBreaker(String endpoint, CircuitBreakerConfig config) {
+    this.endpoint = endpoint;
+    this.config = config;
+    this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(config.getSlowCallDurationMillis());
+    this.failed = new boolean[config.getSlidingWindowSize()];
+    this.slow = new boolean[config.getSlidingWindowSize()];
+  }
+
+  /*
+   * Ask for permission to send a call.
+   * */
+  public synchronized void acquire() throws CircuitBreakerOpenException {
+    if (state == CircuitState.OPEN) {
+      long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - openedAt);
+      if (elapsed < config.getOpenDurationMillis()) {
+        throw new CircuitBreakerOpenException(endpoint, config.getOpenDurationMillis() - elapsed);
+      }
+      state = CircuitState.HALF_OPEN;
+      probesStarted = 0;
+      probesSucceeded = 0;
+    }
+    if (state == CircuitState.HALF_OPEN) {
+      if (probesStarted >= config.getHalfOpenProbes()) {
+        throw new CircuitBreakerOpenException(endpoint, 0);
+      }
+      probesStarted++;
+    }
+  }
+
+  public synchronized void onResult(boolean success, long durationNanos) {
+    boolean isSlow = durationNanos >= slowCallNanos;
+    if (state == CircuitState.HALF_OPEN) {
+      if (!success || isSlow) {
+        open();
+      } else if (++probesSucceeded >= config.getHalfOpenProbes()) {
+        close();
+      }
+      return;
+    }
+    if (state == CircuitState.OPEN) {
+      // 打开之前发出的调用，结果不再影响状态
+      return;
+    }
+    record(!success, isSlow);
+    if (recorded >= config.getMinimumCalls()
+        && (failures >= config.getFailureRateThreshold() * recorded
+            || slowCalls >= config.getSlowCallRateThreshold() * recorded)) {
+      open();
+    }
+  }
+
+  /*
+   * The permitted call was not sent or was canceled, so there is no outcome to record.
+   * */
+  public synchronized void onIgnored() {
+    if (state == CircuitState.HALF_OPEN && probesStarted > probesSucceeded) {
+      probesStarted--;
+    }
+  }
+
+  public synchronized CircuitState state() {
+    return state;
+  }
+
+  private void record(boolean isFailure, boolean isSlow) {
+    int size = failed.length;
+    if (recorded == size) {
+      failures -= failed[next] ? 1 : 0;
+      slowCalls -= slow[next] ? 1 : 0;
+    } else {
+      recorded++;
+    }
+    failed[next] = isFailure;
+    slow[next] = isSlow;
+    failures += isFailure ? 1 : 0;
+    slowCalls += isSlow ? 1 : 0;
+    next = (next + 1) % size;
+  }
+
+  private void open() {
+    state = CircuitState.OPEN;
+    openedAt = System.nanoTime();
+  }
+
+  private void close() {
+    state = CircuitState.CLOSED;
+    recorded = 0;
+    next = 0;
+    failures = 0;
+    slowCalls = 0;
+  }
+}
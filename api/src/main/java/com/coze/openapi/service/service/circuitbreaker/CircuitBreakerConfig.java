@@ -0,0 +1,41 @@
+package com.coze.openapi.service.service.circuitbreaker;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/*
+ * Settings of the circuit breaker of each endpoint.
+ *
+ * The outcomes of the last slidingWindowSize calls are kept. Once at least minimumCalls were
+ * recorded, the circuit opens when the share of failed calls reaches failureRateThreshold, or the
+ * share of calls slower than slowCallDurationMillis reaches slowCallRateThreshold. After
+ * openDurationMillis it lets halfOpenProbes calls through; it closes when all of them succeed in
+ * time and opens again otherwise.
+ *
+ * A failure is a connection error or one of failureStatuses. For streams, an error while reading the
+ * body also counts, and the duration is the time to the response headers.
+ * */
+@Getter
+@Builder(toBuilder = true)
+@ToString
+public class CircuitBreakerConfig {
+  @Builder.Default private double failureRateThreshold = 0.5;
+  @Builder.Default private double slowCallRateThreshold = 0.8;
+  @Builder.Default private long slowCallDurationMillis = 3000;
+  @Builder.Default private int slidingWindowSize = 20;
+  @Builder.Default private int minimumCalls = 10;
+  @Builder.Default private long openDurationMillis = 30000;
+  @Builder.Default private int halfOpenProbes = 3;
+
+  @Builder.Default
+  private Set<Integer> failureStatuses = new HashSet<>(Arrays.asList(500, 502, 503, 504));
+
+  public static CircuitBreakerConfig defaultConfig() {
+    return CircuitBreakerConfig.builder().build();
+  }
+}
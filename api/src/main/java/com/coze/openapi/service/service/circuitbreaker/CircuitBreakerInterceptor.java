@@ -0,0 +1,135 @@
+package com.coze.openapi.service.service.circuitbreaker;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.coze.openapi.service.service.common.RequestRejectedException;
+import com.coze.openapi.service.service.transport.BulkheadCallFactory;
+import com.coze.openapi.service.utils.Utils;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+
+/*
+ * Application interceptor keeping one CircuitBreaker per Retrofit endpoint. Being part of the OkHttp
+ * stack, it covers blocking, enqueued and streaming (ChatStream, workflow EventCallback) calls.
+ * */
+public class CircuitBreakerInterceptor implements Interceptor {
+  private final CircuitBreakerConfig config;
+  private final ConcurrentMap<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+  public CircuitBreakerInterceptor(CircuitBreakerConfig config) {
+    this.config = config;
+  }
+
+  public CircuitBreaker breaker(String endpoint) {
+    return breakers.computeIfAbsent(endpoint, k -> new CircuitBreaker(k, config));
+  }
+
+  /*
+   * States of the endpoints called so far, keyed like BotAPI.list.
+   * */
+  public Map<String, CircuitState> states() {
+    Map<String, CircuitState> states = new TreeMap<>();
+    breakers.forEach((endpoint, breaker) -> states.put(endpoint, breaker.state()));
+    return states;
+  }
+
+  @Override
+  public Response intercept(Chain chain) throws IOException {
+    Request request = chain.request();
+    CircuitBreaker breaker = breaker(Utils.endpointKey(request));
+    breaker.acquire();
+
+    long start = System.nanoTime();
+    Response response;
+    try {
+      response = chain.proceed(request);
+    } catch (RequestRejectedException e) {
+      // 没有真正发出的请求，不计入结果，但要归还 half-open 的探测名额
+      breaker.onIgnored();
+      throw e;
+    } catch (IOException e) {
+      if (chain.call().isCanceled()) {
+        breaker.onIgnored();
+      } else {
+        breaker.onResult(false, System.nanoTime() - start);
+      }
+      throw e;
+    } catch (RuntimeException e) {
+      // 内层拦截器的编程错误不代表服务端状态，同样不计入结果并归还探测名额
+      breaker.onIgnored();
+      throw e;
+    }
+    long duration = System.nanoTime() - start;
+    boolean success = !config.getFailureStatuses().contains(response.code());
+    if (!success || response.body() == null || !BulkheadCallFactory.isStreaming(request)) {
+      breaker.onResult(success, duration);
+      return response;
+    }
+    // 流式响应在读完（或读失败）时才记录结果
+    return response
+        .newBuilder()
+        .body(new RecordingBody(response.body(), breaker, duration))
+        .build();
+  }
+
+  private static final class RecordingBody extends ResponseBody {
+    private final ResponseBody delegate;
+    private final BufferedSource source;
+
+    RecordingBody(ResponseBody delegate, CircuitBreaker breaker, long duration) {
+      this.delegate = delegate;
+      AtomicBoolean recorded = new AtomicBoolean();
+      this.source =
+          Okio.buffer(
+              new ForwardingSource(delegate.source()) {
+                @Override
+                public long read(Buffer sink, long byteCount) throws IOException {
+                  try {
+                    return super.read(sink, byteCount);
+                  } catch (IOException e) {
+                    if (recorded.compareAndSet(false, true)) {
+                      breaker.onResult(false, duration);
+                    }
+                    throw e;
+                  }
+                }
+
+                @Override
+                public void close() throws IOException {
+                  if (recorded.compareAndSet(false, true)) {
+                    breaker.onResult(true, duration);
+                  }
+                  super.close();
+                }
+              });
+    }
+
+    @Override
+    public MediaType contentType() {
+      return delegate.contentType();
+    }
+
+    @Override
+    public long contentLength() {
+      return delegate.contentLength();
+    }
+
+    @Override
+    public BufferedSource source() {
+      return source;
+    }
+  }
+}
@@ -0,0 +1,22 @@
+package com.coze.openapi.service.service.circuitbreaker;
+
+import com.coze.openapi.service.service.common.RequestRejectedException;
+
+import lombok.Getter;
+
+/*
+ * Thrown instead of sending a request while the circuit of its endpoint is open.
+ * */
+@Getter
+public class CircuitBreakerOpenException extends RequestRejectedException {
+  private static final long serialVersionUID = 1L;
+
+  private final String endpoint;
+  private final long retryAfterMillis;
+
+  public CircuitBreakerOpenException(String endpoint, long retryAfterMillis) {
+    super("circuit breaker of " + endpoint + " is open, retry after " + retryAfterMillis + "ms");
+    this.endpoint = endpoint;
+    this.retryAfterMillis = retryAfterMillis;
+  }
+}
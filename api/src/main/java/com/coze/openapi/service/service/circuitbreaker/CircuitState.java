@@ -0,0 +1,10 @@
+package com.coze.openapi.service.service.circuitbreaker;
+
+public enum CircuitState {
+  /* Calls pass, outcomes are recorded. */
+  CLOSED,
+  /* Calls fail fast with CircuitBreakerOpenException. */
+  OPEN,
+  /* A few probe calls pass to decide whether to close again. */
+  HALF_OPEN
+}
@@ -0,0 +1,154 @@
+package com.coze.openapi.service.service.coalescing;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Request;
+import okhttp3.Response;
+import okio.Timeout;
+
+/*
+ * The view of a single caller on a shared Flight.
+ * */
+class CoalescedCall implements Call {
+  private final CoalescingCallFactory factory;
+  private final String key;
+  private final Request request;
+  private final AtomicBoolean executed = new AtomicBoolean();
+  private final AtomicBoolean delivered = new AtomicBoolean();
+  private volatile boolean canceled;
+  private volatile Flight flight;
+  private volatile Callback callback;
+
+  CoalescedCall(CoalescingCallFactory factory, String key, Request request) {
+    this.factory = factory;
+    this.key = key;
+    this.request = request;
+  }
+
+  @Override
+  public Request request() {
+    return request;
+  }
+
+  /*
+   * The first caller of a flight runs the shared call on its own thread, like a plain execute, and
+   * hands the response to the callers that joined meanwhile. A caller that joins a flight already
+   * running waits for its response.
+   * */
+  @Override
+  public Response execute() throws IOException {
+    CompletableFuture<Response> result = new CompletableFuture<>();
+    Flight joined =
+        join(
+            new Callback() {
+              @Override
+              public void onFailure(Call call, IOException e) {
+                result.completeExceptionally(e);
+              }
+
+              @Override
+              public void onResponse(Call call, Response response) {
+                result.complete(response);
+              }
+            });
+    if (joined != null) {
+      if (canceled) {
+        joined.leave(this);
+      } else {
+        joined.execute();
+      }
+    }
+    try {
+      return result.get();
+    } catch (InterruptedException e) {
+      cancel();
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("interrupted");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException(e.getCause());
+    }
+  }
+
+  @Override
+  public void enqueue(Callback callback) {
+    Flight joined = join(callback);
+    if (joined == null) {
+      return;
+    }
+    joined.start();
+    if (canceled) {
+      joined.leave(this);
+    }
+  }
+
+  // 加入共享的 flight；已取消时直接回调失败并返回 null
+  private Flight join(Callback callback) {
+    if (!executed.compareAndSet(false, true)) {
+      throw new IllegalStateException("Already Executed");
+    }
+    this.callback = callback;
+    if (canceled) {
+      deliverFailure(new IOException("Canceled"));
+      return null;
+    }
+    Flight joined = factory.join(key, request, this);
+    this.flight = joined;
+    return joined;
+  }
+
+  @Override
+  public void cancel() {
+    canceled = true;
+    Flight joined = this.flight;
+    if (joined != null) {
+      joined.leave(this);
+    }
+  }
+
+  @Override
+  public boolean isExecuted() {
+    return executed.get();
+  }
+
+  @Override
+  public boolean isCanceled() {
+    return canceled;
+  }
+
+  @Override
+  public Timeout timeout() {
+    return Timeout.NONE;
+  }
+
+  @Override
+  public Call clone() {
+    return new CoalescedCall(factory, key, request);
+  }
+
+  void deliverResponse(Response response) {
+    if (delivered.compareAndSet(false, true)) {
+      try {
+        callback.onResponse(this, response);
+      } catch (IOException e) {
+        response.close();
+      }
+    } else {
+      response.close();
+    }
+  }
+
+  void deliverFailure(IOException e) {
+    if (delivered.compareAndSet(false, true)) {
+      callback.onFailure(this, e);
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package com.coze.openapi.service.service.coalescing;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.coze.openapi.service.auth.Auth;
+import com.coze.openapi.service.service.transport.BulkheadCallFactory;
+import com.coze.openapi.service.utils.Utils;
+
+import okhttp3.Call;
+import okhttp3.Request;
+
+/*
+ * Call factory that lets identical GET calls share one round trip while the first one is in
+ * flight. The response body is buffered once and every caller gets its own copy.
+ *
+ * Calls are identical when method, URL (including the query) and per-call credential instance
+ * (Auth.attach) match, so calls of different credentials never share a flight. The Authorization
+ * header is only added by the interceptors further down, from that same credential, so it is not
+ * part of the key. Streaming calls, calls with a Deadline and other methods are passed to the
+ * delegate unchanged.
+ * */
+public class CoalescingCallFactory implements Call.Factory {
+  private final Call.Factory delegate;
+  private final ConcurrentMap<String, Flight> flights = new ConcurrentHashMap<>();
+
+  public CoalescingCallFactory(Call.Factory delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public Call newCall(Request request) {
+    if (!isCoalescible(request)) {
+      return delegate.newCall(request);
+    }
+    return new CoalescedCall(this, key(request), request);
+  }
+
+  /*
+   * Number of round trips currently shared by one or more calls.
+   * */
+  public int inflight() {
+    return flights.size();
+  }
+
+  static boolean isCoalescible(Request request) {
+    return ("GET".equals(request.method()) || "HEAD".equals(request.method()))
+        && !BulkheadCallFactory.isStreaming(request)
+        // 共享的请求会被第一个调用方的截止时间取消，带截止时间的请求单独发送
+        && Utils.requestDeadline(request) == null;
+  }
+
+  static String key(Request request) {
+    // 多租户时凭证附加在 BaseReq 上，不同租户的请求不能合并。identityHashCode 可能冲突，用实例编号区分
+    Auth auth = Utils.requestAuth(request);
+    return request.method()
+        + " "
+        + request.url()
+        + (auth == null ? "" : " " + auth.getClass().getName() + "#" + auth.instanceID());
+  }
+
+  /*
+   * Join the flight of the key, or start a new one when none is in flight.
+   * */
+  Flight join(String key, Request request, CoalescedCall call) {
+    while (true) {
+      Flight flight = flights.computeIfAbsent(key, k -> new Flight(this, k, request));
+      if (flight.add(call)) {
+        return flight;
+      }
+      // 这个 flight 已经结束，重新发起
+      flights.remove(key, flight);
+    }
+  }
+
+  void remove(String key, Flight flight) {
+    flights.remove(key, flight);
+  }
+
+  Call.Factory delegate() {
+    return delegate;
+  }
+}
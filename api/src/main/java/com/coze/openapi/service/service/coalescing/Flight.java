@@ -0,0 +1,153 @@
+package com.coze.openapi.service.service.coalescing;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/*
+ * One round trip shared by the calls that joined it. The underlying call is canceled only when
+ * every caller has canceled.
+ * */
+class Flight implements Callback {
+  private final CoalescingCallFactory factory;
+  private final String key;
+  private final Call call;
+
+  // 以下字段由 this 保护
+  private final List<CoalescedCall> waiters = new ArrayList<>();
+  private boolean started;
+  private boolean done;
+
+  Flight(CoalescingCallFactory factory, String key, Request request) {
+    this.factory = factory;
+    this.key = key;
+    this.call = factory.delegate().newCall(request);
+  }
+
+  /*
+   * Add a caller, false when the flight already finished or was canceled.
+   * */
+  synchronized boolean add(CoalescedCall waiter) {
+    if (done) {
+      return false;
+    }
+    waiters.add(waiter);
+    return true;
+  }
+
+  /*
+   * Start the round trip on the dispatcher, unless another caller already started it.
+   * */
+  void start() {
+    if (claim()) {
+      call.enqueue(this);
+    }
+  }
+
+  /*
+   * Run the round trip on the calling thread when no other caller started it yet; otherwise
+   * return at once and let the caller wait for the result.
+   * */
+  void execute() {
+    if (!claim()) {
+      return;
+    }
+    Response response;
+    try {
+      response = call.execute();
+    } catch (IOException e) {
+      onFailure(call, e);
+      return;
+    } catch (RuntimeException e) {
+      // 与 OkHttp 的异步调用一样：先让等待的调用方失败，再把异常抛给当前线程
+      onFailure(call, new IOException("canceled due to " + e, e));
+      throw e;
+    }
+    onResponse(call, response);
+  }
+
+  private synchronized boolean claim() {
+    if (started || done) {
+      return false;
+    }
+    started = true;
+    return true;
+  }
+
+  /*
+   * The caller gave up; the underlying call is canceled when it was the last one.
+   * */
+  void leave(CoalescedCall waiter) {
+    boolean last;
+    synchronized (this) {
+      if (done || !waiters.remove(waiter)) {
+        return;
+      }
+      last = waiters.isEmpty();
+      if (last) {
+        done = true;
+      }
+    }
+    if (last) {
+      factory.remove(key, this);
+      call.cancel();
+    }
+    waiter.deliverFailure(new IOException("Canceled"));
+  }
+
+  @Override
+  public void onResponse(Call call, Response response) {
+    List<CoalescedCall> targets = finish();
+    if (targets.isEmpty()) {
+      response.close();
+      return;
+    }
+    byte[] body;
+    MediaType contentType;
+    try (ResponseBody responseBody = response.body()) {
+      contentType = responseBody == null ? null : responseBody.contentType();
+      body = responseBody == null ? null : responseBody.bytes();
+    } catch (IOException e) {
+      for (CoalescedCall target : targets) {
+        target.deliverFailure(e);
+      }
+      return;
+    }
+    for (CoalescedCall target : targets) {
+      Response.Builder copy = response.newBuilder().request(target.request());
+      if (body != null) {
+        copy.body(ResponseBody.create(contentType, body));
+      }
+      target.deliverResponse(copy.build());
+    }
+  }
+
+  @Override
+  public void onFailure(Call call, IOException e) {
+    for (CoalescedCall target : finish()) {
+      target.deliverFailure(e);
+    }
+  }
+
+  private List<CoalescedCall> finish() {
+    List<CoalescedCall> targets;
+    synchronized (this) {
+      if (done) {
+        return new ArrayList<>();
+      }
+      done = true;
+      targets = new ArrayList<>(waiters);
+      waiters.clear();
+    }
+    // 先移除再回调，之后的调用会发起新的请求
+    factory.remove(key, this);
+    return targets;
+  }
+}
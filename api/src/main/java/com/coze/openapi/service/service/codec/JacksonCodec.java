@@ -0,0 +1,89 @@
+package com.coze.openapi.service.service.codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/*
+ * JsonCodec backed by an ObjectMapper. ObjectMapper.readValue and writeValueAsString look up the
+ * root (de)serializer of a type on every call; this codec builds an ObjectReader and ObjectWriter
+ * once per type, with the root (de)serializer resolved, and reuses them.
+ * */
+public class JacksonCodec implements JsonCodec {
+  private final ObjectMapper mapper;
+  private final ConcurrentMap<Type, ObjectReader> readers = new ConcurrentHashMap<>();
+  private final ConcurrentMap<Type, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+  public JacksonCodec(ObjectMapper mapper) {
+    this.mapper = mapper;
+  }
+
+  public ObjectMapper getMapper() {
+    return mapper;
+  }
+
+  @Override
+  public <T> T decode(String json, Class<T> type) throws IOException {
+    return reader(type).readValue(json);
+  }
+
+  @Override
+  public <T> T decode(InputStream in, Type type) throws IOException {
+    try (JsonParser parser = mapper.getFactory().createParser(in)) {
+      // 流由调用方关闭
+      parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+      return reader(type).readValue(parser);
+    }
+  }
+
+  @Override
+  public String encode(Object value) throws IOException {
+    return writer(value == null ? Object.class : value.getClass()).writeValueAsString(value);
+  }
+
+  @Override
+  public void encode(Object value, Type type, OutputStream out) throws IOException {
+    ObjectWriter writer = writer(type);
+    try (JsonGenerator generator = writer.getFactory().createGenerator(out)) {
+      generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      writer.writeValue(generator, value);
+    }
+  }
+
+  @Override
+  public void prepare(Collection<? extends Type> types) {
+    for (Type type : types) {
+      reader(type);
+      writer(type);
+    }
+  }
+
+  ObjectReader reader(Type type) {
+    ObjectReader reader = readers.get(type);
+    if (reader == null) {
+      // 并发时可能重复创建，结果相同，不加锁
+      reader = mapper.readerFor(mapper.getTypeFactory().constructType(type));
+      readers.putIfAbsent(type, reader);
+    }
+    return reader;
+  }
+
+  ObjectWriter writer(Type type) {
+    ObjectWriter writer = writers.get(type);
+    if (writer == null) {
+      writer = mapper.writerFor(mapper.getTypeFactory().constructType(type));
+      writers.putIfAbsent(type, writer);
+    }
+    return writer;
+  }
+}
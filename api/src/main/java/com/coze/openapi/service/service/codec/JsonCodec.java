@@ -0,0 +1,34 @@
+package com.coze.openapi.service.service.codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.Collection;
+
+/*
+ * Reads and writes the JSON of the Coze API: request and response bodies of the Retrofit
+ * interfaces, streamed chat and workflow events, and websocket events. The codec in use is set
+ * with JsonCodecs.set, the default is JacksonCodec.
+ *
+ * Implementations must be thread safe and honour the Jackson annotations of the models
+ * (JsonProperty names, unknown properties ignored, null fields omitted).
+ * */
+public interface JsonCodec {
+
+  <T> T decode(String json, Class<T> type) throws IOException;
+
+  /* Read a value of a possibly generic type, e.g. BaseResponse<Bot>. The stream is not closed. */
+  <T> T decode(InputStream in, Type type) throws IOException;
+
+  String encode(Object value) throws IOException;
+
+  /* Write value as the declared type into out. The stream is not closed. */
+  void encode(Object value, Type type, OutputStream out) throws IOException;
+
+  /*
+   * Build whatever the codec keeps per type ahead of the first call, so the first streamed event
+   * does not pay for it. Codecs without per-type state ignore it.
+   * */
+  default void prepare(Collection<? extends Type> types) {}
+}
@@ -0,0 +1,95 @@
+package com.coze.openapi.service.service.codec;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+/*
+ * Retrofit converter that reads and writes bodies with a JsonCodec.
+ *
+ * With streaming, request bodies are written straight into the OkHttp sink instead of into a
+ * byte array first, so a large body is never held in memory as a whole and its first bytes are
+ * on the wire while the rest is still being serialized. The body length is unknown in advance, it
+ * is sent chunked (HTTP/1.1) or as plain DATA frames (HTTP/2). A body is serialized again from the
+ * request object every time it is written, so retries and failover resend it without the client
+ * keeping a copy. Without streaming every body is serialized once and sent with its length.
+ * */
+public class JsonCodecConverterFactory extends Converter.Factory {
+  private static final MediaType MEDIA_TYPE = MediaType.get("application/json; charset=UTF-8");
+
+  private final JsonCodec codec;
+  private final boolean streaming;
+
+  private JsonCodecConverterFactory(JsonCodec codec, boolean streaming) {
+    this.codec = codec;
+    this.streaming = streaming;
+  }
+
+  public static JsonCodecConverterFactory create(JsonCodec codec, boolean streaming) {
+    return new JsonCodecConverterFactory(codec, streaming);
+  }
+
+  @Override
+  public Converter<?, RequestBody> requestBodyConverter(
+      Type type,
+      Annotation[] parameterAnnotations,
+      Annotation[] methodAnnotations,
+      Retrofit retrofit) {
+    if (streaming) {
+      return value -> new JsonRequestBody(codec, type, value);
+    }
+    return value -> {
+      Buffer buffer = new Buffer();
+      codec.encode(value, type, buffer.outputStream());
+      return RequestBody.create(MEDIA_TYPE, buffer.readByteString());
+    };
+  }
+
+  @Override
+  public Converter<ResponseBody, ?> responseBodyConverter(
+      Type type, Annotation[] annotations, Retrofit retrofit) {
+    return body -> {
+      try {
+        return codec.decode(body.byteStream(), type);
+      } finally {
+        body.close();
+      }
+    };
+  }
+
+  static final class JsonRequestBody extends RequestBody {
+    private final JsonCodec codec;
+    private final Type type;
+    private final Object value;
+
+    JsonRequestBody(JsonCodec codec, Type type, Object value) {
+      this.codec = codec;
+      this.type = type;
+      this.value = value;
+    }
+
+    @Override
+    public MediaType contentType() {
+      return MEDIA_TYPE;
+    }
+
+    @Override
+    public long contentLength() {
+      return -1;
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+      // sink 由 OkHttp 关闭
+      codec.encode(value, type, sink.outputStream());
+    }
+  }
+}
@@ -0,0 +1,55 @@
+package com.coze.openapi.service.service.codec;
+
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.coze.openapi.client.chat.model.Chat;
+import com.coze.openapi.client.connversations.message.model.Message;
+import com.coze.openapi.client.workflows.run.model.WorkflowEventDebugURL;
+import com.coze.openapi.client.workflows.run.model.WorkflowEventError;
+import com.coze.openapi.client.workflows.run.model.WorkflowEventInterrupt;
+import com.coze.openapi.client.workflows.run.model.WorkflowEventMessage;
+import com.coze.openapi.service.utils.Utils;
+
+/*
+ * The JsonCodec used by the SDK. It is process wide, because the models decode streamed events in
+ * static methods such as Message.fromJson; set it before the first CozeAPI is built.
+ * */
+public final class JsonCodecs {
+  /* The models decoded once per streamed chat or workflow event. */
+  public static final List<Type> STREAM_TYPES =
+      Collections.unmodifiableList(
+          Arrays.asList(
+              Message.class,
+              Chat.class,
+              WorkflowEventMessage.class,
+              WorkflowEventInterrupt.class,
+              WorkflowEventError.class,
+              WorkflowEventDebugURL.class));
+
+  private static volatile JsonCodec codec;
+
+  private JsonCodecs() {}
+
+  public static JsonCodec get() {
+    JsonCodec current = codec;
+    if (current == null) {
+      synchronized (JsonCodecs.class) {
+        if (codec == null) {
+          codec = new JacksonCodec(Utils.getMapper());
+        }
+        current = codec;
+      }
+    }
+    return current;
+  }
+
+  public static void set(JsonCodec codec) {
+    if (codec == null) {
+      throw new IllegalArgumentException("codec is required");
+    }
+    JsonCodecs.codec = codec;
+  }
+}
@@ -4,6 +4,7 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 import com.coze.openapi.client.chat.model.ChatEvent;
 
@@ -15,6 +16,10 @@ public class ChatEventCallback extends AbstractEventCallback<ChatEvent> {
     super(emitter);
   }
 
+  public ChatEventCallback(FlowableEmitter<ChatEvent> emitter, ExecutorService streamExecutor) {
+    super(emitter, streamExecutor);
+  }
+
   @Override
   protected boolean processLine(String line, BufferedReader reader, String logID)
       throws IOException {
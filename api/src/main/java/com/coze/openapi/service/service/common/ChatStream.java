@@ -1,5 +1,7 @@
 package com.coze.openapi.service.service.common;
 
+import java.util.concurrent.ExecutorService;
+
 import com.coze.openapi.client.chat.model.ChatEvent;
 
 import io.reactivex.BackpressureStrategy;
@@ -9,7 +11,13 @@ import retrofit2.Call;
 
 public class ChatStream {
   public static Flowable<ChatEvent> stream(Call<ResponseBody> apiCall) {
+    return stream(apiCall, StreamExecutors.defaultExecutor());
+  }
+
+  public static Flowable<ChatEvent> stream(
+      Call<ResponseBody> apiCall, ExecutorService streamExecutor) {
     return Flowable.create(
-        emitter -> apiCall.enqueue(new ChatEventCallback(emitter)), BackpressureStrategy.BUFFER);
+        emitter -> apiCall.enqueue(new ChatEventCallback(emitter, streamExecutor)),
+        BackpressureStrategy.BUFFER);
   }
 }
@@ -0,0 +1,21 @@
+package com.coze.openapi.service.service.common;
+
+import java.io.InterruptedIOException;
+
+/*
+ * Thrown when the Deadline of a request has passed, either before the request was sent or while
+ * it was in flight. Like SocketTimeoutException it is an InterruptedIOException, and it is never
+ * retried.
+ * */
+public class DeadlineExceededException extends InterruptedIOException {
+  private static final long serialVersionUID = 1L;
+
+  public DeadlineExceededException(String message) {
+    super(message);
+  }
+
+  public DeadlineExceededException(String message, Throwable cause) {
+    super(message);
+    initCause(cause);
+  }
+}
@@ -0,0 +1,40 @@
+package com.coze.openapi.service.service.common;
+
+import java.util.function.Supplier;
+
+/*
+ * A value created on first access, at most once, safe to share between threads.
+ * */
+public final class Lazy<T> implements Supplier<T> {
+  private Supplier<? extends T> supplier;
+  private volatile T value;
+
+  private Lazy(Supplier<? extends T> supplier) {
+    this.supplier = supplier;
+  }
+
+  public static <T> Lazy<T> of(Supplier<? extends T> supplier) {
+    return new Lazy<>(supplier);
+  }
+
+  @Override
+  public T get() {
+    T result = value;
+    if (result == null) {
+      synchronized (this) {
+        result = value;
+        if (result == null) {
+          result = supplier.get();
+          value = result;
+          // 创建完成后释放 supplier 捕获的对象
+          supplier = null;
+        }
+      }
+    }
+    return result;
+  }
+
+  public boolean isInitialized() {
+    return value != null;
+  }
+}
@@ -0,0 +1,13 @@
+package com.coze.openapi.service.service.common;
+
+/*
+ * Thrown when a call of a multi-tenant CozeAPI carries no Auth and the client has none to fall back
+ * on. Sending the call again cannot succeed, so it is never retried.
+ * */
+public class MissingCredentialException extends RequestRejectedException {
+  private static final long serialVersionUID = 1L;
+
+  public MissingCredentialException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,18 @@
+package com.coze.openapi.service.service.common;
+
+import java.io.IOException;
+
+/*
+ * Base of the exceptions raised when the client itself refuses to send a request (rate limit,
+ * concurrency limit, open circuit, no free stream worker). The request never reached the server, so these are neither
+ * retried nor counted as server failures.
+ *
+ * It is an IOException so that it reaches enqueued and streaming calls through onFailure.
+ * */
+public class RequestRejectedException extends IOException {
+  private static final long serialVersionUID = 1L;
+
+  public RequestRejectedException(String message) {
+    super(message);
+  }
+}
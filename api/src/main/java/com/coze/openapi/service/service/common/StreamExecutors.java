@@ -0,0 +1,77 @@
+package com.coze.openapi.service.service.common;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Factory for the executors that read SSE stream bodies.
+ *
+ * Every stream is processed by exactly one task, so events of a stream are always emitted in the
+ * order they were received, while all streams of a CozeAPI share the same worker threads.
+ *
+ * A bounded executor is a hard cap on the number of open streams: a worker reads its stream until
+ * the stream ends, so a stream that finds every worker busy is not queued behind them but fails
+ * at once with a RequestRejectedException, and its response body is closed.
+ * */
+public class StreamExecutors {
+  private static final long KEEP_ALIVE_SECONDS = 60;
+
+  /*
+   * The default number of stream workers, and so the default number of streams that can be read
+   * at the same time. A worker blocks on the socket while it waits for the next event, so the bound
+   * is a multiple of the processors rather than the processors.
+   * */
+  public static final int DEFAULT_MAX_WORKERS =
+      Math.max(16, Runtime.getRuntime().availableProcessors() * 8);
+
+  private static final class DefaultHolder {
+    static final ExecutorService executor = newStreamExecutor(DEFAULT_MAX_WORKERS);
+  }
+
+  /*
+   * The process-wide executor used by callbacks that are created without an explicit executor.
+   * */
+  public static ExecutorService defaultExecutor() {
+    return DefaultHolder.executor;
+  }
+
+  /*
+   * Create a stream executor.
+   *
+   * maxWorkers: the maximum number of streams being read at the same time. Once all workers are
+   * busy, submitting another stream throws RejectedExecutionException instead of waiting for a
+   * worker that may only be freed when a long stream ends. A value <= 0 means the pool grows on
+   * demand, one thread per concurrent stream; only use it with cheap threads such as virtual
+   * threads. Idle workers are reclaimed after 60 seconds.
+   * */
+  public static ExecutorService newStreamExecutor(int maxWorkers) {
+    return newStreamExecutor(maxWorkers, threadFactory("coze-stream"));
+  }
+
+  /*
+   * Same as newStreamExecutor(maxWorkers), with workers created by the given factory.
+   * */
+  public static ExecutorService newStreamExecutor(int maxWorkers, ThreadFactory threadFactory) {
+    // 不排队：没有空闲 worker 时直接拒绝，由调用方结束这个 stream
+    return new ThreadPoolExecutor(
+        0,
+        maxWorkers <= 0 ? Integer.MAX_VALUE : maxWorkers,
+        KEEP_ALIVE_SECONDS,
+        TimeUnit.SECONDS,
+        new SynchronousQueue<>(),
+        threadFactory);
+  }
+
+  public static ThreadFactory threadFactory(String prefix) {
+    AtomicInteger counter = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+}
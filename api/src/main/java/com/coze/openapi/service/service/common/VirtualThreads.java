@@ -0,0 +1,32 @@
+package com.coze.openapi.service.service.common;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+
+/*
+ * Access to virtual threads without raising the Java 8 baseline.
+ *
+ * This is the Java 8 variant: virtual threads are reported as unsupported. The multi-release jar
+ * replaces this class with the one under src/main/java21 when running on Java 21 or later.
+ * */
+public final class VirtualThreads {
+  private VirtualThreads() {}
+
+  public static boolean isSupported() {
+    return false;
+  }
+
+  /*
+   * A factory of virtual threads named prefix-N.
+   * */
+  public static ThreadFactory threadFactory(String prefix) {
+    throw new UnsupportedOperationException("virtual threads require Java 21 or later");
+  }
+
+  /*
+   * An executor that starts a new virtual thread for each task.
+   * */
+  public static ExecutorService newExecutor(String prefix) {
+    throw new UnsupportedOperationException("virtual threads require Java 21 or later");
+  }
+}
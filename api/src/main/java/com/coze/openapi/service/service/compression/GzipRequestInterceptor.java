@@ -0,0 +1,104 @@
+package com.coze.openapi.service.service.compression;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.coze.openapi.service.utils.Utils;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.GzipSink;
+import okio.Okio;
+
+/*
+ * Application interceptor sending large request bodies with Content-Encoding: gzip, see
+ * RequestCompressionConfig. The body is compressed once, retries reuse the compressed bytes.
+ * Bodies of unknown length (streamed JSON) are buffered to learn their size.
+ * */
+public class GzipRequestInterceptor implements Interceptor {
+  private final RequestCompressionConfig config;
+
+  private final AtomicLong compressed = new AtomicLong();
+  private final AtomicLong skipped = new AtomicLong();
+  private final AtomicLong originalBytes = new AtomicLong();
+  private final AtomicLong compressedBytes = new AtomicLong();
+  private final AtomicLong compressionNanos = new AtomicLong();
+
+  public GzipRequestInterceptor(RequestCompressionConfig config) {
+    this.config = config;
+  }
+
+  @Override
+  public Response intercept(Chain chain) throws IOException {
+    Request request = chain.request();
+    RequestBody body = request.body();
+    if (body == null
+        || body.isOneShot()
+        || body.isDuplex()
+        || isSmall(body.contentLength())
+        || request.header("Content-Encoding") != null
+        || !config.getEndpoints().contains(Utils.endpointKey(request))) {
+      return chain.proceed(request);
+    }
+
+    long start = System.nanoTime();
+    Buffer original = new Buffer();
+    body.writeTo(original);
+    long originalSize = original.size();
+    if (isSmall(originalSize)) {
+      // 长度未知的流式 body 写出来之后才知道大小
+      return chain.proceed(
+          request
+              .newBuilder()
+              .method(
+                  request.method(),
+                  RequestBody.create(body.contentType(), original.readByteString()))
+              .build());
+    }
+    Buffer gzipped = new Buffer();
+    try (BufferedSink sink = Okio.buffer(new GzipSink(gzipped))) {
+      sink.write(original.clone(), originalSize);
+    }
+    compressionNanos.addAndGet(System.nanoTime() - start);
+
+    if (gzipped.size() >= originalSize) {
+      skipped.incrementAndGet();
+      return chain.proceed(
+          request
+              .newBuilder()
+              .method(
+                  request.method(),
+                  RequestBody.create(body.contentType(), original.readByteString()))
+              .build());
+    }
+    compressed.incrementAndGet();
+    originalBytes.addAndGet(originalSize);
+    compressedBytes.addAndGet(gzipped.size());
+    return chain.proceed(
+        request
+            .newBuilder()
+            .header("Content-Encoding", "gzip")
+            .method(
+                request.method(), RequestBody.create(body.contentType(), gzipped.readByteString()))
+            .build());
+  }
+
+  private boolean isSmall(long contentLength) {
+    return contentLength >= 0 && contentLength < config.getMinBytes();
+  }
+
+  public RequestCompressionStats stats() {
+    return RequestCompressionStats.builder()
+        .compressed(compressed.get())
+        .skipped(skipped.get())
+        .originalBytes(originalBytes.get())
+        .compressedBytes(compressedBytes.get())
+        .compressionMillis(TimeUnit.NANOSECONDS.toMillis(compressionNanos.get()))
+        .build();
+  }
+}
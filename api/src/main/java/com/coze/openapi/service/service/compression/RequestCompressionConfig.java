@@ -0,0 +1,37 @@
+package com.coze.openapi.service.service.compression;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/*
+ * Which request bodies are sent gzip compressed.
+ *
+ * A body is compressed when its endpoint (keyed like ChatAPI.chat) is in endpoints and it has at
+ * least minBytes. When compression does not make it smaller, the original body is sent.
+ * */
+@Getter
+@Builder(toBuilder = true)
+@ToString
+public class RequestCompressionConfig {
+  @Builder.Default private long minBytes = 32 * 1024;
+
+  @Builder.Default
+  private Set<String> endpoints =
+      new HashSet<>(
+          Arrays.asList(
+              "ChatAPI.chat",
+              "ChatAPI.stream",
+              "DatasetDocumentAPI.create",
+              "WorkflowRunAPI.run",
+              "WorkflowRunAPI.stream",
+              "WorkflowChatAPI.stream"));
+
+  public static RequestCompressionConfig defaultConfig() {
+    return RequestCompressionConfig.builder().build();
+  }
+}
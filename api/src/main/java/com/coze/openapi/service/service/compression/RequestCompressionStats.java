@@ -0,0 +1,27 @@
+package com.coze.openapi.service.service.compression;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/*
+ * Outcome of request body compression since the client was built.
+ *
+ * originalBytes and compressedBytes cover the bodies that were sent compressed, compressionMillis
+ * the time spent compressing all candidates, including those sent uncompressed because gzip did
+ * not make them smaller.
+ * */
+@Getter
+@Builder
+@ToString
+public class RequestCompressionStats {
+  private final long compressed;
+  private final long skipped;
+  private final long originalBytes;
+  private final long compressedBytes;
+  private final long compressionMillis;
+
+  public long getSavedBytes() {
+    return originalBytes - compressedBytes;
+  }
+}
@@ -0,0 +1,86 @@
+package com.coze.openapi.service.service.conversation;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.coze.openapi.api.ConversationAPI;
+import com.coze.openapi.api.ConversationMessageAPI;
+import com.coze.openapi.client.common.pagination.LazyIterator;
+import com.coze.openapi.client.common.pagination.PageFetcher;
+import com.coze.openapi.client.common.pagination.PageNumBasedPaginator;
+import com.coze.openapi.client.common.pagination.PageRequest;
+import com.coze.openapi.client.common.pagination.PageResp;
+import com.coze.openapi.client.common.pagination.PageResponse;
+import com.coze.openapi.client.connversations.ClearConversationReq;
+import com.coze.openapi.client.connversations.ClearConversationResp;
+import com.coze.openapi.client.connversations.CreateConversationReq;
+import com.coze.openapi.client.connversations.CreateConversationResp;
+import com.coze.openapi.client.connversations.ListConversationReq;
+import com.coze.openapi.client.connversations.RetrieveConversationReq;
+import com.coze.openapi.client.connversations.RetrieveConversationResp;
+import com.coze.openapi.client.connversations.model.Conversation;
+import com.coze.openapi.service.utils.Utils;
+
+public class AsyncConversationService {
+  private final ConversationAPI api;
+  private final ConversationService conversationService;
+  private final AsyncMessageService messageApi;
+
+  public AsyncConversationService(ConversationAPI api, ConversationMessageAPI messageApi) {
+    this.api = api;
+    this.conversationService = new ConversationService(api, messageApi);
+    this.messageApi = new AsyncMessageService(messageApi);
+  }
+
+  public CompletableFuture<RetrieveConversationResp> retrieve(RetrieveConversationReq req) {
+    return Utils.executeAsync(
+        api.retrieve(req.getConversationID(), req),
+        resp ->
+            RetrieveConversationResp.builder()
+                .conversation(resp.getData())
+                .logID(resp.getLogID())
+                .build());
+  }
+
+  public CompletableFuture<CreateConversationResp> create(CreateConversationReq req) {
+    return Utils.executeAsync(
+        api.create(req, req),
+        resp ->
+            CreateConversationResp.builder()
+                .conversation(resp.getData())
+                .logID(resp.getLogID())
+                .build());
+  }
+
+  public CompletableFuture<ClearConversationResp> clear(ClearConversationReq req) {
+    return Utils.executeAsync(api.clear(req.getConversationID(), req), resp -> resp.getData());
+  }
+
+  public CompletableFuture<PageResp<Conversation>> list(ListConversationReq req) {
+    if (req == null || req.getBotID() == null) {
+      throw new IllegalArgumentException("botID is required");
+    }
+
+    Integer pageNum = req.getPageNum();
+    Integer pageSize = req.getPageSize();
+    PageFetcher<Conversation> pageFetcher = conversationService.pageFetcher(req);
+    PageRequest initialRequest = PageRequest.builder().pageNum(pageNum).pageSize(pageSize).build();
+
+    return Utils.executeAsync(
+        api.list(req.getBotID(), pageNum, pageSize, req),
+        resp -> {
+          PageResponse<Conversation> firstPage =
+              ConversationService.toPage(resp.getData(), initialRequest);
+          return PageResp.<Conversation>builder()
+              .items(firstPage.getData())
+              .iterator(
+                  new LazyIterator<>(() -> new PageNumBasedPaginator<>(pageFetcher, pageSize)))
+              .logID(firstPage.getLogID())
+              .hasMore(firstPage.isHasMore())
+              .build();
+        });
+  }
+
+  public AsyncMessageService messages() {
+    return messageApi;
+  }
+}
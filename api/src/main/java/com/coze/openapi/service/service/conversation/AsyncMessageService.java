@@ -0,0 +1,96 @@
+package com.coze.openapi.service.service.conversation;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.coze.openapi.api.ConversationMessageAPI;
+import com.coze.openapi.client.common.pagination.PageResp;
+import com.coze.openapi.client.common.pagination.PageResponse;
+import com.coze.openapi.client.common.pagination.TokenBasedPaginator;
+import com.coze.openapi.client.connversations.message.CreateMessageReq;
+import com.coze.openapi.client.connversations.message.CreateMessageResp;
+import com.coze.openapi.client.connversations.message.DeleteMessageReq;
+import com.coze.openapi.client.connversations.message.DeleteMessageResp;
+import com.coze.openapi.client.connversations.message.ListMessageReq;
+import com.coze.openapi.client.connversations.message.RetrieveMessageReq;
+import com.coze.openapi.client.connversations.message.RetrieveMessageResp;
+import com.coze.openapi.client.connversations.message.UpdateMessageReq;
+import com.coze.openapi.client.connversations.message.UpdateMessageResp;
+import com.coze.openapi.client.connversations.message.model.Message;
+import com.coze.openapi.service.utils.Utils;
+
+public class AsyncMessageService {
+  private final ConversationMessageAPI api;
+  private final MessageService messageService;
+
+  public AsyncMessageService(ConversationMessageAPI api) {
+    this.api = api;
+    this.messageService = new MessageService(api);
+  }
+
+  public CompletableFuture<CreateMessageResp> create(String conversationID, CreateMessageReq req) {
+    if (conversationID == null) {
+      throw new IllegalArgumentException("conversationID is required");
+    }
+    return Utils.executeAsync(
+        api.create(conversationID, req, req),
+        resp -> CreateMessageResp.builder().message(resp.getData()).logID(resp.getLogID()).build());
+  }
+
+  public CompletableFuture<CreateMessageResp> create(CreateMessageReq req) {
+    if (req == null || req.getConversationID() == null) {
+      throw new IllegalArgumentException("conversationID is required");
+    }
+    return create(req.getConversationID(), req);
+  }
+
+  public CompletableFuture<PageResp<Message>> list(ListMessageReq req) {
+    if (req == null || req.getConversationID() == null) {
+      throw new IllegalArgumentException("conversationID is required");
+    }
+
+    String conversationID = req.getConversationID();
+    TokenBasedPaginator<Message> paginator =
+        new TokenBasedPaginator<>(
+            messageService.getMessagePageFetcher(req, conversationID), req.getLimit());
+
+    return Utils.executeAsync(
+        api.list(conversationID, req, req),
+        resp -> {
+          PageResponse<Message> currentPage = MessageService.toPage(resp);
+          paginator.setCurrentPage(currentPage);
+          return PageResp.<Message>builder()
+              .items(currentPage.getData())
+              .iterator(paginator)
+              .lastID(currentPage.getLastID())
+              .firstID(currentPage.getFirstID())
+              .hasMore(currentPage.isHasMore())
+              .build();
+        });
+  }
+
+  public CompletableFuture<RetrieveMessageResp> retrieve(RetrieveMessageReq req) {
+    if (req == null || req.getConversationID() == null || req.getMessageID() == null) {
+      throw new IllegalArgumentException("conversationID and messageID are required");
+    }
+    return Utils.executeAsync(
+        api.retrieve(req.getConversationID(), req.getMessageID(), req),
+        resp ->
+            RetrieveMessageResp.builder().message(resp.getData()).logID(resp.getLogID()).build());
+  }
+
+  public CompletableFuture<UpdateMessageResp> update(UpdateMessageReq req) {
+    if (req == null || req.getConversationID() == null || req.getMessageID() == null) {
+      throw new IllegalArgumentException("conversationID and messageID are required");
+    }
+    return Utils.executeAsync(api.update(req.getConversationID(), req.getMessageID(), req, req));
+  }
+
+  public CompletableFuture<DeleteMessageResp> delete(DeleteMessageReq req) {
+    if (req == null || req.getConversationID() == null || req.getMessageID() == null) {
+      throw new IllegalArgumentException("conversationID and messageID are required");
+    }
+    return Utils.executeAsync(
+        api.delete(req.getConversationID(), req.getMessageID(), req),
+        resp -> DeleteMessageResp.builder().message(resp.getData()).logID(resp.getLogID()).build());
+  }
+}
@@ -71,20 +71,7 @@ public class ConversationService {
     String botID = req.getBotID();
 
     // 创建分页获取器
-    PageFetcher<Conversation> pageFetcher =
-        request -> {
-          ListConversationResp resp =
-              Utils.execute(api.list(botID, request.getPageNum(), request.getPageSize(), req))
-                  .getData();
-
-          return PageResponse.<Conversation>builder()
-              .hasMore(resp.isHasMore())
-              .data(resp.getConversations())
-              .pageNum(request.getPageNum())
-              .pageSize(request.getPageSize())
-              .logID(resp.getLogID())
-              .build();
-        };
+    PageFetcher<Conversation> pageFetcher = pageFetcher(req);
 
     // 创建分页器
     PageNumBasedPaginator<Conversation> paginator =
@@ -103,6 +90,25 @@ public class ConversationService {
         .build();
   }
 
+  PageFetcher<Conversation> pageFetcher(ListConversationReq req) {
+    String botID = req.getBotID();
+    return request ->
+        toPage(
+            Utils.execute(api.list(botID, request.getPageNum(), request.getPageSize(), req))
+                .getData(),
+            request);
+  }
+
+  static PageResponse<Conversation> toPage(ListConversationResp resp, PageRequest request) {
+    return PageResponse.<Conversation>builder()
+        .hasMore(resp.isHasMore())
+        .data(resp.getConversations())
+        .pageNum(request.getPageNum())
+        .pageSize(request.getPageSize())
+        .logID(resp.getLogID())
+        .build();
+  }
+
   public MessageService messages() {
     return messageApi;
   }
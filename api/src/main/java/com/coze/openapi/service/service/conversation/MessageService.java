@@ -89,25 +89,28 @@ public class MessageService {
         .build();
   }
 
-  private PageFetcher<Message> getMessagePageFetcher(ListMessageReq req, String conversationID) {
+  PageFetcher<Message> getMessagePageFetcher(ListMessageReq req, String conversationID) {
 
     // 创建分页获取器
     PageFetcher<Message> pageFetcher =
         request -> {
           // 当前迭代器仅支持向后翻页，若有向前翻页需求，请自行处理
           req.setAfterID(request.getPageToken());
-          ListMessageResp resp = Utils.execute(api.list(conversationID, req, req));
-          return PageResponse.<Message>builder()
-              .hasMore(resp.isHasMore())
-              .pageToken(resp.getLastID())
-              .firstID(resp.getFirstID())
-              .lastID(resp.getLastID())
-              .data(resp.getData())
-              .build();
+          return toPage(Utils.execute(api.list(conversationID, req, req)));
         };
     return pageFetcher;
   }
 
+  static PageResponse<Message> toPage(ListMessageResp resp) {
+    return PageResponse.<Message>builder()
+        .hasMore(resp.isHasMore())
+        .pageToken(resp.getLastID())
+        .firstID(resp.getFirstID())
+        .lastID(resp.getLastID())
+        .data(resp.getData())
+        .build();
+  }
+
   /*
   *  Get the detailed information of specified message.
 
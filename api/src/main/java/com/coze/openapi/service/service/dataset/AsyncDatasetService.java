@@ -0,0 +1,95 @@
+package com.coze.openapi.service.service.dataset;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.coze.openapi.api.DatasetAPI;
+import com.coze.openapi.api.DatasetDocumentAPI;
+import com.coze.openapi.api.DatasetImageAPI;
+import com.coze.openapi.client.common.pagination.LazyIterator;
+import com.coze.openapi.client.common.pagination.PageFetcher;
+import com.coze.openapi.client.common.pagination.PageNumBasedPaginator;
+import com.coze.openapi.client.common.pagination.PageRequest;
+import com.coze.openapi.client.common.pagination.PageResp;
+import com.coze.openapi.client.common.pagination.PageResponse;
+import com.coze.openapi.client.dataset.CreateDatasetReq;
+import com.coze.openapi.client.dataset.CreateDatasetResp;
+import com.coze.openapi.client.dataset.DeleteDatasetReq;
+import com.coze.openapi.client.dataset.DeleteDatasetResp;
+import com.coze.openapi.client.dataset.ListDatasetReq;
+import com.coze.openapi.client.dataset.ProcessDatasetReq;
+import com.coze.openapi.client.dataset.ProcessDatasetResp;
+import com.coze.openapi.client.dataset.UpdateDatasetReq;
+import com.coze.openapi.client.dataset.UpdateDatasetResp;
+import com.coze.openapi.client.dataset.model.Dataset;
+import com.coze.openapi.service.utils.Utils;
+
+public class AsyncDatasetService {
+  private final DatasetAPI api;
+  private final DatasetService datasetService;
+  private final AsyncDocumentService documentService;
+  private final AsyncImageService imageService;
+
+  public AsyncDatasetService(
+      DatasetAPI api, DatasetDocumentAPI documentApi, DatasetImageAPI imageApi) {
+    this.api = api;
+    this.datasetService = new DatasetService(api, documentApi, imageApi);
+    this.documentService = new AsyncDocumentService(documentApi);
+    this.imageService = new AsyncImageService(imageApi);
+  }
+
+  public AsyncDocumentService documents() {
+    return this.documentService;
+  }
+
+  public AsyncImageService images() {
+    return this.imageService;
+  }
+
+  public CompletableFuture<CreateDatasetResp> create(CreateDatasetReq req) {
+    return Utils.executeAsync(api.create(req, req), resp -> resp.getData());
+  }
+
+  public CompletableFuture<PageResp<Dataset>> list(ListDatasetReq req) {
+    if (req.getSpaceID() == null) {
+      throw new IllegalArgumentException("spaceID is required");
+    }
+
+    PageFetcher<Dataset> pageFetcher = datasetService.pageFetcher(req);
+    PageRequest initialRequest =
+        PageRequest.builder().pageNum(req.getPageNum()).pageSize(req.getPageSize()).build();
+
+    return Utils.executeAsync(
+        datasetService.listCall(req, initialRequest),
+        resp -> {
+          PageResponse<Dataset> currentPage = DatasetService.toPage(resp.getData(), initialRequest);
+          return PageResp.<Dataset>builder()
+              .total(currentPage.getTotal())
+              .items(currentPage.getData())
+              .iterator(
+                  new LazyIterator<>(
+                      () -> new PageNumBasedPaginator<>(pageFetcher, req.getPageSize())))
+              .hasMore(currentPage.isHasMore())
+              .logID(currentPage.getLogID())
+              .build();
+        });
+  }
+
+  public CompletableFuture<UpdateDatasetResp> update(UpdateDatasetReq req) {
+    if (req.getDatasetID() == null) {
+      throw new IllegalArgumentException("datasetID is required");
+    }
+    return Utils.executeAsync(
+        api.update(req.getDatasetID(), req, req),
+        result -> UpdateDatasetResp.builder().logID(result.getLogID()).build());
+  }
+
+  public CompletableFuture<DeleteDatasetResp> delete(DeleteDatasetReq req) {
+    return Utils.executeAsync(
+        api.delete(req.getDatasetID(), req),
+        result -> DeleteDatasetResp.builder().logID(result.getLogID()).build());
+  }
+
+  public CompletableFuture<ProcessDatasetResp> process(ProcessDatasetReq req) {
+    return Utils.executeAsync(api.process(req.getDatasetID(), req, req), resp -> resp.getData());
+  }
+}
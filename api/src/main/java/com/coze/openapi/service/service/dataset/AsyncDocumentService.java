@@ -0,0 +1,69 @@
+package com.coze.openapi.service.service.dataset;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.coze.openapi.api.DatasetDocumentAPI;
+import com.coze.openapi.client.common.pagination.LazyIterator;
+import com.coze.openapi.client.common.pagination.PageFetcher;
+import com.coze.openapi.client.common.pagination.PageNumBasedPaginator;
+import com.coze.openapi.client.common.pagination.PageRequest;
+import com.coze.openapi.client.common.pagination.PageResp;
+import com.coze.openapi.client.common.pagination.PageResponse;
+import com.coze.openapi.client.dataset.document.CreateDocumentReq;
+import com.coze.openapi.client.dataset.document.CreateDocumentResp;
+import com.coze.openapi.client.dataset.document.DeleteDocumentReq;
+import com.coze.openapi.client.dataset.document.DeleteDocumentResp;
+import com.coze.openapi.client.dataset.document.ListDocumentReq;
+import com.coze.openapi.client.dataset.document.UpdateDocumentReq;
+import com.coze.openapi.client.dataset.document.UpdateDocumentResp;
+import com.coze.openapi.client.dataset.document.model.Document;
+import com.coze.openapi.service.utils.Utils;
+
+public class AsyncDocumentService {
+  private final DatasetDocumentAPI api;
+  private final DocumentService documentService;
+
+  public AsyncDocumentService(DatasetDocumentAPI api) {
+    this.api = api;
+    this.documentService = new DocumentService(api);
+  }
+
+  public CompletableFuture<CreateDocumentResp> create(CreateDocumentReq req) {
+    return Utils.executeAsync(api.create(req, req));
+  }
+
+  public CompletableFuture<UpdateDocumentResp> update(UpdateDocumentReq req) {
+    return Utils.executeAsync(
+        api.update(req, req), resp -> UpdateDocumentResp.builder().logID(resp.getLogID()).build());
+  }
+
+  public CompletableFuture<DeleteDocumentResp> delete(DeleteDocumentReq req) {
+    return Utils.executeAsync(
+        api.delete(req, req), resp -> DeleteDocumentResp.builder().logID(resp.getLogID()).build());
+  }
+
+  public CompletableFuture<PageResp<Document>> list(ListDocumentReq req) {
+    if (req == null || req.getDatasetID() == null) {
+      throw new IllegalArgumentException("req is required");
+    }
+
+    Integer pageSize = req.getSize();
+    PageFetcher<Document> pageFetcher = documentService.pageFetcher(req);
+    PageRequest initialRequest =
+        PageRequest.builder().pageNum(req.getPage()).pageSize(pageSize).build();
+
+    return Utils.executeAsync(
+        documentService.listCall(req, initialRequest),
+        resp -> {
+          PageResponse<Document> currentPage = DocumentService.toPage(resp, initialRequest);
+          return PageResp.<Document>builder()
+              .total(currentPage.getTotal())
+              .items(currentPage.getData())
+              .iterator(
+                  new LazyIterator<>(() -> new PageNumBasedPaginator<>(pageFetcher, pageSize)))
+              .hasMore(currentPage.isHasMore())
+              .logID(currentPage.getLogID())
+              .build();
+        });
+  }
+}
@@ -0,0 +1,57 @@
+package com.coze.openapi.service.service.dataset;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.coze.openapi.api.DatasetImageAPI;
+import com.coze.openapi.client.common.pagination.LazyIterator;
+import com.coze.openapi.client.common.pagination.PageFetcher;
+import com.coze.openapi.client.common.pagination.PageNumBasedPaginator;
+import com.coze.openapi.client.common.pagination.PageRequest;
+import com.coze.openapi.client.common.pagination.PageResp;
+import com.coze.openapi.client.common.pagination.PageResponse;
+import com.coze.openapi.client.dataset.image.ListImageReq;
+import com.coze.openapi.client.dataset.image.UpdateImageReq;
+import com.coze.openapi.client.dataset.image.UpdateImageResp;
+import com.coze.openapi.client.dataset.image.model.Image;
+import com.coze.openapi.service.utils.Utils;
+
+public class AsyncImageService {
+  private final DatasetImageAPI api;
+  private final ImageService imageService;
+
+  public AsyncImageService(DatasetImageAPI api) {
+    this.api = api;
+    this.imageService = new ImageService(api);
+  }
+
+  public CompletableFuture<UpdateImageResp> update(UpdateImageReq req) {
+    return Utils.executeAsync(
+        api.update(req.getDatasetID(), req.getDocumentID(), req, req),
+        result -> UpdateImageResp.builder().logID(result.getLogID()).build());
+  }
+
+  public CompletableFuture<PageResp<Image>> list(ListImageReq req) {
+    if (req.getDatasetID() == null) {
+      throw new IllegalArgumentException("datasetID is required");
+    }
+
+    PageFetcher<Image> pageFetcher = imageService.pageFetcher(req);
+    PageRequest initialRequest =
+        PageRequest.builder().pageNum(req.getPageNum()).pageSize(req.getPageSize()).build();
+
+    return Utils.executeAsync(
+        imageService.listCall(req, initialRequest),
+        resp -> {
+          PageResponse<Image> currentPage = ImageService.toPage(resp.getData(), initialRequest);
+          return PageResp.<Image>builder()
+              .total(currentPage.getTotal())
+              .items(currentPage.getData())
+              .iterator(
+                  new LazyIterator<>(
+                      () -> new PageNumBasedPaginator<>(pageFetcher, req.getPageSize())))
+              .hasMore(currentPage.isHasMore())
+              .logID(currentPage.getLogID())
+              .build();
+        });
+  }
+}
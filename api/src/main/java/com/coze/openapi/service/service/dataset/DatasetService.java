@@ -22,6 +22,8 @@ import com.coze.openapi.client.dataset.UpdateDatasetResp;
 import com.coze.openapi.client.dataset.model.Dataset;
 import com.coze.openapi.service.utils.Utils;
 
+import retrofit2.Call;
+
 public class DatasetService {
   private final DatasetAPI api;
   private final DocumentService documentService;
@@ -63,27 +65,7 @@ public class DatasetService {
     }
 
     // 创建分页获取器
-    PageFetcher<Dataset> pageFetcher =
-        request -> {
-          ListDatasetResp resp =
-              Utils.execute(
-                      api.list(
-                          req.getSpaceID(),
-                          req.getName(),
-                          req.getFormatType() != null ? req.getFormatType().getValue() : null,
-                          request.getPageSize(),
-                          request.getPageNum(),
-                          req))
-                  .getData();
-          return PageResponse.<Dataset>builder()
-              .hasMore(resp.getDatasetList().size() == request.getPageSize())
-              .data(resp.getDatasetList())
-              .pageNum(request.getPageNum())
-              .logID(resp.getLogID())
-              .pageSize(request.getPageSize())
-              .total(resp.getTotalCount())
-              .build();
-        };
+    PageFetcher<Dataset> pageFetcher = pageFetcher(req);
 
     // 创建分页器
     PageNumBasedPaginator<Dataset> paginator =
@@ -104,6 +86,31 @@ public class DatasetService {
         .build();
   }
 
+  Call<BaseResponse<ListDatasetResp>> listCall(ListDatasetReq req, PageRequest request) {
+    return api.list(
+        req.getSpaceID(),
+        req.getName(),
+        req.getFormatType() != null ? req.getFormatType().getValue() : null,
+        request.getPageSize(),
+        request.getPageNum(),
+        req);
+  }
+
+  PageFetcher<Dataset> pageFetcher(ListDatasetReq req) {
+    return request -> toPage(Utils.execute(listCall(req, request)).getData(), request);
+  }
+
+  static PageResponse<Dataset> toPage(ListDatasetResp resp, PageRequest request) {
+    return PageResponse.<Dataset>builder()
+        .hasMore(resp.getDatasetList().size() == request.getPageSize())
+        .data(resp.getDatasetList())
+        .pageNum(request.getPageNum())
+        .logID(resp.getLogID())
+        .pageSize(request.getPageSize())
+        .total(resp.getTotalCount())
+        .build();
+  }
+
   /*
    * Update Dataset
    *
@@ -17,6 +17,8 @@ import com.coze.openapi.client.dataset.document.UpdateDocumentResp;
 import com.coze.openapi.client.dataset.document.model.Document;
 import com.coze.openapi.service.utils.Utils;
 
+import retrofit2.Call;
+
 public class DocumentService {
   private final DatasetDocumentAPI api;
 
@@ -65,23 +67,7 @@ public class DocumentService {
     Integer pageSize = req.getSize();
 
     // 创建分页获取器
-    PageFetcher<Document> pageFetcher =
-        request -> {
-          ListDocumentResp resp =
-              Utils.execute(
-                  api.list(
-                      ListDocumentReq.of(
-                          req.getDatasetID(), request.getPageNum(), request.getPageSize()),
-                      req));
-          return PageResponse.<Document>builder()
-              .hasMore(resp.getDocumentInfos().size() == request.getPageSize())
-              .data(resp.getDocumentInfos())
-              .pageNum(request.getPageNum())
-              .logID(resp.getLogID())
-              .pageSize(request.getPageSize())
-              .total(resp.getTotal().intValue())
-              .build();
-        };
+    PageFetcher<Document> pageFetcher = pageFetcher(req);
 
     // 创建分页器
     PageNumBasedPaginator<Document> paginator = new PageNumBasedPaginator<>(pageFetcher, pageSize);
@@ -99,4 +85,24 @@ public class DocumentService {
         .logID(currentPage.getLogID())
         .build();
   }
+
+  Call<ListDocumentResp> listCall(ListDocumentReq req, PageRequest request) {
+    return api.list(
+        ListDocumentReq.of(req.getDatasetID(), request.getPageNum(), request.getPageSize()), req);
+  }
+
+  PageFetcher<Document> pageFetcher(ListDocumentReq req) {
+    return request -> toPage(Utils.execute(listCall(req, request)), request);
+  }
+
+  static PageResponse<Document> toPage(ListDocumentResp resp, PageRequest request) {
+    return PageResponse.<Document>builder()
+        .hasMore(resp.getDocumentInfos().size() == request.getPageSize())
+        .data(resp.getDocumentInfos())
+        .pageNum(request.getPageNum())
+        .logID(resp.getLogID())
+        .pageSize(request.getPageSize())
+        .total(resp.getTotal().intValue())
+        .build();
+  }
 }
@@ -14,6 +14,8 @@ import com.coze.openapi.client.dataset.image.UpdateImageResp;
 import com.coze.openapi.client.dataset.image.model.Image;
 import com.coze.openapi.service.utils.Utils;
 
+import retrofit2.Call;
+
 public class ImageService {
   private final DatasetImageAPI api;
 
@@ -46,27 +48,7 @@ public class ImageService {
     }
 
     // 创建分页获取器
-    PageFetcher<Image> pageFetcher =
-        request -> {
-          ListImageResp resp =
-              Utils.execute(
-                      api.list(
-                          req.getDatasetID(),
-                          req.getKeyword(),
-                          req.getHasCaption(),
-                          request.getPageNum(),
-                          request.getPageSize(),
-                          req))
-                  .getData();
-          return PageResponse.<Image>builder()
-              .hasMore(resp.getImageInfos().size() == request.getPageSize())
-              .data(resp.getImageInfos())
-              .pageNum(request.getPageNum())
-              .logID(resp.getLogID())
-              .pageSize(request.getPageSize())
-              .total(resp.getTotalCount())
-              .build();
-        };
+    PageFetcher<Image> pageFetcher = pageFetcher(req);
 
     // 创建分页器
     PageNumBasedPaginator<Image> paginator =
@@ -86,4 +68,29 @@ public class ImageService {
         .logID(currentPage.getLogID())
         .build();
   }
+
+  Call<BaseResponse<ListImageResp>> listCall(ListImageReq req, PageRequest request) {
+    return api.list(
+        req.getDatasetID(),
+        req.getKeyword(),
+        req.getHasCaption(),
+        request.getPageNum(),
+        request.getPageSize(),
+        req);
+  }
+
+  PageFetcher<Image> pageFetcher(ListImageReq req) {
+    return request -> toPage(Utils.execute(listCall(req, request)).getData(), request);
+  }
+
+  static PageResponse<Image> toPage(ListImageResp resp, PageRequest request) {
+    return PageResponse.<Image>builder()
+        .hasMore(resp.getImageInfos().size() == request.getPageSize())
+        .data(resp.getImageInfos())
+        .pageNum(request.getPageNum())
+        .logID(resp.getLogID())
+        .pageSize(request.getPageSize())
+        .total(resp.getTotalCount())
+        .build();
+  }
 }
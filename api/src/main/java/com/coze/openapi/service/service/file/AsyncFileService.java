@@ -0,0 +1,33 @@
+package com.coze.openapi.service.service.file;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.coze.openapi.api.FileAPI;
+import com.coze.openapi.client.files.RetrieveFileReq;
+import com.coze.openapi.client.files.RetrieveFileResp;
+import com.coze.openapi.client.files.UploadFileReq;
+import com.coze.openapi.client.files.UploadFileResp;
+import com.coze.openapi.service.utils.Utils;
+
+public class AsyncFileService {
+  private final FileAPI api;
+
+  public AsyncFileService(FileAPI api) {
+    this.api = api;
+  }
+
+  /*
+   * Upload files to Coze platform, see FileService.upload.
+   * */
+  public CompletableFuture<UploadFileResp> upload(UploadFileReq req) {
+    return Utils.executeAsync(
+        api.upload(FileService.filePart(req), req),
+        resp -> UploadFileResp.builder().fileInfo(resp.getData()).logID(resp.getLogID()).build());
+  }
+
+  public CompletableFuture<RetrieveFileResp> retrieve(RetrieveFileReq req) {
+    return Utils.executeAsync(
+        api.retrieve(req.getFileID(), req),
+        resp -> RetrieveFileResp.builder().fileInfo(resp.getData()).logID(resp.getLogID()).build());
+  }
+}
@@ -3,7 +3,6 @@ package com.coze.openapi.service.service.file;
 import java.io.File;
 
 import com.coze.openapi.api.FileAPI;
-import com.coze.openapi.client.common.BaseReq;
 import com.coze.openapi.client.common.BaseResponse;
 import com.coze.openapi.client.files.RetrieveFileReq;
 import com.coze.openapi.client.files.RetrieveFileResp;
@@ -34,21 +33,26 @@ public class FileService {
    * https://www.coze.cn/docs/developer_guides/upload_files
    */
   public UploadFileResp upload(UploadFileReq req) {
+    BaseResponse<FileInfo> resp = Utils.execute(api.upload(filePart(req), req));
+    return UploadFileResp.builder().fileInfo(resp.getData()).logID(resp.getLogID()).build();
+  }
+
+  static MultipartBody.Part filePart(UploadFileReq req) {
     if (req.getFilePath() != null) {
       File file = new File(req.getFilePath());
-      return uploadFile(file, file.getName(), req);
+      return filePart(file, file.getName());
     }
     if (req.getFileBytes() != null) {
-      return uploadFile(req.getFileBytes(), req.getFileName(), req);
+      return filePart(req.getFileBytes(), req.getFileName());
     }
     if (req.getFile() != null) {
-      return uploadFile(req.getFile(), req.getFileName(), req);
+      return filePart(req.getFile(), req.getFileName());
     }
     throw new IllegalArgumentException("file source is required");
   }
 
   /** Internal unified upload processing method */
-  private UploadFileResp uploadFile(Object fileSource, String filename, BaseReq req) {
+  private static MultipartBody.Part filePart(Object fileSource, String filename) {
     RequestBody requestFile;
     if (fileSource instanceof File) {
       MediaType mediaType = MediaType.parse("multipart/form-data");
@@ -58,10 +62,7 @@ public class FileService {
       requestFile = RequestBody.create(mediaType, (byte[]) fileSource);
     }
 
-    MultipartBody.Part body = MultipartBody.Part.createFormData("file", filename, requestFile);
-
-    BaseResponse<FileInfo> resp = Utils.execute(api.upload(body, req));
-    return UploadFileResp.builder().fileInfo(resp.getData()).logID(resp.getLogID()).build();
+    return MultipartBody.Part.createFormData("file", filename, requestFile);
   }
 
   public RetrieveFileResp retrieve(RetrieveFileReq req) {
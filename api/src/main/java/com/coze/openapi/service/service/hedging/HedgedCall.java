@@ -0,0 +1,234 @@
+package com.coze.openapi.service.service.hedging;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Request;
+import okhttp3.Response;
+import okio.Timeout;
+
+/*
+ * A call that is sent once more when it has not answered within the hedge delay. The first
+ * response wins, the other attempt is canceled. A failure is only reported once no attempt is
+ * running anymore.
+ * */
+class HedgedCall implements Call {
+  private final HedgingCallFactory factory;
+  private final String endpoint;
+  private final Request request;
+  private final Call primary;
+  private final AtomicBoolean executed = new AtomicBoolean();
+  private volatile boolean canceled;
+
+  // 以下字段由 this 保护
+  private final List<Call> attempts = new ArrayList<>(2);
+  private ScheduledFuture<?> hedgeTimer;
+  private int running;
+  private boolean done;
+
+  HedgedCall(HedgingCallFactory factory, String endpoint, Request request) {
+    this.factory = factory;
+    this.endpoint = endpoint;
+    this.request = request;
+    this.primary = factory.delegate().newCall(request);
+  }
+
+  @Override
+  public Request request() {
+    return request;
+  }
+
+  /*
+   * The primary attempt runs on the calling thread, like a plain execute: it is not held back by
+   * the dispatcher limits and its latency sample does not include time spent in the dispatcher
+   * queue. Only the hedge is dispatched. When the hedge answers first the primary is canceled and
+   * the hedge's response is returned.
+   * */
+  @Override
+  public Response execute() throws IOException {
+    CompletableFuture<Response> result = new CompletableFuture<>();
+    Callback callback =
+        new Callback() {
+          @Override
+          public void onFailure(Call call, IOException e) {
+            result.completeExceptionally(e);
+          }
+
+          @Override
+          public void onResponse(Call call, Response response) {
+            result.complete(response);
+          }
+        };
+    Attempt attempt = start(callback);
+    scheduleHedge(callback);
+    Response response;
+    try {
+      response = primary.execute();
+    } catch (IOException e) {
+      attempt.onFailure(primary, e);
+      response = null;
+    } catch (RuntimeException e) {
+      cancel();
+      throw e;
+    }
+    if (response != null) {
+      attempt.onResponse(primary, response);
+    }
+    // 原请求已经结束，这里最多再等正在进行的对冲请求
+    try {
+      return result.get();
+    } catch (InterruptedException e) {
+      cancel();
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("interrupted");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException(e.getCause());
+    }
+  }
+
+  @Override
+  public void enqueue(Callback callback) {
+    primary.enqueue(start(callback));
+    scheduleHedge(callback);
+  }
+
+  // 登记原请求，返回它的回调
+  private Attempt start(Callback callback) {
+    if (!executed.compareAndSet(false, true)) {
+      throw new IllegalStateException("Already Executed");
+    }
+    factory.onCall();
+    synchronized (this) {
+      attempts.add(primary);
+      running = 1;
+    }
+    return new Attempt(callback, false);
+  }
+
+  private synchronized void scheduleHedge(Callback callback) {
+    if (!done && !canceled) {
+      hedgeTimer =
+          factory
+              .scheduler()
+              .schedule(
+                  () -> hedge(callback), factory.delayMillis(endpoint), TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private void hedge(Callback callback) {
+    Call hedge;
+    synchronized (this) {
+      if (done || canceled || !factory.tryHedge()) {
+        return;
+      }
+      hedge = factory.delegate().newCall(request);
+      attempts.add(hedge);
+      running++;
+    }
+    hedge.enqueue(new Attempt(callback, true));
+  }
+
+  private synchronized List<Call> finish() {
+    done = true;
+    if (hedgeTimer != null) {
+      hedgeTimer.cancel(false);
+    }
+    return new ArrayList<>(attempts);
+  }
+
+  @Override
+  public void cancel() {
+    canceled = true;
+    List<Call> toCancel;
+    synchronized (this) {
+      if (hedgeTimer != null) {
+        hedgeTimer.cancel(false);
+      }
+      toCancel = new ArrayList<>(attempts);
+    }
+    for (Call call : toCancel) {
+      call.cancel();
+    }
+  }
+
+  @Override
+  public boolean isExecuted() {
+    return executed.get();
+  }
+
+  @Override
+  public boolean isCanceled() {
+    return canceled;
+  }
+
+  @Override
+  public Timeout timeout() {
+    return primary.timeout();
+  }
+
+  @Override
+  public Call clone() {
+    return new HedgedCall(factory, endpoint, request);
+  }
+
+  private final class Attempt implements Callback {
+    private final Callback callback;
+    private final boolean isHedge;
+    private final long start = System.nanoTime();
+
+    Attempt(Callback callback, boolean isHedge) {
+      this.callback = callback;
+      this.isHedge = isHedge;
+    }
+
+    @Override
+    public void onResponse(Call call, Response response) throws IOException {
+      factory.onLatency(endpoint, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+      List<Call> losers;
+      boolean wasHedged;
+      synchronized (HedgedCall.this) {
+        running--;
+        if (done) {
+          // 另一个请求已经先返回
+          response.close();
+          return;
+        }
+        wasHedged = attempts.size() > 1;
+        losers = finish();
+      }
+      for (Call loser : losers) {
+        if (loser != call) {
+          loser.cancel();
+        }
+      }
+      if (wasHedged) {
+        (isHedge ? factory.hedgeWins : factory.hedgeLosses).incrementAndGet();
+      }
+      callback.onResponse(HedgedCall.this, response);
+    }
+
+    @Override
+    public void onFailure(Call call, IOException e) {
+      synchronized (HedgedCall.this) {
+        running--;
+        if (done || running > 0) {
+          return;
+        }
+        finish();
+      }
+      callback.onFailure(HedgedCall.this, e);
+    }
+  }
+}
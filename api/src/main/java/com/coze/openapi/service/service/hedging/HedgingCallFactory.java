@@ -0,0 +1,106 @@
+package com.coze.openapi.service.service.hedging;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.coze.openapi.service.service.common.StreamExecutors;
+import com.coze.openapi.service.service.retry.RetryBudget;
+import com.coze.openapi.service.utils.Utils;
+
+import okhttp3.Call;
+import okhttp3.Request;
+
+/*
+ * Call factory that hedges the calls of the configured endpoints, see HedgingConfig. Other calls are
+ * passed to the delegate unchanged.
+ *
+ * Each attempt is a separate call of the delegate, so it goes through the interceptors (retry,
+ * circuit breaker, rate limit) on its own.
+ * */
+public class HedgingCallFactory implements Call.Factory {
+  private static final class SchedulerHolder {
+    static final ScheduledExecutorService scheduler =
+        Executors.newSingleThreadScheduledExecutor(StreamExecutors.threadFactory("coze-hedge"));
+  }
+
+  private final Call.Factory delegate;
+  private final HedgingConfig config;
+  private final RetryBudget budget;
+  private final ConcurrentMap<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+
+  final AtomicLong calls = new AtomicLong();
+  final AtomicLong hedged = new AtomicLong();
+  final AtomicLong hedgeWins = new AtomicLong();
+  final AtomicLong hedgeLosses = new AtomicLong();
+  final AtomicLong budgetRejected = new AtomicLong();
+
+  public HedgingCallFactory(Call.Factory delegate, HedgingConfig config) {
+    this.delegate = delegate;
+    this.config = config;
+    this.budget = new RetryBudget(config.getBudgetRatio(), config.getBudgetMaxTokens());
+  }
+
+  @Override
+  public Call newCall(Request request) {
+    String endpoint = Utils.endpointKey(request);
+    if (!config.getEndpoints().contains(endpoint)) {
+      return delegate.newCall(request);
+    }
+    return new HedgedCall(this, endpoint, request);
+  }
+
+  /*
+   * How long a call of the endpoint may run before it is hedged.
+   * */
+  public long delayMillis(String endpoint) {
+    LatencyWindow window = latencies.get(endpoint);
+    if (config.getDelayPercentile() <= 0
+        || window == null
+        || window.size() < config.getMinSamples()) {
+      return config.getInitialDelayMillis();
+    }
+    long delay = window.percentile(config.getDelayPercentile());
+    return Math.max(config.getMinDelayMillis(), Math.min(config.getMaxDelayMillis(), delay));
+  }
+
+  public HedgingStats stats() {
+    return HedgingStats.builder()
+        .calls(calls.get())
+        .hedged(hedged.get())
+        .hedgeWins(hedgeWins.get())
+        .hedgeLosses(hedgeLosses.get())
+        .budgetRejected(budgetRejected.get())
+        .build();
+  }
+
+  Call.Factory delegate() {
+    return delegate;
+  }
+
+  ScheduledExecutorService scheduler() {
+    return SchedulerHolder.scheduler;
+  }
+
+  void onCall() {
+    calls.incrementAndGet();
+    budget.onRequest();
+  }
+
+  boolean tryHedge() {
+    if (budget.tryAcquire()) {
+      hedged.incrementAndGet();
+      return true;
+    }
+    budgetRejected.incrementAndGet();
+    return false;
+  }
+
+  void onLatency(String endpoint, long millis) {
+    latencies
+        .computeIfAbsent(endpoint, k -> new LatencyWindow(config.getLatencyWindowSize()))
+        .add(millis);
+  }
+}
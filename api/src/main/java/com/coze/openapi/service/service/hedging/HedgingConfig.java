@@ -0,0 +1,52 @@
+package com.coze.openapi.service.service.hedging;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/*
+ * Which calls are hedged and when the hedge is sent.
+ *
+ * Only the endpoints listed in endpoints (keyed like BotAPI.retrieve) are hedged; they must be safe
+ * to send twice. When a call has not answered after the hedge delay, a second identical call is
+ * sent, the first answer wins and the other call is canceled.
+ *
+ * The delay is the delayPercentile of the recent latencies of the endpoint, bounded by
+ * minDelayMillis and maxDelayMillis. Until minSamples latencies were observed, or when
+ * delayPercentile is 0, initialDelayMillis is used.
+ *
+ * Hedges may not exceed budgetRatio of the hedgeable calls, so during an incident hedging does not
+ * double the load.
+ * */
+@Getter
+@Builder(toBuilder = true)
+@ToString
+public class HedgingConfig {
+  @Builder.Default
+  private Set<String> endpoints =
+      new HashSet<>(
+          Arrays.asList(
+              "BotAPI.retrieve",
+              "ChatAPI.retrieve",
+              "ConversationMessageAPI.retrieve",
+              "FileAPI.retrieve",
+              "WorkflowRunHistoryAPI.retrieve"));
+
+  @Builder.Default private double delayPercentile = 0.95;
+  @Builder.Default private long initialDelayMillis = 200;
+  @Builder.Default private long minDelayMillis = 20;
+  @Builder.Default private long maxDelayMillis = 2000;
+  @Builder.Default private int latencyWindowSize = 128;
+  @Builder.Default private int minSamples = 20;
+
+  @Builder.Default private double budgetRatio = 0.1;
+  @Builder.Default private int budgetMaxTokens = 10;
+
+  public static HedgingConfig defaultConfig() {
+    return HedgingConfig.builder().build();
+  }
+}
@@ -0,0 +1,22 @@
+package com.coze.openapi.service.service.hedging;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/*
+ * Counters of the hedged calls since the client was built.
+ *
+ * hedgeWins: the hedge answered first. hedgeLosses: a hedge was sent, but the original call still
+ * answered first. budgetRejected: a hedge was due but the hedge budget was exhausted.
+ * */
+@Getter
+@Builder
+@ToString
+public class HedgingStats {
+  private final long calls;
+  private final long hedged;
+  private final long hedgeWins;
+  private final long hedgeLosses;
+  private final long budgetRejected;
+}
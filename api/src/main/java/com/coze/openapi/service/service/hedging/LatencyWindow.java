@@ -0,0 +1,41 @@
+package com.coze.openapi.service.service.hedging;
+
+import java.util.Arrays;
+
+/*
+ * The last latencies of an endpoint, used to derive its hedge delay.
+ * */
+class LatencyWindow {
+  private final long[] samples;
+  private int size;
+  private int next;
+
+  LatencyWindow(int capacity) {
+    this.samples = new long[capacity];
+  }
+
+  synchronized void add(long millis) {
+    samples[next] = millis;
+    next = (next + 1) % samples.length;
+    if (size < samples.length) {
+      size++;
+    }
+  }
+
+  synchronized int size() {
+    return size;
+  }
+
+  /*
+   * The given percentile of the recorded latencies, -1 when nothing was recorded.
+   * */
+  synchronized long percentile(double percentile) {
+    if (size == 0) {
+      return -1;
+    }
+    long[] sorted = Arrays.copyOf(samples, size);
+    Arrays.sort(sorted);
+    int index = (int) Math.ceil(percentile * size) - 1;
+    return sorted[Math.max(0, Math.min(size - 1, index))];
+  }
+}
@@ -0,0 +1,14 @@
+package com.coze.openapi.service.service.loadbalance;
+
+/*
+ * How LoadBalancer compares two healthy endpoints.
+ * */
+public enum BalancingStrategy {
+  /* Fewest calls in flight. */
+  LEAST_OUTSTANDING,
+  /*
+   * Lowest peak-EWMA latency times the calls in flight, so an endpoint that became slow is avoided
+   * at once and recovers gradually.
+   * */
+  PEAK_EWMA,
+}
@@ -0,0 +1,110 @@
+package com.coze.openapi.service.service.loadbalance;
+
+import okhttp3.HttpUrl;
+
+/*
+ * One base URL with its load and health. The websocket URL derived from it shares the same state,
+ * both are served by the same gateway.
+ * */
+final class Endpoint {
+  private final HttpUrl url;
+  private final HttpUrl websocketUrl;
+  private final long decayNanos;
+
+  private int outstanding;
+  private double ewmaNanos;
+  private long lastSampleNanos;
+  private int consecutiveFailures;
+  private long ejectedUntilNanos;
+  private boolean ejected;
+  private long calls;
+  private long failures;
+
+  Endpoint(HttpUrl url, HttpUrl websocketUrl, long decayMillis) {
+    this.url = url;
+    this.websocketUrl = websocketUrl;
+    this.decayNanos = Math.max(1, decayMillis) * 1_000_000L;
+  }
+
+  HttpUrl url() {
+    return url;
+  }
+
+  HttpUrl websocketUrl() {
+    return websocketUrl;
+  }
+
+  synchronized void onStart() {
+    outstanding++;
+    calls++;
+  }
+
+  synchronized void onDone() {
+    outstanding--;
+  }
+
+  /*
+   * Record the outcome of a call, returns true when this failure ejected the endpoint.
+   * */
+  synchronized boolean onResult(boolean success, long latencyNanos, LoadBalancerConfig config) {
+    long now = System.nanoTime();
+    if (latencyNanos > ewmaNanos || lastSampleNanos == 0) {
+      // peak：变慢立即生效，恢复时逐渐衰减
+      ewmaNanos = latencyNanos;
+    } else {
+      double weight = Math.exp(-(double) (now - lastSampleNanos) / decayNanos);
+      ewmaNanos = ewmaNanos * weight + latencyNanos * (1 - weight);
+    }
+    lastSampleNanos = now;
+    if (success) {
+      consecutiveFailures = 0;
+      ejected = false;
+      return false;
+    }
+    failures++;
+    consecutiveFailures++;
+    if (!ejected && consecutiveFailures >= config.getFailureThreshold()) {
+      ejected = true;
+      ejectedUntilNanos = now + config.getEjectionMillis() * 1_000_000L;
+      return true;
+    }
+    return false;
+  }
+
+  synchronized void reinstate() {
+    ejected = false;
+    consecutiveFailures = 0;
+  }
+
+  synchronized boolean isEjected(long now) {
+    if (ejected && now - ejectedUntilNanos >= 0) {
+      // 驱逐到期后重新参与选择，再失败一次就再次驱逐
+      ejected = false;
+      consecutiveFailures = Math.max(0, consecutiveFailures - 1);
+    }
+    return ejected;
+  }
+
+  synchronized long ejectedUntilNanos() {
+    return ejectedUntilNanos;
+  }
+
+  synchronized double cost(BalancingStrategy strategy) {
+    if (strategy == BalancingStrategy.LEAST_OUTSTANDING) {
+      return outstanding;
+    }
+    return ewmaNanos * (outstanding + 1);
+  }
+
+  synchronized EndpointStats stats() {
+    return EndpointStats.builder()
+        .url(url.toString())
+        .ejected(ejected)
+        .outstanding(outstanding)
+        .latencyMillis(ewmaNanos / 1_000_000d)
+        .consecutiveFailures(consecutiveFailures)
+        .calls(calls)
+        .failures(failures)
+        .build();
+  }
+}
@@ -0,0 +1,22 @@
+package com.coze.openapi.service.service.loadbalance;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/*
+ * State of one base URL: calls in flight, peak-EWMA latency and consecutive failures. An ejected
+ * endpoint is skipped until it passes a health check or its ejection ends.
+ * */
+@Getter
+@Builder
+@ToString
+public class EndpointStats {
+  private final String url;
+  private final boolean ejected;
+  private final int outstanding;
+  private final double latencyMillis;
+  private final int consecutiveFailures;
+  private final long calls;
+  private final long failures;
+}
@@ -0,0 +1,230 @@
+package com.coze.openapi.service.service.loadbalance;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+
+import com.coze.openapi.service.service.common.CozeLoggerFactory;
+import com.coze.openapi.service.service.common.StreamExecutors;
+
+import io.jsonwebtoken.lang.Strings;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/*
+ * Picks the base URL of each call among equivalent gateways, see LoadBalancerConfig.
+ *
+ * Retrofit and the websocket clients are built against the first base URL; LoadBalancingInterceptor
+ * moves each call to the endpoint picked here. The websocket URL of every endpoint is derived the
+ * same way CozeAPI derives it from a single base URL.
+ * */
+public class LoadBalancer {
+  private static final Logger logger = CozeLoggerFactory.getLogger();
+
+  private static final class SchedulerHolder {
+    static final ScheduledExecutorService scheduler =
+        Executors.newSingleThreadScheduledExecutor(StreamExecutors.threadFactory("coze-health"));
+  }
+
+  private final LoadBalancerConfig config;
+  private final List<Endpoint> endpoints;
+  // null 时使用 ThreadLocalRandom，测试中注入固定的选择
+  private final Random random;
+  private ScheduledFuture<?> healthCheck;
+
+  public LoadBalancer(List<String> baseURLs, LoadBalancerConfig config) {
+    this(baseURLs, config, null);
+  }
+
+  LoadBalancer(List<String> baseURLs, LoadBalancerConfig config, Random random) {
+    if (baseURLs == null || baseURLs.isEmpty()) {
+      throw new IllegalArgumentException("at least one base url is required");
+    }
+    this.config = config;
+    List<Endpoint> endpoints = new ArrayList<>();
+    for (String baseURL : baseURLs) {
+      endpoints.add(
+          new Endpoint(parse(baseURL), parse(websocketURL(baseURL)), config.getEwmaDecayMillis()));
+    }
+    this.endpoints = Collections.unmodifiableList(endpoints);
+    this.random = random;
+  }
+
+  /*
+   * The websocket URL of a base URL, e.g. wss://ws.coze.com for https://api.coze.com.
+   * */
+  public static String websocketURL(String baseURL) {
+    return Strings.replace(baseURL, "https://api", "wss://ws");
+  }
+
+  private static HttpUrl parse(String url) {
+    // HttpUrl 只接受 http/https，websocket 地址按对应的 http 协议解析
+    String http = url.replaceFirst("^ws:", "http:").replaceFirst("^wss:", "https:");
+    HttpUrl parsed = HttpUrl.parse(http);
+    if (parsed == null) {
+      throw new IllegalArgumentException("invalid url: " + url);
+    }
+    return parsed;
+  }
+
+  public LoadBalancerConfig config() {
+    return config;
+  }
+
+  public List<EndpointStats> stats() {
+    List<EndpointStats> stats = new ArrayList<>();
+    for (Endpoint endpoint : endpoints) {
+      stats.add(endpoint.stats());
+    }
+    return stats;
+  }
+
+  List<Endpoint> endpoints() {
+    return endpoints;
+  }
+
+  /*
+   * The endpoint for the next attempt of a call, skipping those it already tried. null when every
+   * endpoint was tried.
+   * */
+  Endpoint pick(Collection<Endpoint> tried) {
+    long now = System.nanoTime();
+    List<Endpoint> healthy = new ArrayList<>();
+    Endpoint earliestEjected = null;
+    for (Endpoint endpoint : endpoints) {
+      if (tried.contains(endpoint)) {
+        continue;
+      }
+      if (!endpoint.isEjected(now)) {
+        healthy.add(endpoint);
+      } else if (earliestEjected == null
+          || endpoint.ejectedUntilNanos() - earliestEjected.ejectedUntilNanos() < 0) {
+        earliestEjected = endpoint;
+      }
+    }
+    if (healthy.isEmpty()) {
+      // 全部被驱逐时仍然要发出请求，选最早被驱逐的那个
+      return earliestEjected;
+    }
+    if (healthy.size() == 1) {
+      return healthy.get(0);
+    }
+    // power of two choices：随机取两个，选代价低的
+    Random random = this.random == null ? ThreadLocalRandom.current() : this.random;
+    int first = random.nextInt(healthy.size());
+    int second = random.nextInt(healthy.size() - 1);
+    if (second >= first) {
+      second++;
+    }
+    Endpoint a = healthy.get(first);
+    Endpoint b = healthy.get(second);
+    return b.cost(config.getStrategy()) < a.cost(config.getStrategy()) ? b : a;
+  }
+
+  void onResult(Endpoint endpoint, boolean success, long latencyNanos) {
+    if (endpoint.onResult(success, latencyNanos, config)) {
+      logger.warn(
+          "endpoint {} ejected for {}ms after {} consecutive failures",
+          endpoint.url(),
+          config.getEjectionMillis(),
+          config.getFailureThreshold());
+    }
+  }
+
+  /*
+   * The URL of request on target, or null when request is not addressed to the first base URL or
+   * its websocket URL.
+   * */
+  HttpUrl route(HttpUrl url, Endpoint target) {
+    Endpoint primary = endpoints.get(0);
+    String relative = relativePath(url, primary.url());
+    if (relative != null) {
+      return resolve(url, target.url(), relative);
+    }
+    relative = relativePath(url, primary.websocketUrl());
+    if (relative != null) {
+      return resolve(url, target.websocketUrl(), relative);
+    }
+    return null;
+  }
+
+  private static String relativePath(HttpUrl url, HttpUrl base) {
+    if (!url.scheme().equals(base.scheme())
+        || !url.host().equals(base.host())
+        || url.port() != base.port()) {
+      return null;
+    }
+    String prefix = directory(base);
+    String path = url.encodedPath();
+    return path.startsWith(prefix) ? path.substring(prefix.length()) : null;
+  }
+
+  private static HttpUrl resolve(HttpUrl url, HttpUrl base, String relative) {
+    return url.newBuilder()
+        .scheme(base.scheme())
+        .host(base.host())
+        .port(base.port())
+        .encodedPath(directory(base) + relative)
+        .build();
+  }
+
+  private static String directory(HttpUrl base) {
+    String path = base.encodedPath();
+    return path.endsWith("/") ? path : path + "/";
+  }
+
+  /*
+   * Probe the ejected endpoints every healthCheckIntervalMillis through a copy of client without
+   * interceptors, so no credentials are sent. Does nothing when the interval is 0.
+   * */
+  public synchronized void startHealthCheck(OkHttpClient client) {
+    long interval = config.getHealthCheckIntervalMillis();
+    if (interval <= 0 || healthCheck != null || endpoints.size() < 2) {
+      return;
+    }
+    OkHttpClient.Builder builder = client.newBuilder().callTimeout(interval, TimeUnit.MILLISECONDS);
+    builder.interceptors().clear();
+    builder.networkInterceptors().clear();
+    OkHttpClient probeClient = builder.build();
+    healthCheck =
+        SchedulerHolder.scheduler.scheduleWithFixedDelay(
+            () -> probe(probeClient), interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  public synchronized void close() {
+    if (healthCheck != null) {
+      healthCheck.cancel(false);
+      healthCheck = null;
+    }
+  }
+
+  void probe(OkHttpClient probeClient) {
+    long now = System.nanoTime();
+    for (Endpoint endpoint : endpoints) {
+      if (!endpoint.isEjected(now)) {
+        continue;
+      }
+      Request request = new Request.Builder().url(endpoint.url().resolve("/")).head().build();
+      try (Response response = probeClient.newCall(request).execute()) {
+        if (!config.getFailoverStatuses().contains(response.code())) {
+          logger.info("endpoint {} passed health check, reinstated", endpoint.url());
+          endpoint.reinstate();
+        }
+      } catch (IOException e) {
+        logger.debug("health check of {} failed: {}", endpoint.url(), e.toString());
+      }
+    }
+  }
+}
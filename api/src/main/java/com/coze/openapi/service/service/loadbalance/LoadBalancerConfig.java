@@ -0,0 +1,43 @@
+package com.coze.openapi.service.service.loadbalance;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/*
+ * How calls are spread over the base URLs given to CozeAPI.Builder.baseURLs.
+ *
+ * Each call goes to the better of two randomly chosen healthy endpoints, compared by strategy. The
+ * latency average decays with ewmaDecayMillis.
+ *
+ * An endpoint is ejected for ejectionMillis after failureThreshold consecutive failures
+ * (connection errors or failoverStatuses). While ejected it is probed with a HEAD request every
+ * healthCheckIntervalMillis and taken back as soon as it answers; 0 disables the probe. When all
+ * endpoints are ejected, the one ejected first is used anyway.
+ *
+ * A failed idempotent call (GET, HEAD, OPTIONS, PUT, DELETE) is sent again to another endpoint,
+ * at most once per endpoint. Other calls only fail over when the connection could not be
+ * established, so the request never reached the server.
+ * */
+@Getter
+@Builder(toBuilder = true)
+@ToString
+public class LoadBalancerConfig {
+  @Builder.Default private BalancingStrategy strategy = BalancingStrategy.PEAK_EWMA;
+  @Builder.Default private long ewmaDecayMillis = 10_000;
+
+  @Builder.Default private int failureThreshold = 3;
+  @Builder.Default private long ejectionMillis = 30_000;
+  @Builder.Default private long healthCheckIntervalMillis = 5_000;
+
+  @Builder.Default
+  private Set<Integer> failoverStatuses = new HashSet<>(Arrays.asList(502, 503, 504));
+
+  public static LoadBalancerConfig defaultConfig() {
+    return LoadBalancerConfig.builder().build();
+  }
+}
@@ -0,0 +1,152 @@
+package com.coze.openapi.service.service.loadbalance;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+
+import com.coze.openapi.service.service.common.CozeLoggerFactory;
+
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+
+/*
+ * Application interceptor that sends each call to the endpoint picked by the LoadBalancer and fails
+ * over to the next one, see LoadBalancerConfig. It is the innermost application interceptor, so
+ * retries, circuit breaker and limits apply to the call as a whole, while every retry may go to
+ * another endpoint.
+ *
+ * A call counts as outstanding on its endpoint until its response body is closed, so long streams
+ * weigh on the endpoint that serves them.
+ * */
+public class LoadBalancingInterceptor implements Interceptor {
+  private static final Logger logger = CozeLoggerFactory.getLogger();
+
+  private final LoadBalancer balancer;
+
+  public LoadBalancingInterceptor(LoadBalancer balancer) {
+    this.balancer = balancer;
+  }
+
+  public LoadBalancer balancer() {
+    return balancer;
+  }
+
+  @Override
+  public Response intercept(Chain chain) throws IOException {
+    Request request = chain.request();
+    List<Endpoint> tried = new ArrayList<>();
+    while (true) {
+      Endpoint endpoint = balancer.pick(tried);
+      HttpUrl url = endpoint == null ? null : balancer.route(request.url(), endpoint);
+      if (url == null) {
+        // 不是发往 baseURL 的请求（例如文件下载地址）不做负载均衡
+        return chain.proceed(request);
+      }
+      tried.add(endpoint);
+      boolean last = tried.size() >= balancer.endpoints().size();
+
+      endpoint.onStart();
+      long start = System.nanoTime();
+      Response response;
+      try {
+        response = chain.proceed(request.newBuilder().url(url).build());
+      } catch (IOException e) {
+        endpoint.onDone();
+        if (chain.call().isCanceled()) {
+          throw e;
+        }
+        balancer.onResult(endpoint, false, System.nanoTime() - start);
+        if (last || !canFailover(request, e)) {
+          throw e;
+        }
+        logger.warn("call to {} failed, fail over: {}", endpoint.url(), e.toString());
+        continue;
+      }
+      long latency = System.nanoTime() - start;
+      boolean failed = balancer.config().getFailoverStatuses().contains(response.code());
+      balancer.onResult(endpoint, !failed, latency);
+      if (failed && !last && isIdempotent(request)) {
+        logger.warn("call to {} got {}, fail over", endpoint.url(), response.code());
+        response.close();
+        endpoint.onDone();
+        continue;
+      }
+      if (response.body() == null || response.code() == 101) {
+        // websocket 握手之后连接不再计入
+        endpoint.onDone();
+        return response;
+      }
+      return response.newBuilder().body(new OutstandingBody(response.body(), endpoint)).build();
+    }
+  }
+
+  static boolean isIdempotent(Request request) {
+    switch (request.method()) {
+      case "GET":
+      case "HEAD":
+      case "OPTIONS":
+      case "PUT":
+      case "DELETE":
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  static boolean canFailover(Request request, IOException e) {
+    // 连接没有建立时请求一定没有发出，非幂等请求也可以换一个节点
+    return isIdempotent(request)
+        || e instanceof ConnectException
+        || e instanceof UnknownHostException
+        || e instanceof NoRouteToHostException;
+  }
+
+  private static final class OutstandingBody extends ResponseBody {
+    private final ResponseBody delegate;
+    private final BufferedSource source;
+
+    OutstandingBody(ResponseBody delegate, Endpoint endpoint) {
+      this.delegate = delegate;
+      AtomicBoolean done = new AtomicBoolean();
+      this.source =
+          Okio.buffer(
+              new ForwardingSource(delegate.source()) {
+                @Override
+                public void close() throws IOException {
+                  if (done.compareAndSet(false, true)) {
+                    endpoint.onDone();
+                  }
+                  super.close();
+                }
+              });
+    }
+
+    @Override
+    public MediaType contentType() {
+      return delegate.contentType();
+    }
+
+    @Override
+    public long contentLength() {
+      return delegate.contentLength();
+    }
+
+    @Override
+    public BufferedSource source() {
+      return source;
+    }
+  }
+}
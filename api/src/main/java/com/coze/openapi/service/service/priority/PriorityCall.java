@@ -0,0 +1,156 @@
+package com.coze.openapi.service.service.priority;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.coze.openapi.client.common.RequestPriority;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Request;
+import okhttp3.Response;
+import okio.Timeout;
+
+/*
+ * A call that reaches the delegate only once the PriorityCallFactory granted it a slot. The slot is
+ * held until execute() returns or the callback of an enqueued call returned, like the OkHttp
+ * dispatcher does.
+ * */
+class PriorityCall implements Call {
+  private final PriorityCallFactory factory;
+  private final Call delegate;
+  private final RequestPriority priority;
+  private final AtomicBoolean executed = new AtomicBoolean();
+  private volatile boolean canceled;
+  private volatile PriorityCallFactory.Waiter waiter;
+  private volatile Callback callback;
+  private volatile CountDownLatch granted;
+  private volatile boolean slotTaken;
+
+  PriorityCall(PriorityCallFactory factory, Call delegate, RequestPriority priority) {
+    this.factory = factory;
+    this.delegate = delegate;
+    this.priority = priority;
+  }
+
+  @Override
+  public Request request() {
+    return delegate.request();
+  }
+
+  @Override
+  public Response execute() throws IOException {
+    if (!executed.compareAndSet(false, true)) {
+      throw new IllegalStateException("Already Executed");
+    }
+    CountDownLatch latch = new CountDownLatch(1);
+    this.granted = latch;
+    PriorityCallFactory.Waiter w =
+        new PriorityCallFactory.Waiter(
+            priority,
+            () -> {
+              slotTaken = true;
+              latch.countDown();
+            });
+    this.waiter = w;
+    factory.acquire(w);
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      if (!factory.remove(w)) {
+        factory.release(priority);
+      }
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("interrupted while waiting for a " + priority + " slot");
+    }
+    if (!slotTaken) {
+      // 排队时被取消
+      throw new IOException("Canceled");
+    }
+    try {
+      if (canceled) {
+        throw new IOException("Canceled");
+      }
+      return delegate.execute();
+    } finally {
+      factory.release(priority);
+    }
+  }
+
+  @Override
+  public void enqueue(Callback callback) {
+    if (!executed.compareAndSet(false, true)) {
+      throw new IllegalStateException("Already Executed");
+    }
+    this.callback = callback;
+    PriorityCallFactory.Waiter w = new PriorityCallFactory.Waiter(priority, this::start);
+    this.waiter = w;
+    factory.acquire(w);
+  }
+
+  private void start() {
+    if (canceled) {
+      factory.release(priority);
+      callback.onFailure(this, new IOException("Canceled"));
+      return;
+    }
+    delegate.enqueue(
+        new Callback() {
+          @Override
+          public void onFailure(Call call, IOException e) {
+            try {
+              callback.onFailure(PriorityCall.this, e);
+            } finally {
+              factory.release(priority);
+            }
+          }
+
+          @Override
+          public void onResponse(Call call, Response response) throws IOException {
+            try {
+              callback.onResponse(PriorityCall.this, response);
+            } finally {
+              factory.release(priority);
+            }
+          }
+        });
+  }
+
+  @Override
+  public void cancel() {
+    canceled = true;
+    delegate.cancel();
+    PriorityCallFactory.Waiter w = this.waiter;
+    // 仍在排队的请求直接出队：异步请求回调失败，同步请求唤醒等待线程
+    if (w != null && factory.remove(w)) {
+      Callback cb = this.callback;
+      if (cb != null) {
+        cb.onFailure(this, new IOException("Canceled"));
+      } else {
+        granted.countDown();
+      }
+    }
+  }
+
+  @Override
+  public boolean isExecuted() {
+    return executed.get();
+  }
+
+  @Override
+  public boolean isCanceled() {
+    return canceled;
+  }
+
+  @Override
+  public Timeout timeout() {
+    return delegate.timeout();
+  }
+
+  @Override
+  public Call clone() {
+    return new PriorityCall(factory, delegate.clone(), priority);
+  }
+}
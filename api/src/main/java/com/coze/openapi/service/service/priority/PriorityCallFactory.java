@@ -0,0 +1,164 @@
+package com.coze.openapi.service.service.priority;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import com.coze.openapi.client.common.BaseReq;
+import com.coze.openapi.client.common.RequestPriority;
+import com.coze.openapi.service.service.transport.BulkheadCallFactory;
+
+import okhttp3.Call;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+
+/*
+ * Call factory admitting calls by their BaseReq priority, see PriorityConfig. The OkHttp dispatcher
+ * queue is FIFO and cannot be replaced, so calls wait here and only reach the dispatcher once they
+ * got a slot.
+ *
+ * maxConcurrent is capped at the limits of the delegate's dispatchers: a call admitted here beyond
+ * them would wait in the FIFO dispatcher queue again and lose its priority.
+ * */
+public class PriorityCallFactory implements Call.Factory {
+  private final Call.Factory delegate;
+  private final int maxConcurrent;
+  private final int maxLow;
+
+  // 以下字段由 this 保护
+  private final PriorityQueue<Waiter> queue =
+      new PriorityQueue<>(
+          Comparator.comparing((Waiter w) -> w.priority).thenComparingLong(w -> w.seq));
+  private long seq;
+  private int running;
+  private int runningLow;
+
+  public PriorityCallFactory(Call.Factory delegate, PriorityConfig config) {
+    this(delegate, config, dispatcherLimit(delegate));
+  }
+
+  /*
+   * Admit at most dispatcherLimit calls at once, whatever config.maxConcurrent says.
+   * */
+  public PriorityCallFactory(Call.Factory delegate, PriorityConfig config, int dispatcherLimit) {
+    this.delegate = delegate;
+    this.maxConcurrent = Math.max(1, Math.min(config.getMaxConcurrent(), dispatcherLimit));
+    this.maxLow = Math.min(this.maxConcurrent, config.maxLowPriority(this.maxConcurrent));
+  }
+
+  /*
+   * Number of enqueued calls the dispatchers behind delegate start at once for one host,
+   * Integer.MAX_VALUE when delegate is not backed by a known dispatcher.
+   * */
+  static int dispatcherLimit(Call.Factory delegate) {
+    if (delegate instanceof OkHttpClient) {
+      return dispatcherLimit(((OkHttpClient) delegate).dispatcher());
+    }
+    if (delegate instanceof BulkheadCallFactory) {
+      // 两条通道共用同一套优先级配额，取较小的限制，保证放行的请求不会在任一通道排队
+      BulkheadCallFactory bulkhead = (BulkheadCallFactory) delegate;
+      return Math.min(
+          dispatcherLimit(bulkhead.unaryClient().dispatcher()),
+          dispatcherLimit(bulkhead.streamClient().dispatcher()));
+    }
+    return Integer.MAX_VALUE;
+  }
+
+  private static int dispatcherLimit(Dispatcher dispatcher) {
+    // 所有请求都发往同一个 baseURL，单 host 的限制通常更小
+    return Math.min(dispatcher.getMaxRequests(), dispatcher.getMaxRequestsPerHost());
+  }
+
+  @Override
+  public Call newCall(Request request) {
+    return new PriorityCall(this, delegate.newCall(request), priority(request));
+  }
+
+  static RequestPriority priority(Request request) {
+    BaseReq baseReq = request.tag(BaseReq.class);
+    if (baseReq == null || baseReq.getPriority() == null) {
+      return RequestPriority.NORMAL;
+    }
+    return baseReq.getPriority();
+  }
+
+  public synchronized PriorityStats stats() {
+    int[] queued = new int[RequestPriority.values().length];
+    for (Waiter waiter : queue) {
+      queued[waiter.priority.ordinal()]++;
+    }
+    return PriorityStats.builder()
+        .maxConcurrent(maxConcurrent)
+        .running(running)
+        .runningLow(runningLow)
+        .queuedHigh(queued[RequestPriority.HIGH.ordinal()])
+        .queuedNormal(queued[RequestPriority.NORMAL.ordinal()])
+        .queuedLow(queued[RequestPriority.LOW.ordinal()])
+        .build();
+  }
+
+  /*
+   * Queue the waiter; it runs as soon as it is the first one that may take a slot.
+   * */
+  void acquire(Waiter waiter) {
+    synchronized (this) {
+      waiter.seq = seq++;
+      queue.add(waiter);
+    }
+    dispatch();
+  }
+
+  /*
+   * Remove a waiter that gave up, false when it already got its slot.
+   * */
+  synchronized boolean remove(Waiter waiter) {
+    return queue.remove(waiter);
+  }
+
+  void release(RequestPriority priority) {
+    synchronized (this) {
+      running--;
+      if (priority == RequestPriority.LOW) {
+        runningLow--;
+      }
+    }
+    dispatch();
+  }
+
+  private void dispatch() {
+    List<Waiter> granted = new ArrayList<>();
+    synchronized (this) {
+      // LOW 排在最后，队首的 LOW 因配额不能运行时，后面也只剩 LOW
+      while (!queue.isEmpty() && tryTake(queue.peek().priority)) {
+        granted.add(queue.poll());
+      }
+    }
+    for (Waiter waiter : granted) {
+      waiter.granted.run();
+    }
+  }
+
+  private boolean tryTake(RequestPriority priority) {
+    if (running >= maxConcurrent || (priority == RequestPriority.LOW && runningLow >= maxLow)) {
+      return false;
+    }
+    running++;
+    if (priority == RequestPriority.LOW) {
+      runningLow++;
+    }
+    return true;
+  }
+
+  static final class Waiter {
+    final RequestPriority priority;
+    final Runnable granted;
+    long seq;
+
+    Waiter(RequestPriority priority, Runnable granted) {
+      this.priority = priority;
+      this.granted = granted;
+    }
+  }
+}
@@ -0,0 +1,31 @@
+package com.coze.openapi.service.service.priority;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/*
+ * Limits of the priority lanes.
+ *
+ * At most maxConcurrent calls run at the same time, blocking and enqueued alike; further calls wait
+ * in priority order, FIFO within a priority. LOW calls may take at most lowPriorityShare of the
+ * slots, so batch work can never occupy all of them.
+ *
+ * maxConcurrent is capped at the dispatcher limits (maxRequests and maxRequestsPerHost of the
+ * TransportProfile or BulkheadConfig lanes); raise those as well to run more calls at once.
+ * */
+@Getter
+@Builder(toBuilder = true)
+@ToString
+public class PriorityConfig {
+  @Builder.Default private int maxConcurrent = 64;
+  @Builder.Default private double lowPriorityShare = 0.25;
+
+  public static PriorityConfig defaultConfig() {
+    return PriorityConfig.builder().build();
+  }
+
+  int maxLowPriority(int maxConcurrent) {
+    return Math.max(1, (int) (maxConcurrent * lowPriorityShare));
+  }
+}
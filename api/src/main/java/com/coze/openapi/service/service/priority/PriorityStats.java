@@ -0,0 +1,20 @@
+package com.coze.openapi.service.service.priority;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/*
+ * Point-in-time view of the priority lanes.
+ * */
+@Getter
+@Builder
+@ToString
+public class PriorityStats {
+  private final int maxConcurrent;
+  private final int running;
+  private final int runningLow;
+  private final int queuedHigh;
+  private final int queuedNormal;
+  private final int queuedLow;
+}
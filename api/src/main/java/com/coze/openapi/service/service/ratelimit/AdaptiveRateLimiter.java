@@ -0,0 +1,150 @@
+package com.coze.openapi.service.service.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/*
+ * Token bucket per key whose rate adapts to server feedback.
+ *
+ * Every throttled response multiplies the rate of its key by decreaseFactor (never below
+ * minPermitsPerSecond) and drops the tokens saved so far. Afterwards the rate grows back linearly by
+ * recoveryPerSecond permits/s per second until it reaches permitsPerSecond again.
+ *
+ * A bucket that is full again at the full rate is no different from a new one. Such buckets are
+ * dropped at most every evictionIntervalMillis, so credentials and endpoints that are no longer
+ * used do not keep a bucket forever.
+ * */
+@Getter
+@Builder
+public class AdaptiveRateLimiter implements RateLimiter {
+  // Bucket.reserve 的返回值，表示桶已被回收
+  private static final long EVICTED = Long.MIN_VALUE;
+
+  @Builder.Default private final double permitsPerSecond = 10;
+  @Builder.Default private final double burst = 10;
+  @Builder.Default private final double minPermitsPerSecond = 0.5;
+  @Builder.Default private final double decreaseFactor = 0.5;
+  @Builder.Default private final double recoveryPerSecond = 0.5;
+  @Builder.Default private final long evictionIntervalMillis = 60_000;
+
+  private final ConcurrentMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+  private final AtomicLong lastEviction = new AtomicLong(System.nanoTime());
+
+  @Override
+  public long reserve(String key, long maxWaitMillis) {
+    long now = System.nanoTime();
+    evictIfDue(now);
+    while (true) {
+      long wait = bucket(key, now).reserve(now, maxWaitMillis);
+      if (wait != EVICTED) {
+        return wait;
+      }
+    }
+  }
+
+  @Override
+  public void onThrottled(String key) {
+    long now = System.nanoTime();
+    while (!bucket(key, now).throttle(now)) {
+      // 桶刚被回收，换新桶重试
+    }
+  }
+
+  /*
+   * Current rate of key in permits per second.
+   * */
+  public double rate(String key) {
+    Bucket bucket = buckets.get(key);
+    return bucket == null ? permitsPerSecond : bucket.rate(System.nanoTime());
+  }
+
+  /* Number of keys that currently hold a bucket. */
+  public int size() {
+    return buckets.size();
+  }
+
+  private Bucket bucket(String key, long now) {
+    return buckets.computeIfAbsent(key, k -> new Bucket(now));
+  }
+
+  private void evictIfDue(long now) {
+    long last = lastEviction.get();
+    if (now - last < TimeUnit.MILLISECONDS.toNanos(evictionIntervalMillis)
+        || !lastEviction.compareAndSet(last, now)) {
+      return;
+    }
+    buckets.forEach(
+        (key, bucket) -> {
+          if (bucket.evictIfIdle(now)) {
+            buckets.remove(key, bucket);
+          }
+        });
+  }
+
+  private final class Bucket {
+    private double rate = permitsPerSecond;
+    // 可以为负数，表示已经排队预约出去的 permit
+    private double tokens = burst;
+    private long updatedAt;
+    // 已从 map 中移除，不能再使用
+    private boolean evicted;
+
+    Bucket(long now) {
+      this.updatedAt = now;
+    }
+
+    synchronized long reserve(long now, long maxWaitMillis) {
+      if (evicted) {
+        return EVICTED;
+      }
+      refill(now);
+      if (tokens >= 1) {
+        tokens -= 1;
+        return 0;
+      }
+      long wait = (long) Math.ceil((1 - tokens) / rate * TimeUnit.SECONDS.toMillis(1));
+      if (wait > maxWaitMillis) {
+        return -1;
+      }
+      tokens -= 1;
+      return wait;
+    }
+
+    synchronized boolean throttle(long now) {
+      if (evicted) {
+        return false;
+      }
+      refill(now);
+      rate = Math.max(minPermitsPerSecond, rate * decreaseFactor);
+      tokens = Math.min(tokens, 0);
+      return true;
+    }
+
+    synchronized boolean evictIfIdle(long now) {
+      refill(now);
+      evicted = tokens >= burst && rate >= permitsPerSecond;
+      return evicted;
+    }
+
+    synchronized double rate(long now) {
+      refill(now);
+      return rate;
+    }
+
+    private void refill(long now) {
+      double seconds = (now - updatedAt) / (double) TimeUnit.SECONDS.toNanos(1);
+      if (seconds <= 0) {
+        return;
+      }
+      updatedAt = now;
+      // 先按旧速率补充 token，再线性恢复速率
+      tokens = Math.min(burst, tokens + seconds * rate);
+      rate = Math.min(permitsPerSecond, rate + seconds * recoveryPerSecond);
+    }
+  }
+}
@@ -0,0 +1,30 @@
+package com.coze.openapi.service.service.ratelimit;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/*
+ * Client-side rate limiting of a CozeAPI. Permits are keyed by credential and endpoint, so each
+ * token gets its own budget for each API, like the server-side limits.
+ * */
+@Getter
+@Builder
+@ToString
+public class RateLimitConfig {
+  @Builder.Default private RateLimiter limiter = AdaptiveRateLimiter.builder().build();
+  @Builder.Default private RateLimitMode mode = RateLimitMode.QUEUE;
+  /* Only used by RateLimitMode.QUEUE. */
+  @Builder.Default private long maxWaitMillis = 1000;
+
+  long effectiveMaxWaitMillis() {
+    switch (mode) {
+      case BLOCK:
+        return Long.MAX_VALUE;
+      case FAIL_FAST:
+        return 0;
+      default:
+        return maxWaitMillis;
+    }
+  }
+}
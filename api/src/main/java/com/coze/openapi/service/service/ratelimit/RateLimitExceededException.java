@@ -0,0 +1,20 @@
+package com.coze.openapi.service.service.ratelimit;
+
+import com.coze.openapi.service.service.common.RequestRejectedException;
+
+import lombok.Getter;
+
+/*
+ * Thrown by the call when the client-side rate limiter could not grant a permit.
+ * */
+@Getter
+public class RateLimitExceededException extends RequestRejectedException {
+  private static final long serialVersionUID = 1L;
+
+  private final String key;
+
+  public RateLimitExceededException(String key) {
+    super("client side rate limit exceeded: " + key);
+    this.key = key;
+  }
+}
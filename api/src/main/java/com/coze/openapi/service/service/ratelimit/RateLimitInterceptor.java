@@ -0,0 +1,65 @@
+package com.coze.openapi.service.service.ratelimit;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+
+import com.coze.openapi.service.auth.Auth;
+import com.coze.openapi.service.utils.Utils;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/*
+ * Application interceptor that takes a permit from the RateLimiter before every attempt, and
+ * reports 429 responses and rate-limit error codes back to it.
+ * */
+public class RateLimitInterceptor implements Interceptor {
+  // 4013: request rate exceeded
+  private static final int RATE_LIMIT_CODE = 4013;
+  private static final int TOO_MANY_REQUESTS = 429;
+
+  private final RateLimitConfig config;
+  private final String credential;
+
+  public RateLimitInterceptor(RateLimitConfig config, Auth auth) {
+    this.config = config;
+    this.credential = credentialKey(auth);
+  }
+
+  @Override
+  public Response intercept(Chain chain) throws IOException {
+    Request request = chain.request();
+    Auth requestAuth = Utils.requestAuth(request);
+    String credential = requestAuth == null ? this.credential : credentialKey(requestAuth);
+    String key = credential + "|" + Utils.endpointKey(request);
+
+    long wait = config.getLimiter().reserve(key, config.effectiveMaxWaitMillis());
+    if (wait < 0) {
+      throw new RateLimitExceededException(key);
+    }
+    if (wait > 0) {
+      try {
+        Thread.sleep(wait);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("interrupted while waiting for rate limit");
+      }
+    }
+
+    Response response = chain.proceed(request);
+    if (response.code() == TOO_MANY_REQUESTS
+        || (response.isSuccessful()
+            && Integer.valueOf(RATE_LIMIT_CODE).equals(Utils.peekCode(response)))) {
+      config.getLimiter().onThrottled(key);
+    }
+    return response;
+  }
+
+  static String credentialKey(Auth auth) {
+    if (auth == null) {
+      return "anonymous";
+    }
+    return auth.getClass().getSimpleName() + "#" + auth.instanceID();
+  }
+}
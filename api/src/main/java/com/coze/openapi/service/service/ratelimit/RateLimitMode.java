@@ -0,0 +1,13 @@
+package com.coze.openapi.service.service.ratelimit;
+
+/*
+ * What a call does when its permit is not available yet.
+ * */
+public enum RateLimitMode {
+  /* Wait as long as needed. */
+  BLOCK,
+  /* Fail immediately with RateLimitExceededException. */
+  FAIL_FAST,
+  /* Wait up to RateLimitConfig.maxWaitMillis, fail right away if the wait would be longer. */
+  QUEUE
+}
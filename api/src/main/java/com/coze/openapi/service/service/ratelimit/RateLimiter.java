@@ -0,0 +1,23 @@
+package com.coze.openapi.service.service.ratelimit;
+
+/*
+ * Paces outbound requests. Keys identify a credential and an endpoint, see RateLimitInterceptor.
+ *
+ * Implementations must be thread safe; a single limiter may be shared by several CozeAPI instances
+ * to pace them together.
+ * */
+public interface RateLimiter {
+  /*
+   * Reserve a permit for key.
+   *
+   * Returns the number of milliseconds the caller has to wait before sending, 0 to send right away,
+   * or -1 when no permit can be granted within maxWaitMillis. A rejected reservation consumes
+   * nothing.
+   * */
+  long reserve(String key, long maxWaitMillis);
+
+  /*
+   * Called when the server rejected a request of key because of rate limiting.
+   * */
+  default void onThrottled(String key) {}
+}
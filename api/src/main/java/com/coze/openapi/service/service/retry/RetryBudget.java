@@ -0,0 +1,40 @@
+package com.coze.openapi.service.service.retry;
+
+/*
+ * Token bucket shared by all requests of a client. Every first attempt deposits ratio tokens, every
+ * retry withdraws one, so under a sustained outage retries are capped to ratio of the traffic
+ * instead of multiplying it.
+ * */
+public class RetryBudget {
+  private final double ratio;
+  private final double maxTokens;
+  private double tokens;
+
+  public RetryBudget(double ratio, int maxTokens) {
+    if (ratio < 0) {
+      throw new IllegalArgumentException("ratio must be >= 0");
+    }
+    this.ratio = ratio;
+    this.maxTokens = maxTokens;
+    this.tokens = maxTokens;
+  }
+
+  public synchronized void onRequest() {
+    tokens = Math.min(maxTokens, tokens + ratio);
+  }
+
+  /*
+   * Withdraw a token for a retry, false when the budget is exhausted.
+   * */
+  public synchronized boolean tryAcquire() {
+    if (tokens < 1) {
+      return false;
+    }
+    tokens -= 1;
+    return true;
+  }
+
+  public synchronized double available() {
+    return tokens;
+  }
+}
@@ -0,0 +1,170 @@
+package com.coze.openapi.service.service.retry;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+
+import com.coze.openapi.client.common.Deadline;
+import com.coze.openapi.service.service.common.CozeLoggerFactory;
+import com.coze.openapi.service.service.common.RequestRejectedException;
+import com.coze.openapi.service.utils.Utils;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/*
+ * Application interceptor that applies a RetryPolicy. It sits after the auth, timeout and
+ * user-agent interceptors, so every attempt carries the same headers and per-request timeouts.
+ * */
+public class RetryInterceptor implements Interceptor {
+  private static final Logger logger = CozeLoggerFactory.getLogger();
+
+  private final RetryPolicy policy;
+  private final RetryBudget budget;
+
+  public RetryInterceptor(RetryPolicy policy) {
+    this.policy = policy;
+    this.budget = new RetryBudget(policy.getBudgetRatio(), policy.getBudgetMaxTokens());
+  }
+
+  public RetryPolicy policy() {
+    return policy;
+  }
+
+  public RetryBudget budget() {
+    return budget;
+  }
+
+  @Override
+  public Response intercept(Chain chain) throws IOException {
+    Request request = chain.request();
+    budget.onRequest();
+    boolean retryable = policy.getMaxRetries() > 0 && isRetryableMethod(request);
+
+    for (int attempt = 0; ; attempt++) {
+      boolean last = !retryable || attempt >= policy.getMaxRetries();
+      Response response;
+      try {
+        response = chain.proceed(request);
+      } catch (IOException e) {
+        // 客户端主动拒绝的请求（限流、熔断等）不重试
+        if (last
+            || e instanceof RequestRejectedException
+            || chain.call().isCanceled()
+            || Thread.currentThread().isInterrupted()) {
+          throw e;
+        }
+        long delay = backoff(attempt);
+        if (!fitsDeadline(request, delay) || !budget.tryAcquire()) {
+          throw e;
+        }
+        logger.warn("request failed, retry {}: {}", attempt + 1, e.toString());
+        sleep(delay);
+        continue;
+      }
+
+      if (last || !shouldRetry(response)) {
+        return response;
+      }
+      long delay = backoff(attempt);
+      Long retryAfter = retryAfterMillis(response);
+      if (retryAfter != null) {
+        if (retryAfter > policy.getMaxRetryAfterMillis()) {
+          return response;
+        }
+        delay = retryAfter;
+      }
+      if (!fitsDeadline(request, delay) || !budget.tryAcquire()) {
+        return response;
+      }
+      logger.warn(
+          "request got {} (logid {}), retry {} in {}ms",
+          response.code(),
+          response.header(Utils.LOG_HEADER),
+          attempt + 1,
+          delay);
+      response.close();
+      sleep(delay);
+    }
+  }
+
+  /*
+   * Whether waiting delay milliseconds still leaves time for another attempt before the Deadline
+   * of the request.
+   * */
+  static boolean fitsDeadline(Request request, long delay) {
+    Deadline deadline = Utils.requestDeadline(request);
+    return deadline == null || deadline.remaining(TimeUnit.MILLISECONDS) > delay;
+  }
+
+  boolean isRetryableMethod(Request request) {
+    switch (request.method()) {
+      case "GET":
+      case "HEAD":
+      case "OPTIONS":
+      case "PUT":
+      case "DELETE":
+        return true;
+      default:
+        return policy.isRetryNonIdempotent();
+    }
+  }
+
+  boolean shouldRetry(Response response) {
+    if (policy.getRetryableStatuses().contains(response.code())) {
+      return true;
+    }
+    if (!response.isSuccessful() || policy.getRetryableCodes().isEmpty()) {
+      return false;
+    }
+    Integer code = Utils.peekCode(response);
+    return code != null && policy.getRetryableCodes().contains(code);
+  }
+
+  long backoff(int attempt) {
+    long ceiling = policy.getBaseDelayMillis() << Math.min(attempt, 30);
+    if (ceiling <= 0 || ceiling > policy.getMaxDelayMillis()) {
+      ceiling = policy.getMaxDelayMillis();
+    }
+    return ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+  }
+
+  static Long retryAfterMillis(Response response) {
+    String value = response.header("Retry-After");
+    if (value == null) {
+      return null;
+    }
+    try {
+      return Math.max(0, TimeUnit.SECONDS.toMillis(Long.parseLong(value.trim())));
+    } catch (NumberFormatException e) {
+      try {
+        long at =
+            ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME)
+                .toInstant()
+                .toEpochMilli();
+        return Math.max(0, at - System.currentTimeMillis());
+      } catch (DateTimeParseException ignored) {
+        return null;
+      }
+    }
+  }
+
+  private static void sleep(long millis) throws IOException {
+    if (millis <= 0) {
+      return;
+    }
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("interrupted while waiting to retry");
+    }
+  }
+}
@@ -0,0 +1,58 @@
+package com.coze.openapi.service.service.retry;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/*
+ * When and how often a failed request is sent again.
+ *
+ * A request is retried when the connection fails, when the HTTP status is in retryableStatuses, or
+ * when a JSON response carries a Coze error code in retryableCodes. Idempotent methods (GET, HEAD,
+ * OPTIONS, PUT, DELETE) are retried by default, POST only when retryNonIdempotent is set, since the
+ * server may already have processed the first attempt.
+ *
+ * Delays use exponential backoff with full jitter: a random value between 0 and
+ * min(maxDelayMillis, baseDelayMillis * 2^attempt), so clients that failed together do not retry
+ * together. A Retry-After header takes precedence, unless it exceeds maxRetryAfterMillis, in which
+ * case the response is returned as is.
+ * */
+@Getter
+@Builder(toBuilder = true)
+@ToString
+public class RetryPolicy {
+  /* Retries after the first attempt, 0 disables retrying. */
+  @Builder.Default private int maxRetries = 2;
+
+  @Builder.Default private long baseDelayMillis = 200;
+  @Builder.Default private long maxDelayMillis = 5000;
+  @Builder.Default private long maxRetryAfterMillis = 30000;
+
+  @Builder.Default private boolean retryNonIdempotent = false;
+
+  @Builder.Default
+  private Set<Integer> retryableStatuses =
+      new HashSet<>(Arrays.asList(408, 429, 500, 502, 503, 504));
+
+  /* 4013: request rate exceeded, 5000: internal error */
+  @Builder.Default private Set<Integer> retryableCodes = new HashSet<>(Arrays.asList(4013, 5000));
+
+  /*
+   * Retries may not exceed budgetRatio of the requests sent, e.g. 0.1 allows one retry per ten
+   * requests. budgetMaxTokens bounds the burst of retries after a quiet period.
+   * */
+  @Builder.Default private double budgetRatio = 0.1;
+  @Builder.Default private int budgetMaxTokens = 10;
+
+  public static RetryPolicy defaultPolicy() {
+    return RetryPolicy.builder().build();
+  }
+
+  public static RetryPolicy disabled() {
+    return RetryPolicy.builder().maxRetries(0).build();
+  }
+}
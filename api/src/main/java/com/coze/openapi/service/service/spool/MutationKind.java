@@ -0,0 +1,25 @@
+package com.coze.openapi.service.service.spool;
+
+import com.coze.openapi.client.common.BaseReq;
+import com.coze.openapi.client.connversations.message.CreateMessageReq;
+import com.coze.openapi.client.connversations.message.UpdateMessageReq;
+import com.coze.openapi.client.dataset.document.CreateDocumentReq;
+
+/*
+ * The mutations MutationSpool can spool, with the request type stored in the log.
+ * */
+public enum MutationKind {
+  MESSAGE_CREATE(CreateMessageReq.class),
+  MESSAGE_UPDATE(UpdateMessageReq.class),
+  DOCUMENT_CREATE(CreateDocumentReq.class);
+
+  private final Class<? extends BaseReq> requestType;
+
+  MutationKind(Class<? extends BaseReq> requestType) {
+    this.requestType = requestType;
+  }
+
+  public Class<? extends BaseReq> requestType() {
+    return requestType;
+  }
+}
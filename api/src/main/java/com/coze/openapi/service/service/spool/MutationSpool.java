@@ -0,0 +1,405 @@
+package com.coze.openapi.service.service.spool;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+
+import com.coze.openapi.client.common.BaseReq;
+import com.coze.openapi.client.connversations.message.CreateMessageReq;
+import com.coze.openapi.client.connversations.message.CreateMessageResp;
+import com.coze.openapi.client.connversations.message.UpdateMessageReq;
+import com.coze.openapi.client.connversations.message.UpdateMessageResp;
+import com.coze.openapi.client.dataset.document.CreateDocumentReq;
+import com.coze.openapi.client.dataset.document.CreateDocumentResp;
+import com.coze.openapi.client.exception.CozeApiException;
+import com.coze.openapi.service.auth.Auth;
+import com.coze.openapi.service.service.common.CozeLoggerFactory;
+import com.coze.openapi.service.service.common.DeadlineExceededException;
+import com.coze.openapi.service.service.common.MissingCredentialException;
+import com.coze.openapi.service.service.common.StreamExecutors;
+import com.coze.openapi.service.service.conversation.MessageService;
+import com.coze.openapi.service.service.dataset.DocumentService;
+import com.coze.openapi.service.utils.Utils;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/*
+ * Durable, asynchronous outbox for message and document writes, see SpoolConfig.
+ *
+ * A spooled mutation is appended to a WriteAheadLog and the caller gets a SpoolTicket right away;
+ * the mutation is sent in the background once it is durable. Mutations of the same conversation
+ * (or dataset) are sent one after another in the order they were spooled, mutations of different
+ * conversations in parallel. Transient failures are retried, a mutation the server rejects fails
+ * its ticket and the next mutation of the conversation is sent.
+ *
+ * Mutations that were not sent when the process stopped are sent again when a spool is opened on
+ * the same directory, see recovered(). Delivery is at least once: a mutation that was sent but not
+ * yet acknowledged in the log is sent again after a crash. Only the serialized request is restored,
+ * so requests with a per-call Auth or Deadline are rejected: after recovery they would be sent
+ * under the client's credential, or without a deadline that has long passed.
+ *
+ * When the log cannot be made durable (the fsync fails), the tickets of the affected mutations fail
+ * with that IOException and the mutations are acknowledged without being sent, so a failed ticket
+ * is never delivered later by recovery.
+ * */
+public class MutationSpool implements Closeable {
+  private static final Logger logger = CozeLoggerFactory.getLogger();
+
+  private final MessageService messages;
+  private final DocumentService documents;
+  private final SpoolConfig config;
+  private final WriteAheadLog log;
+  private final ExecutorService workers;
+  private final ScheduledExecutorService scheduler;
+  // 每个会话/知识库一条队列，队首是正在发送的 mutation
+  private final Map<String, ArrayDeque<Pending>> lanes = new HashMap<>();
+  private final List<SpoolTicket<?>> recovered = new ArrayList<>();
+  private final AtomicLong completed = new AtomicLong();
+  private final AtomicLong failed = new AtomicLong();
+  private final AtomicLong retried = new AtomicLong();
+  private volatile boolean closed;
+
+  private static final class Pending {
+    final long seq;
+    final MutationKind kind;
+    final String key;
+    final BaseReq request;
+    final CompletableFuture<Void> durable;
+    final CompletableFuture<Object> result = new CompletableFuture<>();
+    int attempt;
+
+    Pending(
+        long seq, MutationKind kind, String key, BaseReq request, CompletableFuture<Void> durable) {
+      this.seq = seq;
+      this.kind = kind;
+      this.key = key;
+      this.request = request;
+      this.durable = durable;
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> SpoolTicket<T> ticket() {
+      return new SpoolTicket<>(seq, kind, durable, (CompletableFuture<T>) result);
+    }
+  }
+
+  public MutationSpool(MessageService messages, DocumentService documents, SpoolConfig config)
+      throws IOException {
+    this(messages, documents, config, openLog(config));
+  }
+
+  MutationSpool(
+      MessageService messages, DocumentService documents, SpoolConfig config, WriteAheadLog log) {
+    this.messages = messages;
+    this.documents = documents;
+    this.config = config;
+    this.log = log;
+    this.workers =
+        Executors.newFixedThreadPool(
+            config.getMaxConcurrency(), StreamExecutors.threadFactory("coze-spool"));
+    this.scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            StreamExecutors.threadFactory("coze-spool-sync"));
+    if (config.getSyncIntervalMillis() > 0) {
+      this.scheduler.scheduleWithFixedDelay(
+          log::sync,
+          config.getSyncIntervalMillis(),
+          config.getSyncIntervalMillis(),
+          TimeUnit.MILLISECONDS);
+    }
+    recover();
+  }
+
+  private static WriteAheadLog openLog(SpoolConfig config) throws IOException {
+    if (config.getDirectory() == null) {
+      throw new IllegalArgumentException("spool directory is required");
+    }
+    if (config.getMaxConcurrency() <= 0) {
+      throw new IllegalArgumentException("maxConcurrency must be positive");
+    }
+    return new WriteAheadLog(Paths.get(config.getDirectory()), config.getSegmentBytes());
+  }
+
+  public SpoolTicket<CreateMessageResp> createMessage(CreateMessageReq req) {
+    return submit(MutationKind.MESSAGE_CREATE, "conversation:" + req.getConversationID(), req);
+  }
+
+  public SpoolTicket<UpdateMessageResp> updateMessage(UpdateMessageReq req) {
+    return submit(MutationKind.MESSAGE_UPDATE, "conversation:" + req.getConversationID(), req);
+  }
+
+  public SpoolTicket<CreateDocumentResp> createDocument(CreateDocumentReq req) {
+    return submit(MutationKind.DOCUMENT_CREATE, "dataset:" + req.getDatasetID(), req);
+  }
+
+  /*
+   * Tickets of the mutations that were found unsent in the log when the spool was opened.
+   * */
+  public List<SpoolTicket<?>> recovered() {
+    return Collections.unmodifiableList(recovered);
+  }
+
+  public SpoolStats stats() {
+    int pending = 0;
+    int lanes;
+    synchronized (this) {
+      for (ArrayDeque<Pending> lane : this.lanes.values()) {
+        pending += lane.size();
+      }
+      lanes = this.lanes.size();
+    }
+    return SpoolStats.builder()
+        .pending(pending)
+        .lanes(lanes)
+        .completed(completed.get())
+        .failed(failed.get())
+        .retried(retried.get())
+        .segments(log.segmentCount())
+        .build();
+  }
+
+  /*
+   * Stop sending and close the log. Mutations being sent are finished; the others stay in the log
+   * and their tickets fail, they are sent when a spool is opened on the directory again.
+   * */
+  @Override
+  public void close() throws IOException {
+    List<Pending> unsent = new ArrayList<>();
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      lanes.values().forEach(unsent::addAll);
+    }
+    scheduler.shutdownNow();
+    workers.shutdown();
+    try {
+      workers.awaitTermination(config.getMaxDelayMillis(), TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    log.close();
+    IllegalStateException error =
+        new IllegalStateException("spool closed, the mutation is sent when the spool is reopened");
+    unsent.forEach(pending -> pending.result.completeExceptionally(error));
+  }
+
+  private <T> SpoolTicket<T> submit(MutationKind kind, String key, BaseReq req) {
+    if (Auth.of(req) != null) {
+      throw new IllegalArgumentException("a per-call Auth cannot be spooled, it is not recovered");
+    }
+    if (req.getDeadline() != null) {
+      throw new IllegalArgumentException("a per-call Deadline cannot be spooled");
+    }
+    byte[] payload = encode(kind, key, req);
+    CompletableFuture<Void> durable = new CompletableFuture<>();
+    Pending pending;
+    synchronized (this) {
+      if (closed) {
+        throw new IllegalStateException("spool is closed");
+      }
+      try {
+        long seq = log.append(payload, durable);
+        pending = new Pending(seq, kind, key, req, durable);
+      } catch (IOException e) {
+        throw new RuntimeException("failed to append to the spool", e);
+      }
+      enqueue(pending);
+    }
+    if (config.getSyncIntervalMillis() <= 0) {
+      log.sync();
+    }
+    return pending.ticket();
+  }
+
+  private void recover() {
+    for (Map.Entry<Long, byte[]> entry : log.recovered().entrySet()) {
+      Pending pending;
+      try {
+        JsonNode node = Utils.getMapper().readTree(entry.getValue());
+        MutationKind kind = MutationKind.valueOf(node.get("kind").asText());
+        BaseReq req = Utils.getMapper().treeToValue(node.get("request"), kind.requestType());
+        pending =
+            new Pending(
+                entry.getKey(),
+                kind,
+                node.get("key").asText(),
+                req,
+                CompletableFuture.completedFuture(null));
+      } catch (IOException | RuntimeException e) {
+        logger.warn("drop unreadable spooled mutation {}: {}", entry.getKey(), e.toString());
+        ack(entry.getKey());
+        continue;
+      }
+      recovered.add(pending.ticket());
+      synchronized (this) {
+        enqueue(pending);
+      }
+    }
+    if (!recovered.isEmpty()) {
+      logger.info("recovered {} spooled mutations", recovered.size());
+    }
+  }
+
+  private static byte[] encode(MutationKind kind, String key, BaseReq req) {
+    ObjectNode node = Utils.getMapper().createObjectNode();
+    node.put("kind", kind.name());
+    node.put("key", key);
+    node.set("request", Utils.getMapper().valueToTree(req));
+    try {
+      return Utils.getMapper().writeValueAsBytes(node);
+    } catch (IOException e) {
+      throw new RuntimeException("failed to serialize " + kind, e);
+    }
+  }
+
+  // 调用方持有 this 的锁
+  private void enqueue(Pending pending) {
+    ArrayDeque<Pending> lane = lanes.computeIfAbsent(pending.key, k -> new ArrayDeque<>());
+    lane.add(pending);
+    if (lane.size() == 1) {
+      dispatch(pending);
+    }
+  }
+
+  private void dispatch(Pending pending) {
+    // 落盘之后才发送，保证已发送的 mutation 在崩溃后仍能在日志里找到
+    pending.durable.whenComplete(
+        (v, e) -> {
+          if (e != null) {
+            // 落盘失败的 mutation 不会发送，也要 ack，否则下次打开时会被恢复并发送
+            ack(pending.seq);
+            finish(pending, null, e);
+          } else {
+            execute(pending);
+          }
+        });
+  }
+
+  private void execute(Pending pending) {
+    try {
+      workers.execute(() -> send(pending));
+    } catch (RejectedExecutionException e) {
+      // 已关闭，留在日志里等下次打开
+    }
+  }
+
+  private void send(Pending pending) {
+    Object result;
+    try {
+      result = call(pending.kind, pending.request);
+    } catch (RuntimeException e) {
+      if (closed) {
+        return;
+      }
+      if (isRetryable(e)
+          && (config.getMaxAttempts() <= 0 || pending.attempt + 1 < config.getMaxAttempts())) {
+        long delay = backoff(pending.attempt++);
+        retried.incrementAndGet();
+        logger.warn(
+            "spooled {} {} failed, retry in {}ms: {}",
+            pending.kind,
+            pending.seq,
+            delay,
+            e.toString());
+        try {
+          scheduler.schedule(() -> execute(pending), delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ignored) {
+          // 已关闭
+        }
+        return;
+      }
+      ack(pending.seq);
+      finish(pending, null, e);
+      return;
+    }
+    ack(pending.seq);
+    finish(pending, result, null);
+  }
+
+  private Object call(MutationKind kind, BaseReq req) {
+    switch (kind) {
+      case MESSAGE_CREATE:
+        return messages.create((CreateMessageReq) req);
+      case MESSAGE_UPDATE:
+        return messages.update((UpdateMessageReq) req);
+      case DOCUMENT_CREATE:
+        return documents.create((CreateDocumentReq) req);
+      default:
+        throw new IllegalArgumentException("unknown mutation " + kind);
+    }
+  }
+
+  private void ack(long seq) {
+    try {
+      log.ack(seq);
+    } catch (IOException e) {
+      // ack 丢失只会导致恢复后重发一次
+      logger.warn("failed to acknowledge spooled mutation {}: {}", seq, e.toString());
+    }
+  }
+
+  private void finish(Pending pending, Object result, Throwable error) {
+    if (error == null) {
+      completed.incrementAndGet();
+    } else {
+      failed.incrementAndGet();
+      logger.warn("spooled {} {} failed: {}", pending.kind, pending.seq, error.toString());
+    }
+    synchronized (this) {
+      ArrayDeque<Pending> lane = lanes.get(pending.key);
+      lane.poll();
+      if (lane.isEmpty()) {
+        lanes.remove(pending.key);
+      } else if (!closed) {
+        dispatch(lane.peek());
+      }
+    }
+    // 先出队再通知调用方，回调里看到的 stats 已经不含这个 mutation
+    if (error == null) {
+      pending.result.complete(result);
+    } else {
+      pending.result.completeExceptionally(error);
+    }
+  }
+
+  boolean isRetryable(Throwable error) {
+    for (Throwable t = error; t != null; t = t.getCause()) {
+      // 截止时间已过或缺少凭证，重发也不会成功，只会一直堵住这个会话
+      if (t instanceof DeadlineExceededException || t instanceof MissingCredentialException) {
+        return false;
+      }
+      if (t instanceof IOException) {
+        return true;
+      }
+      if (t instanceof CozeApiException) {
+        return config.getRetryableCodes().contains(((CozeApiException) t).getCode());
+      }
+    }
+    return false;
+  }
+
+  long backoff(int attempt) {
+    long max =
+        Math.min(config.getMaxDelayMillis(), config.getBaseDelayMillis() << Math.min(attempt, 20));
+    // 一半固定一半抖动，避免同时失败的会话同时重试
+    return max / 2 + ThreadLocalRandom.current().nextLong(max / 2 + 1);
+  }
+}
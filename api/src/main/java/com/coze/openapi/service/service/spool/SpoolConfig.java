@@ -0,0 +1,45 @@
+package com.coze.openapi.service.service.spool;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/*
+ * Where and how MutationSpool keeps and sends the spooled mutations.
+ *
+ * The log is written to directory in segments of about segmentBytes. Appends are made durable
+ * together every syncIntervalMillis (group commit); 0 syncs every append before it returns.
+ *
+ * At most maxConcurrency mutations are sent at the same time, one per conversation or dataset. A
+ * mutation that fails with a connection error or a Coze error code in retryableCodes (HTTP status
+ * or error code) is sent again after an exponential backoff between baseDelayMillis and
+ * maxDelayMillis, up to maxAttempts sends in total (<= 0 means until it succeeds or the spool is
+ * closed). Then its ticket fails and the next mutation of the conversation is sent.
+ * */
+@Getter
+@Builder(toBuilder = true)
+@ToString
+public class SpoolConfig {
+  private String directory;
+
+  @Builder.Default private long segmentBytes = 16L * 1024 * 1024;
+  @Builder.Default private long syncIntervalMillis = 20;
+
+  @Builder.Default private int maxConcurrency = 4;
+  @Builder.Default private long baseDelayMillis = 500;
+  @Builder.Default private long maxDelayMillis = 30_000;
+  @Builder.Default private int maxAttempts = 20;
+
+  /* 4013: request rate exceeded, 5000: internal error */
+  @Builder.Default
+  private Set<Integer> retryableCodes =
+      new HashSet<>(Arrays.asList(408, 429, 500, 502, 503, 504, 4013, 5000));
+
+  public static SpoolConfig defaultConfig(String directory) {
+    return SpoolConfig.builder().directory(directory).build();
+  }
+}
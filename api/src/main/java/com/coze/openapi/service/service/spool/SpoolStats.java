@@ -0,0 +1,22 @@
+package com.coze.openapi.service.service.spool;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/*
+ * Point-in-time view of a MutationSpool.
+ * */
+@Getter
+@Builder
+@ToString
+public class SpoolStats {
+  /* Mutations in the log that are not sent yet, including the ones being sent. */
+  private final int pending;
+  /* Conversations and datasets with pending mutations. */
+  private final int lanes;
+  private final long completed;
+  private final long failed;
+  private final long retried;
+  private final int segments;
+}
@@ -0,0 +1,29 @@
+package com.coze.openapi.service.service.spool;
+
+import java.util.concurrent.CompletableFuture;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/*
+ * Handle of one spooled mutation.
+ *
+ * durable completes once the mutation is synced to the log and survives a crash; result completes
+ * with the response of the API once it was sent, or exceptionally when the server rejected it.
+ * */
+@Getter
+@ToString
+public class SpoolTicket<T> {
+  private final long seq;
+  private final MutationKind kind;
+  @ToString.Exclude private final CompletableFuture<Void> durable;
+  @ToString.Exclude private final CompletableFuture<T> result;
+
+  SpoolTicket(
+      long seq, MutationKind kind, CompletableFuture<Void> durable, CompletableFuture<T> result) {
+    this.seq = seq;
+    this.kind = kind;
+    this.durable = durable;
+    this.result = result;
+  }
+}
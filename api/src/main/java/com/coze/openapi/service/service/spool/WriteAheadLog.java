@@ -0,0 +1,279 @@
+package com.coze.openapi.service.service.spool;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.CRC32;
+
+/*
+ * Append-only log of the spooled mutations, split into segment files named after the first
+ * sequence number they contain.
+ *
+ * Every entry is framed as [length][crc32][type][seq][payload]. A mutation is written once with its
+ * payload; when it has been sent, an ack entry with its seq is appended. On open the segments are
+ * replayed, a torn entry at the end of a segment (crash during a write) is cut off, and the
+ * mutations without ack are returned by recovered().
+ *
+ * Appends are not synced one by one: sync() makes every append since the previous sync durable
+ * with one fsync and completes their futures (group commit). Segments are deleted oldest first
+ * once all of their mutations are acknowledged, so an ack is never deleted before the mutation it
+ * acknowledges.
+ * */
+class WriteAheadLog implements Closeable {
+  private static final String SUFFIX = ".wal";
+  private static final byte MUTATION = 'M';
+  private static final byte ACK = 'A';
+  // type + seq
+  private static final int ENTRY_HEADER = 1 + 8;
+  // length + crc32
+  private static final int FRAME_HEADER = 4 + 4;
+
+  private final Path directory;
+  private final long segmentBytes;
+  private final TreeMap<Long, Segment> segments = new TreeMap<>();
+  private final Map<Long, byte[]> recovered = new LinkedHashMap<>();
+  private List<CompletableFuture<Void>> unsynced = new ArrayList<>();
+  private Segment active;
+  private FileChannel channel;
+  private long nextSeq = 1;
+
+  private static final class Segment {
+    final long firstSeq;
+    final Path path;
+    long size;
+    // 尚未 ack 的 mutation 数
+    int live;
+
+    Segment(long firstSeq, Path path) {
+      this.firstSeq = firstSeq;
+      this.path = path;
+    }
+  }
+
+  WriteAheadLog(Path directory, long segmentBytes) throws IOException {
+    this.directory = directory;
+    this.segmentBytes = segmentBytes;
+    Files.createDirectories(directory);
+    replay();
+    openSegment(nextSeq);
+    deleteAcknowledgedSegments();
+  }
+
+  /*
+   * The mutations found on open that were never acknowledged, by seq.
+   * */
+  synchronized Map<Long, byte[]> recovered() {
+    return new LinkedHashMap<>(recovered);
+  }
+
+  /*
+   * Append a mutation and return its seq. durable is completed by the next sync().
+   * */
+  synchronized long append(byte[] payload, CompletableFuture<Void> durable) throws IOException {
+    ensureOpen();
+    if (active.size >= segmentBytes) {
+      rotate();
+    }
+    long seq = nextSeq++;
+    write(MUTATION, seq, payload);
+    active.live++;
+    unsynced.add(durable);
+    return seq;
+  }
+
+  /*
+   * Record that the mutation seq was sent. The ack is synced with the next sync(); when it is lost
+   * in a crash the mutation is sent once more after recovery.
+   * */
+  synchronized void ack(long seq) throws IOException {
+    ensureOpen();
+    write(ACK, seq, new byte[0]);
+    recovered.remove(seq);
+    Map.Entry<Long, Segment> entry = segments.floorEntry(seq);
+    if (entry != null && entry.getValue().live > 0) {
+      entry.getValue().live--;
+    }
+    deleteAcknowledgedSegments();
+  }
+
+  /*
+   * Make every append so far durable and complete their futures.
+   * */
+  synchronized void sync() {
+    if (unsynced.isEmpty() || channel == null) {
+      return;
+    }
+    List<CompletableFuture<Void>> batch = unsynced;
+    unsynced = new ArrayList<>();
+    try {
+      channel.force(false);
+      batch.forEach(future -> future.complete(null));
+    } catch (IOException e) {
+      batch.forEach(future -> future.completeExceptionally(e));
+    }
+  }
+
+  synchronized int segmentCount() {
+    return segments.size();
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    if (channel == null) {
+      return;
+    }
+    sync();
+    channel.close();
+    channel = null;
+  }
+
+  private void ensureOpen() throws IOException {
+    if (channel == null) {
+      throw new IOException("write-ahead log is closed");
+    }
+  }
+
+  private void write(byte type, long seq, byte[] payload) throws IOException {
+    int length = ENTRY_HEADER + payload.length;
+    ByteBuffer entry = ByteBuffer.allocate(length);
+    entry.put(type).putLong(seq).put(payload).flip();
+    CRC32 crc = new CRC32();
+    crc.update(entry.array(), 0, length);
+
+    ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER + length);
+    frame.putInt(length).putInt((int) crc.getValue()).put(entry).flip();
+    while (frame.hasRemaining()) {
+      channel.write(frame);
+    }
+    active.size += frame.limit();
+  }
+
+  private void rotate() throws IOException {
+    // 旧 segment 关闭前先落盘，之后的 sync 只需要处理当前 segment
+    channel.force(false);
+    channel.close();
+    openSegment(nextSeq);
+  }
+
+  private void openSegment(long firstSeq) throws IOException {
+    Segment segment = segments.get(firstSeq);
+    if (segment == null) {
+      segment =
+          new Segment(firstSeq, directory.resolve(String.format("%020d%s", firstSeq, SUFFIX)));
+      segments.put(firstSeq, segment);
+    }
+    channel =
+        FileChannel.open(
+            segment.path,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.APPEND);
+    segment.size = channel.size();
+    active = segment;
+  }
+
+  private void deleteAcknowledgedSegments() throws IOException {
+    while (!segments.isEmpty()) {
+      Segment oldest = segments.firstEntry().getValue();
+      if (oldest == active || oldest.live > 0) {
+        return;
+      }
+      Files.deleteIfExists(oldest.path);
+      segments.pollFirstEntry();
+    }
+  }
+
+  private void replay() throws IOException {
+    List<Path> files = new ArrayList<>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+      stream.forEach(files::add);
+    }
+    files.sort(null);
+
+    Set<Long> acked = new HashSet<>();
+    for (Path file : files) {
+      String name = file.getFileName().toString();
+      Segment segment =
+          new Segment(Long.parseLong(name.substring(0, name.length() - SUFFIX.length())), file);
+      segments.put(segment.firstSeq, segment);
+      // 只有 ack 的 segment 里没有 mutation，seq 也不能比它的文件名小，否则旧的 ack 会命中新的 mutation
+      nextSeq = Math.max(nextSeq, segment.firstSeq);
+      try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+        segment.size = readEntries(in, segment, acked);
+      }
+      if (segment.size < Files.size(file)) {
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.WRITE)) {
+          out.truncate(segment.size);
+        }
+      }
+    }
+
+    for (Long seq : acked) {
+      if (recovered.remove(seq) != null) {
+        Map.Entry<Long, Segment> entry = segments.floorEntry(seq);
+        if (entry != null) {
+          entry.getValue().live--;
+        }
+      }
+    }
+  }
+
+  /*
+   * Read the entries of a segment and return the length of its valid prefix.
+   * */
+  private long readEntries(FileChannel in, Segment segment, Set<Long> acked) throws IOException {
+    long position = 0;
+    long size = in.size();
+    ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER);
+    while (position + FRAME_HEADER <= size) {
+      header.clear();
+      in.read(header, position);
+      header.flip();
+      int length = header.getInt();
+      int expected = header.getInt();
+      if (length < ENTRY_HEADER || position + FRAME_HEADER + length > size) {
+        break;
+      }
+      ByteBuffer entry = ByteBuffer.allocate(length);
+      while (entry.hasRemaining()) {
+        if (in.read(entry, position + FRAME_HEADER + entry.position()) < 0) {
+          break;
+        }
+      }
+      CRC32 crc = new CRC32();
+      crc.update(entry.array(), 0, length);
+      if ((int) crc.getValue() != expected) {
+        break;
+      }
+      entry.flip();
+      byte type = entry.get();
+      long seq = entry.getLong();
+      if (type == MUTATION) {
+        byte[] payload = new byte[entry.remaining()];
+        entry.get(payload);
+        recovered.put(seq, payload);
+        segment.live++;
+        nextSeq = Math.max(nextSeq, seq + 1);
+      } else if (type == ACK) {
+        acked.add(seq);
+      } else {
+        break;
+      }
+      position += FRAME_HEADER + length;
+    }
+    return position;
+  }
+}
@@ -0,0 +1,22 @@
+package com.coze.openapi.service.service.template;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.coze.openapi.api.TemplateAPI;
+import com.coze.openapi.client.template.DuplicateTemplateReq;
+import com.coze.openapi.client.template.DuplicateTemplateResp;
+import com.coze.openapi.service.utils.Utils;
+
+public class AsyncTemplateService {
+
+  private final TemplateAPI templateAPI;
+
+  public AsyncTemplateService(TemplateAPI templateAPI) {
+    this.templateAPI = templateAPI;
+  }
+
+  public CompletableFuture<DuplicateTemplateResp> duplicate(DuplicateTemplateReq req) {
+    return Utils.executeAsync(
+        templateAPI.duplicate(req.getTemplateID(), req, req), resp -> resp.getData());
+  }
+}
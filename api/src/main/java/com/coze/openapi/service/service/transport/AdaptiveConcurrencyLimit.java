@@ -0,0 +1,94 @@
+package com.coze.openapi.service.service.transport;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * In-flight limit that adapts to the observed RTT, see ConcurrencyLimitConfig.
+ * */
+public class AdaptiveConcurrencyLimit {
+  private final ConcurrencyLimitConfig config;
+  private double limit;
+  private int inflight;
+  private double longRttNanos;
+  private long samples;
+  private long rejected;
+  private long dropped;
+
+  public AdaptiveConcurrencyLimit(ConcurrencyLimitConfig config) {
+    this.config = config;
+    this.limit = clamp(config.getInitialLimit());
+  }
+
+  /*
+   * Take a permit, waiting up to maxWaitMillis. Returns the number of calls in flight before this
+   * one, or -1 when rejected.
+   * */
+  public synchronized int acquire(long maxWaitMillis) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+    while (inflight >= (int) limit) {
+      long remaining = deadline - System.nanoTime();
+      if (maxWaitMillis <= 0 || remaining <= 0) {
+        rejected++;
+        return -1;
+      }
+      TimeUnit.NANOSECONDS.timedWait(this, remaining);
+    }
+    return inflight++;
+  }
+
+  public synchronized void release() {
+    inflight--;
+    notifyAll();
+  }
+
+  /*
+   * Record the RTT of a successful call that started with inflightBefore other calls in flight.
+   * */
+  public synchronized void onSample(long rttNanos, int inflightBefore) {
+    samples++;
+    if (samples == 1) {
+      longRttNanos = rttNanos;
+    } else {
+      longRttNanos += (rttNanos - longRttNanos) / Math.min(samples, config.getLongWindow());
+    }
+    // 没有用满 limit 时的 RTT 不能说明还能承受更多并发，不调整
+    if (inflightBefore + 1 < limit / 2) {
+      return;
+    }
+    double gradient = config.getRttTolerance() * longRttNanos / Math.max(rttNanos, 1);
+    gradient = Math.max(0.5, Math.min(1.0, gradient));
+    double estimate = limit * gradient + Math.sqrt(limit);
+    setLimit(limit * (1 - config.getSmoothing()) + estimate * config.getSmoothing());
+  }
+
+  public synchronized void onDrop() {
+    dropped++;
+    setLimit(limit * config.getBackoffRatio());
+  }
+
+  public synchronized int limit() {
+    return (int) limit;
+  }
+
+  public synchronized ConcurrencyLimitStats stats() {
+    return ConcurrencyLimitStats.builder()
+        .limit((int) limit)
+        .inflight(inflight)
+        .rejected(rejected)
+        .dropped(dropped)
+        .longRttMillis(TimeUnit.NANOSECONDS.toMillis((long) longRttNanos))
+        .build();
+  }
+
+  private void setLimit(double newLimit) {
+    boolean grew = (int) clamp(newLimit) > (int) limit;
+    limit = clamp(newLimit);
+    if (grew) {
+      notifyAll();
+    }
+  }
+
+  private double clamp(double value) {
+    return Math.max(config.getMinLimit(), Math.min(config.getMaxLimit(), value));
+  }
+}
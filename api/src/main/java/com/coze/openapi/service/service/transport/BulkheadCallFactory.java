@@ -0,0 +1,85 @@
+package com.coze.openapi.service.service.transport;
+
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import retrofit2.Invocation;
+import retrofit2.http.Streaming;
+
+/*
+ * Routes every Retrofit call to the unary or the streaming lane.
+ *
+ * Both lanes are derived from the same base client, so they share interceptors, timeouts and the
+ * dispatcher thread pool, but each one has its own dispatcher limits and connection pool.
+ * */
+public class BulkheadCallFactory implements Call.Factory {
+  private final OkHttpClient unaryClient;
+  private final OkHttpClient streamClient;
+
+  public BulkheadCallFactory(OkHttpClient unaryClient, OkHttpClient streamClient) {
+    this.unaryClient = unaryClient;
+    this.streamClient = streamClient;
+  }
+
+  public static BulkheadCallFactory create(OkHttpClient base, BulkheadConfig config) {
+    OkHttpClient unary =
+        lane(
+            base,
+            config.getUnaryMaxRequests(),
+            config.getUnaryMaxRequestsPerHost(),
+            config.getUnaryMaxIdleConnections(),
+            config.getUnaryKeepAliveMillis());
+    OkHttpClient stream =
+        lane(
+            base,
+            config.getStreamMaxRequests(),
+            config.getStreamMaxRequestsPerHost(),
+            config.getStreamMaxIdleConnections(),
+            config.getStreamKeepAliveMillis());
+    return new BulkheadCallFactory(unary, stream);
+  }
+
+  private static OkHttpClient lane(
+      OkHttpClient base,
+      int maxRequests,
+      int maxRequestsPerHost,
+      int maxIdleConnections,
+      long keepAliveMillis) {
+    Dispatcher dispatcher = new Dispatcher(base.dispatcher().executorService());
+    dispatcher.setMaxRequests(maxRequests);
+    dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+    return base.newBuilder()
+        .dispatcher(dispatcher)
+        .connectionPool(
+            new ConnectionPool(maxIdleConnections, keepAliveMillis, TimeUnit.MILLISECONDS))
+        .build();
+  }
+
+  @Override
+  public Call newCall(Request request) {
+    return isStreaming(request) ? streamClient.newCall(request) : unaryClient.newCall(request);
+  }
+
+  public static boolean isStreaming(Request request) {
+    Invocation invocation = request.tag(Invocation.class);
+    return invocation != null && invocation.method().isAnnotationPresent(Streaming.class);
+  }
+
+  public OkHttpClient unaryClient() {
+    return unaryClient;
+  }
+
+  public OkHttpClient streamClient() {
+    return streamClient;
+  }
+
+  public TransportStats stats() {
+    return TransportStats.builder().bulkhead(true).unary(LaneStats.of(unaryClient)).stream(
+            LaneStats.of(streamClient))
+        .build();
+  }
+}
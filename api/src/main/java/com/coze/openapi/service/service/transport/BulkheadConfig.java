@@ -0,0 +1,31 @@
+package com.coze.openapi.service.service.transport;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/*
+ * Budgets of the two transport lanes used when the bulkhead mode is enabled.
+ *
+ * Streaming calls (methods annotated with @Streaming, and websockets) hold their connection for
+ * the whole response, so they get their own dispatcher and connection pool and can never starve
+ * the short unary calls, and vice versa.
+ * */
+@Getter
+@Builder
+@ToString
+public class BulkheadConfig {
+  @Builder.Default private int streamMaxRequests = 256;
+  @Builder.Default private int streamMaxRequestsPerHost = 256;
+  @Builder.Default private int streamMaxIdleConnections = 16;
+  @Builder.Default private long streamKeepAliveMillis = 5 * 60 * 1000L;
+
+  @Builder.Default private int unaryMaxRequests = 64;
+  @Builder.Default private int unaryMaxRequestsPerHost = 32;
+  @Builder.Default private int unaryMaxIdleConnections = 16;
+  @Builder.Default private long unaryKeepAliveMillis = 5 * 60 * 1000L;
+
+  public static BulkheadConfig defaultConfig() {
+    return BulkheadConfig.builder().build();
+  }
+}
@@ -0,0 +1,36 @@
+package com.coze.openapi.service.service.transport;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/*
+ * Settings of the adaptive in-flight limit of one lane (unary calls or streams).
+ *
+ * The limit follows the gradient between the long-term RTT and the latest RTT: while responses are
+ * as fast as usual it grows by about sqrt(limit), when they slow down beyond rttTolerance it
+ * shrinks proportionally, and on a drop (connection failure, 429 or 503) it is multiplied by
+ * backoffRatio. For streams the RTT is the time to the response headers, and a permit is held until
+ * the stream is closed.
+ * */
+@Getter
+@Builder(toBuilder = true)
+@ToString
+public class ConcurrencyLimitConfig {
+  @Builder.Default private int initialLimit = 20;
+  @Builder.Default private int minLimit = 1;
+  @Builder.Default private int maxLimit = 200;
+  /* How much a slower RTT is tolerated before the limit shrinks, must be >= 1. */
+  @Builder.Default private double rttTolerance = 1.5;
+  /* Weight of each new limit estimate. */
+  @Builder.Default private double smoothing = 0.2;
+  @Builder.Default private double backoffRatio = 0.9;
+  /* Number of samples averaged into the long-term RTT. */
+  @Builder.Default private int longWindow = 600;
+  /* How long a call waits for a permit before it is rejected, 0 rejects right away. */
+  @Builder.Default private long maxWaitMillis = 0;
+
+  public static ConcurrencyLimitConfig defaultConfig() {
+    return ConcurrencyLimitConfig.builder().build();
+  }
+}
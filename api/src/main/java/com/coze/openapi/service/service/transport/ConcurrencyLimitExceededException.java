@@ -0,0 +1,14 @@
+package com.coze.openapi.service.service.transport;
+
+import com.coze.openapi.service.service.common.RequestRejectedException;
+
+/*
+ * Thrown by a call that could not get a permit from the adaptive concurrency limit.
+ * */
+public class ConcurrencyLimitExceededException extends RequestRejectedException {
+  private static final long serialVersionUID = 1L;
+
+  public ConcurrencyLimitExceededException(String lane, int limit) {
+    super(lane + " concurrency limit " + limit + " exceeded");
+  }
+}
@@ -0,0 +1,122 @@
+package com.coze.openapi.service.service.transport;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+
+/*
+ * Application interceptor that enforces the adaptive concurrency limits, one for unary calls and
+ * one for streams. A permit is held until the response body is closed.
+ * */
+public class ConcurrencyLimitInterceptor implements Interceptor {
+  private static final int TOO_MANY_REQUESTS = 429;
+  private static final int SERVICE_UNAVAILABLE = 503;
+
+  private final AdaptiveConcurrencyLimit unary;
+  private final AdaptiveConcurrencyLimit stream;
+  private final long unaryMaxWaitMillis;
+  private final long streamMaxWaitMillis;
+
+  public ConcurrencyLimitInterceptor(ConcurrencyLimitConfig unary, ConcurrencyLimitConfig stream) {
+    this.unary = new AdaptiveConcurrencyLimit(unary);
+    this.stream = new AdaptiveConcurrencyLimit(stream);
+    this.unaryMaxWaitMillis = unary.getMaxWaitMillis();
+    this.streamMaxWaitMillis = stream.getMaxWaitMillis();
+  }
+
+  public AdaptiveConcurrencyLimit unaryLimit() {
+    return unary;
+  }
+
+  public AdaptiveConcurrencyLimit streamLimit() {
+    return stream;
+  }
+
+  @Override
+  public Response intercept(Chain chain) throws IOException {
+    Request request = chain.request();
+    boolean streaming = BulkheadCallFactory.isStreaming(request);
+    AdaptiveConcurrencyLimit lane = streaming ? stream : unary;
+
+    int inflightBefore;
+    try {
+      inflightBefore = lane.acquire(streaming ? streamMaxWaitMillis : unaryMaxWaitMillis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("interrupted while waiting for concurrency limit");
+    }
+    if (inflightBefore < 0) {
+      throw new ConcurrencyLimitExceededException(streaming ? "stream" : "unary", lane.limit());
+    }
+
+    long start = System.nanoTime();
+    Response response;
+    try {
+      response = chain.proceed(request);
+    } catch (IOException | RuntimeException e) {
+      if (!chain.call().isCanceled()) {
+        lane.onDrop();
+      }
+      lane.release();
+      throw e;
+    }
+    if (response.code() == TOO_MANY_REQUESTS || response.code() == SERVICE_UNAVAILABLE) {
+      lane.onDrop();
+    } else {
+      lane.onSample(System.nanoTime() - start, inflightBefore);
+    }
+    if (response.body() == null) {
+      lane.release();
+      return response;
+    }
+    return response.newBuilder().body(new ReleasingBody(response.body(), lane)).build();
+  }
+
+  private static final class ReleasingBody extends ResponseBody {
+    private final ResponseBody delegate;
+    private final BufferedSource source;
+
+    ReleasingBody(ResponseBody delegate, AdaptiveConcurrencyLimit lane) {
+      this.delegate = delegate;
+      AtomicBoolean released = new AtomicBoolean();
+      this.source =
+          Okio.buffer(
+              new ForwardingSource(delegate.source()) {
+                @Override
+                public void close() throws IOException {
+                  try {
+                    super.close();
+                  } finally {
+                    if (released.compareAndSet(false, true)) {
+                      lane.release();
+                    }
+                  }
+                }
+              });
+    }
+
+    @Override
+    public MediaType contentType() {
+      return delegate.contentType();
+    }
+
+    @Override
+    public long contentLength() {
+      return delegate.contentLength();
+    }
+
+    @Override
+    public BufferedSource source() {
+      return source;
+    }
+  }
+}
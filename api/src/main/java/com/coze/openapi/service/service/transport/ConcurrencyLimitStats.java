@@ -0,0 +1,19 @@
+package com.coze.openapi.service.service.transport;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/*
+ * Point-in-time view of an adaptive concurrency limit.
+ * */
+@Getter
+@Builder
+@ToString
+public class ConcurrencyLimitStats {
+  private final int limit;
+  private final int inflight;
+  private final long rejected;
+  private final long dropped;
+  private final long longRttMillis;
+}
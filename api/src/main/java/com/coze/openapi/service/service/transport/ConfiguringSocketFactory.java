@@ -0,0 +1,65 @@
+package com.coze.openapi.service.service.transport;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.SocketException;
+
+import javax.net.SocketFactory;
+
+/*
+ * Applies the socket options of a TransportProfile to every socket OkHttp opens. TLS sockets are
+ * layered on top of these sockets, so the options apply to HTTPS and WSS as well.
+ * */
+class ConfiguringSocketFactory extends SocketFactory {
+  private final SocketFactory delegate = SocketFactory.getDefault();
+  private final Integer sendBufferSize;
+  private final Integer receiveBufferSize;
+  private final Boolean tcpNoDelay;
+
+  ConfiguringSocketFactory(Integer sendBufferSize, Integer receiveBufferSize, Boolean tcpNoDelay) {
+    this.sendBufferSize = sendBufferSize;
+    this.receiveBufferSize = receiveBufferSize;
+    this.tcpNoDelay = tcpNoDelay;
+  }
+
+  private Socket configure(Socket socket) throws SocketException {
+    if (sendBufferSize != null) {
+      socket.setSendBufferSize(sendBufferSize);
+    }
+    if (receiveBufferSize != null) {
+      socket.setReceiveBufferSize(receiveBufferSize);
+    }
+    if (tcpNoDelay != null) {
+      socket.setTcpNoDelay(tcpNoDelay);
+    }
+    return socket;
+  }
+
+  @Override
+  public Socket createSocket() throws IOException {
+    return configure(delegate.createSocket());
+  }
+
+  @Override
+  public Socket createSocket(String host, int port) throws IOException {
+    return configure(delegate.createSocket(host, port));
+  }
+
+  @Override
+  public Socket createSocket(String host, int port, InetAddress localHost, int localPort)
+      throws IOException {
+    return configure(delegate.createSocket(host, port, localHost, localPort));
+  }
+
+  @Override
+  public Socket createSocket(InetAddress host, int port) throws IOException {
+    return configure(delegate.createSocket(host, port));
+  }
+
+  @Override
+  public Socket createSocket(InetAddress address, int port, InetAddress localAddress, int localPort)
+      throws IOException {
+    return configure(delegate.createSocket(address, port, localAddress, localPort));
+  }
+}
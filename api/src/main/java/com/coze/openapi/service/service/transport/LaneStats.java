@@ -0,0 +1,32 @@
+package com.coze.openapi.service.service.transport;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import okhttp3.OkHttpClient;
+
+/*
+ * Point-in-time view of one transport lane: its dispatcher budget and connection pool usage.
+ * */
+@Getter
+@Builder
+@ToString
+public class LaneStats {
+  private final int maxRequests;
+  private final int maxRequestsPerHost;
+  private final int runningCalls;
+  private final int queuedCalls;
+  private final int connections;
+  private final int idleConnections;
+
+  public static LaneStats of(OkHttpClient client) {
+    return LaneStats.builder()
+        .maxRequests(client.dispatcher().getMaxRequests())
+        .maxRequestsPerHost(client.dispatcher().getMaxRequestsPerHost())
+        .runningCalls(client.dispatcher().runningCallsCount())
+        .queuedCalls(client.dispatcher().queuedCallsCount())
+        .connections(client.connectionPool().connectionCount())
+        .idleConnections(client.connectionPool().idleConnectionCount())
+        .build();
+  }
+}
@@ -0,0 +1,91 @@
+package com.coze.openapi.service.service.transport;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+/*
+ * Connection pool, dispatcher and socket settings of the HTTP transport.
+ *
+ * The same profile is applied to the REST, SSE and websocket traffic of a CozeAPI. Socket options
+ * left null keep the JVM defaults.
+ * */
+@Getter
+@Builder(toBuilder = true)
+@ToString
+public class TransportProfile {
+  @Builder.Default private int maxIdleConnections = 5;
+  @Builder.Default private long keepAliveMillis = 1000L;
+  @Builder.Default private int maxRequests = 64;
+  @Builder.Default private int maxRequestsPerHost = 5;
+  private List<Protocol> protocols;
+  private Integer sendBufferSize;
+  private Integer receiveBufferSize;
+  private Boolean tcpNoDelay;
+
+  /*
+   * The settings used before transport profiles existed.
+   * */
+  public static TransportProfile defaults() {
+    return TransportProfile.builder().build();
+  }
+
+  /*
+   * Many small interactive calls and chat streams: keep warm connections around, prefer HTTP/2 and
+   * disable Nagle so small frames are sent immediately.
+   * */
+  public static TransportProfile lowLatencyInteractive() {
+    return TransportProfile.builder()
+        .maxIdleConnections(32)
+        .keepAliveMillis(5 * 60 * 1000L)
+        .maxRequests(256)
+        .maxRequestsPerHost(64)
+        .protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1))
+        .tcpNoDelay(Boolean.TRUE)
+        .build();
+  }
+
+  /*
+   * Bulk jobs with large bodies: more parallel HTTP/1.1 connections instead of multiplexing on one,
+   * and larger socket buffers.
+   * */
+  public static TransportProfile highThroughputBatch() {
+    return TransportProfile.builder()
+        .maxIdleConnections(64)
+        .keepAliveMillis(5 * 60 * 1000L)
+        .maxRequests(512)
+        .maxRequestsPerHost(128)
+        .protocols(Arrays.asList(Protocol.HTTP_1_1))
+        .sendBufferSize(256 * 1024)
+        .receiveBufferSize(256 * 1024)
+        .build();
+  }
+
+  public OkHttpClient.Builder applyTo(OkHttpClient.Builder builder) {
+    Dispatcher dispatcher = new Dispatcher();
+    dispatcher.setMaxRequests(this.maxRequests);
+    dispatcher.setMaxRequestsPerHost(this.maxRequestsPerHost);
+    builder
+        .dispatcher(dispatcher)
+        .connectionPool(
+            new ConnectionPool(
+                this.maxIdleConnections, this.keepAliveMillis, TimeUnit.MILLISECONDS));
+    if (this.protocols != null && !this.protocols.isEmpty()) {
+      builder.protocols(this.protocols);
+    }
+    if (this.sendBufferSize != null || this.receiveBufferSize != null || this.tcpNoDelay != null) {
+      builder.socketFactory(
+          new ConfiguringSocketFactory(
+              this.sendBufferSize, this.receiveBufferSize, this.tcpNoDelay));
+    }
+    return builder;
+  }
+}
@@ -0,0 +1,25 @@
+package com.coze.openapi.service.service.transport;
+
+import com.coze.openapi.service.service.priority.PriorityStats;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/*
+ * Usage of the unary and streaming lanes. When the bulkhead mode is disabled both lanes share the
+ * same dispatcher and connection pool, and report the same numbers.
+ * */
+@Getter
+@Builder
+@ToString
+public class TransportStats {
+  private final boolean bulkhead;
+  private final LaneStats unary;
+  private final LaneStats stream;
+  /* Adaptive concurrency limits, null unless enabled with CozeAPI.Builder.concurrencyLimit. */
+  private final ConcurrencyLimitStats unaryLimit;
+  private final ConcurrencyLimitStats streamLimit;
+  /* Priority lanes, null unless enabled with CozeAPI.Builder.priorityLanes. */
+  private final PriorityStats priority;
+}
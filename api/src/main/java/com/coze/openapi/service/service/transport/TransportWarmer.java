@@ -0,0 +1,170 @@
+package com.coze.openapi.service.service.transport;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.coze.openapi.service.service.common.StreamExecutors;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/*
+ * Resolves hosts and fills connection pools ahead of the first call, see WarmupConfig.
+ *
+ * Connections are opened with HEAD requests on the pool of each lane, through a copy of the lane
+ * client without interceptors, so no credentials are sent and no limits are consumed. Websocket
+ * handshakes only use HTTP/1.1 connections, so the websocket host is warmed over HTTP/1.1.
+ * */
+public class TransportWarmer {
+  private final WarmupConfig config;
+  private final List<Target> targets = new ArrayList<>();
+
+  public TransportWarmer(WarmupConfig config) {
+    this.config = config;
+  }
+
+  public TransportWarmer add(OkHttpClient client, String url) {
+    HttpUrl parsed = HttpUrl.parse(url);
+    if (parsed == null) {
+      throw new IllegalArgumentException("invalid url: " + url);
+    }
+    targets.add(new Target(bare(client).build(), parsed));
+    return this;
+  }
+
+  public TransportWarmer addWebsocket(OkHttpClient client, String url) {
+    // HttpUrl 只接受 http/https，按对应的 http 协议解析
+    String http = url.replaceFirst("^ws:", "http:").replaceFirst("^wss:", "https:");
+    HttpUrl parsed = HttpUrl.parse(http);
+    if (parsed == null) {
+      throw new IllegalArgumentException("invalid url: " + url);
+    }
+    targets.add(
+        new Target(
+            bare(client).protocols(Collections.singletonList(Protocol.HTTP_1_1)).build(), parsed));
+    return this;
+  }
+
+  private static OkHttpClient.Builder bare(OkHttpClient client) {
+    OkHttpClient.Builder builder = client.newBuilder();
+    builder.interceptors().clear();
+    builder.networkInterceptors().clear();
+    return builder;
+  }
+
+  /*
+   * Run the warm-up on a background thread.
+   * */
+  public CompletableFuture<WarmupReport> start() {
+    CompletableFuture<WarmupReport> future = new CompletableFuture<>();
+    Thread thread =
+        StreamExecutors.threadFactory("coze-warmup")
+            .newThread(
+                () -> {
+                  try {
+                    future.complete(run());
+                  } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                  }
+                });
+    thread.start();
+    return future;
+  }
+
+  /*
+   * Run the warm-up on the calling thread.
+   * */
+  public WarmupReport run() {
+    long start = System.nanoTime();
+    Map<String, Long> resolveMillis = new LinkedHashMap<>();
+    List<String> errors = Collections.synchronizedList(new ArrayList<>());
+
+    Set<String> hosts = new LinkedHashSet<>();
+    for (Target target : targets) {
+      hosts.add(target.url.host());
+    }
+    for (String host : hosts) {
+      long resolveStart = System.nanoTime();
+      try {
+        targets.get(0).client.dns().lookup(host);
+        resolveMillis.put(host, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - resolveStart));
+      } catch (IOException e) {
+        errors.add("resolve " + host + ": " + e.getMessage());
+      }
+    }
+
+    AtomicInteger connections = new AtomicInteger();
+    CountDownLatch done = new CountDownLatch(targets.size() * config.getConnections());
+    List<Call> calls = new ArrayList<>();
+    for (Target target : targets) {
+      Request request = new Request.Builder().url(target.url.resolve("/")).head().build();
+      for (int i = 0; i < config.getConnections(); i++) {
+        Call call = target.client.newCall(request);
+        calls.add(call);
+        call.enqueue(
+            new Callback() {
+              @Override
+              public void onFailure(Call call, IOException e) {
+                errors.add("connect " + target.url.host() + ": " + e.getMessage());
+                done.countDown();
+              }
+
+              @Override
+              public void onResponse(Call call, Response response) {
+                response.close();
+                connections.incrementAndGet();
+                done.countDown();
+              }
+            });
+      }
+    }
+    try {
+      if (!done.await(config.getTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+        errors.add("timed out after " + config.getTimeoutMillis() + "ms");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      errors.add("interrupted");
+    }
+    for (Call call : calls) {
+      call.cancel();
+    }
+
+    List<String> reported;
+    synchronized (errors) {
+      reported = new ArrayList<>(errors);
+    }
+    return WarmupReport.builder()
+        .ready(reported.isEmpty())
+        .durationMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+        .resolveMillis(resolveMillis)
+        .connections(connections.get())
+        .errors(reported)
+        .build();
+  }
+
+  private static final class Target {
+    private final OkHttpClient client;
+    private final HttpUrl url;
+
+    Target(OkHttpClient client, HttpUrl url) {
+      this.client = client;
+      this.url = url;
+    }
+  }
+}
@@ -0,0 +1,28 @@
+package com.coze.openapi.service.service.transport;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/*
+ * Warm-up of the transport when a CozeAPI is built: resolve the API and websocket hosts and open
+ * connections to them before the first real call.
+ *
+ * connections: connections opened per host and lane (HTTP/2 may serve them with a single one).
+ * keepAliveMillis: the minimum keep-alive of the connection pool, so warm connections are not
+ * evicted before the first calls arrive. Only applied to pools created by CozeAPI, a custom client
+ * without transport profile keeps its own pool.
+ * */
+@Getter
+@Builder(toBuilder = true)
+@ToString
+public class WarmupConfig {
+  @Builder.Default private int connections = 2;
+  @Builder.Default private long keepAliveMillis = 5 * 60 * 1000L;
+  @Builder.Default private long timeoutMillis = 10_000;
+  @Builder.Default private boolean websocketHost = true;
+
+  public static WarmupConfig defaultConfig() {
+    return WarmupConfig.builder().build();
+  }
+}
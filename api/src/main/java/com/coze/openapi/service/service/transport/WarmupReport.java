@@ -0,0 +1,36 @@
+package com.coze.openapi.service.service.transport;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/*
+ * Outcome of a transport warm-up. ready is true when every host resolved and every connection
+ * attempt got a response, whatever its status.
+ * */
+@Getter
+@Builder
+@ToString
+public class WarmupReport {
+  private final boolean ready;
+  private final long durationMillis;
+  /* Host name to DNS resolution time. */
+  private final Map<String, Long> resolveMillis;
+  private final int connections;
+  private final List<String> errors;
+
+  /*
+   * The report of a client built without warm-up.
+   * */
+  public static WarmupReport skipped() {
+    return WarmupReport.builder()
+        .ready(true)
+        .resolveMillis(Collections.emptyMap())
+        .errors(Collections.emptyList())
+        .build();
+  }
+}
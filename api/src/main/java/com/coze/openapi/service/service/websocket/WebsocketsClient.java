@@ -1,5 +1,8 @@
 package com.coze.openapi.service.service.websocket;
 
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
 import com.coze.openapi.service.service.websocket.audio.WebsocketsAudioClient;
 import com.coze.openapi.service.service.websocket.chat.WebsocketsChatClientBuilder;
 
@@ -12,8 +15,15 @@ public class WebsocketsClient {
   private final WebsocketsAudioClient audio;
 
   public WebsocketsClient(OkHttpClient client, String baseURL) {
-    this.chat = new WebsocketsChatClientBuilder(baseURL, client);
-    this.audio = new WebsocketsAudioClient(baseURL, client);
+    this(client, baseURL, Executors.defaultThreadFactory());
+  }
+
+  /*
+   * threadFactory: creates the threads that dispatch the events of each websocket connection.
+   * */
+  public WebsocketsClient(OkHttpClient client, String baseURL, ThreadFactory threadFactory) {
+    this.chat = new WebsocketsChatClientBuilder(baseURL, client, threadFactory);
+    this.audio = new WebsocketsAudioClient(baseURL, client, threadFactory);
   }
 
   public WebsocketsChatClientBuilder chat() {
@@ -1,5 +1,8 @@
 package com.coze.openapi.service.service.websocket.audio;
 
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
 import com.coze.openapi.service.service.websocket.audio.speech.WebsocketsAudioSpeechBuilder;
 import com.coze.openapi.service.service.websocket.audio.transcriptions.WebsocketsAudioTranscriptionsBuilder;
 
@@ -11,9 +14,15 @@ public class WebsocketsAudioClient {
   private final WebsocketsAudioTranscriptionsBuilder websocketAudioTranscriptionsBuilder;
 
   public WebsocketsAudioClient(String baseUrl, OkHttpClient httpClient) {
-    this.websocketAudioSpeechBuilder = new WebsocketsAudioSpeechBuilder(baseUrl, httpClient);
+    this(baseUrl, httpClient, Executors.defaultThreadFactory());
+  }
+
+  public WebsocketsAudioClient(
+      String baseUrl, OkHttpClient httpClient, ThreadFactory threadFactory) {
+    this.websocketAudioSpeechBuilder =
+        new WebsocketsAudioSpeechBuilder(baseUrl, httpClient, threadFactory);
     this.websocketAudioTranscriptionsBuilder =
-        new WebsocketsAudioTranscriptionsBuilder(baseUrl, httpClient);
+        new WebsocketsAudioTranscriptionsBuilder(baseUrl, httpClient, threadFactory);
   }
 
   public WebsocketsAudioSpeechBuilder speech() {
@@ -1,5 +1,8 @@
 package com.coze.openapi.service.service.websocket.audio.speech;
 
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
 import lombok.AllArgsConstructor;
 import okhttp3.OkHttpClient;
 
@@ -7,8 +10,13 @@ import okhttp3.OkHttpClient;
 public class WebsocketsAudioSpeechBuilder {
   private final String baseUrl;
   private final OkHttpClient httpClient;
+  private final ThreadFactory threadFactory;
+
+  public WebsocketsAudioSpeechBuilder(String baseUrl, OkHttpClient httpClient) {
+    this(baseUrl, httpClient, Executors.defaultThreadFactory());
+  }
 
   public WebsocketsAudioSpeechClient create(WebsocketsAudioSpeechCreateReq req) {
-    return new WebsocketsAudioSpeechClient(httpClient, baseUrl, req);
+    return new WebsocketsAudioSpeechClient(httpClient, baseUrl, req, threadFactory);
   }
 }
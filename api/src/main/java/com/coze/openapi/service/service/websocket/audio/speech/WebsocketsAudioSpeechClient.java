@@ -1,24 +1,47 @@
 package com.coze.openapi.service.service.websocket.audio.speech;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
 import com.coze.openapi.client.websocket.event.EventType;
 import com.coze.openapi.client.websocket.event.downstream.*;
 import com.coze.openapi.client.websocket.event.model.SpeechUpdateEventData;
 import com.coze.openapi.client.websocket.event.upstream.*;
 import com.coze.openapi.service.service.websocket.common.BaseCallbackHandler;
 import com.coze.openapi.service.service.websocket.common.BaseWebsocketsClient;
-import com.fasterxml.jackson.databind.JsonNode;
 
 import okhttp3.OkHttpClient;
 import okhttp3.WebSocket;
 
 public class WebsocketsAudioSpeechClient extends BaseWebsocketsClient {
+  // 下行事件的 reader 在连接时构建，第一个事件不用再等
+  private static final List<Class<?>> EVENT_TYPES =
+      Arrays.asList(
+          SpeechCreatedEvent.class,
+          SpeechUpdatedEvent.class,
+          SpeechAudioUpdateEvent.class,
+          SpeechAudioCompletedEvent.class,
+          InputTextBufferCompletedEvent.class,
+          ErrorEvent.class);
+
   private final WebsocketsAudioSpeechCallbackHandler handler;
   private static final String uri = "/v1/audio/speech";
 
   protected WebsocketsAudioSpeechClient(
       OkHttpClient client, String wsHost, WebsocketsAudioSpeechCreateReq req) {
-    super(client, buildUrl(wsHost), req.getCallbackHandler(), req);
+    this(client, wsHost, req, Executors.defaultThreadFactory());
+  }
+
+  protected WebsocketsAudioSpeechClient(
+      OkHttpClient client,
+      String wsHost,
+      WebsocketsAudioSpeechCreateReq req,
+      ThreadFactory threadFactory) {
+    super(client, buildUrl(wsHost), req.getCallbackHandler(), req, threadFactory);
     this.handler = req.getCallbackHandler();
+    codec.prepare(EVENT_TYPES);
   }
 
   protected static String buildUrl(String wsHost) {
@@ -48,40 +71,37 @@ public class WebsocketsAudioSpeechClient extends BaseWebsocketsClient {
   @Override
   protected void handleEvent(WebSocket ws, String text) {
     try {
-      JsonNode jsonNode = objectMapper.readTree(text);
-      String eventType = parseEventType(jsonNode, text);
+      String eventType = parseEventType(text);
       if (eventType == null) {
         // 这里在上面已经抛出异常了，直接 return 即可
         return;
       }
       switch (eventType) {
         case EventType.SPEECH_CREATED:
-          SpeechCreatedEvent speechCreatedEvent =
-              objectMapper.treeToValue(jsonNode, SpeechCreatedEvent.class);
+          SpeechCreatedEvent speechCreatedEvent = codec.decode(text, SpeechCreatedEvent.class);
           handler.onSpeechCreated(this, speechCreatedEvent);
           break;
         case EventType.SPEECH_UPDATED:
-          SpeechUpdatedEvent speechUpdatedEvent =
-              objectMapper.treeToValue(jsonNode, SpeechUpdatedEvent.class);
+          SpeechUpdatedEvent speechUpdatedEvent = codec.decode(text, SpeechUpdatedEvent.class);
           handler.onSpeechUpdated(this, speechUpdatedEvent);
           break;
         case EventType.SPEECH_AUDIO_UPDATE:
           SpeechAudioUpdateEvent audioUpdateEvent =
-              objectMapper.treeToValue(jsonNode, SpeechAudioUpdateEvent.class);
+              codec.decode(text, SpeechAudioUpdateEvent.class);
           handler.onSpeechAudioUpdate(this, audioUpdateEvent);
           break;
         case EventType.SPEECH_AUDIO_COMPLETED:
           SpeechAudioCompletedEvent audioCompletedEvent =
-              objectMapper.treeToValue(jsonNode, SpeechAudioCompletedEvent.class);
+              codec.decode(text, SpeechAudioCompletedEvent.class);
           handler.onSpeechAudioCompleted(this, audioCompletedEvent);
           break;
         case EventType.INPUT_TEXT_BUFFER_COMPLETED:
           InputTextBufferCompletedEvent bufferCompletedEvent =
-              objectMapper.treeToValue(jsonNode, InputTextBufferCompletedEvent.class);
+              codec.decode(text, InputTextBufferCompletedEvent.class);
           handler.onInputTextBufferCompleted(this, bufferCompletedEvent);
           break;
         case EventType.ERROR:
-          ErrorEvent errorEvent = objectMapper.treeToValue(jsonNode, ErrorEvent.class);
+          ErrorEvent errorEvent = codec.decode(text, ErrorEvent.class);
           handler.onError(this, errorEvent);
           break;
         default:
@@ -1,5 +1,8 @@
 package com.coze.openapi.service.service.websocket.audio.transcriptions;
 
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
 import lombok.AllArgsConstructor;
 import okhttp3.OkHttpClient;
 
@@ -7,8 +10,13 @@ import okhttp3.OkHttpClient;
 public class WebsocketsAudioTranscriptionsBuilder {
   private final String baseUrl;
   private final OkHttpClient httpClient;
+  private final ThreadFactory threadFactory;
+
+  public WebsocketsAudioTranscriptionsBuilder(String baseUrl, OkHttpClient httpClient) {
+    this(baseUrl, httpClient, Executors.defaultThreadFactory());
+  }
 
   public WebsocketsAudioTranscriptionsClient create(WebsocketsAudioTranscriptionsCreateReq req) {
-    return new WebsocketsAudioTranscriptionsClient(httpClient, baseUrl, req);
+    return new WebsocketsAudioTranscriptionsClient(httpClient, baseUrl, req, threadFactory);
   }
 }
@@ -1,7 +1,11 @@
 package com.coze.openapi.service.service.websocket.audio.transcriptions;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 import com.coze.openapi.client.websocket.event.EventType;
 import com.coze.openapi.client.websocket.event.downstream.*;
@@ -9,19 +13,38 @@ import com.coze.openapi.client.websocket.event.model.TranscriptionsUpdateEventDa
 import com.coze.openapi.client.websocket.event.upstream.*;
 import com.coze.openapi.service.service.websocket.common.BaseCallbackHandler;
 import com.coze.openapi.service.service.websocket.common.BaseWebsocketsClient;
-import com.fasterxml.jackson.databind.JsonNode;
 
 import okhttp3.OkHttpClient;
 import okhttp3.WebSocket;
 
 public class WebsocketsAudioTranscriptionsClient extends BaseWebsocketsClient {
+  // 下行事件的 reader 在连接时构建，第一个事件不用再等
+  private static final List<Class<?>> EVENT_TYPES =
+      Arrays.asList(
+          TranscriptionsCreatedEvent.class,
+          TranscriptionsUpdatedEvent.class,
+          TranscriptionsMessageUpdateEvent.class,
+          TranscriptionsMessageCompletedEvent.class,
+          InputAudioBufferClearedEvent.class,
+          InputAudioBufferCompletedEvent.class,
+          ErrorEvent.class);
+
   private final WebsocketsAudioTranscriptionsCallbackHandler handler;
   private static final String uri = "/v1/audio/transcriptions";
 
   protected WebsocketsAudioTranscriptionsClient(
       OkHttpClient client, String wsHost, WebsocketsAudioTranscriptionsCreateReq req) {
-    super(client, buildUrl(wsHost), req.getCallbackHandler(), req);
+    this(client, wsHost, req, Executors.defaultThreadFactory());
+  }
+
+  protected WebsocketsAudioTranscriptionsClient(
+      OkHttpClient client,
+      String wsHost,
+      WebsocketsAudioTranscriptionsCreateReq req,
+      ThreadFactory threadFactory) {
+    super(client, buildUrl(wsHost), req.getCallbackHandler(), req, threadFactory);
     this.handler = req.getCallbackHandler();
+    codec.prepare(EVENT_TYPES);
   }
 
   protected static String buildUrl(String wsHost) {
@@ -61,8 +84,7 @@ public class WebsocketsAudioTranscriptionsClient extends BaseWebsocketsClient {
   @Override
   protected void handleEvent(WebSocket ws, String text) {
     try {
-      JsonNode jsonNode = objectMapper.readTree(text);
-      String eventType = parseEventType(jsonNode, text);
+      String eventType = parseEventType(text);
       if (eventType == null) {
         // 这里在上面已经抛出异常了，直接 return 即可
         return;
@@ -70,36 +92,36 @@ public class WebsocketsAudioTranscriptionsClient extends BaseWebsocketsClient {
       switch (eventType) {
         case EventType.TRANSCRIPTIONS_CREATED:
           TranscriptionsCreatedEvent createdEvent =
-              objectMapper.treeToValue(jsonNode, TranscriptionsCreatedEvent.class);
+              codec.decode(text, TranscriptionsCreatedEvent.class);
           handler.onTranscriptionsCreated(this, createdEvent);
           break;
         case EventType.TRANSCRIPTIONS_UPDATED:
           TranscriptionsUpdatedEvent updatedEvent =
-              objectMapper.treeToValue(jsonNode, TranscriptionsUpdatedEvent.class);
+              codec.decode(text, TranscriptionsUpdatedEvent.class);
           handler.onTranscriptionsUpdated(this, updatedEvent);
           break;
         case EventType.TRANSCRIPTIONS_MESSAGE_UPDATE:
           TranscriptionsMessageUpdateEvent messageUpdateEvent =
-              objectMapper.treeToValue(jsonNode, TranscriptionsMessageUpdateEvent.class);
+              codec.decode(text, TranscriptionsMessageUpdateEvent.class);
           handler.onTranscriptionsMessageUpdate(this, messageUpdateEvent);
           break;
         case EventType.TRANSCRIPTIONS_MESSAGE_COMPLETED:
           TranscriptionsMessageCompletedEvent messageCompletedEvent =
-              objectMapper.treeToValue(jsonNode, TranscriptionsMessageCompletedEvent.class);
+              codec.decode(text, TranscriptionsMessageCompletedEvent.class);
           handler.onTranscriptionsMessageCompleted(this, messageCompletedEvent);
           break;
         case EventType.INPUT_AUDIO_BUFFER_CLEARED:
           InputAudioBufferClearedEvent bufferClearedEvent =
-              objectMapper.treeToValue(jsonNode, InputAudioBufferClearedEvent.class);
+              codec.decode(text, InputAudioBufferClearedEvent.class);
           handler.onInputAudioBufferCleared(this, bufferClearedEvent);
           break;
         case EventType.INPUT_AUDIO_BUFFER_COMPLETED:
           InputAudioBufferCompletedEvent bufferCompletedEvent =
-              objectMapper.treeToValue(jsonNode, InputAudioBufferCompletedEvent.class);
+              codec.decode(text, InputAudioBufferCompletedEvent.class);
           handler.onInputAudioBufferCompleted(this, bufferCompletedEvent);
           break;
         case EventType.ERROR:
-          ErrorEvent errorEvent = objectMapper.treeToValue(jsonNode, ErrorEvent.class);
+          ErrorEvent errorEvent = codec.decode(text, ErrorEvent.class);
           handler.onError(this, errorEvent);
           break;
         default:
@@ -1,7 +1,11 @@
 package com.coze.openapi.service.service.websocket.chat;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 import com.coze.openapi.client.connversations.message.model.Message;
 import com.coze.openapi.client.websocket.event.EventType;
@@ -13,24 +17,51 @@ import com.coze.openapi.client.websocket.event.upstream.ConversationChatCancelEv
 import com.coze.openapi.client.websocket.event.upstream.ConversationChatSubmitToolOutputsEvent;
 import com.coze.openapi.service.service.websocket.common.BaseCallbackHandler;
 import com.coze.openapi.service.service.websocket.common.BaseWebsocketsClient;
-import com.coze.openapi.service.utils.Utils;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import okhttp3.OkHttpClient;
 import okhttp3.WebSocket;
 
 public class WebsocketsChatClient extends BaseWebsocketsClient {
-
-  private final ObjectMapper objectMapper = Utils.getMapper();
+  // 下行事件的 reader 在连接时构建，第一个事件不用再等
+  private static final List<Class<?>> EVENT_TYPES =
+      Arrays.asList(
+          ChatCreatedEvent.class,
+          ChatUpdatedEvent.class,
+          ConversationAudioCompletedEvent.class,
+          ConversationAudioDeltaEvent.class,
+          ConversationAudioTranscriptCompletedEvent.class,
+          ConversationAudioTranscriptUpdateEvent.class,
+          ConversationChatCanceledEvent.class,
+          ConversationChatCompletedEvent.class,
+          ConversationChatCreatedEvent.class,
+          ConversationChatFailedEvent.class,
+          ConversationChatInProgressEvent.class,
+          ConversationChatRequiresActionEvent.class,
+          ConversationClearedEvent.class,
+          ConversationMessageCompletedEvent.class,
+          ConversationMessageDeltaEvent.class,
+          InputAudioBufferClearedEvent.class,
+          InputAudioBufferCompletedEvent.class,
+          InputAudioBufferSpeechStartedEvent.class,
+          InputAudioBufferSpeechStoppedEvent.class,
+          ErrorEvent.class);
 
   private final WebsocketsChatCallbackHandler handler;
 
   private static final String uri = "/v1/chat";
 
   protected WebsocketsChatClient(OkHttpClient client, String wsHost, WebsocketsChatCreateReq req) {
-    super(client, buildUrl(wsHost, req), req.getCallbackHandler(), req);
+    this(client, wsHost, req, Executors.defaultThreadFactory());
+  }
+
+  protected WebsocketsChatClient(
+      OkHttpClient client,
+      String wsHost,
+      WebsocketsChatCreateReq req,
+      ThreadFactory threadFactory) {
+    super(client, buildUrl(wsHost, req), req.getCallbackHandler(), req, threadFactory);
     this.handler = req.getCallbackHandler();
+    codec.prepare(EVENT_TYPES);
   }
 
   protected static String buildUrl(String wsHost, WebsocketsChatCreateReq req) {
@@ -84,110 +115,107 @@ public class WebsocketsChatClient extends BaseWebsocketsClient {
   protected void handleEvent(WebSocket ws, String text) {
     try {
       // 解析 JSON
-      JsonNode jsonNode = objectMapper.readTree(text);
-      String eventType = parseEventType(jsonNode, text);
+      String eventType = parseEventType(text);
       if (eventType == null) {
         // 这里在上面已经抛出异常了，直接 return 即可
         return;
       }
       switch (eventType) {
         case EventType.CHAT_CREATED:
-          ChatCreatedEvent chatCreatedEvent =
-              objectMapper.treeToValue(jsonNode, ChatCreatedEvent.class);
+          ChatCreatedEvent chatCreatedEvent = codec.decode(text, ChatCreatedEvent.class);
           handler.onChatCreated(this, chatCreatedEvent);
           break;
         case EventType.CHAT_UPDATED:
-          ChatUpdatedEvent chatUpdatedEvent =
-              objectMapper.treeToValue(jsonNode, ChatUpdatedEvent.class);
+          ChatUpdatedEvent chatUpdatedEvent = codec.decode(text, ChatUpdatedEvent.class);
           handler.onChatUpdated(this, chatUpdatedEvent);
           break;
         case EventType.CONVERSATION_AUDIO_COMPLETED:
           ConversationAudioCompletedEvent audioCompletedEvent =
-              objectMapper.treeToValue(jsonNode, ConversationAudioCompletedEvent.class);
+              codec.decode(text, ConversationAudioCompletedEvent.class);
           handler.onConversationAudioCompleted(this, audioCompletedEvent);
           break;
         case EventType.CONVERSATION_AUDIO_DELTA:
           ConversationAudioDeltaEvent audioDeltaEvent =
-              objectMapper.treeToValue(jsonNode, ConversationAudioDeltaEvent.class);
+              codec.decode(text, ConversationAudioDeltaEvent.class);
           handler.onConversationAudioDelta(this, audioDeltaEvent);
           break;
         case EventType.CONVERSATION_AUDIO_TRANSCRIPT_COMPLETED:
           ConversationAudioTranscriptCompletedEvent transcriptCompletedEvent =
-              objectMapper.treeToValue(jsonNode, ConversationAudioTranscriptCompletedEvent.class);
+              codec.decode(text, ConversationAudioTranscriptCompletedEvent.class);
           handler.onConversationAudioTranscriptCompleted(this, transcriptCompletedEvent);
           break;
         case EventType.CONVERSATION_AUDIO_TRANSCRIPT_UPDATE:
           ConversationAudioTranscriptUpdateEvent transcriptUpdateEvent =
-              objectMapper.treeToValue(jsonNode, ConversationAudioTranscriptUpdateEvent.class);
+              codec.decode(text, ConversationAudioTranscriptUpdateEvent.class);
           handler.onConversationAudioTranscriptUpdate(this, transcriptUpdateEvent);
           break;
         case EventType.CONVERSATION_CHAT_CANCELED:
           ConversationChatCanceledEvent chatCanceledEvent =
-              objectMapper.treeToValue(jsonNode, ConversationChatCanceledEvent.class);
+              codec.decode(text, ConversationChatCanceledEvent.class);
           handler.onConversationChatCanceled(this, chatCanceledEvent);
           break;
         case EventType.CONVERSATION_CHAT_COMPLETED:
           ConversationChatCompletedEvent chatCompletedEvent =
-              objectMapper.treeToValue(jsonNode, ConversationChatCompletedEvent.class);
+              codec.decode(text, ConversationChatCompletedEvent.class);
           handler.onConversationChatCompleted(this, chatCompletedEvent);
           break;
         case EventType.CONVERSATION_CHAT_CREATED:
           ConversationChatCreatedEvent conversationChatCreatedEvent =
-              objectMapper.treeToValue(jsonNode, ConversationChatCreatedEvent.class);
+              codec.decode(text, ConversationChatCreatedEvent.class);
           handler.onConversationChatCreated(this, conversationChatCreatedEvent);
           break;
         case EventType.CONVERSATION_CHAT_FAILED:
           ConversationChatFailedEvent chatFailedEvent =
-              objectMapper.treeToValue(jsonNode, ConversationChatFailedEvent.class);
+              codec.decode(text, ConversationChatFailedEvent.class);
           handler.onConversationChatFailed(this, chatFailedEvent);
           break;
         case EventType.CONVERSATION_CHAT_IN_PROGRESS:
           ConversationChatInProgressEvent chatInProgressEvent =
-              objectMapper.treeToValue(jsonNode, ConversationChatInProgressEvent.class);
+              codec.decode(text, ConversationChatInProgressEvent.class);
           handler.onConversationChatInProgress(this, chatInProgressEvent);
           break;
         case EventType.CONVERSATION_CHAT_REQUIRES_ACTION:
           ConversationChatRequiresActionEvent chatRequiresActionEvent =
-              objectMapper.treeToValue(jsonNode, ConversationChatRequiresActionEvent.class);
+              codec.decode(text, ConversationChatRequiresActionEvent.class);
           handler.onConversationChatRequiresAction(this, chatRequiresActionEvent);
           break;
         case EventType.CONVERSATION_CLEARED:
           ConversationClearedEvent clearedEvent =
-              objectMapper.treeToValue(jsonNode, ConversationClearedEvent.class);
+              codec.decode(text, ConversationClearedEvent.class);
           handler.onConversationCleared(this, clearedEvent);
           break;
         case EventType.CONVERSATION_MESSAGE_COMPLETED:
           ConversationMessageCompletedEvent messageCompletedEvent =
-              objectMapper.treeToValue(jsonNode, ConversationMessageCompletedEvent.class);
+              codec.decode(text, ConversationMessageCompletedEvent.class);
           handler.onConversationMessageCompleted(this, messageCompletedEvent);
           break;
         case EventType.CONVERSATION_MESSAGE_DELTA:
           ConversationMessageDeltaEvent messageDeltaEvent =
-              objectMapper.treeToValue(jsonNode, ConversationMessageDeltaEvent.class);
+              codec.decode(text, ConversationMessageDeltaEvent.class);
           handler.onConversationMessageDelta(this, messageDeltaEvent);
           break;
         case EventType.INPUT_AUDIO_BUFFER_CLEARED:
           InputAudioBufferClearedEvent bufferClearedEvent =
-              objectMapper.treeToValue(jsonNode, InputAudioBufferClearedEvent.class);
+              codec.decode(text, InputAudioBufferClearedEvent.class);
           handler.onInputAudioBufferCleared(this, bufferClearedEvent);
           break;
         case EventType.INPUT_AUDIO_BUFFER_COMPLETED:
           InputAudioBufferCompletedEvent bufferCompletedEvent =
-              objectMapper.treeToValue(jsonNode, InputAudioBufferCompletedEvent.class);
+              codec.decode(text, InputAudioBufferCompletedEvent.class);
           handler.onInputAudioBufferCompleted(this, bufferCompletedEvent);
           break;
         case EventType.INPUT_AUDIO_BUFFER_SPEECH_STARTED:
           InputAudioBufferSpeechStartedEvent speechStartedEvent =
-              objectMapper.treeToValue(jsonNode, InputAudioBufferSpeechStartedEvent.class);
+              codec.decode(text, InputAudioBufferSpeechStartedEvent.class);
           handler.onInputAudioBufferSpeechStarted(this, speechStartedEvent);
           break;
         case EventType.INPUT_AUDIO_BUFFER_SPEECH_STOPPED:
           InputAudioBufferSpeechStoppedEvent speechStoppedEvent =
-              objectMapper.treeToValue(jsonNode, InputAudioBufferSpeechStoppedEvent.class);
+              codec.decode(text, InputAudioBufferSpeechStoppedEvent.class);
           handler.onInputAudioBufferSpeechStopped(this, speechStoppedEvent);
           break;
         case EventType.ERROR:
-          ErrorEvent errorEvent = objectMapper.treeToValue(jsonNode, ErrorEvent.class);
+          ErrorEvent errorEvent = codec.decode(text, ErrorEvent.class);
           handler.onError(this, errorEvent);
           break;
         default:
@@ -1,5 +1,8 @@
 package com.coze.openapi.service.service.websocket.chat;
 
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
 import lombok.AllArgsConstructor;
 import okhttp3.OkHttpClient;
 
@@ -7,8 +10,13 @@ import okhttp3.OkHttpClient;
 public class WebsocketsChatClientBuilder {
   private final String baseUrl;
   private final OkHttpClient httpClient;
+  private final ThreadFactory threadFactory;
+
+  public WebsocketsChatClientBuilder(String baseUrl, OkHttpClient httpClient) {
+    this(baseUrl, httpClient, Executors.defaultThreadFactory());
+  }
 
   public WebsocketsChatClient create(WebsocketsChatCreateReq req) {
-    return new WebsocketsChatClient(httpClient, baseUrl, req);
+    return new WebsocketsChatClient(httpClient, baseUrl, req, threadFactory);
   }
 }
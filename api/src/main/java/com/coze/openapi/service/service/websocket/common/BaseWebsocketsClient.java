@@ -1,24 +1,30 @@
 package com.coze.openapi.service.service.websocket.common;
 
+import java.io.IOException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 
 import com.coze.openapi.client.common.BaseReq;
 import com.coze.openapi.client.websocket.common.BaseEvent;
+import com.coze.openapi.service.service.codec.JsonCodec;
+import com.coze.openapi.service.service.codec.JsonCodecs;
 import com.coze.openapi.service.service.common.CozeLoggerFactory;
 import com.coze.openapi.service.utils.Utils;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.WebSocket;
 
 public abstract class BaseWebsocketsClient {
-  protected final ObjectMapper objectMapper = Utils.getMapper();
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+  protected final JsonCodec codec = JsonCodecs.get();
   protected static final Logger logger = CozeLoggerFactory.getLogger();
   protected final WebSocket ws;
   protected final ExecutorService executorService;
@@ -27,9 +33,19 @@ public abstract class BaseWebsocketsClient {
 
   protected BaseWebsocketsClient(
       OkHttpClient client, String url, BaseCallbackHandler handler, BaseReq req) {
-    Request request = new Request.Builder().url(url).build();
-    this.executorService = Executors.newSingleThreadExecutor();
-    this.listener = new BaseWebsocketsListener(this::handleEvent, handler, this);
+    this(client, url, handler, req, Executors.defaultThreadFactory());
+  }
+
+  protected BaseWebsocketsClient(
+      OkHttpClient client,
+      String url,
+      BaseCallbackHandler handler,
+      BaseReq req,
+      ThreadFactory threadFactory) {
+    // 带上 BaseReq，握手请求同样按调用方的凭证鉴权
+    Request request = new Request.Builder().url(url).tag(BaseReq.class, req).build();
+    this.executorService = Executors.newSingleThreadExecutor(threadFactory);
+    this.listener = new BaseWebsocketsListener(this::handleEvent, handler, this, threadFactory);
     OkHttpClient.Builder builder = client.newBuilder();
     boolean hasSetTimeout = false;
     if (req != null) {
@@ -61,15 +77,27 @@ public abstract class BaseWebsocketsClient {
 
   protected abstract BaseCallbackHandler getCallbackHandler();
 
-  protected String parseEventType(JsonNode jsonNode, String text) {
-    JsonNode eventTypeNode = jsonNode.get("event_type");
-    if (eventTypeNode == null) {
-      logger.error("Missing event_type field in event: {}", text);
-      getCallbackHandler()
-          .onClientException(this, new RuntimeException("Missing event_type field in event"));
-      return null;
+  /*
+   * Read event_type from the top-level fields of an event without binding it, the event itself is
+   * decoded once its type is known.
+   * */
+  protected String parseEventType(String text) throws IOException {
+    try (JsonParser parser = JSON_FACTORY.createParser(text)) {
+      if (parser.nextToken() == JsonToken.START_OBJECT) {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          String name = parser.getCurrentName();
+          JsonToken value = parser.nextToken();
+          if ("event_type".equals(name) && value.isScalarValue()) {
+            return parser.getText();
+          }
+          parser.skipChildren();
+        }
+      }
     }
-    return eventTypeNode.asText();
+    logger.error("Missing event_type field in event: {}", text);
+    getCallbackHandler()
+        .onClientException(this, new RuntimeException("Missing event_type field in event"));
+    return null;
   }
 
   public void close() {
@@ -2,6 +2,7 @@ package com.coze.openapi.service.service.websocket.common;
 
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 import java.util.function.BiConsumer;
 
 import okhttp3.WebSocket;
@@ -9,7 +10,7 @@ import okhttp3.WebSocketListener;
 import okio.ByteString;
 
 public class BaseWebsocketsListener extends WebSocketListener {
-  private final ExecutorService executorService = Executors.newSingleThreadExecutor();
+  private final ExecutorService executorService;
   private final BiConsumer<WebSocket, String> handleEvent;
   private final BaseCallbackHandler callbackHandler;
   private final BaseWebsocketsClient client;
@@ -18,6 +19,19 @@ public class BaseWebsocketsListener extends WebSocketListener {
       BiConsumer<WebSocket, String> handleEvent,
       BaseCallbackHandler handler,
       BaseWebsocketsClient client) {
+    this(handleEvent, handler, client, Executors.defaultThreadFactory());
+  }
+
+  /*
+   * threadFactory: creates the thread that dispatches the received events to the handler, one per
+   * connection so events keep their order.
+   * */
+  public BaseWebsocketsListener(
+      BiConsumer<WebSocket, String> handleEvent,
+      BaseCallbackHandler handler,
+      BaseWebsocketsClient client,
+      ThreadFactory threadFactory) {
+    this.executorService = Executors.newSingleThreadExecutor(threadFactory);
     this.handleEvent = handleEvent;
     this.callbackHandler = handler;
     this.client = client;
@@ -0,0 +1,31 @@
+package com.coze.openapi.service.service.workflow;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.coze.openapi.api.WorkflowRunHistoryAPI;
+import com.coze.openapi.client.workflows.run.RetrieveRunHistoryReq;
+import com.coze.openapi.client.workflows.run.RetrieveRunHistoryResp;
+import com.coze.openapi.service.utils.Utils;
+
+public class AsyncWorkflowRunHistoryService {
+  private final WorkflowRunHistoryAPI workflowRunHistoryAPI;
+
+  public AsyncWorkflowRunHistoryService(WorkflowRunHistoryAPI workflowRunHistoryAPI) {
+    this.workflowRunHistoryAPI = workflowRunHistoryAPI;
+  }
+
+  /*
+   * After the workflow runs async, retrieve the execution results.
+   * docs cn: https://www.coze.cn/docs/developer_guides/workflow_history
+   * docs en: https://www.coze.com/docs/developer_guides/workflow_history
+   * */
+  public CompletableFuture<RetrieveRunHistoryResp> retrieve(RetrieveRunHistoryReq req) {
+    return Utils.executeAsync(
+        workflowRunHistoryAPI.retrieve(req.getWorkflowID(), req.getExecuteID(), req),
+        resp ->
+            RetrieveRunHistoryResp.builder()
+                .histories(resp.getData())
+                .logID(resp.getLogID())
+                .build());
+  }
+}
@@ -0,0 +1,35 @@
+package com.coze.openapi.service.service.workflow;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.coze.openapi.api.WorkflowRunAPI;
+import com.coze.openapi.api.WorkflowRunHistoryAPI;
+import com.coze.openapi.client.workflows.run.RunWorkflowReq;
+import com.coze.openapi.client.workflows.run.RunWorkflowResp;
+import com.coze.openapi.service.utils.Utils;
+
+public class AsyncWorkflowRunService {
+
+  private final WorkflowRunAPI workflowRunAPI;
+
+  private final AsyncWorkflowRunHistoryService historyService;
+
+  public AsyncWorkflowRunService(WorkflowRunAPI runAPI, WorkflowRunHistoryAPI historyAPI) {
+    this.workflowRunAPI = runAPI;
+    this.historyService = new AsyncWorkflowRunHistoryService(historyAPI);
+  }
+
+  /*
+   * Run the published workflow in non-streaming response mode.
+   *
+   * docs en: https://www.coze.com/docs/developer_guides/workflow_run
+   * docs cn: https://www.coze.cn/docs/developer_guides/workflow_run
+   * */
+  public CompletableFuture<RunWorkflowResp> create(RunWorkflowReq req) {
+    return Utils.executeAsync(workflowRunAPI.run(req, req));
+  }
+
+  public AsyncWorkflowRunHistoryService histories() {
+    return historyService;
+  }
+}
@@ -0,0 +1,19 @@
+package com.coze.openapi.service.service.workflow;
+
+import com.coze.openapi.api.WorkflowRunAPI;
+import com.coze.openapi.api.WorkflowRunHistoryAPI;
+
+/*
+ * Streaming workflow APIs already return Flowable and are only exposed by WorkflowService.
+ * */
+public class AsyncWorkflowService {
+  private final AsyncWorkflowRunService runService;
+
+  public AsyncWorkflowService(WorkflowRunAPI api, WorkflowRunHistoryAPI historyAPI) {
+    this.runService = new AsyncWorkflowRunService(api, historyAPI);
+  }
+
+  public AsyncWorkflowRunService runs() {
+    return runService;
+  }
+}
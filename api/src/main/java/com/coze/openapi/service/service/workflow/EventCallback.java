@@ -4,6 +4,7 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 import com.coze.openapi.client.workflows.run.model.WorkflowEvent;
 import com.coze.openapi.service.service.common.AbstractEventCallback;
@@ -16,6 +17,10 @@ public class EventCallback extends AbstractEventCallback<WorkflowEvent> {
     super(emitter);
   }
 
+  public EventCallback(FlowableEmitter<WorkflowEvent> emitter, ExecutorService streamExecutor) {
+    super(emitter, streamExecutor);
+  }
+
   @Override
   protected boolean processLine(String line, BufferedReader reader, String logID)
       throws IOException {
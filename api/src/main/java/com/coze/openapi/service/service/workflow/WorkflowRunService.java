@@ -1,11 +1,14 @@
 package com.coze.openapi.service.service.workflow;
 
+import java.util.concurrent.ExecutorService;
+
 import com.coze.openapi.api.WorkflowRunAPI;
 import com.coze.openapi.api.WorkflowRunHistoryAPI;
 import com.coze.openapi.client.workflows.run.ResumeRunReq;
 import com.coze.openapi.client.workflows.run.RunWorkflowReq;
 import com.coze.openapi.client.workflows.run.RunWorkflowResp;
 import com.coze.openapi.client.workflows.run.model.WorkflowEvent;
+import com.coze.openapi.service.service.common.StreamExecutors;
 import com.coze.openapi.service.utils.Utils;
 
 import io.reactivex.BackpressureStrategy;
@@ -19,9 +22,17 @@ public class WorkflowRunService {
 
   private final WorkflowRunHistoryService historyService;
 
+  private final ExecutorService streamExecutor;
+
   public WorkflowRunService(WorkflowRunAPI runAPI, WorkflowRunHistoryAPI historyService) {
+    this(runAPI, historyService, StreamExecutors.defaultExecutor());
+  }
+
+  public WorkflowRunService(
+      WorkflowRunAPI runAPI, WorkflowRunHistoryAPI historyService, ExecutorService streamExecutor) {
     this.workflowRunAPI = runAPI;
     this.historyService = new WorkflowRunHistoryService(historyService);
+    this.streamExecutor = streamExecutor;
   }
 
   /*
@@ -45,7 +56,7 @@ public class WorkflowRunService {
    * docs cn: https://www.coze.cn/docs/developer_guides/workflow_run
    * */
   public Flowable<WorkflowEvent> stream(RunWorkflowReq req) {
-    return stream(workflowRunAPI.stream(req, req));
+    return stream(workflowRunAPI.stream(req, req), streamExecutor);
   }
 
   /*
@@ -53,12 +64,18 @@ public class WorkflowRunService {
    *  docs en: https://www.coze.com/docs/developer_guides/workflow_resume
    * */
   public Flowable<WorkflowEvent> resume(ResumeRunReq req) {
-    return stream(workflowRunAPI.resume(req, req));
+    return stream(workflowRunAPI.resume(req, req), streamExecutor);
   }
 
   public static Flowable<WorkflowEvent> stream(Call<ResponseBody> apiCall) {
+    return stream(apiCall, StreamExecutors.defaultExecutor());
+  }
+
+  public static Flowable<WorkflowEvent> stream(
+      Call<ResponseBody> apiCall, ExecutorService streamExecutor) {
     return Flowable.create(
-        emitter -> apiCall.enqueue(new EventCallback(emitter)), BackpressureStrategy.BUFFER);
+        emitter -> apiCall.enqueue(new EventCallback(emitter, streamExecutor)),
+        BackpressureStrategy.BUFFER);
   }
 
   public WorkflowRunHistoryService histories() {
@@ -1,8 +1,11 @@
 package com.coze.openapi.service.service.workflow;
 
+import java.util.concurrent.ExecutorService;
+
 import com.coze.openapi.api.WorkflowChatAPI;
 import com.coze.openapi.api.WorkflowRunAPI;
 import com.coze.openapi.api.WorkflowRunHistoryAPI;
+import com.coze.openapi.service.service.common.StreamExecutors;
 
 public class WorkflowService {
   private final WorkflowRunService runService;
@@ -10,8 +13,16 @@ public class WorkflowService {
 
   public WorkflowService(
       WorkflowRunAPI api, WorkflowRunHistoryAPI historyAPI, WorkflowChatAPI chatAPI) {
-    this.runService = new WorkflowRunService(api, historyAPI);
-    this.chatService = new WorkflowChatService(chatAPI);
+    this(api, historyAPI, chatAPI, StreamExecutors.defaultExecutor());
+  }
+
+  public WorkflowService(
+      WorkflowRunAPI api,
+      WorkflowRunHistoryAPI historyAPI,
+      WorkflowChatAPI chatAPI,
+      ExecutorService streamExecutor) {
+    this.runService = new WorkflowRunService(api, historyAPI, streamExecutor);
+    this.chatService = new WorkflowChatService(chatAPI, streamExecutor);
   }
 
   public WorkflowRunService runs() {
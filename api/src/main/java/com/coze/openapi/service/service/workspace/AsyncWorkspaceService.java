@@ -0,0 +1,49 @@
+package com.coze.openapi.service.service.workspace;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.coze.openapi.api.WorkspaceAPI;
+import com.coze.openapi.client.common.pagination.LazyIterator;
+import com.coze.openapi.client.common.pagination.PageFetcher;
+import com.coze.openapi.client.common.pagination.PageNumBasedPaginator;
+import com.coze.openapi.client.common.pagination.PageRequest;
+import com.coze.openapi.client.common.pagination.PageResp;
+import com.coze.openapi.client.common.pagination.PageResponse;
+import com.coze.openapi.client.workspace.ListWorkspaceReq;
+import com.coze.openapi.client.workspace.model.Workspace;
+import com.coze.openapi.service.utils.Utils;
+
+public class AsyncWorkspaceService {
+  private final WorkspaceAPI workspaceAPI;
+  private final WorkspaceService workspaceService;
+
+  public AsyncWorkspaceService(WorkspaceAPI workspaceAPI) {
+    this.workspaceAPI = workspaceAPI;
+    this.workspaceService = new WorkspaceService(workspaceAPI);
+  }
+
+  public CompletableFuture<PageResp<Workspace>> list(ListWorkspaceReq req) {
+    if (req == null) {
+      throw new IllegalArgumentException("req is required");
+    }
+
+    Integer pageNum = req.getPageNum();
+    Integer pageSize = req.getPageSize();
+    PageFetcher<Workspace> pageFetcher = workspaceService.pageFetcher(req);
+    PageRequest initialRequest = PageRequest.builder().pageNum(pageNum).pageSize(pageSize).build();
+
+    return Utils.executeAsync(
+        workspaceAPI.list(pageNum, pageSize, req),
+        resp -> {
+          PageResponse<Workspace> firstPage = WorkspaceService.toPage(resp, initialRequest);
+          return PageResp.<Workspace>builder()
+              .total(firstPage.getTotal())
+              .items(firstPage.getData())
+              .iterator(
+                  new LazyIterator<>(() -> new PageNumBasedPaginator<>(pageFetcher, pageSize)))
+              .hasMore(firstPage.isHasMore())
+              .logID(firstPage.getLogID())
+              .build();
+        });
+  }
+}
@@ -28,20 +28,7 @@ public class WorkspaceService {
     Integer pageSize = req.getPageSize();
 
     // create paginator
-    PageFetcher<Workspace> pageFetcher =
-        request -> {
-          BaseResponse<ListWorkspaceResp> resp =
-              Utils.execute(workspaceAPI.list(request.getPageNum(), request.getPageSize(), req));
-
-          return PageResponse.<Workspace>builder()
-              .hasMore(resp.getData().getWorkspaces().size() == request.getPageSize())
-              .data(resp.getData().getWorkspaces())
-              .pageNum(request.getPageNum())
-              .pageSize(request.getPageSize())
-              .total(resp.getData().getTotalCount())
-              .logID(resp.getLogID())
-              .build();
-        };
+    PageFetcher<Workspace> pageFetcher = pageFetcher(req);
 
     // create paginator
     PageNumBasedPaginator<Workspace> paginator = new PageNumBasedPaginator<>(pageFetcher, pageSize);
@@ -59,4 +46,22 @@ public class WorkspaceService {
         .logID(firstPage.getLogID())
         .build();
   }
+
+  PageFetcher<Workspace> pageFetcher(ListWorkspaceReq req) {
+    return request ->
+        toPage(
+            Utils.execute(workspaceAPI.list(request.getPageNum(), request.getPageSize(), req)),
+            request);
+  }
+
+  static PageResponse<Workspace> toPage(BaseResponse<ListWorkspaceResp> resp, PageRequest request) {
+    return PageResponse.<Workspace>builder()
+        .hasMore(resp.getData().getWorkspaces().size() == request.getPageSize())
+        .data(resp.getData().getWorkspaces())
+        .pageNum(request.getPageNum())
+        .pageSize(request.getPageSize())
+        .total(resp.getData().getTotalCount())
+        .logID(resp.getLogID())
+        .build();
+  }
 }
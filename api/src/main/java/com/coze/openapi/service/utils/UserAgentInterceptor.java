@@ -4,7 +4,7 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.coze.openapi.service.service.codec.JsonCodecs;
 
 import okhttp3.Interceptor;
 import okhttp3.Request;
@@ -18,14 +18,17 @@ public class UserAgentInterceptor implements Interceptor {
         chain
             .request()
             .newBuilder()
-            .addHeader("User-Agent", getUserAgent())
-            .addHeader("X-Coze-Client-User-Agent", getCozeClientUserAgent())
+            .addHeader("User-Agent", USER_AGENT)
+            .addHeader("X-Coze-Client-User-Agent", CLIENT_USER_AGENT)
             .build();
     return chain.proceed(request);
   }
 
   public static final String VERSION = VersionUtils.getVersion();
-  private static final ObjectMapper objectMapper = new ObjectMapper();
+
+  // 运行时信息在进程内不会变化，只计算一次
+  public static final String USER_AGENT = getUserAgent();
+  public static final String CLIENT_USER_AGENT = getCozeClientUserAgent();
 
   /** 获取操作系统版本 */
   private static String getOsVersion() {
@@ -64,7 +67,7 @@ public class UserAgentInterceptor implements Interceptor {
       ua.put("lang_version", System.getProperty("java.version"));
       ua.put("os_name", System.getProperty("os.name").toLowerCase());
       ua.put("os_version", getOsVersion());
-      return objectMapper.writeValueAsString(ua);
+      return JsonCodecs.get().encode(ua);
     } catch (Exception e) {
     }
     return "";
@@ -1,16 +1,30 @@
 package com.coze.openapi.service.utils;
 
+import java.io.IOException;
+import java.lang.reflect.Method;
 import java.security.SecureRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
+import com.coze.openapi.client.common.BaseReq;
 import com.coze.openapi.client.common.BaseResp;
 import com.coze.openapi.client.common.BaseResponse;
+import com.coze.openapi.client.common.Deadline;
+import com.coze.openapi.service.auth.Auth;
+import com.coze.openapi.service.service.codec.JsonCodecs;
 import com.fasterxml.jackson.annotation.JsonInclude;
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.ResponseBody;
 import retrofit2.Call;
+import retrofit2.Callback;
 import retrofit2.HttpException;
+import retrofit2.Invocation;
 import retrofit2.Response;
 
 public class Utils {
@@ -33,48 +47,187 @@ public class Utils {
 
   public static <T> T execute(Call<T> call) {
     try {
-      Response<T> response = call.execute();
-      if (!response.isSuccessful()) {
-        throw new HttpException(response);
+      return handleResponse(call.execute());
+    } catch (Exception e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /*
+   * The non-blocking counterpart of execute: the call is enqueued on the OkHttp dispatcher and the
+   * future completes with the same body, logID and exceptions execute would return or throw.
+   * Cancelling the future cancels the underlying call.
+   * */
+  public static <T> CompletableFuture<T> executeAsync(Call<T> call) {
+    return enqueue(call, Utils::handleResponse);
+  }
+
+  /*
+   * Same as executeAsync(call).thenApply(mapper), except that cancelling the returned future still
+   * cancels the call. A future derived with thenApply does not pass its cancellation back to the
+   * future it was derived from.
+   * */
+  public static <T, R> CompletableFuture<R> executeAsync(
+      Call<T> call, Function<? super T, ? extends R> mapper) {
+    return enqueue(call, response -> mapper.apply(handleResponse(response)));
+  }
+
+  /*
+   * Like executeAsync, but completes with the whole response, for calls whose body is not a JSON
+   * model (for example binary audio).
+   * */
+  public static <T> CompletableFuture<Response<T>> executeRawAsync(Call<T> call) {
+    return executeRawAsync(call, response -> response);
+  }
+
+  /*
+   * Same as executeRawAsync(call).thenApply(mapper), with cancellation passed on to the call.
+   * */
+  public static <T, R> CompletableFuture<R> executeRawAsync(
+      Call<T> call, Function<? super Response<T>, ? extends R> mapper) {
+    return enqueue(
+        call,
+        response -> {
+          if (!response.isSuccessful()) {
+            throw new HttpException(response);
+          }
+          return mapper.apply(response);
+        });
+  }
+
+  private static <T, R> CompletableFuture<R> enqueue(
+      Call<T> call, Function<Response<T>, R> handler) {
+    CompletableFuture<R> future = new CompletableFuture<>();
+    call.enqueue(
+        new Callback<T>() {
+          @Override
+          public void onResponse(Call<T> c, Response<T> response) {
+            try {
+              future.complete(handler.apply(response));
+            } catch (Exception e) {
+              future.completeExceptionally(new RuntimeException(e));
+            }
+          }
+
+          @Override
+          public void onFailure(Call<T> c, Throwable t) {
+            future.completeExceptionally(new RuntimeException(t));
+          }
+        });
+    future.whenComplete(
+        (result, throwable) -> {
+          if (future.isCancelled()) {
+            call.cancel();
+          }
+        });
+    return future;
+  }
+
+  private static <T> T handleResponse(Response<T> response) {
+    if (!response.isSuccessful()) {
+      throw new HttpException(response);
+    }
+    T body = response.body();
+
+    // 处理不同类型的响应
+    if (body instanceof BaseResponse) {
+      BaseResponse<?> baseResponse = (BaseResponse<?>) body;
+      baseResponse.setLogID(getLogID(response));
+
+      if (baseResponse.getData() instanceof BaseResp) {
+        BaseResp baseResp = (BaseResp) baseResponse.getData();
+        baseResp.setLogID(getLogID(response));
       }
-      T body = response.body();
+    } else if (body instanceof BaseResp) {
+      BaseResp baseResp = (BaseResp) body;
+      baseResp.setLogID(getLogID(response));
+    }
 
-      // 处理不同类型的响应
-      if (body instanceof BaseResponse) {
-        BaseResponse<?> baseResponse = (BaseResponse<?>) body;
-        baseResponse.setLogID(getLogID(response));
+    return body;
+  }
 
-        if (baseResponse.getData() instanceof BaseResp) {
-          BaseResp baseResp = (BaseResp) baseResponse.getData();
-          baseResp.setLogID(getLogID(response));
+  /*
+   * The Coze error code of a JSON response, read without consuming the body. Returns null when the
+   * response is not JSON or carries no code. Only the top-level fields up to "code" are scanned, so
+   * the rest of the body is neither parsed nor buffered.
+   * */
+  public static Integer peekCode(okhttp3.Response response) {
+    ResponseBody body = response.body();
+    MediaType contentType = body == null ? null : body.contentType();
+    if (contentType == null || !"json".equals(contentType.subtype())) {
+      return null;
+    }
+    // peek 出来的 source 不会消费 body，后续的 converter 仍能读到完整内容
+    try (JsonParser parser =
+        getMapper().getFactory().createParser(body.source().peek().inputStream())) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        return null;
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String name = parser.getCurrentName();
+        JsonToken value = parser.nextToken();
+        if ("code".equals(name)) {
+          return value == JsonToken.VALUE_NUMBER_INT
+                  && parser.getNumberType() == JsonParser.NumberType.INT
+              ? parser.getIntValue()
+              : null;
         }
-      } else if (body instanceof BaseResp) {
-        BaseResp baseResp = (BaseResp) body;
-        baseResp.setLogID(getLogID(response));
+        // 跳过其它字段的值，不构建对象树
+        parser.skipChildren();
       }
+      return null;
+    } catch (IOException e) {
+      return null;
+    }
+  }
 
-      return body;
-    } catch (Exception e) {
-      throw new RuntimeException(e);
+  /*
+   * Identify the API of a request by its Retrofit method, e.g. BotAPI.list, or by method and path
+   * for requests not created by Retrofit.
+   * */
+  public static String endpointKey(Request request) {
+    Invocation invocation = request.tag(Invocation.class);
+    if (invocation != null) {
+      Method method = invocation.method();
+      return method.getDeclaringClass().getSimpleName() + "." + method.getName();
     }
+    return request.method() + " " + request.url().encodedPath();
+  }
+
+  /*
+   * The credential attached to the BaseReq of a request, null when the client's Auth applies.
+   * */
+  public static Auth requestAuth(Request request) {
+    return Auth.of(request.tag(BaseReq.class));
+  }
+
+  /*
+   * The Deadline set on the BaseReq of a request, null when there is none.
+   * */
+  public static Deadline requestDeadline(Request request) {
+    BaseReq baseReq = request.tag(BaseReq.class);
+    return baseReq == null ? null : baseReq.getDeadline();
   }
 
   public static String getLogID(Response<?> response) {
     return response.raw().headers().get(LOG_HEADER);
   }
 
+  /*
+   * toJson and fromJson go through the JsonCodec in use, see JsonCodecs.
+   * */
   public static String toJson(Object obj) {
     try {
-      return getMapper().writeValueAsString(obj);
-    } catch (JsonProcessingException e) {
+      return JsonCodecs.get().encode(obj);
+    } catch (IOException e) {
       throw new RuntimeException("Failed to convert object to JSON string", e);
     }
   }
 
   public static <T> T fromJson(String json, Class<T> clazz) {
     try {
-      return getMapper().readValue(json, clazz);
-    } catch (JsonProcessingException e) {
+      return JsonCodecs.get().decode(json, clazz);
+    } catch (IOException e) {
       throw new RuntimeException("Failed to parse object from JSON string", e);
     }
   }
@@ -0,0 +1,24 @@
+package com.coze.openapi.service.service.common;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/*
+ * Java 21 variant of VirtualThreads, packaged under META-INF/versions/21 of the multi-release jar.
+ * */
+public final class VirtualThreads {
+  private VirtualThreads() {}
+
+  public static boolean isSupported() {
+    return true;
+  }
+
+  public static ThreadFactory threadFactory(String prefix) {
+    return Thread.ofVirtual().name(prefix + "-", 1).factory();
+  }
+
+  public static ExecutorService newExecutor(String prefix) {
+    return Executors.newThreadPerTaskExecutor(threadFactory(prefix));
+  }
+}
@@ -0,0 +1,93 @@
+package com.coze.openapi;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import com.coze.openapi.api.BotAPI;
+import com.coze.openapi.client.common.BaseReq;
+import com.coze.openapi.service.utils.Utils;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/*
+ * Guards the reachability metadata under META-INF/native-image: every model and API interface
+ * that is compiled into the jar must be registered, otherwise Jackson and Retrofit fail only in
+ * the native image.
+ * */
+class NativeImageMetadataTest {
+  private static final String METADATA = "META-INF/native-image/com.coze/coze-api/";
+
+  private static JsonNode read(String name) throws IOException {
+    try (InputStream in =
+        NativeImageMetadataTest.class.getClassLoader().getResourceAsStream(METADATA + name)) {
+      assertNotNull(in, "missing " + METADATA + name);
+      return Utils.getMapper().readTree(in);
+    }
+  }
+
+  private static Set<String> compiledClasses(Class<?> anchor, String pkg)
+      throws IOException, URISyntaxException {
+    Path root =
+        Paths.get(anchor.getProtectionDomain().getCodeSource().getLocation().toURI())
+            .resolve(pkg.replace('.', '/'));
+    try (Stream<Path> files = Files.walk(root)) {
+      return files
+          .map(Path::toString)
+          .filter(name -> name.endsWith(".class"))
+          .map(name -> root.relativize(Paths.get(name)).toString())
+          .map(name -> pkg + "." + name.substring(0, name.length() - 6).replace('/', '.'))
+          // 匿名类不会被反射访问
+          .filter(name -> !name.matches(".*\\$\\d+.*"))
+          .collect(Collectors.toCollection(TreeSet::new));
+    }
+  }
+
+  @Test
+  void testModelsAndAPIsAreRegisteredForReflection() throws Exception {
+    Set<String> registered = new HashSet<>();
+    for (JsonNode entry : read("reflect-config.json")) {
+      registered.add(entry.get("name").asText());
+    }
+
+    Set<String> missing = new TreeSet<>();
+    missing.addAll(compiledClasses(BaseReq.class, "com.coze.openapi.client"));
+    missing.addAll(compiledClasses(BotAPI.class, "com.coze.openapi.api"));
+    missing.removeAll(registered);
+
+    assertTrue(missing.isEmpty(), "not in reflect-config.json: " + missing);
+  }
+
+  @Test
+  void testAPIsAreRegisteredAsProxies() throws Exception {
+    Set<String> registered = new HashSet<>();
+    for (JsonNode entry : read("proxy-config.json")) {
+      registered.add(entry.get("interfaces").get(0).asText());
+    }
+
+    Set<String> missing = compiledClasses(BotAPI.class, "com.coze.openapi.api");
+    missing.removeAll(registered);
+
+    assertTrue(missing.isEmpty(), "not in proxy-config.json: " + missing);
+  }
+
+  @Test
+  void testRegisteredResourcesExist() throws Exception {
+    for (JsonNode entry : read("resource-config.json").get("resources").get("includes")) {
+      String pattern = entry.get("pattern").asText();
+      String name = pattern.substring(2, pattern.length() - 2);
+      assertNotNull(getClass().getClassLoader().getResource(name), name);
+    }
+  }
+}
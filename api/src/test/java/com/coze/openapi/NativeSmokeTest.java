@@ -0,0 +1,113 @@
+package com.coze.openapi;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.Collections;
+import java.util.Date;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.coze.openapi.client.bots.RetrieveBotReq;
+import com.coze.openapi.client.bots.RetrieveBotResp;
+import com.coze.openapi.service.auth.DefaultJWTBuilder;
+import com.coze.openapi.service.auth.JWTPayload;
+import com.coze.openapi.service.auth.TokenAuth;
+import com.coze.openapi.service.service.CozeAPI;
+import com.sun.net.httpserver.HttpServer;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+
+/*
+ * End-to-end smoke test against a local stand-in server, without mocks, so that it also runs
+ * inside a native image (mvn -Pnative test). It touches the reflective paths of the SDK: Retrofit
+ * proxies, Jackson models, the User-Agent resource and the JWT signing of jjwt.
+ * */
+class NativeSmokeTest {
+  private HttpServer server;
+  private volatile String authorization;
+  private volatile String userAgent;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext(
+        "/v1/bot/get_online_info",
+        exchange -> {
+          authorization = exchange.getRequestHeaders().getFirst("Authorization");
+          userAgent = exchange.getRequestHeaders().getFirst("User-Agent");
+          byte[] body =
+              "{\"code\":0,\"msg\":\"\",\"data\":{\"bot_id\":\"bot-1\",\"name\":\"smoke\"}}"
+                  .getBytes(StandardCharsets.UTF_8);
+          exchange.getResponseHeaders().add("Content-Type", "application/json");
+          exchange.getResponseHeaders().add("X-Tt-Logid", "smoke-log-id");
+          exchange.sendResponseHeaders(200, body.length);
+          try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+          }
+        });
+    server.start();
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.stop(0);
+  }
+
+  @Test
+  void testRetrieveBot() {
+    CozeAPI api =
+        new CozeAPI.Builder()
+            .baseURL("http://127.0.0.1:" + server.getAddress().getPort())
+            .auth(new TokenAuth("smoke-token"))
+            .build();
+    try {
+      RetrieveBotResp resp = api.bots().retrieve(RetrieveBotReq.of("bot-1"));
+
+      assertEquals("bot-1", resp.getBot().getBotID());
+      assertEquals("smoke", resp.getBot().getName());
+      assertEquals("smoke-log-id", resp.getLogID());
+      assertEquals("Bearer smoke-token", authorization);
+      assertTrue(userAgent.startsWith("cozejava/"), userAgent);
+    } finally {
+      api.shutdownExecutor();
+    }
+  }
+
+  @Test
+  void testGenerateJWT() throws Exception {
+    KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+    generator.initialize(2048);
+    KeyPair keyPair = generator.generateKeyPair();
+    Date now = new Date();
+    JWTPayload payload =
+        JWTPayload.builder()
+            .iss("client-id")
+            .aud("api.coze.cn")
+            .iat(now)
+            .exp(new Date(now.getTime() + 60_000))
+            .jti("smoke")
+            .build();
+
+    String jwt =
+        new DefaultJWTBuilder()
+            .generateJWT(
+                keyPair.getPrivate(), Collections.singletonMap("kid", "public-key-id"), payload);
+
+    Claims claims =
+        Jwts.parserBuilder()
+            .setSigningKey(keyPair.getPublic())
+            .build()
+            .parseClaimsJws(jwt)
+            .getBody();
+    assertEquals("client-id", claims.getIssuer());
+    assertEquals("smoke", claims.getId());
+  }
+}
@@ -18,6 +18,7 @@ import okhttp3.MediaType;
 import okhttp3.Request;
 import okhttp3.ResponseBody;
 import retrofit2.Call;
+import retrofit2.Callback;
 import retrofit2.Response;
 
 public class APIResponseCallAdapterTest {
@@ -142,4 +143,50 @@ public class APIResponseCallAdapterTest {
     assertNotNull(clonedCall);
     assertNotSame(adaptedCall, clonedCall);
   }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testEnqueueUsesDeliveredResponse() throws IOException {
+    BaseResponse<String> successResponse = new BaseResponse<>();
+    successResponse.setCode(0);
+    successResponse.setData("test data");
+    doAnswer(
+            invocation -> {
+              Callback<BaseResponse<String>> cb = invocation.getArgument(0);
+              cb.onResponse(mockCall, Response.success(successResponse));
+              return null;
+            })
+        .when(mockCall)
+        .enqueue(any());
+
+    Callback<BaseResponse<String>> callback = mock(Callback.class);
+    Call<BaseResponse<String>> adaptedCall = adapter.adapt(mockCall);
+    adaptedCall.enqueue(callback);
+
+    verify(callback).onResponse(same(adaptedCall), argThat(r -> r.body() == successResponse));
+    verify(mockCall, never()).execute();
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testEnqueueBusinessError() {
+    BaseResponse<String> errorResponse = new BaseResponse<>();
+    errorResponse.setCode(4000);
+    errorResponse.setMsg("invalid param");
+    doAnswer(
+            invocation -> {
+              Callback<BaseResponse<String>> cb = invocation.getArgument(0);
+              cb.onResponse(mockCall, Response.success(errorResponse));
+              return null;
+            })
+        .when(mockCall)
+        .enqueue(any());
+
+    Callback<BaseResponse<String>> callback = mock(Callback.class);
+    Call<BaseResponse<String>> adaptedCall = adapter.adapt(mockCall);
+    adaptedCall.enqueue(callback);
+
+    verify(callback).onFailure(same(adaptedCall), isA(CozeApiException.class));
+    verify(callback, never()).onResponse(any(), any());
+  }
 }
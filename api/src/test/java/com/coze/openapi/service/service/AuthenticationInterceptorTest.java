@@ -0,0 +1,93 @@
+package com.coze.openapi.service.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.coze.openapi.client.chat.RetrieveChatReq;
+import com.coze.openapi.client.common.BaseReq;
+import com.coze.openapi.service.auth.Auth;
+import com.coze.openapi.service.auth.TokenAuth;
+import com.coze.openapi.service.utils.Utils;
+
+import okhttp3.Interceptor;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+class AuthenticationInterceptorTest {
+
+  @Mock private Interceptor.Chain chain;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    MockitoAnnotations.openMocks(this);
+    when(chain.proceed(any()))
+        .thenAnswer(
+            invocation ->
+                new Response.Builder()
+                    .request(invocation.getArgument(0))
+                    .protocol(Protocol.HTTP_1_1)
+                    .code(200)
+                    .message("OK")
+                    .build());
+  }
+
+  private String authorization(AuthenticationInterceptor interceptor, Request request)
+      throws IOException {
+    when(chain.request()).thenReturn(request);
+    interceptor.intercept(chain);
+    ArgumentCaptor<Request> sent = ArgumentCaptor.forClass(Request.class);
+    verify(chain, atLeastOnce()).proceed(sent.capture());
+    return sent.getValue().header("Authorization");
+  }
+
+  @Test
+  void testClientAuth() throws IOException {
+    AuthenticationInterceptor interceptor = new AuthenticationInterceptor(new TokenAuth("default"));
+    Request request = new Request.Builder().url("https://api.test.com").build();
+
+    assertEquals("Bearer default", authorization(interceptor, request));
+  }
+
+  @Test
+  void testRequestAuthOverridesClientAuth() throws IOException {
+    AuthenticationInterceptor interceptor = new AuthenticationInterceptor(new TokenAuth("default"));
+    BaseReq baseReq = new TokenAuth("tenant").attach(BaseReq.builder().build());
+    Request request =
+        new Request.Builder().url("https://api.test.com").tag(BaseReq.class, baseReq).build();
+
+    assertEquals("Bearer tenant", authorization(interceptor, request));
+  }
+
+  @Test
+  void testAttachedAuthIsInheritedAndNotSerialized() throws Exception {
+    TokenAuth tenant = new TokenAuth("tenant");
+    RetrieveChatReq origin = tenant.attach(RetrieveChatReq.of("conversation", "chat"));
+    RetrieveChatReq followUp = RetrieveChatReq.of("conversation", "chat");
+    followUp.inherit(origin);
+
+    assertSame(tenant, Auth.of(followUp));
+    assertFalse(Utils.getMapper().writeValueAsString(origin).contains("tenant"));
+  }
+
+  @Test
+  void testMultiTenantWithoutCredential() {
+    AuthenticationInterceptor interceptor = new AuthenticationInterceptor(null);
+    Request request =
+        new Request.Builder()
+            .url("https://api.test.com")
+            .tag(BaseReq.class, BaseReq.builder().build())
+            .build();
+    when(chain.request()).thenReturn(request);
+
+    assertThrows(IOException.class, () -> interceptor.intercept(chain));
+  }
+}
@@ -2,7 +2,18 @@ package com.coze.openapi.service.service;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,7 +21,19 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.slf4j.Logger;
 
+import com.coze.openapi.client.bots.RetrieveBotReq;
 import com.coze.openapi.service.auth.Auth;
+import com.coze.openapi.service.auth.TokenAuth;
+import com.coze.openapi.service.service.circuitbreaker.CircuitBreakerConfig;
+import com.coze.openapi.service.service.common.StreamExecutors;
+import com.coze.openapi.service.service.common.VirtualThreads;
+import com.coze.openapi.service.service.hedging.HedgingConfig;
+import com.coze.openapi.service.service.transport.BulkheadConfig;
+import com.coze.openapi.service.service.transport.ConcurrencyLimitConfig;
+import com.coze.openapi.service.service.transport.TransportProfile;
+import com.coze.openapi.service.service.transport.TransportStats;
+import com.coze.openapi.service.service.transport.WarmupConfig;
+import com.sun.net.httpserver.HttpServer;
 
 import okhttp3.OkHttpClient;
 
@@ -38,6 +61,8 @@ public class CozeAPITest {
     assertNotNull(api.workflows());
     assertNotNull(api.chat());
     assertNotNull(api.audio());
+    assertNotNull(api.async());
+    assertNotNull(api.async().bots());
   }
 
   @Test
@@ -76,4 +101,219 @@ public class CozeAPITest {
 
     assertNotNull(api);
   }
+
+  @Test
+  public void testStreamExecutorIsBoundedByDefault() {
+    CozeAPI api = new CozeAPI.Builder().auth(auth).build();
+    try {
+      ThreadPoolExecutor executor = (ThreadPoolExecutor) api.streamExecutor();
+      assertEquals(StreamExecutors.DEFAULT_MAX_WORKERS, executor.getMaximumPoolSize());
+    } finally {
+      api.shutdownExecutor();
+    }
+    ThreadPoolExecutor shared = (ThreadPoolExecutor) StreamExecutors.defaultExecutor();
+    assertEquals(StreamExecutors.DEFAULT_MAX_WORKERS, shared.getMaximumPoolSize());
+  }
+
+  @Test
+  public void testStreamExecutor() {
+    CozeAPI api = new CozeAPI.Builder().auth(auth).maxStreamWorkers(2).build();
+    assertNotNull(api.streamExecutor());
+    api.shutdownExecutor();
+    assertTrue(api.streamExecutor().isShutdown());
+
+    ExecutorService executor = Executors.newFixedThreadPool(1);
+    try {
+      CozeAPI custom = new CozeAPI.Builder().auth(auth).streamExecutor(executor).build();
+      assertSame(executor, custom.streamExecutor());
+      custom.shutdownExecutor();
+      assertFalse(executor.isShutdown());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testVirtualThreads() {
+    // 测试在 Java 8 的基线类上运行，虚拟线程不可用时应回退到平台线程
+    CozeAPI api = new CozeAPI.Builder().auth(auth).virtualThreads(true).build();
+    assertFalse(VirtualThreads.isSupported());
+    assertNotNull(api.streamExecutor());
+    assertNotNull(api.websockets());
+    api.shutdownExecutor();
+    assertTrue(api.streamExecutor().isShutdown());
+  }
+
+  @Test
+  public void testConcurrencyLimit() {
+    CozeAPI api = new CozeAPI.Builder().auth(auth).build();
+    assertNull(api.transportStats().getUnaryLimit());
+
+    CozeAPI limited =
+        new CozeAPI.Builder()
+            .auth(auth)
+            .concurrencyLimit(
+                ConcurrencyLimitConfig.builder().initialLimit(8).build(),
+                ConcurrencyLimitConfig.builder().initialLimit(4).build())
+            .build();
+    assertEquals(8, limited.transportStats().getUnaryLimit().getLimit());
+    assertEquals(4, limited.transportStats().getStreamLimit().getLimit());
+  }
+
+  @Test
+  public void testCircuitBreaker() {
+    CozeAPI api = new CozeAPI.Builder().auth(auth).build();
+    assertTrue(api.circuitStates().isEmpty());
+
+    CozeAPI guarded =
+        new CozeAPI.Builder()
+            .auth(auth)
+            .circuitBreaker(CircuitBreakerConfig.defaultConfig())
+            .build();
+    assertTrue(guarded.circuitStates().isEmpty());
+  }
+
+  @Test
+  public void testBuildingTwiceDoesNotStackInterceptors() throws Exception {
+    HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext(
+        "/",
+        exchange -> {
+          byte[] body = "{\"code\":0,\"msg\":\"\",\"data\":{}}".getBytes(StandardCharsets.UTF_8);
+          exchange.getResponseHeaders().add("Content-Type", "application/json");
+          exchange.sendResponseHeaders(200, body.length);
+          exchange.getResponseBody().write(body);
+          exchange.close();
+        });
+    server.start();
+    try {
+      CozeAPI.Builder builder =
+          new CozeAPI.Builder()
+              .baseURL("http://127.0.0.1:" + server.getAddress().getPort())
+              .auth(new TokenAuth("token"))
+              .client(new OkHttpClient())
+              .circuitBreaker(CircuitBreakerConfig.defaultConfig());
+      CozeAPI first = builder.build();
+      CozeAPI second = builder.build();
+
+      second.bots().retrieve(RetrieveBotReq.of("bot-1"));
+
+      // 第二次 build 的 client 里不能带着第一次的熔断器
+      assertEquals(1, second.circuitStates().size());
+      assertTrue(first.circuitStates().isEmpty());
+    } finally {
+      server.stop(0);
+    }
+  }
+
+  @Test
+  public void testBuildLeavesBuilderUnchanged() throws Exception {
+    // 没有 baseURL 时使用默认地址；预热会调整 TransportProfile，这些都不能写回 Builder
+    CozeAPI.Builder defaults = new CozeAPI.Builder().auth(auth);
+    CozeAPI.Builder warmed =
+        new CozeAPI.Builder()
+            .auth(auth)
+            .baseURL("http://127.0.0.1:1")
+            .warmup(WarmupConfig.builder().connections(8).build());
+    for (CozeAPI.Builder builder : Arrays.asList(defaults, warmed)) {
+      Map<String, Object> before = fields(builder);
+      builder.build().shutdownExecutor();
+      assertEquals(before, fields(builder));
+    }
+  }
+
+  private static Map<String, Object> fields(CozeAPI.Builder builder) throws Exception {
+    Map<String, Object> fields = new HashMap<>();
+    for (Field field : CozeAPI.Builder.class.getDeclaredFields()) {
+      if (!Modifier.isStatic(field.getModifiers())) {
+        field.setAccessible(true);
+        fields.put(field.getName(), field.get(builder));
+      }
+    }
+    return fields;
+  }
+
+  @Test
+  public void testHedging() {
+    CozeAPI api = new CozeAPI.Builder().auth(auth).hedging(HedgingConfig.defaultConfig()).build();
+    assertEquals(0, api.hedgingStats().getCalls());
+    assertEquals(0, new CozeAPI.Builder().auth(auth).build().hedgingStats().getHedged());
+  }
+
+  @Test
+  public void testBaseURLs() {
+    CozeAPI api =
+        new CozeAPI.Builder()
+            .auth(auth)
+            .baseURLs(Arrays.asList("https://api.coze.com", "https://api.coze.cn"))
+            .build();
+    assertEquals(2, api.endpointStats().size());
+    assertEquals("https://api.coze.cn/", api.endpointStats().get(1).getUrl());
+    assertTrue(new CozeAPI.Builder().auth(auth).build().endpointStats().isEmpty());
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new CozeAPI.Builder().baseURLs(Collections.emptyList()));
+    api.shutdownExecutor();
+  }
+
+  @Test
+  public void testLazyServices() {
+    CozeAPI api = new CozeAPI.Builder().auth(auth).build();
+    assertSame(api.bots(), api.bots());
+    assertSame(api.websockets(), api.websockets());
+    assertSame(api.async().chat(), api.async().chat());
+
+    CozeAPI eager = new CozeAPI.Builder().auth(auth).eagerServices(true).build();
+    assertNotNull(eager.audio());
+    assertNotNull(eager.async().templates());
+  }
+
+  @Test
+  public void testWarmup() throws Exception {
+    CozeAPI api = new CozeAPI.Builder().auth(auth).build();
+    assertTrue(api.warmup().isDone());
+    assertTrue(api.warmup().get().isReady());
+  }
+
+  @Test
+  public void testMultiTenant() {
+    assertThrows(IllegalArgumentException.class, () -> new CozeAPI.Builder().build());
+    CozeAPI api = new CozeAPI.Builder().multiTenant(true).build();
+    assertNotNull(api.bots());
+  }
+
+  @Test
+  public void testBulkhead() {
+    CozeAPI api = new CozeAPI.Builder().auth(auth).build();
+    assertFalse(api.transportStats().isBulkhead());
+
+    CozeAPI bulkhead =
+        new CozeAPI.Builder()
+            .auth(auth)
+            .bulkhead(BulkheadConfig.builder().streamMaxRequestsPerHost(500).build())
+            .build();
+    TransportStats stats = bulkhead.transportStats();
+    assertTrue(stats.isBulkhead());
+    assertEquals(500, stats.getStream().getMaxRequestsPerHost());
+    assertEquals(0, stats.getUnary().getRunningCalls());
+  }
+
+  @Test
+  public void testTransportProfile() {
+    CozeAPI api =
+        new CozeAPI.Builder()
+            .auth(auth)
+            .transportProfile(TransportProfile.lowLatencyInteractive())
+            .build();
+    assertEquals(64, api.transportStats().getUnary().getMaxRequestsPerHost());
+
+    OkHttpClient customClient = new OkHttpClient.Builder().build();
+    CozeAPI custom =
+        new CozeAPI.Builder()
+            .auth(auth)
+            .client(customClient)
+            .transportProfile(TransportProfile.highThroughputBatch())
+            .build();
+    assertEquals(128, custom.transportStats().getStream().getMaxRequestsPerHost());
+  }
 }
@@ -0,0 +1,107 @@
+package com.coze.openapi.service.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.coze.openapi.client.common.BaseReq;
+import com.coze.openapi.service.auth.Auth;
+import com.coze.openapi.service.auth.TokenAuth;
+import com.coze.openapi.service.utils.UserAgentInterceptor;
+
+import okhttp3.Interceptor;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+class RequestDecorationInterceptorTest {
+
+  @Mock private Interceptor.Chain chain;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    MockitoAnnotations.openMocks(this);
+    when(chain.proceed(any()))
+        .thenAnswer(
+            invocation ->
+                new Response.Builder()
+                    .request(invocation.getArgument(0))
+                    .protocol(Protocol.HTTP_1_1)
+                    .code(200)
+                    .message("OK")
+                    .build());
+  }
+
+  private Request send(RequestDecorationInterceptor interceptor, Request request)
+      throws IOException {
+    when(chain.request()).thenReturn(request);
+    interceptor.intercept(chain);
+    ArgumentCaptor<Request> sent = ArgumentCaptor.forClass(Request.class);
+    verify(chain, atLeastOnce()).proceed(sent.capture());
+    return sent.getValue();
+  }
+
+  @Test
+  void testHeaders() throws IOException {
+    RequestDecorationInterceptor interceptor =
+        new RequestDecorationInterceptor(new TokenAuth("token"));
+    Request sent =
+        send(interceptor, new Request.Builder().url("https://api.test.com/v1/bots").build());
+
+    assertEquals("Bearer token", sent.header("Authorization"));
+    assertEquals(UserAgentInterceptor.USER_AGENT, sent.header("User-Agent"));
+    assertEquals(UserAgentInterceptor.CLIENT_USER_AGENT, sent.header("X-Coze-Client-User-Agent"));
+    assertTrue(sent.header("X-Coze-Client-User-Agent").contains("\"lang\":\"java\""));
+  }
+
+  @Test
+  void testAuthorizationIsCachedUntilTokenChanges() throws IOException {
+    Auth auth = mock(Auth.class);
+    when(auth.tokenType()).thenReturn("Bearer");
+    when(auth.token()).thenReturn("first");
+    RequestDecorationInterceptor interceptor = new RequestDecorationInterceptor(auth);
+    Request request = new Request.Builder().url("https://api.test.com/v1/bots").build();
+
+    String firstValue = send(interceptor, request).header("Authorization");
+    String secondValue = send(interceptor, request).header("Authorization");
+    assertEquals("Bearer first", firstValue);
+    assertSame(firstValue, secondValue);
+    verify(auth, times(1)).tokenType();
+
+    when(auth.token()).thenReturn("second");
+    assertEquals("Bearer second", send(interceptor, request).header("Authorization"));
+  }
+
+  @Test
+  void testRequestAuthAndTimeouts() throws IOException {
+    RequestDecorationInterceptor interceptor =
+        new RequestDecorationInterceptor(new TokenAuth("default"));
+    when(chain.withReadTimeout(anyInt(), any())).thenReturn(chain);
+    BaseReq baseReq = new TokenAuth("tenant").attach(BaseReq.builder().readTimeout(1500).build());
+    Request request =
+        new Request.Builder()
+            .url("https://api.test.com/v1/bots")
+            .tag(BaseReq.class, baseReq)
+            .build();
+
+    assertEquals("Bearer tenant", send(interceptor, request).header("Authorization"));
+    verify(chain).withReadTimeout(1500, TimeUnit.MILLISECONDS);
+  }
+
+  @Test
+  void testMissingCredential() {
+    RequestDecorationInterceptor interceptor = new RequestDecorationInterceptor(null);
+    when(chain.request())
+        .thenReturn(new Request.Builder().url("https://api.test.com/v1/bots").build());
+
+    assertThrows(IOException.class, () -> interceptor.intercept(chain));
+  }
+}
@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -12,8 +13,13 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import com.coze.openapi.client.common.BaseReq;
+import com.coze.openapi.client.common.Deadline;
+import com.coze.openapi.service.service.common.DeadlineExceededException;
+import com.sun.net.httpserver.HttpServer;
 
+import okhttp3.Call;
 import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
 import okhttp3.Protocol;
 import okhttp3.Request;
 import okhttp3.Response;
@@ -149,4 +155,82 @@ class TimeoutInterceptorTest {
     verify(chain, never()).withReadTimeout(anyInt(), any());
     verify(chain, never()).withWriteTimeout(anyInt(), any());
   }
+
+  @Test
+  void testExpiredDeadline() throws IOException {
+    BaseReq baseReq = BaseReq.builder().deadline(Deadline.after(0, TimeUnit.MILLISECONDS)).build();
+    Request request =
+        new Request.Builder().url("https://api.test.com").tag(BaseReq.class, baseReq).build();
+    when(chain.request()).thenReturn(request);
+
+    assertThrows(DeadlineExceededException.class, () -> interceptor.intercept(chain));
+    verify(chain, never()).proceed(any());
+  }
+
+  @Test
+  void testDeadlineCapsTimeouts() throws IOException {
+    BaseReq baseReq =
+        BaseReq.builder()
+            .readTimeout(100)
+            .deadline(Deadline.after(500, TimeUnit.MILLISECONDS))
+            .build();
+    Request request =
+        new Request.Builder().url("https://api.test.com").tag(BaseReq.class, baseReq).build();
+    Response mockResponse =
+        new Response.Builder()
+            .request(request)
+            .protocol(Protocol.HTTP_1_1)
+            .code(200)
+            .message("OK")
+            .build();
+
+    when(chain.request()).thenReturn(request);
+    when(chain.call()).thenReturn(mock(Call.class));
+    when(chain.withConnectTimeout(anyInt(), any())).thenReturn(chain);
+    when(chain.withReadTimeout(anyInt(), any())).thenReturn(chain);
+    when(chain.withWriteTimeout(anyInt(), any())).thenReturn(chain);
+    when(chain.connectTimeoutMillis()).thenReturn(10_000);
+    when(chain.readTimeoutMillis()).thenReturn(100);
+    when(chain.writeTimeoutMillis()).thenReturn(0);
+    when(chain.proceed(request)).thenReturn(mockResponse);
+
+    assertNotNull(interceptor.intercept(chain));
+    // 比剩余时间短的超时保持不变，其余的不超过剩余时间
+    verify(chain, atLeastOnce()).withReadTimeout(100, TimeUnit.MILLISECONDS);
+    verify(chain).withConnectTimeout(intThat(t -> t > 0 && t <= 500), eq(TimeUnit.MILLISECONDS));
+    verify(chain).withWriteTimeout(intThat(t -> t > 0 && t <= 500), eq(TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  void testDeadlineCancelsInFlightCall() throws Exception {
+    HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext(
+        "/",
+        exchange -> {
+          try {
+            Thread.sleep(1500);
+            exchange.sendResponseHeaders(200, -1);
+          } catch (InterruptedException ignored) {
+          } finally {
+            exchange.close();
+          }
+        });
+    server.start();
+    try {
+      OkHttpClient client = new OkHttpClient.Builder().addInterceptor(interceptor).build();
+      BaseReq baseReq =
+          BaseReq.builder().deadline(Deadline.after(200, TimeUnit.MILLISECONDS)).build();
+      Request request =
+          new Request.Builder()
+              .url("http://127.0.0.1:" + server.getAddress().getPort() + "/v1/bots")
+              .tag(BaseReq.class, baseReq)
+              .build();
+
+      long start = System.nanoTime();
+      assertThrows(DeadlineExceededException.class, () -> client.newCall(request).execute());
+      assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1200);
+    } finally {
+      server.stop(0);
+    }
+  }
 }
@@ -0,0 +1,191 @@
+package com.coze.openapi.service.service.batching;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.coze.openapi.client.common.Deadline;
+import com.coze.openapi.client.dataset.document.CreateDocumentReq;
+import com.coze.openapi.client.dataset.document.CreateDocumentResp;
+import com.coze.openapi.client.dataset.document.DeleteDocumentReq;
+import com.coze.openapi.client.dataset.document.DeleteDocumentResp;
+import com.coze.openapi.client.dataset.document.model.Document;
+import com.coze.openapi.client.dataset.document.model.DocumentBase;
+import com.coze.openapi.client.exception.CozeApiException;
+import com.coze.openapi.service.service.dataset.DocumentService;
+
+class DocumentBatcherTest {
+  @Mock private DocumentService documents;
+  private DocumentBatcher batcher;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    // 创建接口按 document_bases 的顺序返回文档
+    when(documents.create(any(CreateDocumentReq.class)))
+        .thenAnswer(
+            invocation -> {
+              CreateDocumentReq req = invocation.getArgument(0);
+              List<Document> created = new ArrayList<>();
+              for (DocumentBase base : req.getDocumentBases()) {
+                if (base.getName().startsWith("bad")) {
+                  throw new RuntimeException(new CozeApiException(4000, "invalid", "log-id"));
+                }
+                Document document = new Document();
+                document.setName(base.getName());
+                created.add(document);
+              }
+              return CreateDocumentResp.builder().logID("log-id").documentInfos(created).build();
+            });
+    when(documents.delete(any(DeleteDocumentReq.class)))
+        .thenReturn(DeleteDocumentResp.builder().logID("delete-log-id").build());
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (batcher != null) {
+      batcher.close();
+    }
+  }
+
+  private static CreateDocumentReq create(long datasetID, String... names) {
+    List<DocumentBase> bases = new ArrayList<>();
+    for (String name : names) {
+      bases.add(DocumentBase.buildWebPage(name, "https://example.com/" + name));
+    }
+    return CreateDocumentReq.builder().datasetID(datasetID).documentBases(bases).build();
+  }
+
+  private static List<String> names(CreateDocumentResp resp) {
+    List<String> names = new ArrayList<>();
+    resp.getDocumentInfos().forEach(document -> names.add(document.getName()));
+    return names;
+  }
+
+  private static <T> T await(CompletableFuture<T> future) throws Exception {
+    return future.get(5, TimeUnit.SECONDS);
+  }
+
+  @Test
+  void testCreatesAreMergedPerDataset() throws Exception {
+    batcher =
+        new DocumentBatcher(documents, DocumentBatchConfig.builder().maxDelayMillis(50).build());
+
+    CompletableFuture<CreateDocumentResp> a = batcher.create(create(1, "a"));
+    CompletableFuture<CreateDocumentResp> bc = batcher.create(create(1, "b", "c"));
+    CompletableFuture<CreateDocumentResp> d = batcher.create(create(2, "d"));
+
+    // 每个调用方只拿到自己的文档
+    assertEquals(Collections.singletonList("a"), names(await(a)));
+    assertEquals(Arrays.asList("b", "c"), names(await(bc)));
+    assertEquals(Collections.singletonList("d"), names(await(d)));
+    assertEquals("log-id", await(a).getLogID());
+
+    ArgumentCaptor<CreateDocumentReq> sent = ArgumentCaptor.forClass(CreateDocumentReq.class);
+    verify(documents, times(2)).create(sent.capture());
+    CreateDocumentReq merged =
+        sent.getAllValues().stream().filter(req -> req.getDatasetID() == 1L).findFirst().get();
+    assertEquals(3, merged.getDocumentBases().size());
+    assertEquals(3, batcher.stats().getCalls());
+    assertEquals(2, batcher.stats().getRequests());
+  }
+
+  @Test
+  void testFullBatchIsSentWithoutDelay() throws Exception {
+    batcher =
+        new DocumentBatcher(
+            documents,
+            DocumentBatchConfig.builder().maxDelayMillis(60_000).maxCreateBatch(3).build());
+
+    CompletableFuture<CreateDocumentResp> first = batcher.create(create(1, "a", "b"));
+    CompletableFuture<CreateDocumentResp> second = batcher.create(create(1, "c"));
+
+    assertEquals(Arrays.asList("a", "b"), names(await(first)));
+    assertEquals(Collections.singletonList("c"), names(await(second)));
+    verify(documents, times(1)).create(any(CreateDocumentReq.class));
+  }
+
+  @Test
+  void testMismatchedCreateIsNotShared() throws Exception {
+    Document only = new Document();
+    only.setName("a");
+    doReturn(CreateDocumentResp.builder().documentInfos(Collections.singletonList(only)).build())
+        .when(documents)
+        .create(any(CreateDocumentReq.class));
+    batcher =
+        new DocumentBatcher(
+            documents,
+            DocumentBatchConfig.builder().maxDelayMillis(60_000).maxCreateBatch(2).build());
+
+    CompletableFuture<CreateDocumentResp> a = batcher.create(create(1, "a"));
+    CompletableFuture<CreateDocumentResp> b = batcher.create(create(1, "b"));
+
+    // 无法确定文档属于哪个调用方时整批失败，也不逐个重发，避免重复创建
+    ExecutionException e = assertThrows(ExecutionException.class, () -> await(a));
+    assertInstanceOf(IllegalStateException.class, e.getCause());
+    assertThrows(ExecutionException.class, () -> await(b));
+    verify(documents, times(1)).create(any(CreateDocumentReq.class));
+  }
+
+  @Test
+  void testDeletesAreMerged() throws Exception {
+    batcher =
+        new DocumentBatcher(documents, DocumentBatchConfig.builder().maxDelayMillis(50).build());
+
+    List<CompletableFuture<DeleteDocumentResp>> futures = new ArrayList<>();
+    for (long id = 1; id <= 3; id++) {
+      futures.add(
+          batcher.delete(
+              DeleteDocumentReq.builder().documentIDs(Collections.singletonList(id)).build()));
+    }
+    for (CompletableFuture<DeleteDocumentResp> future : futures) {
+      assertEquals("delete-log-id", await(future).getLogID());
+    }
+
+    ArgumentCaptor<DeleteDocumentReq> sent = ArgumentCaptor.forClass(DeleteDocumentReq.class);
+    verify(documents).delete(sent.capture());
+    assertEquals(Arrays.asList(1L, 2L, 3L), sent.getValue().getDocumentIDs());
+  }
+
+  @Test
+  void testRejectedBatchIsSplit() throws Exception {
+    batcher =
+        new DocumentBatcher(documents, DocumentBatchConfig.builder().maxDelayMillis(50).build());
+
+    CompletableFuture<CreateDocumentResp> good = batcher.create(create(1, "good"));
+    CompletableFuture<CreateDocumentResp> bad = batcher.create(create(1, "bad"));
+
+    assertEquals(Collections.singletonList("good"), names(await(good)));
+    ExecutionException thrown = assertThrows(ExecutionException.class, () -> await(bad));
+    assertTrue(thrown.getCause().getCause() instanceof CozeApiException);
+    // 一次合并请求，拆分后两次单独请求
+    verify(documents, times(3)).create(any(CreateDocumentReq.class));
+    assertEquals(1, batcher.stats().getSplits());
+  }
+
+  @Test
+  void testCallsWithPerCallOptionsAreNotMerged() throws Exception {
+    batcher =
+        new DocumentBatcher(
+            documents, DocumentBatchConfig.builder().maxDelayMillis(60_000).build());
+    CreateDocumentReq req = create(1, "a");
+    req.setDeadline(Deadline.after(10, TimeUnit.SECONDS));
+
+    assertEquals(Collections.singletonList("a"), names(await(batcher.create(req))));
+    verify(documents).create(req);
+  }
+}
@@ -0,0 +1,120 @@
+package com.coze.openapi.service.service.bots;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.coze.openapi.api.BotAPI;
+import com.coze.openapi.client.bots.*;
+import com.coze.openapi.client.bots.model.Bot;
+import com.coze.openapi.client.bots.model.SimpleBot;
+import com.coze.openapi.client.common.BaseResponse;
+import com.coze.openapi.client.common.pagination.PageResp;
+import com.coze.openapi.utils.Utils;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+class AsyncBotServiceTest {
+
+  @Mock private BotAPI botAPI;
+
+  @Mock private Call<BaseResponse<ListBotResp>> listCall;
+
+  @Mock private Call<BaseResponse<Bot>> retrieveCall;
+
+  private AsyncBotService botService;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    botService = new AsyncBotService(botAPI);
+  }
+
+  private static <T> void respondWith(Call<T> call, T body) {
+    doAnswer(
+            invocation -> {
+              Callback<T> cb = invocation.getArgument(0);
+              cb.onResponse(call, Response.success(body, Utils.getCommonHeader()));
+              return null;
+            })
+        .when(call)
+        .enqueue(any());
+  }
+
+  @Test
+  void testList() throws Exception {
+    // 准备测试数据
+    String spaceId = "test_space_id";
+    ListBotReq req = ListBotReq.builder().spaceID(spaceId).pageNum(1).pageSize(20).build();
+
+    List<SimpleBot> bots =
+        Arrays.asList(
+            SimpleBot.builder().botID("bot1").botName("Bot 1").build(),
+            SimpleBot.builder().botID("bot2").botName("Bot 2").build());
+    BaseResponse<ListBotResp> baseResponse =
+        BaseResponse.<ListBotResp>builder()
+            .code(0)
+            .msg("success")
+            .data(ListBotResp.builder().total(2).bots(bots).build())
+            .build();
+
+    when(botAPI.list(eq(spaceId), eq(1), eq(20), any(ListBotReq.class))).thenReturn(listCall);
+    respondWith(listCall, baseResponse);
+
+    // 执行测试
+    PageResp<SimpleBot> result = botService.list(req).get(1, TimeUnit.SECONDS);
+
+    // 验证结果：第一页走 enqueue，后续分页器在迭代前不会发起请求
+    assertEquals(2, result.getTotal());
+    assertEquals(2, result.getItems().size());
+    assertEquals(Utils.TEST_LOG_ID, result.getLogID());
+    assertEquals("bot1", result.getItems().get(0).getBotID());
+    verify(listCall, never()).execute();
+    verify(botAPI, times(1)).list(any(), any(), any(), any());
+  }
+
+  @Test
+  void testRetrieve() throws Exception {
+    String botId = "test_bot_id";
+    RetrieveBotReq req = RetrieveBotReq.builder().botID(botId).build();
+    BaseResponse<Bot> baseResponse =
+        BaseResponse.<Bot>builder()
+            .code(0)
+            .msg("success")
+            .data(Bot.builder().botID(botId).name("Test Bot").build())
+            .build();
+
+    when(botAPI.retrieve(eq(botId), any(RetrieveBotReq.class))).thenReturn(retrieveCall);
+    respondWith(retrieveCall, baseResponse);
+
+    RetrieveBotResp result = botService.retrieve(req).get(1, TimeUnit.SECONDS);
+
+    assertEquals(Utils.TEST_LOG_ID, result.getLogID());
+    assertEquals(botId, result.getBot().getBotID());
+  }
+
+  @Test
+  void testCancelRetrieveCancelsCall() {
+    String botId = "test_bot_id";
+    RetrieveBotReq req = RetrieveBotReq.builder().botID(botId).build();
+    when(botAPI.retrieve(eq(botId), any(RetrieveBotReq.class))).thenReturn(retrieveCall);
+
+    CompletableFuture<RetrieveBotResp> future = botService.retrieve(req);
+    future.cancel(true);
+
+    // 返回的 future 是由响应转换而来的，取消它同样要取消 HTTP 请求
+    verify(retrieveCall).cancel();
+  }
+}
@@ -0,0 +1,109 @@
+package com.coze.openapi.service.service.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Collections;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.coze.openapi.api.BotAPI;
+import com.coze.openapi.client.bots.UpdateBotReq;
+import com.coze.openapi.client.common.BaseReq;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import retrofit2.Invocation;
+
+class MetadataCacheInterceptorTest {
+
+  @Mock private Interceptor.Chain chain;
+
+  private MetadataCacheInterceptor interceptor;
+  private Request retrieve;
+  private Request update;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    MockitoAnnotations.openMocks(this);
+    interceptor =
+        new MetadataCacheInterceptor(new MetadataCache(MetadataCacheConfig.defaultConfig()));
+    retrieve =
+        new Request.Builder()
+            .url("https://api.coze.com/v1/bot/get_online_info?bot_id=1")
+            .tag(
+                Invocation.class,
+                Invocation.of(
+                    BotAPI.class.getMethod("retrieve", String.class, BaseReq.class),
+                    Collections.emptyList()))
+            .build();
+    update =
+        new Request.Builder()
+            .url("https://api.coze.com/v1/bot/update")
+            .post(RequestBody.create(MediaType.parse("application/json"), "{}"))
+            .tag(
+                Invocation.class,
+                Invocation.of(
+                    BotAPI.class.getMethod("update", UpdateBotReq.class, BaseReq.class),
+                    Collections.emptyList()))
+            .build();
+  }
+
+  private static Response response(Request request, int status, String body) {
+    return new Response.Builder()
+        .request(request)
+        .protocol(Protocol.HTTP_1_1)
+        .code(status)
+        .message("msg")
+        .body(ResponseBody.create(MediaType.parse("application/json"), body))
+        .build();
+  }
+
+  private String call(Request request) throws Exception {
+    when(chain.request()).thenReturn(request);
+    try (Response response = interceptor.intercept(chain)) {
+      return response.body().string();
+    }
+  }
+
+  @Test
+  void testReadThrough() throws Exception {
+    when(chain.proceed(retrieve))
+        .thenAnswer(inv -> response(retrieve, 200, "{\"code\":0,\"data\":{}}"));
+
+    assertEquals("{\"code\":0,\"data\":{}}", call(retrieve));
+    assertEquals("{\"code\":0,\"data\":{}}", call(retrieve));
+    verify(chain, times(1)).proceed(retrieve);
+    assertEquals(1, interceptor.cache().stats().getHits());
+  }
+
+  @Test
+  void testErrorsAreNotCached() throws Exception {
+    when(chain.proceed(retrieve)).thenAnswer(inv -> response(retrieve, 200, "{\"code\":4000}"));
+    call(retrieve);
+    when(chain.proceed(retrieve)).thenAnswer(inv -> response(retrieve, 500, "{\"code\":0}"));
+    call(retrieve);
+    call(retrieve);
+    verify(chain, times(3)).proceed(retrieve);
+  }
+
+  @Test
+  void testWriteInvalidates() throws Exception {
+    when(chain.proceed(retrieve)).thenAnswer(inv -> response(retrieve, 200, "{\"code\":0}"));
+    when(chain.proceed(update)).thenAnswer(inv -> response(update, 200, "{\"code\":0}"));
+
+    call(retrieve);
+    call(update);
+    call(retrieve);
+    verify(chain, times(2)).proceed(retrieve);
+    assertEquals(1, interceptor.cache().stats().getInvalidations());
+  }
+}
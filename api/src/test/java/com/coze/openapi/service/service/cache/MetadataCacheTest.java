@@ -0,0 +1,95 @@
+package com.coze.openapi.service.service.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+class MetadataCacheTest {
+
+  private static final Request REQUEST =
+      new Request.Builder().url("https://api.coze.com/v1/workspaces").build();
+
+  private static Response response() {
+    return new Response.Builder()
+        .request(REQUEST)
+        .protocol(Protocol.HTTP_1_1)
+        .code(200)
+        .message("OK")
+        .body(ResponseBody.create(MediaType.parse("application/json"), ""))
+        .build();
+  }
+
+  private static void put(MetadataCache cache, String key, MetadataResource resource) {
+    cache.put(key, resource, cache.generation(resource), response(), "{}".getBytes());
+  }
+
+  @Test
+  void testHitReturnsCopy() throws Exception {
+    MetadataCache cache = new MetadataCache(MetadataCacheConfig.defaultConfig());
+    assertNull(cache.get("a", REQUEST));
+    put(cache, "a", MetadataResource.WORKSPACES);
+
+    Response first = cache.get("a", REQUEST);
+    Response second = cache.get("a", REQUEST);
+    assertEquals("{}", first.body().string());
+    assertEquals("{}", second.body().string());
+    assertEquals(2, cache.stats().getHits());
+    assertEquals(1, cache.stats().getMisses());
+  }
+
+  @Test
+  void testLruEviction() {
+    MetadataCache cache = new MetadataCache(MetadataCacheConfig.builder().maxEntries(2).build());
+    put(cache, "a", MetadataResource.BOTS);
+    put(cache, "b", MetadataResource.BOTS);
+    assertNotNull(cache.get("a", REQUEST));
+    put(cache, "c", MetadataResource.BOTS);
+
+    // b 最久未被访问，被淘汰
+    assertNull(cache.get("b", REQUEST));
+    assertNotNull(cache.get("a", REQUEST));
+    assertNotNull(cache.get("c", REQUEST));
+    assertEquals(1, cache.stats().getEvictions());
+  }
+
+  @Test
+  void testExpiration() throws Exception {
+    MetadataCache cache =
+        new MetadataCache(
+            MetadataCacheConfig.builder().botsTtlMillis(20).voicesTtlMillis(0).build());
+    put(cache, "a", MetadataResource.BOTS);
+    put(cache, "b", MetadataResource.VOICES);
+    assertNull(cache.get("b", REQUEST));
+
+    Thread.sleep(50);
+    assertNull(cache.get("a", REQUEST));
+    assertEquals(1, cache.stats().getExpirations());
+    assertEquals(0, cache.stats().getSize());
+  }
+
+  @Test
+  void testInvalidate() {
+    MetadataCache cache = new MetadataCache(MetadataCacheConfig.defaultConfig());
+    put(cache, "a", MetadataResource.BOTS);
+    put(cache, "b", MetadataResource.DATASETS);
+    long generation = cache.generation(MetadataResource.BOTS);
+
+    cache.invalidate(MetadataResource.BOTS);
+    assertNull(cache.get("a", REQUEST));
+    assertNotNull(cache.get("b", REQUEST));
+
+    // 失效之前发出的读请求不能把旧数据写回缓存
+    cache.put("a", MetadataResource.BOTS, generation, response(), "{}".getBytes());
+    assertNull(cache.get("a", REQUEST));
+
+    cache.invalidateAll();
+    assertEquals(0, cache.stats().getSize());
+    assertEquals(2, cache.stats().getInvalidations());
+  }
+}
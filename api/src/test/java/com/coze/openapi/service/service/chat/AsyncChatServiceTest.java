@@ -0,0 +1,176 @@
+package com.coze.openapi.service.service.chat;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.coze.openapi.api.ChatAPI;
+import com.coze.openapi.api.ChatMessageAPI;
+import com.coze.openapi.client.chat.*;
+import com.coze.openapi.client.chat.model.Chat;
+import com.coze.openapi.client.chat.model.ChatPoll;
+import com.coze.openapi.client.chat.model.ChatStatus;
+import com.coze.openapi.client.common.BaseResponse;
+import com.coze.openapi.client.common.Deadline;
+import com.coze.openapi.service.service.common.DeadlineExceededException;
+import com.coze.openapi.utils.Utils;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+class AsyncChatServiceTest {
+
+  @Mock private ChatAPI chatAPI;
+
+  @Mock private ChatMessageAPI chatMessageAPI;
+
+  @Mock private Call<BaseResponse<Chat>> chatCall;
+
+  @Mock private Call<BaseResponse<Chat>> retrieveCall;
+  @Mock private Call<BaseResponse<Chat>> cancelCall;
+
+  private AsyncChatService chatService;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    chatService = new AsyncChatService(chatAPI, chatMessageAPI);
+  }
+
+  private static <T> void respondWith(Call<T> call, T body) {
+    doAnswer(
+            invocation -> {
+              Callback<T> cb = invocation.getArgument(0);
+              cb.onResponse(call, Response.success(body, Utils.getCommonHeader()));
+              return null;
+            })
+        .when(call)
+        .enqueue(any());
+  }
+
+  @Test
+  void testCreateAndPollCancelsWhenRetrieveExceedsDeadline() throws Exception {
+    String conversationID = "test_conversation_id";
+    String chatID = "test_chat_id";
+    CreateChatReq req =
+        CreateChatReq.builder()
+            .conversationID(conversationID)
+            .botID("test_bot_id")
+            .userID("test_user_id")
+            .build();
+    BaseResponse<Chat> inProgressResp =
+        BaseResponse.<Chat>builder()
+            .code(0)
+            .msg("success")
+            .logID(Utils.TEST_LOG_ID)
+            .data(
+                Chat.builder()
+                    .id(chatID)
+                    .conversationID(conversationID)
+                    .status(ChatStatus.IN_PROGRESS)
+                    .build())
+            .build();
+
+    when(chatAPI.chat(eq(conversationID), any(CreateChatReq.class), any(CreateChatReq.class)))
+        .thenReturn(chatCall);
+    respondWith(chatCall, inProgressResp);
+    when(chatAPI.retrieve(eq(conversationID), eq(chatID), any(RetrieveChatReq.class)))
+        .thenReturn(retrieveCall);
+    // 第一次轮询时还没到截止时间，retrieve 请求本身因截止时间到期而失败
+    doAnswer(
+            invocation -> {
+              Callback<BaseResponse<Chat>> cb = invocation.getArgument(0);
+              CompletableFuture.runAsync(
+                  () -> {
+                    try {
+                      TimeUnit.MILLISECONDS.sleep(
+                          req.getDeadline().remaining(TimeUnit.MILLISECONDS) + 50);
+                    } catch (InterruptedException e) {
+                      Thread.currentThread().interrupt();
+                    }
+                    cb.onFailure(retrieveCall, new DeadlineExceededException("deadline exceeded"));
+                  });
+              return null;
+            })
+        .when(retrieveCall)
+        .enqueue(any());
+    when(chatAPI.cancel(any(CancelChatReq.class), any(CancelChatReq.class))).thenReturn(cancelCall);
+    respondWith(cancelCall, inProgressResp);
+
+    // 截止时间晚于第一次轮询，定时检查不会先发现过期
+    req.setDeadline(Deadline.after(1500, TimeUnit.MILLISECONDS));
+    CompletableFuture<ChatPoll> future = chatService.createAndPoll(req);
+    ExecutionException e =
+        assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+    Throwable cause = e.getCause();
+    while (cause != null && !(cause instanceof DeadlineExceededException)) {
+      cause = cause.getCause();
+    }
+    assertNotNull(cause);
+
+    // 与同步版本一样，截止后取消服务端的对话，且只取消一次
+    verify(chatAPI, timeout(1000))
+        .cancel(argThat(cancel -> cancel.getDeadline() == null), any(CancelChatReq.class));
+    verify(chatAPI, times(1)).cancel(any(CancelChatReq.class), any(CancelChatReq.class));
+  }
+
+  @Test
+  void testCancelStopsPolling() throws Exception {
+    String conversationID = "test_conversation_id";
+    String chatID = "test_chat_id";
+    CreateChatReq req =
+        CreateChatReq.builder()
+            .conversationID(conversationID)
+            .botID("test_bot_id")
+            .userID("test_user_id")
+            .build();
+    BaseResponse<Chat> inProgressResp =
+        BaseResponse.<Chat>builder()
+            .code(0)
+            .msg("success")
+            .logID(Utils.TEST_LOG_ID)
+            .data(
+                Chat.builder()
+                    .id(chatID)
+                    .conversationID(conversationID)
+                    .status(ChatStatus.IN_PROGRESS)
+                    .build())
+            .build();
+
+    when(chatAPI.chat(eq(conversationID), any(CreateChatReq.class), any(CreateChatReq.class)))
+        .thenReturn(chatCall);
+    respondWith(chatCall, inProgressResp);
+    when(chatAPI.retrieve(eq(conversationID), eq(chatID), any(RetrieveChatReq.class)))
+        .thenReturn(retrieveCall);
+    // retrieve 请求一直没有响应
+    CountDownLatch retrieving = new CountDownLatch(1);
+    doAnswer(
+            invocation -> {
+              retrieving.countDown();
+              return null;
+            })
+        .when(retrieveCall)
+        .enqueue(any());
+
+    CompletableFuture<ChatPoll> future = chatService.createAndPoll(req);
+    assertTrue(retrieving.await(5, TimeUnit.SECONDS));
+    assertTrue(future.cancel(true));
+
+    // 取消传递到进行中的 retrieve 请求，之后也不再发起新的轮询
+    verify(retrieveCall, timeout(1000)).cancel();
+    TimeUnit.MILLISECONDS.sleep(1500);
+    verify(chatAPI, times(1)).retrieve(any(), any(), any());
+    verify(chatAPI, never()).cancel(any(), any());
+  }
+}
@@ -2,10 +2,13 @@ package com.coze.openapi.service.service.chat;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -21,7 +24,9 @@ import com.coze.openapi.client.chat.model.ChatPoll;
 import com.coze.openapi.client.chat.model.ChatStatus;
 import com.coze.openapi.client.chat.model.ToolOutput;
 import com.coze.openapi.client.common.BaseResponse;
+import com.coze.openapi.client.common.Deadline;
 import com.coze.openapi.client.connversations.message.model.Message;
+import com.coze.openapi.service.service.common.DeadlineExceededException;
 import com.coze.openapi.utils.Utils;
 
 import retrofit2.Call;
@@ -356,4 +361,54 @@ class ChatServiceTest {
 
     assertThrows(NullPointerException.class, () -> chatService.createAndPoll(req, null));
   }
+
+  @Test
+  void testCreateAndPollWithDeadline() throws Exception {
+    String conversationID = "test_conversation_id";
+    String chatID = "test_chat_id";
+    CreateChatReq req =
+        CreateChatReq.builder()
+            .conversationID(conversationID)
+            .botID("test_bot_id")
+            .userID("test_user_id")
+            .deadline(Deadline.after(1500, TimeUnit.MILLISECONDS))
+            .build();
+    BaseResponse<Chat> inProgressResp =
+        BaseResponse.<Chat>builder()
+            .code(0)
+            .msg("success")
+            .logID(Utils.TEST_LOG_ID)
+            .data(
+                Chat.builder()
+                    .id(chatID)
+                    .conversationID(conversationID)
+                    .status(ChatStatus.IN_PROGRESS)
+                    .build())
+            .build();
+
+    when(chatAPI.chat(eq(conversationID), any(CreateChatReq.class), any(CreateChatReq.class)))
+        .thenReturn(chatCall);
+    when(chatCall.execute()).thenReturn(Response.success(inProgressResp, Utils.getCommonHeader()));
+    when(chatAPI.retrieve(eq(conversationID), eq(chatID), any(RetrieveChatReq.class)))
+        .thenReturn(retrieveCall);
+    when(retrieveCall.execute())
+        .thenReturn(Response.success(inProgressResp, Utils.getCommonHeader()));
+    when(chatAPI.cancel(any(CancelChatReq.class), any(CancelChatReq.class))).thenReturn(cancelCall);
+    when(cancelCall.execute())
+        .thenReturn(Response.success(inProgressResp, Utils.getCommonHeader()));
+
+    long start = System.nanoTime();
+    assertThrows(DeadlineExceededException.class, () -> chatService.createAndPoll(req));
+    assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2500);
+
+    // 截止后取消服务端的对话，取消请求本身不受已过期的截止时间约束
+    verify(chatAPI)
+        .cancel(argThat(cancel -> cancel.getDeadline() == null), any(CancelChatReq.class));
+    // 轮询请求继承了截止时间
+    verify(chatAPI, atLeastOnce())
+        .retrieve(
+            eq(conversationID),
+            eq(chatID),
+            argThat(retrieve -> retrieve.getDeadline() == req.getDeadline()));
+  }
 }
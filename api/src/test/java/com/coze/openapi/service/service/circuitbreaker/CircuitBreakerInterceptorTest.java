@@ -0,0 +1,201 @@
+package com.coze.openapi.service.service.circuitbreaker;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.coze.openapi.api.ChatAPI;
+import com.coze.openapi.client.chat.CreateChatReq;
+import com.coze.openapi.client.common.BaseReq;
+import com.coze.openapi.service.service.ratelimit.RateLimitExceededException;
+
+import okhttp3.Call;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.Okio;
+import okio.Source;
+import okio.Timeout;
+import retrofit2.Invocation;
+
+class CircuitBreakerInterceptorTest {
+
+  @Mock private Interceptor.Chain chain;
+  @Mock private Call call;
+
+  private CircuitBreakerInterceptor interceptor;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    when(chain.call()).thenReturn(call);
+    interceptor =
+        new CircuitBreakerInterceptor(
+            CircuitBreakerConfig.builder()
+                .slidingWindowSize(4)
+                .minimumCalls(2)
+                .openDurationMillis(60000)
+                .build());
+  }
+
+  private static Request request(String methodName) throws Exception {
+    Invocation invocation =
+        Invocation.of(
+            ChatAPI.class.getMethod(methodName, String.class, CreateChatReq.class, BaseReq.class),
+            Collections.emptyList());
+    return new Request.Builder()
+        .url("https://api.coze.com/v3/chat")
+        .tag(Invocation.class, invocation)
+        .build();
+  }
+
+  private static Response response(Request request, int code, BufferedSource source) {
+    return new Response.Builder()
+        .request(request)
+        .protocol(Protocol.HTTP_1_1)
+        .code(code)
+        .message("msg")
+        .body(ResponseBody.create(MediaType.parse("text/event-stream"), -1, source))
+        .build();
+  }
+
+  private static Response response(Request request, int code) {
+    return response(request, code, new Buffer().writeUtf8("{}"));
+  }
+
+  @Test
+  void testOpensOnServerErrors() throws Exception {
+    Request request = request("chat");
+    when(chain.request()).thenReturn(request);
+    when(chain.proceed(request)).thenAnswer(invocation -> response(request, 503));
+
+    interceptor.intercept(chain).close();
+    interceptor.intercept(chain).close();
+
+    assertEquals(CircuitState.OPEN, interceptor.states().get("ChatAPI.chat"));
+    CircuitBreakerOpenException e =
+        assertThrows(CircuitBreakerOpenException.class, () -> interceptor.intercept(chain));
+    assertEquals("ChatAPI.chat", e.getEndpoint());
+    verify(chain, times(2)).proceed(request);
+  }
+
+  @Test
+  void testEndpointsAreSeparate() throws Exception {
+    Request unary = request("chat");
+    Request stream = request("stream");
+    when(chain.proceed(any())).thenThrow(new IOException("connection reset"));
+
+    when(chain.request()).thenReturn(unary);
+    assertThrows(IOException.class, () -> interceptor.intercept(chain));
+    assertThrows(IOException.class, () -> interceptor.intercept(chain));
+    assertThrows(CircuitBreakerOpenException.class, () -> interceptor.intercept(chain));
+
+    when(chain.request()).thenReturn(stream);
+    assertThrows(IOException.class, () -> interceptor.intercept(chain));
+    assertEquals(CircuitState.CLOSED, interceptor.states().get("ChatAPI.stream"));
+  }
+
+  @Test
+  void testRejectedAndCanceledCallsAreIgnored() throws Exception {
+    Request request = request("chat");
+    when(chain.request()).thenReturn(request);
+    when(chain.proceed(request)).thenThrow(new RateLimitExceededException("key"));
+    for (int i = 0; i < 3; i++) {
+      assertThrows(RateLimitExceededException.class, () -> interceptor.intercept(chain));
+    }
+
+    doThrow(new IOException("Canceled")).when(chain).proceed(request);
+    when(call.isCanceled()).thenReturn(true);
+    for (int i = 0; i < 3; i++) {
+      assertThrows(IOException.class, () -> interceptor.intercept(chain));
+    }
+    assertEquals(CircuitState.CLOSED, interceptor.states().get("ChatAPI.chat"));
+  }
+
+  @Test
+  void testRuntimeExceptionReleasesHalfOpenProbe() throws Exception {
+    interceptor =
+        new CircuitBreakerInterceptor(
+            CircuitBreakerConfig.builder()
+                .slidingWindowSize(4)
+                .minimumCalls(2)
+                .openDurationMillis(1)
+                .halfOpenProbes(1)
+                .build());
+    Request request = request("chat");
+    when(chain.request()).thenReturn(request);
+    when(chain.proceed(request)).thenThrow(new IOException("connection reset"));
+    assertThrows(IOException.class, () -> interceptor.intercept(chain));
+    assertThrows(IOException.class, () -> interceptor.intercept(chain));
+    assertEquals(CircuitState.OPEN, interceptor.states().get("ChatAPI.chat"));
+    Thread.sleep(10);
+
+    doThrow(new IllegalStateException("bug")).when(chain).proceed(request);
+    for (int i = 0; i < 3; i++) {
+      // 探测名额被归还，后续调用仍然能进入 half-open 探测
+      assertThrows(IllegalStateException.class, () -> interceptor.intercept(chain));
+    }
+    doReturn(response(request, 200)).when(chain).proceed(request);
+    interceptor.intercept(chain).close();
+    assertEquals(CircuitState.CLOSED, interceptor.states().get("ChatAPI.chat"));
+  }
+
+  @Test
+  void testStreamFailureIsRecordedWhenReading() throws Exception {
+    Request request = request("stream");
+    when(chain.request()).thenReturn(request);
+    when(chain.proceed(request))
+        .thenAnswer(invocation -> response(request, 200, Okio.buffer(new BrokenSource())));
+
+    for (int i = 0; i < 2; i++) {
+      Response response = interceptor.intercept(chain);
+      // 拿到响应头时还不记录结果
+      assertEquals(CircuitState.CLOSED, interceptor.states().get("ChatAPI.stream"));
+      assertThrows(IOException.class, () -> response.body().source().readUtf8Line());
+      response.close();
+    }
+    assertEquals(CircuitState.OPEN, interceptor.states().get("ChatAPI.stream"));
+  }
+
+  @Test
+  void testStreamSuccessIsRecordedOnClose() throws Exception {
+    Request request = request("stream");
+    when(chain.request()).thenReturn(request);
+    when(chain.proceed(request)).thenAnswer(invocation -> response(request, 200));
+
+    for (int i = 0; i < 4; i++) {
+      Response response = interceptor.intercept(chain);
+      assertEquals("{}", response.body().string());
+    }
+    when(chain.proceed(request)).thenAnswer(invocation -> response(request, 500));
+    interceptor.intercept(chain).close();
+    assertEquals(CircuitState.CLOSED, interceptor.states().get("ChatAPI.stream"));
+  }
+
+  private static final class BrokenSource implements Source {
+    @Override
+    public long read(Buffer sink, long byteCount) throws IOException {
+      throw new IOException("stream reset");
+    }
+
+    @Override
+    public Timeout timeout() {
+      return Timeout.NONE;
+    }
+
+    @Override
+    public void close() {}
+  }
+}
@@ -0,0 +1,120 @@
+package com.coze.openapi.service.service.circuitbreaker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakerTest {
+
+  private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+  private static final long SLOW = TimeUnit.SECONDS.toNanos(5);
+
+  private static CircuitBreaker breaker(long openDurationMillis) {
+    return new CircuitBreaker(
+        "BotAPI.list",
+        CircuitBreakerConfig.builder()
+            .slidingWindowSize(10)
+            .minimumCalls(4)
+            .failureRateThreshold(0.5)
+            .slowCallRateThreshold(0.75)
+            .slowCallDurationMillis(1000)
+            .openDurationMillis(openDurationMillis)
+            .halfOpenProbes(2)
+            .build());
+  }
+
+  private static void call(CircuitBreaker breaker, boolean success, long duration)
+      throws Exception {
+    breaker.acquire();
+    breaker.onResult(success, duration);
+  }
+
+  @Test
+  void testOpensOnFailureRate() throws Exception {
+    CircuitBreaker breaker = breaker(60000);
+    call(breaker, false, FAST);
+    call(breaker, false, FAST);
+    call(breaker, true, FAST);
+    // 调用数未达到 minimumCalls 前不熔断
+    assertEquals(CircuitState.CLOSED, breaker.state());
+
+    call(breaker, true, FAST);
+    assertEquals(CircuitState.OPEN, breaker.state());
+    CircuitBreakerOpenException e =
+        assertThrows(CircuitBreakerOpenException.class, breaker::acquire);
+    assertEquals("BotAPI.list", e.getEndpoint());
+    assertTrue(e.getRetryAfterMillis() > 0);
+  }
+
+  @Test
+  void testOpensOnSlowCallRate() throws Exception {
+    CircuitBreaker breaker = breaker(60000);
+    call(breaker, true, SLOW);
+    call(breaker, true, SLOW);
+    call(breaker, true, FAST);
+    call(breaker, true, SLOW);
+    assertEquals(CircuitState.OPEN, breaker.state());
+  }
+
+  @Test
+  void testOnlyRecentCallsCount() throws Exception {
+    CircuitBreaker breaker = breaker(60000);
+    for (int i = 0; i < 12; i++) {
+      call(breaker, true, FAST);
+    }
+    for (int i = 0; i < 4; i++) {
+      call(breaker, false, FAST);
+    }
+    assertEquals(CircuitState.CLOSED, breaker.state());
+    // 窗口内 10 次调用失败 5 次，早先的成功已被挤出窗口
+    call(breaker, false, FAST);
+    assertEquals(CircuitState.OPEN, breaker.state());
+  }
+
+  @Test
+  void testHalfOpenProbesClose() throws Exception {
+    CircuitBreaker breaker = breaker(0);
+    for (int i = 0; i < 4; i++) {
+      call(breaker, false, FAST);
+    }
+    assertEquals(CircuitState.OPEN, breaker.state());
+
+    breaker.acquire();
+    breaker.acquire();
+    assertEquals(CircuitState.HALF_OPEN, breaker.state());
+    // 探测名额用完后继续拒绝
+    assertThrows(CircuitBreakerOpenException.class, breaker::acquire);
+
+    breaker.onResult(true, FAST);
+    breaker.onResult(true, FAST);
+    assertEquals(CircuitState.CLOSED, breaker.state());
+    call(breaker, false, FAST);
+    assertEquals(CircuitState.CLOSED, breaker.state());
+  }
+
+  @Test
+  void testHalfOpenProbeFailureReopens() throws Exception {
+    CircuitBreaker breaker = breaker(0);
+    for (int i = 0; i < 4; i++) {
+      call(breaker, false, FAST);
+    }
+    breaker.acquire();
+    breaker.onResult(true, SLOW);
+    assertEquals(CircuitState.OPEN, breaker.state());
+  }
+
+  @Test
+  void testIgnoredProbeIsReturned() throws Exception {
+    CircuitBreaker breaker = breaker(0);
+    for (int i = 0; i < 4; i++) {
+      call(breaker, false, FAST);
+    }
+    breaker.acquire();
+    breaker.acquire();
+    breaker.onIgnored();
+    breaker.acquire();
+    assertEquals(CircuitState.HALF_OPEN, breaker.state());
+  }
+}
@@ -0,0 +1,234 @@
+package com.coze.openapi.service.service.coalescing;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.coze.openapi.client.common.BaseReq;
+import com.coze.openapi.service.auth.TokenAuth;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+class CoalescingCallFactoryTest {
+
+  @Mock private Call.Factory delegate;
+
+  private final List<Call> calls = new CopyOnWriteArrayList<>();
+  private final List<Callback> callbacks = new CopyOnWriteArrayList<>();
+  private CoalescingCallFactory factory;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    when(delegate.newCall(any()))
+        .thenAnswer(
+            inv -> {
+              Call call = mock(Call.class);
+              doAnswer(
+                      enqueue -> {
+                        callbacks.add(enqueue.getArgument(0));
+                        return null;
+                      })
+                  .when(call)
+                  .enqueue(any());
+              calls.add(call);
+              return call;
+            });
+    factory = new CoalescingCallFactory(delegate);
+  }
+
+  private static Request get(String botID) {
+    return new Request.Builder()
+        .url("https://api.coze.com/v1/bot/get_online_info?bot_id=" + botID)
+        .build();
+  }
+
+  private static Response response(Request request, String body) {
+    return new Response.Builder()
+        .request(request)
+        .protocol(Protocol.HTTP_1_1)
+        .code(200)
+        .message("OK")
+        .body(ResponseBody.create(MediaType.parse("application/json"), body))
+        .build();
+  }
+
+  @Test
+  void testIdenticalCallsShareOneRoundTrip() throws Exception {
+    Callback first = mock(Callback.class);
+    Callback second = mock(Callback.class);
+    Call call1 = factory.newCall(get("1"));
+    Call call2 = factory.newCall(get("1"));
+    call1.enqueue(first);
+    call2.enqueue(second);
+
+    assertEquals(1, calls.size());
+    assertEquals(1, factory.inflight());
+    callbacks.get(0).onResponse(calls.get(0), response(get("1"), "{\"code\":0}"));
+
+    ArgumentCaptor<Response> r1 = ArgumentCaptor.forClass(Response.class);
+    ArgumentCaptor<Response> r2 = ArgumentCaptor.forClass(Response.class);
+    verify(first).onResponse(same(call1), r1.capture());
+    verify(second).onResponse(same(call2), r2.capture());
+    // 每个调用方拿到各自可读的 body
+    assertEquals("{\"code\":0}", r1.getValue().body().string());
+    assertEquals("{\"code\":0}", r2.getValue().body().string());
+    assertEquals(0, factory.inflight());
+
+    // 请求结束后再调用会重新发起
+    factory.newCall(get("1")).enqueue(mock(Callback.class));
+    assertEquals(2, calls.size());
+  }
+
+  @Test
+  @Timeout(5)
+  void testExecuteRunsLeaderOnCallingThread() throws Exception {
+    Call leader = factory.newCall(get("1"));
+    Callback follower = mock(Callback.class);
+    Call call2 = factory.newCall(get("1"));
+    Thread caller = Thread.currentThread();
+    CountDownLatch joined = new CountDownLatch(1);
+    // 原请求在调用线程上执行，执行期间加入的调用共享它的结果
+    doAnswer(
+            inv -> {
+              Call call = mock(Call.class);
+              when(call.execute())
+                  .thenAnswer(
+                      execute -> {
+                        assertSame(caller, Thread.currentThread());
+                        CompletableFuture.runAsync(
+                            () -> {
+                              call2.enqueue(follower);
+                              joined.countDown();
+                            });
+                        assertTrue(joined.await(5, TimeUnit.SECONDS));
+                        return response(get("1"), "{\"code\":0}");
+                      });
+              calls.add(call);
+              return call;
+            })
+        .when(delegate)
+        .newCall(any());
+
+    try (Response response = leader.execute()) {
+      assertEquals("{\"code\":0}", response.body().string());
+    }
+    assertEquals(1, calls.size());
+    verify(calls.get(0), never()).enqueue(any());
+    ArgumentCaptor<Response> shared = ArgumentCaptor.forClass(Response.class);
+    verify(follower).onResponse(same(call2), shared.capture());
+    assertEquals("{\"code\":0}", shared.getValue().body().string());
+  }
+
+  @Test
+  void testDifferentCallsAreNotShared() {
+    factory.newCall(get("1")).enqueue(mock(Callback.class));
+    factory.newCall(get("2")).enqueue(mock(Callback.class));
+    assertEquals(2, calls.size());
+
+    Request post =
+        new Request.Builder()
+            .url("https://api.coze.com/v1/bot/get_online_info?bot_id=1")
+            .post(RequestBody.create(MediaType.parse("application/json"), "{}"))
+            .build();
+    assertSame(factory.newCall(post), calls.get(2));
+  }
+
+  @Test
+  void testTenantsAreNotShared() {
+    for (String token : new String[] {"tenant-a", "tenant-b"}) {
+      BaseReq baseReq = new TokenAuth(token).attach(BaseReq.builder().build());
+      factory
+          .newCall(get("1").newBuilder().tag(BaseReq.class, baseReq).build())
+          .enqueue(mock(Callback.class));
+    }
+    assertEquals(2, calls.size());
+  }
+
+  @Test
+  void testKeyDistinguishesCredentialInstances() {
+    // 同一个 token 的两个 Auth 实例也不共享，只有同一个实例才合并
+    TokenAuth auth = new TokenAuth("tenant");
+    Request first =
+        get("1").newBuilder().tag(BaseReq.class, auth.attach(BaseReq.builder().build())).build();
+    Request same =
+        get("1").newBuilder().tag(BaseReq.class, auth.attach(BaseReq.builder().build())).build();
+    Request other =
+        get("1")
+            .newBuilder()
+            .tag(BaseReq.class, new TokenAuth("tenant").attach(BaseReq.builder().build()))
+            .build();
+    assertEquals(CoalescingCallFactory.key(first), CoalescingCallFactory.key(same));
+    assertNotEquals(CoalescingCallFactory.key(first), CoalescingCallFactory.key(other));
+    // Authorization 头在这一层还没有设置，只按凭证实例区分
+    assertEquals(
+        CoalescingCallFactory.key(first),
+        CoalescingCallFactory.key(first.newBuilder().header("Authorization", "Bearer x").build()));
+  }
+
+  @Test
+  void testCancelIsReferenceCounted() throws Exception {
+    Callback first = mock(Callback.class);
+    Callback second = mock(Callback.class);
+    Call call1 = factory.newCall(get("1"));
+    Call call2 = factory.newCall(get("1"));
+    call1.enqueue(first);
+    call2.enqueue(second);
+
+    call1.cancel();
+    verify(first).onFailure(same(call1), any(IOException.class));
+    verify(calls.get(0), never()).cancel();
+
+    callbacks.get(0).onResponse(calls.get(0), response(get("1"), "{}"));
+    verify(second).onResponse(same(call2), any());
+    verify(first, never()).onResponse(any(), any());
+  }
+
+  @Test
+  void testLastCancelCancelsRoundTrip() {
+    Call call1 = factory.newCall(get("1"));
+    Call call2 = factory.newCall(get("1"));
+    call1.enqueue(mock(Callback.class));
+    call2.enqueue(mock(Callback.class));
+
+    call1.cancel();
+    call2.cancel();
+    verify(calls.get(0)).cancel();
+    assertEquals(0, factory.inflight());
+  }
+
+  @Test
+  void testFailureIsShared() {
+    Callback first = mock(Callback.class);
+    Callback second = mock(Callback.class);
+    Call call1 = factory.newCall(get("1"));
+    Call call2 = factory.newCall(get("1"));
+    call1.enqueue(first);
+    call2.enqueue(second);
+
+    IOException error = new IOException("connection reset");
+    callbacks.get(0).onFailure(calls.get(0), error);
+    verify(first).onFailure(call1, error);
+    verify(second).onFailure(call2, error);
+  }
+}
@@ -0,0 +1,102 @@
+package com.coze.openapi.service.service.codec;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.coze.openapi.client.common.BaseResponse;
+import com.coze.openapi.client.connversations.message.model.Message;
+import com.coze.openapi.client.connversations.message.model.MessageRole;
+import com.coze.openapi.service.utils.Utils;
+import com.fasterxml.jackson.core.type.TypeReference;
+
+class JacksonCodecTest {
+  private static final String MESSAGE =
+      "{\"id\":\"message-1\",\"role\":\"assistant\",\"content\":\"hi\",\"unknown\":1}";
+
+  @Test
+  void testReadersAndWritersAreBuiltOncePerType() throws Exception {
+    JacksonCodec codec = new JacksonCodec(Utils.getMapper());
+    codec.prepare(Arrays.asList(Message.class));
+
+    assertSame(codec.reader(Message.class), codec.reader(Message.class));
+    assertSame(codec.writer(Message.class), codec.writer(Message.class));
+
+    Message message = codec.decode(MESSAGE, Message.class);
+    assertEquals("message-1", message.getId());
+    assertEquals(MessageRole.ASSISTANT, message.getRole());
+    // null 字段不输出
+    assertEquals(Utils.getMapper().writeValueAsString(message), codec.encode(message));
+    assertFalse(codec.encode(message).contains("null"));
+  }
+
+  @Test
+  void testGenericTypeFromStreamLeavesItOpen() throws Exception {
+    JacksonCodec codec = new JacksonCodec(Utils.getMapper());
+    Type type = new TypeReference<BaseResponse<Message>>() {}.getType();
+    AtomicInteger closes = new AtomicInteger();
+    InputStream in =
+        new ByteArrayInputStream(
+            ("{\"code\":0,\"msg\":\"\",\"data\":" + MESSAGE + "}")
+                .getBytes(StandardCharsets.UTF_8)) {
+          @Override
+          public void close() {
+            closes.incrementAndGet();
+          }
+        };
+
+    BaseResponse<Message> resp = codec.decode(in, type);
+
+    assertEquals("message-1", resp.getData().getId());
+    assertEquals(0, closes.get());
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    codec.encode(resp, type, out);
+    out.write('!');
+    assertTrue(out.toString("UTF-8").endsWith("}!"));
+  }
+
+  @Test
+  void testUtilsUseTheCodecInUse() {
+    JsonCodec previous = JsonCodecs.get();
+    JsonCodecs.set(
+        new JsonCodec() {
+          @Override
+          public <T> T decode(String json, Class<T> type) throws IOException {
+            throw new IOException("decode " + json);
+          }
+
+          @Override
+          public <T> T decode(InputStream in, Type type) {
+            throw new UnsupportedOperationException();
+          }
+
+          @Override
+          public String encode(Object value) {
+            return "encoded";
+          }
+
+          @Override
+          public void encode(Object value, Type type, OutputStream out) {
+            throw new UnsupportedOperationException();
+          }
+        });
+    try {
+      assertEquals("encoded", Utils.toJson(Message.builder().build()));
+      RuntimeException e = assertThrows(RuntimeException.class, () -> Message.fromJson("{}"));
+      assertEquals("decode {}", e.getCause().getMessage());
+    } finally {
+      JsonCodecs.set(previous);
+    }
+  }
+}
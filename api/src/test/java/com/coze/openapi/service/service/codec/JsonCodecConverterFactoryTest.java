@@ -0,0 +1,147 @@
+package com.coze.openapi.service.service.codec;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.coze.openapi.client.connversations.message.CreateMessageReq;
+import com.coze.openapi.client.connversations.message.model.MessageContentType;
+import com.coze.openapi.client.connversations.message.model.MessageRole;
+import com.coze.openapi.service.auth.TokenAuth;
+import com.coze.openapi.service.service.CozeAPI;
+import com.coze.openapi.service.utils.Utils;
+import com.sun.net.httpserver.HttpServer;
+
+import okhttp3.RequestBody;
+import okio.Buffer;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+class JsonCodecConverterFactoryTest {
+  private HttpServer server;
+  private final List<String> transferEncodings = Collections.synchronizedList(new ArrayList<>());
+  private final List<String> contentLengths = Collections.synchronizedList(new ArrayList<>());
+  private final List<String> bodies = Collections.synchronizedList(new ArrayList<>());
+
+  @BeforeEach
+  void setUp() throws Exception {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext(
+        "/v1/conversation/message/create",
+        exchange -> {
+          transferEncodings.add(exchange.getRequestHeaders().getFirst("Transfer-Encoding"));
+          contentLengths.add(exchange.getRequestHeaders().getFirst("Content-Length"));
+          bodies.add(readAll(exchange.getRequestBody()));
+          byte[] reply =
+              "{\"code\":0,\"msg\":\"\",\"data\":{\"id\":\"message-1\"}}"
+                  .getBytes(StandardCharsets.UTF_8);
+          exchange.getResponseHeaders().add("Content-Type", "application/json");
+          exchange.sendResponseHeaders(200, reply.length);
+          try (OutputStream out = exchange.getResponseBody()) {
+            out.write(reply);
+          }
+        });
+    server.start();
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.stop(0);
+  }
+
+  private static String readAll(InputStream in) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buf = new byte[8192];
+    int n;
+    while ((n = in.read(buf)) > 0) {
+      out.write(buf, 0, n);
+    }
+    return new String(out.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+  private static CreateMessageReq message() {
+    return CreateMessageReq.builder()
+        .conversationID("conversation-1")
+        .role(MessageRole.USER)
+        .content("hello")
+        .contentType(MessageContentType.TEXT)
+        .build();
+  }
+
+  // streaming 为 null 时使用默认设置
+  private String create(Boolean streaming) {
+    CozeAPI.Builder builder =
+        new CozeAPI.Builder()
+            .baseURL("http://127.0.0.1:" + server.getAddress().getPort())
+            .auth(new TokenAuth("token"));
+    if (streaming != null) {
+      builder.streamingRequestBodies(streaming);
+    }
+    CozeAPI api = builder.build();
+    try {
+      return api.conversations().messages().create(message()).getMessage().getId();
+    } finally {
+      api.shutdownExecutor();
+    }
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testBodyIsWrittenIntoTheSink() throws Exception {
+    JsonCodecConverterFactory factory = JsonCodecConverterFactory.create(JsonCodecs.get(), true);
+    Converter<CreateMessageReq, RequestBody> converter =
+        (Converter<CreateMessageReq, RequestBody>)
+            factory.requestBodyConverter(
+                CreateMessageReq.class,
+                new Annotation[0],
+                new Annotation[0],
+                new Retrofit.Builder().baseUrl("http://localhost/").build());
+    RequestBody body = converter.convert(message());
+
+    assertEquals(-1, body.contentLength());
+    assertEquals("application/json; charset=UTF-8", body.contentType().toString());
+    assertFalse(body.isOneShot());
+
+    Buffer first = new Buffer();
+    body.writeTo(first);
+    // 重试时从请求对象重新序列化，内容相同；sink 不会被关闭
+    body.writeTo(first);
+    String json = Utils.toJson(message());
+    assertEquals(json + json, first.readUtf8());
+  }
+
+  @Test
+  void testStreamedAndBufferedBodies() {
+    assertEquals("message-1", create(true));
+    assertEquals("message-1", create(false));
+
+    assertEquals("chunked", transferEncodings.get(0));
+    assertNull(contentLengths.get(0));
+    assertNull(transferEncodings.get(1));
+    assertEquals(String.valueOf(bodies.get(1).length()), contentLengths.get(1));
+    assertEquals(bodies.get(1), bodies.get(0));
+    assertTrue(bodies.get(0).contains("\"content\":\"hello\""));
+  }
+
+  @Test
+  void testBodiesAreBufferedByDefault() {
+    assertEquals("message-1", create(null));
+
+    // 默认带 Content-Length 发送，不要求代理支持 chunked 请求
+    assertNull(transferEncodings.get(0));
+    assertEquals(String.valueOf(bodies.get(0).length()), contentLengths.get(0));
+  }
+}
@@ -6,10 +6,12 @@ import static org.mockito.Mockito.*;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
@@ -43,6 +45,12 @@ class AbstractChatEventCallbackTest {
       this.latch = latch;
     }
 
+    public TestEventCallback(
+        FlowableEmitter<String> emitter, CountDownLatch latch, ExecutorService executor) {
+      super(emitter, executor);
+      this.latch = latch;
+    }
+
     @Override
     protected boolean processLine(String line, BufferedReader reader, String logID) {
       emitter.onNext(line);
@@ -89,7 +97,8 @@ class AbstractChatEventCallbackTest {
     verify(emitter).onNext("test line 1");
     verify(emitter).onNext("test line 2");
     verify(emitter).onNext(" done");
-    verify(emitter).onComplete();
+    // latch 在处理最后一行时释放，onComplete 随后在 stream worker 上调用
+    verify(emitter, timeout(1000)).onComplete();
   }
 
   @Test
@@ -227,4 +236,70 @@ class AbstractChatEventCallbackTest {
     verify(emitter, never()).onError(any());
     verify(emitter).onComplete();
   }
+
+  @Test
+  void testSharedStreamExecutorKeepsOrder() throws InterruptedException {
+    ExecutorService executor = StreamExecutors.newStreamExecutor(2);
+    try {
+      @SuppressWarnings("unchecked")
+      FlowableEmitter<String> otherEmitter = mock(FlowableEmitter.class);
+      when(otherEmitter.isCancelled()).thenReturn(Boolean.valueOf(false));
+      CountDownLatch sharedLatch = new CountDownLatch(2);
+      TestEventCallback first = new TestEventCallback(emitter, sharedLatch, executor);
+      TestEventCallback second = new TestEventCallback(otherEmitter, sharedLatch, executor);
+
+      first.onResponse(
+          call,
+          Response.success(
+              ResponseBody.create(MediaType.parse("text/event-stream"), "a1\na2\na done\n")));
+      second.onResponse(
+          call,
+          Response.success(
+              ResponseBody.create(MediaType.parse("text/event-stream"), "b1\nb2\nb done\n")));
+
+      assertTrue(sharedLatch.await(ASYNC_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+      InOrder firstOrder = inOrder(emitter);
+      firstOrder.verify(emitter).onNext("a1");
+      firstOrder.verify(emitter).onNext("a2");
+      firstOrder.verify(emitter).onNext("a done");
+      InOrder secondOrder = inOrder(otherEmitter);
+      secondOrder.verify(otherEmitter).onNext("b1");
+      secondOrder.verify(otherEmitter).onNext("b2");
+      secondOrder.verify(otherEmitter).onNext("b done");
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void testStreamIsRejectedWhenAllWorkersAreBusy() throws InterruptedException {
+    ExecutorService executor = StreamExecutors.newStreamExecutor(1);
+    CountDownLatch release = new CountDownLatch(1);
+    try {
+      // 唯一的 worker 被另一个 stream 占用
+      executor.execute(
+          () -> {
+            try {
+              release.await();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          });
+      ResponseBody body =
+          spy(ResponseBody.create(MediaType.parse("text/event-stream"), "a1\na done\n"));
+      TestEventCallback rejected = new TestEventCallback(emitter, latch, executor);
+
+      rejected.onResponse(call, Response.success(body));
+
+      // 不排队等待，立即失败并关闭 body
+      assertTrue(latch.await(ASYNC_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+      verify(emitter).onError(isA(RequestRejectedException.class));
+      verify(emitter, never()).onNext(anyString());
+      verify(body).close();
+    } finally {
+      release.countDown();
+      executor.shutdownNow();
+    }
+  }
 }
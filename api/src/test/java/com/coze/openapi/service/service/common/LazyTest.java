@@ -0,0 +1,84 @@
+package com.coze.openapi.service.service.common;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class LazyTest {
+
+  @Test
+  void testCreatedOnFirstAccess() {
+    AtomicInteger created = new AtomicInteger();
+    Lazy<Object> lazy =
+        Lazy.of(
+            () -> {
+              created.incrementAndGet();
+              return new Object();
+            });
+
+    assertFalse(lazy.isInitialized());
+    assertEquals(0, created.get());
+    Object value = lazy.get();
+    assertTrue(lazy.isInitialized());
+    assertSame(value, lazy.get());
+    assertEquals(1, created.get());
+  }
+
+  @Test
+  void testCreatedOnceUnderContention() throws Exception {
+    AtomicInteger created = new AtomicInteger();
+    Lazy<Object> lazy =
+        Lazy.of(
+            () -> {
+              created.incrementAndGet();
+              return new Object();
+            });
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<Object>> results = new ArrayList<>();
+    try {
+      for (int i = 0; i < 32; i++) {
+        results.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  return lazy.get();
+                }));
+      }
+      start.countDown();
+      Object first = results.get(0).get(5, TimeUnit.SECONDS);
+      for (Future<Object> result : results) {
+        assertSame(first, result.get(5, TimeUnit.SECONDS));
+      }
+      assertEquals(1, created.get());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void testFailedCreationIsRetried() {
+    AtomicInteger attempts = new AtomicInteger();
+    Lazy<String> lazy =
+        Lazy.of(
+            () -> {
+              if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("first attempt fails");
+              }
+              return "ok";
+            });
+
+    assertThrows(IllegalStateException.class, lazy::get);
+    assertFalse(lazy.isInitialized());
+    assertEquals("ok", lazy.get());
+  }
+}
@@ -0,0 +1,173 @@
+package com.coze.openapi.service.service.compression;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.coze.openapi.api.ChatAPI;
+import com.coze.openapi.client.chat.CreateChatReq;
+import com.coze.openapi.client.common.BaseReq;
+import com.sun.net.httpserver.HttpServer;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.BufferedSink;
+import retrofit2.Invocation;
+
+class GzipRequestInterceptorTest {
+
+  private static final MediaType JSON = MediaType.parse("application/json");
+
+  private HttpServer server;
+  private GzipRequestInterceptor interceptor;
+  private OkHttpClient client;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    // 本地替身服务：按 Content-Encoding 解压后返回 "<encoding> <body>"
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext(
+        "/",
+        exchange -> {
+          String encoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+          InputStream in = exchange.getRequestBody();
+          if ("gzip".equals(encoding)) {
+            in = new GZIPInputStream(in);
+          }
+          byte[] body = readAll(in);
+          byte[] reply =
+              ((encoding == null ? "identity" : encoding)
+                      + " "
+                      + new String(body, StandardCharsets.UTF_8))
+                  .getBytes(StandardCharsets.UTF_8);
+          exchange.sendResponseHeaders(200, reply.length);
+          exchange.getResponseBody().write(reply);
+          exchange.close();
+        });
+    server.start();
+    interceptor =
+        new GzipRequestInterceptor(
+            RequestCompressionConfig.builder()
+                .minBytes(1024)
+                .endpoints(Collections.singleton("ChatAPI.chat"))
+                .build());
+    client = new OkHttpClient.Builder().addInterceptor(interceptor).build();
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.stop(0);
+  }
+
+  private static byte[] readAll(InputStream in) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buf = new byte[8192];
+    int n;
+    while ((n = in.read(buf)) > 0) {
+      out.write(buf, 0, n);
+    }
+    return out.toByteArray();
+  }
+
+  private String post(String methodName, RequestBody body) throws Exception {
+    Request.Builder builder =
+        new Request.Builder().url("http://127.0.0.1:" + server.getAddress().getPort() + "/v3/chat");
+    if (methodName != null) {
+      builder.tag(
+          Invocation.class,
+          Invocation.of(
+              ChatAPI.class.getMethod(methodName, String.class, CreateChatReq.class, BaseReq.class),
+              Collections.emptyList()));
+    }
+    try (Response response = client.newCall(builder.post(body).build()).execute()) {
+      return response.body().string();
+    }
+  }
+
+  private static String messages(int count) {
+    StringBuilder sb = new StringBuilder("{\"additional_messages\":[");
+    for (int i = 0; i < count; i++) {
+      sb.append(i == 0 ? "" : ",")
+          .append("{\"role\":\"user\",\"content\":\"message ")
+          .append(i)
+          .append("\"}");
+    }
+    return sb.append("]}").toString();
+  }
+
+  @Test
+  void testLargeBodyIsCompressed() throws Exception {
+    String json = messages(500);
+    assertEquals("gzip " + json, post("chat", RequestBody.create(JSON, json)));
+
+    RequestCompressionStats stats = interceptor.stats();
+    assertEquals(1, stats.getCompressed());
+    assertEquals(json.length(), stats.getOriginalBytes());
+    assertTrue(stats.getSavedBytes() > json.length() / 2);
+  }
+
+  @Test
+  void testSmallBodyAndOtherEndpointsAreSentAsIs() throws Exception {
+    String small = messages(1);
+    assertEquals("identity " + small, post("chat", RequestBody.create(JSON, small)));
+
+    String large = messages(500);
+    assertEquals("identity " + large, post("stream", RequestBody.create(JSON, large)));
+    assertEquals("identity " + large, post(null, RequestBody.create(JSON, large)));
+    assertEquals(0, interceptor.stats().getCompressed());
+  }
+
+  @Test
+  void testIncompressibleBodyIsSentAsIs() throws Exception {
+    byte[] random = new byte[4096];
+    new Random(42).nextBytes(random);
+    assertTrue(post("chat", RequestBody.create(JSON, random)).startsWith("identity "));
+    assertEquals(0, interceptor.stats().getCompressed());
+    assertEquals(1, interceptor.stats().getSkipped());
+  }
+
+  @Test
+  void testBodyOfUnknownLength() throws Exception {
+    String small = messages(1);
+    String large = messages(500);
+
+    // 流式 JSON body 没有 Content-Length，写出来之后按实际大小判断
+    assertEquals("identity " + small, post("chat", unknownLength(small)));
+    assertEquals("gzip " + large, post("chat", unknownLength(large)));
+    assertEquals(1, interceptor.stats().getCompressed());
+    assertEquals(large.length(), interceptor.stats().getOriginalBytes());
+  }
+
+  private static RequestBody unknownLength(String json) {
+    return new RequestBody() {
+      @Override
+      public MediaType contentType() {
+        return JSON;
+      }
+
+      @Override
+      public long contentLength() {
+        return -1;
+      }
+
+      @Override
+      public void writeTo(BufferedSink sink) throws IOException {
+        sink.writeUtf8(json);
+      }
+    };
+  }
+}
@@ -0,0 +1,263 @@
+package com.coze.openapi.service.service.hedging;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.coze.openapi.api.BotAPI;
+import com.coze.openapi.client.common.BaseReq;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import retrofit2.Invocation;
+
+class HedgingCallFactoryTest {
+
+  @Mock private Call.Factory delegate;
+  @Mock private Callback callback;
+
+  private final List<Call> calls = new CopyOnWriteArrayList<>();
+  private final List<Callback> callbacks = new CopyOnWriteArrayList<>();
+  private Request request;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    MockitoAnnotations.openMocks(this);
+    Invocation invocation =
+        Invocation.of(
+            BotAPI.class.getMethod("retrieve", String.class, BaseReq.class),
+            Collections.emptyList());
+    request =
+        new Request.Builder()
+            .url("https://api.coze.com/v1/bot/get_online_info")
+            .tag(Invocation.class, invocation)
+            .build();
+    when(delegate.newCall(any()))
+        .thenAnswer(
+            inv -> {
+              Call call = mock(Call.class);
+              doAnswer(
+                      enqueue -> {
+                        callbacks.add(enqueue.getArgument(0));
+                        return null;
+                      })
+                  .when(call)
+                  .enqueue(any());
+              calls.add(call);
+              return call;
+            });
+  }
+
+  private Response response() {
+    return new Response.Builder()
+        .request(request)
+        .protocol(Protocol.HTTP_1_1)
+        .code(200)
+        .message("OK")
+        .body(ResponseBody.create(MediaType.parse("application/json"), "{}"))
+        .build();
+  }
+
+  // 对冲请求在另一个线程上创建并 enqueue，等它的回调注册完成
+  private void awaitCallbacks(int n) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 1000;
+    while (callbacks.size() < n && System.currentTimeMillis() < deadline) {
+      Thread.sleep(5);
+    }
+    assertEquals(n, callbacks.size());
+  }
+
+  private static HedgingConfig.HedgingConfigBuilder config(long delayMillis) {
+    return HedgingConfig.builder().initialDelayMillis(delayMillis).delayPercentile(0);
+  }
+
+  @Test
+  void testOtherEndpointsAreNotHedged() {
+    HedgingCallFactory factory = new HedgingCallFactory(delegate, config(0).build());
+    Request other =
+        new Request.Builder().url("https://api.coze.com/v1/bot/get_online_info").build();
+
+    Call call = factory.newCall(other);
+    assertSame(calls.get(0), call);
+    assertEquals(0, factory.stats().getCalls());
+  }
+
+  @Test
+  void testFastPrimaryIsNotHedged() throws Exception {
+    HedgingCallFactory factory = new HedgingCallFactory(delegate, config(60000).build());
+    Call call = factory.newCall(request);
+    call.enqueue(callback);
+
+    Response response = response();
+    callbacks.get(0).onResponse(calls.get(0), response);
+
+    verify(callback).onResponse(call, response);
+    assertEquals(1, calls.size());
+    assertEquals(1, factory.stats().getCalls());
+    assertEquals(0, factory.stats().getHedged());
+  }
+
+  @Test
+  void testHedgeWins() throws Exception {
+    HedgingCallFactory factory = new HedgingCallFactory(delegate, config(0).build());
+    Call call = factory.newCall(request);
+    call.enqueue(callback);
+    awaitCallbacks(2);
+
+    Response response = response();
+    callbacks.get(1).onResponse(calls.get(1), response);
+    verify(callback).onResponse(call, response);
+    verify(calls.get(0)).cancel();
+
+    // 被取消的原请求后续的结果被忽略
+    callbacks.get(0).onFailure(calls.get(0), new IOException("Canceled"));
+    verify(callback, never()).onFailure(any(), any());
+    assertEquals(1, factory.stats().getHedgeWins());
+    assertEquals(0, factory.stats().getHedgeLosses());
+  }
+
+  @Test
+  void testFailureWaitsForOtherAttempt() throws Exception {
+    HedgingCallFactory factory = new HedgingCallFactory(delegate, config(0).build());
+    Call call = factory.newCall(request);
+    call.enqueue(callback);
+    awaitCallbacks(2);
+
+    callbacks.get(1).onFailure(calls.get(1), new IOException("connection reset"));
+    verify(callback, never()).onFailure(any(), any());
+
+    Response response = response();
+    callbacks.get(0).onResponse(calls.get(0), response);
+    verify(callback).onResponse(call, response);
+    assertEquals(1, factory.stats().getHedgeLosses());
+  }
+
+  @Test
+  @Timeout(5)
+  void testExecuteRunsPrimaryOnCallingThread() throws Exception {
+    HedgingCallFactory factory = new HedgingCallFactory(delegate, config(60000).build());
+    Call call = factory.newCall(request);
+    Response response = response();
+    Thread caller = Thread.currentThread();
+    when(calls.get(0).execute())
+        .thenAnswer(
+            inv -> {
+              assertSame(caller, Thread.currentThread());
+              return response;
+            });
+
+    assertSame(response, call.execute());
+    // 原请求不经过 dispatcher
+    verify(calls.get(0), never()).enqueue(any());
+    assertEquals(1, calls.size());
+    assertEquals(1, factory.stats().getCalls());
+  }
+
+  @Test
+  void testExecuteHedgeWins() throws Exception {
+    HedgingCallFactory factory = new HedgingCallFactory(delegate, config(0).build());
+    Call call = factory.newCall(request);
+    CountDownLatch canceled = new CountDownLatch(1);
+    doAnswer(
+            inv -> {
+              canceled.countDown();
+              return null;
+            })
+        .when(calls.get(0))
+        .cancel();
+    when(calls.get(0).execute())
+        .thenAnswer(
+            inv -> {
+              assertTrue(canceled.await(5, TimeUnit.SECONDS));
+              throw new IOException("Canceled");
+            });
+
+    CompletableFuture<Response> result =
+        CompletableFuture.supplyAsync(
+            () -> {
+              try {
+                return call.execute();
+              } catch (IOException e) {
+                throw new RuntimeException(e);
+              }
+            });
+    // 只有对冲请求被 enqueue
+    awaitCallbacks(1);
+    Response response = response();
+    callbacks.get(0).onResponse(calls.get(1), response);
+
+    assertSame(response, result.get(5, TimeUnit.SECONDS));
+    assertEquals(1, factory.stats().getHedgeWins());
+  }
+
+  @Test
+  void testBudgetExhausted() throws Exception {
+    HedgingCallFactory factory =
+        new HedgingCallFactory(delegate, config(0).budgetRatio(0).budgetMaxTokens(1).build());
+    factory.newCall(request).enqueue(callback);
+    verify(delegate, timeout(1000).times(2)).newCall(request);
+
+    factory.newCall(request).enqueue(callback);
+    verify(delegate, timeout(1000).times(3)).newCall(request);
+    Thread.sleep(50);
+    assertEquals(3, calls.size());
+    assertEquals(1, factory.stats().getHedged());
+    assertEquals(1, factory.stats().getBudgetRejected());
+  }
+
+  @Test
+  void testCancel() throws Exception {
+    HedgingCallFactory factory = new HedgingCallFactory(delegate, config(60000).build());
+    Call call = factory.newCall(request);
+    call.enqueue(callback);
+    call.cancel();
+
+    assertTrue(call.isCanceled());
+    verify(calls.get(0)).cancel();
+    assertThrows(IllegalStateException.class, () -> call.enqueue(callback));
+  }
+
+  @Test
+  void testDelayFollowsLatency() {
+    HedgingCallFactory factory =
+        new HedgingCallFactory(
+            delegate,
+            HedgingConfig.builder()
+                .initialDelayMillis(200)
+                .minSamples(10)
+                .minDelayMillis(20)
+                .maxDelayMillis(1000)
+                .build());
+    assertEquals(200, factory.delayMillis("BotAPI.retrieve"));
+
+    for (int i = 1; i <= 100; i++) {
+      factory.onLatency("BotAPI.retrieve", i * 5);
+    }
+    assertEquals(475, factory.delayMillis("BotAPI.retrieve"));
+
+    factory.onLatency("FileAPI.retrieve", 1);
+    for (int i = 0; i < 10; i++) {
+      factory.onLatency("ChatAPI.retrieve", 5000);
+    }
+    assertEquals(200, factory.delayMillis("FileAPI.retrieve"));
+    assertEquals(1000, factory.delayMillis("ChatAPI.retrieve"));
+  }
+}
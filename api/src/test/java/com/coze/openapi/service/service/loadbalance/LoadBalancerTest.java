@@ -0,0 +1,115 @@
+package com.coze.openapi.service.service.loadbalance;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import okhttp3.HttpUrl;
+
+class LoadBalancerTest {
+
+  private static LoadBalancer balancer(LoadBalancerConfig config, String... urls) {
+    return new LoadBalancer(Arrays.asList(urls), config);
+  }
+
+  @Test
+  void testRouteRest() {
+    LoadBalancer balancer =
+        balancer(
+            LoadBalancerConfig.defaultConfig(),
+            "https://api.coze.com",
+            "https://gw2.example.com/coze/");
+    Endpoint second = balancer.endpoints().get(1);
+
+    HttpUrl routed =
+        balancer.route(HttpUrl.get("https://api.coze.com/v1/bots?page_size=10"), second);
+    assertEquals("https://gw2.example.com/coze/v1/bots?page_size=10", routed.toString());
+    // 不是发往 baseURL 的请求不改写
+    assertNull(balancer.route(HttpUrl.get("https://files.coze.com/v1/bots"), second));
+  }
+
+  @Test
+  void testRouteWebsocket() {
+    LoadBalancer balancer =
+        balancer(LoadBalancerConfig.defaultConfig(), "https://api.coze.com", "https://api.coze.cn");
+    Endpoint second = balancer.endpoints().get(1);
+
+    // OkHttp 把 wss 地址按 https 处理
+    HttpUrl routed = balancer.route(HttpUrl.get("https://ws.coze.com/v1/chat?bot_id=1"), second);
+    assertEquals("https://ws.coze.cn/v1/chat?bot_id=1", routed.toString());
+  }
+
+  @Test
+  void testPickSkipsTriedAndEjected() {
+    LoadBalancerConfig config = LoadBalancerConfig.builder().failureThreshold(2).build();
+    LoadBalancer balancer = balancer(config, "https://a.test", "https://b.test", "https://c.test");
+    Endpoint a = balancer.endpoints().get(0);
+    Endpoint b = balancer.endpoints().get(1);
+    Endpoint c = balancer.endpoints().get(2);
+
+    balancer.onResult(a, false, 1_000_000);
+    balancer.onResult(a, false, 1_000_000);
+    assertTrue(balancer.stats().get(0).isEjected());
+    for (int i = 0; i < 20; i++) {
+      assertNotSame(a, balancer.pick(Collections.emptyList()));
+      assertSame(c, balancer.pick(Collections.singletonList(b)));
+    }
+
+    // 全部尝试过或被驱逐时，仍返回被驱逐的节点
+    assertSame(a, balancer.pick(Arrays.asList(b, c)));
+    assertNull(balancer.pick(Arrays.asList(a, b, c)));
+
+    a.reinstate();
+    assertFalse(balancer.stats().get(0).isEjected());
+  }
+
+  @Test
+  void testEjectionExpires() throws Exception {
+    LoadBalancerConfig config =
+        LoadBalancerConfig.builder().failureThreshold(1).ejectionMillis(20).build();
+    LoadBalancer balancer = balancer(config, "https://a.test", "https://b.test");
+    Endpoint a = balancer.endpoints().get(0);
+
+    balancer.onResult(a, false, 1_000_000);
+    assertSame(a, balancer.pick(Collections.singletonList(balancer.endpoints().get(1))));
+    assertTrue(a.isEjected(System.nanoTime()));
+    Thread.sleep(30);
+    assertFalse(a.isEjected(System.nanoTime()));
+    // 到期后再失败一次立即重新驱逐
+    balancer.onResult(a, false, 1_000_000);
+    assertTrue(a.isEjected(System.nanoTime()));
+  }
+
+  @Test
+  void testPeakEwmaPrefersFasterEndpoint() {
+    LoadBalancer balancer =
+        balancer(LoadBalancerConfig.defaultConfig(), "https://a.test", "https://b.test");
+    Endpoint fast = balancer.endpoints().get(0);
+    Endpoint slow = balancer.endpoints().get(1);
+    balancer.onResult(fast, true, 10_000_000);
+    balancer.onResult(slow, true, 500_000_000);
+
+    for (int i = 0; i < 20; i++) {
+      assertSame(fast, balancer.pick(Collections.emptyList()));
+    }
+    assertEquals(500, balancer.stats().get(1).getLatencyMillis(), 0.001);
+  }
+
+  @Test
+  void testLeastOutstanding() {
+    LoadBalancer balancer =
+        balancer(
+            LoadBalancerConfig.builder().strategy(BalancingStrategy.LEAST_OUTSTANDING).build(),
+            "https://a.test",
+            "https://b.test");
+    Endpoint busy = balancer.endpoints().get(0);
+    busy.onStart();
+    busy.onStart();
+
+    assertSame(balancer.endpoints().get(1), balancer.pick(Collections.emptyList()));
+    assertEquals(2, balancer.stats().get(0).getOutstanding());
+  }
+}
@@ -0,0 +1,169 @@
+package com.coze.openapi.service.service.loadbalance;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+class LoadBalancingInterceptorTest {
+
+  private HttpServer healthy;
+  private HttpServer failing;
+  private final AtomicInteger healthyCalls = new AtomicInteger();
+  private final AtomicInteger failingCalls = new AtomicInteger();
+
+  @AfterEach
+  void tearDown() {
+    if (healthy != null) {
+      healthy.stop(0);
+    }
+    if (failing != null) {
+      failing.stop(0);
+    }
+  }
+
+  private static HttpServer server(int status, AtomicInteger calls) throws IOException {
+    HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext(
+        "/",
+        exchange -> {
+          calls.incrementAndGet();
+          byte[] body = "{\"code\":0}".getBytes();
+          exchange.sendResponseHeaders(status, body.length);
+          exchange.getResponseBody().write(body);
+          exchange.close();
+        });
+    server.start();
+    return server;
+  }
+
+  private static String url(HttpServer server) {
+    return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+  }
+
+  private static int closedPort() throws IOException {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      return socket.getLocalPort();
+    }
+  }
+
+  // nextInt 总是返回 0
+  private static final class FirstRandom extends Random {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public int nextInt(int bound) {
+      return 0;
+    }
+  }
+
+  private OkHttpClient client(LoadBalancer balancer) {
+    return new OkHttpClient.Builder()
+        .addInterceptor(new LoadBalancingInterceptor(balancer))
+        .build();
+  }
+
+  @Test
+  void testIdempotentCallFailsOverOnStatus() throws Exception {
+    failing = server(503, failingCalls);
+    healthy = server(200, healthyCalls);
+    // 负载相同时总是选中第一个随机结果，即失败节点，直到它被驱逐
+    LoadBalancer balancer =
+        new LoadBalancer(
+            Arrays.asList(url(failing), url(healthy)),
+            LoadBalancerConfig.builder().strategy(BalancingStrategy.LEAST_OUTSTANDING).build(),
+            new FirstRandom());
+    OkHttpClient client = client(balancer);
+
+    for (int i = 0; i < 10; i++) {
+      Request get = new Request.Builder().url(url(failing) + "v1/bots").build();
+      try (Response response = client.newCall(get).execute()) {
+        assertEquals(200, response.code());
+      }
+    }
+    assertEquals(10, healthyCalls.get());
+    // 连续失败后被驱逐，不再收到请求
+    assertEquals(3, failingCalls.get());
+    assertTrue(balancer.stats().get(0).isEjected());
+    assertEquals(0, balancer.stats().get(1).getOutstanding());
+  }
+
+  @Test
+  void testNonIdempotentCallDoesNotFailOverOnStatus() throws Exception {
+    failing = server(503, failingCalls);
+    healthy = server(200, healthyCalls);
+    LoadBalancer balancer =
+        new LoadBalancer(
+            Arrays.asList(url(failing), url(healthy)),
+            LoadBalancerConfig.builder().strategy(BalancingStrategy.LEAST_OUTSTANDING).build());
+    OkHttpClient client = client(balancer);
+
+    int unavailable = 0;
+    for (int i = 0; i < 10; i++) {
+      Request post =
+          new Request.Builder()
+              .url(url(failing) + "v3/chat")
+              .post(RequestBody.create(MediaType.parse("application/json"), "{}"))
+              .build();
+      try (Response response = client.newCall(post).execute()) {
+        if (response.code() == 503) {
+          unavailable++;
+        }
+      }
+    }
+    assertEquals(failingCalls.get(), unavailable);
+    assertEquals(10, failingCalls.get() + healthyCalls.get());
+  }
+
+  @Test
+  void testConnectFailureFailsOverForAnyMethod() throws Exception {
+    healthy = server(200, healthyCalls);
+    String down = "http://127.0.0.1:" + closedPort() + "/";
+    LoadBalancer balancer =
+        new LoadBalancer(Arrays.asList(down, url(healthy)), LoadBalancerConfig.defaultConfig());
+    OkHttpClient client = client(balancer);
+
+    for (int i = 0; i < 5; i++) {
+      Request post =
+          new Request.Builder()
+              .url(down + "v3/chat")
+              .post(RequestBody.create(MediaType.parse("application/json"), "{}"))
+              .build();
+      try (Response response = client.newCall(post).execute()) {
+        assertEquals(200, response.code());
+      }
+    }
+    assertEquals(5, healthyCalls.get());
+  }
+
+  @Test
+  void testHealthCheckReinstates() throws Exception {
+    healthy = server(200, healthyCalls);
+    failing = server(200, failingCalls);
+    LoadBalancer balancer =
+        new LoadBalancer(
+            Arrays.asList(url(failing), url(healthy)),
+            LoadBalancerConfig.builder().failureThreshold(1).build());
+    balancer.onResult(balancer.endpoints().get(0), false, 1_000_000);
+    assertTrue(balancer.stats().get(0).isEjected());
+
+    balancer.probe(new OkHttpClient());
+    assertFalse(balancer.stats().get(0).isEjected());
+    assertEquals(1, failingCalls.get());
+  }
+}
@@ -0,0 +1,244 @@
+package com.coze.openapi.service.service.priority;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.coze.openapi.client.common.BaseReq;
+import com.coze.openapi.client.common.RequestPriority;
+import com.sun.net.httpserver.HttpServer;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+class PriorityCallFactoryTest {
+
+  @Mock private Call.Factory delegate;
+
+  // 按启动顺序记录请求的优先级和回调
+  private final List<RequestPriority> started = new CopyOnWriteArrayList<>();
+  private final List<Callback> callbacks = new CopyOnWriteArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    when(delegate.newCall(any()))
+        .thenAnswer(
+            inv -> {
+              Request request = inv.getArgument(0);
+              Call call = mock(Call.class);
+              when(call.request()).thenReturn(request);
+              doAnswer(
+                      enqueue -> {
+                        started.add(PriorityCallFactory.priority(request));
+                        callbacks.add(enqueue.getArgument(0));
+                        return null;
+                      })
+                  .when(call)
+                  .enqueue(any());
+              when(call.execute())
+                  .thenAnswer(
+                      execute -> {
+                        started.add(PriorityCallFactory.priority(request));
+                        return response(request);
+                      });
+              return call;
+            });
+  }
+
+  private static Request request(RequestPriority priority) {
+    return new Request.Builder()
+        .url("https://api.coze.com/v1/bots")
+        .tag(BaseReq.class, BaseReq.builder().priority(priority).build())
+        .build();
+  }
+
+  private static Response response(Request request) {
+    return new Response.Builder()
+        .request(request)
+        .protocol(Protocol.HTTP_1_1)
+        .code(200)
+        .message("OK")
+        .build();
+  }
+
+  private void finish(int index) throws IOException {
+    callbacks.get(index).onResponse(mock(Call.class), response(request(null)));
+  }
+
+  @Test
+  void testHigherPriorityJumpsQueue() throws Exception {
+    PriorityCallFactory factory =
+        new PriorityCallFactory(delegate, PriorityConfig.builder().maxConcurrent(1).build());
+    factory.newCall(request(RequestPriority.NORMAL)).enqueue(mock(Callback.class));
+    factory.newCall(request(RequestPriority.LOW)).enqueue(mock(Callback.class));
+    factory.newCall(request(RequestPriority.NORMAL)).enqueue(mock(Callback.class));
+    factory.newCall(request(RequestPriority.HIGH)).enqueue(mock(Callback.class));
+    assertEquals(1, started.size());
+    assertEquals(1, factory.stats().getQueuedHigh());
+
+    finish(0);
+    finish(1);
+    finish(2);
+    assertEquals(
+        Arrays.asList(
+            RequestPriority.NORMAL,
+            RequestPriority.HIGH,
+            RequestPriority.NORMAL,
+            RequestPriority.LOW),
+        started);
+  }
+
+  @Test
+  void testLowPriorityShare() throws Exception {
+    PriorityCallFactory factory =
+        new PriorityCallFactory(
+            delegate, PriorityConfig.builder().maxConcurrent(4).lowPriorityShare(0.25).build());
+    for (int i = 0; i < 3; i++) {
+      factory.newCall(request(RequestPriority.LOW)).enqueue(mock(Callback.class));
+    }
+    factory.newCall(request(null)).enqueue(mock(Callback.class));
+
+    assertEquals(2, started.size());
+    PriorityStats stats = factory.stats();
+    assertEquals(1, stats.getRunningLow());
+    assertEquals(2, stats.getQueuedLow());
+
+    finish(0);
+    assertEquals(3, started.size());
+    assertEquals(1, factory.stats().getRunningLow());
+  }
+
+  @Test
+  void testCancelQueuedCall() throws Exception {
+    PriorityCallFactory factory =
+        new PriorityCallFactory(delegate, PriorityConfig.builder().maxConcurrent(1).build());
+    factory.newCall(request(null)).enqueue(mock(Callback.class));
+    Callback callback = mock(Callback.class);
+    Call queued = factory.newCall(request(RequestPriority.HIGH));
+    queued.enqueue(callback);
+
+    queued.cancel();
+    verify(callback).onFailure(same(queued), any(IOException.class));
+    finish(0);
+    assertEquals(1, started.size());
+    assertEquals(0, factory.stats().getRunning());
+  }
+
+  @Test
+  void testBlockingCallWaitsForSlot() throws Exception {
+    PriorityCallFactory factory =
+        new PriorityCallFactory(delegate, PriorityConfig.builder().maxConcurrent(1).build());
+    factory.newCall(request(null)).enqueue(mock(Callback.class));
+
+    CompletableFuture<Response> blocking =
+        CompletableFuture.supplyAsync(
+            () -> {
+              try {
+                return factory.newCall(request(RequestPriority.HIGH)).execute();
+              } catch (IOException e) {
+                throw new RuntimeException(e);
+              }
+            });
+    Thread.sleep(100);
+    assertFalse(blocking.isDone());
+    assertEquals(1, factory.stats().getQueuedHigh());
+
+    finish(0);
+    assertNotNull(blocking.get(1, TimeUnit.SECONDS));
+    assertEquals(0, factory.stats().getRunning());
+  }
+
+  @Test
+  void testPriorityHoldsBehindRealDispatcher() throws Exception {
+    // 服务端按到达顺序记录请求，每次放行一个
+    List<String> arrived = new CopyOnWriteArrayList<>();
+    Semaphore respond = new Semaphore(0);
+    HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    ExecutorService handlers = Executors.newCachedThreadPool();
+    server.setExecutor(handlers);
+    server.createContext(
+        "/",
+        exchange -> {
+          arrived.add(exchange.getRequestURI().getQuery());
+          respond.acquireUninterruptibly();
+          exchange.sendResponseHeaders(200, -1);
+          exchange.close();
+        });
+    server.start();
+    Dispatcher dispatcher = new Dispatcher();
+    dispatcher.setMaxRequestsPerHost(2);
+    OkHttpClient client = new OkHttpClient.Builder().dispatcher(dispatcher).build();
+    try {
+      PriorityCallFactory factory = new PriorityCallFactory(client, PriorityConfig.defaultConfig());
+      assertEquals(2, factory.stats().getMaxConcurrent());
+
+      String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/?";
+      enqueue(factory, url + "n1", RequestPriority.NORMAL);
+      enqueue(factory, url + "n2", RequestPriority.NORMAL);
+      awaitArrivals(arrived, 2);
+      enqueue(factory, url + "n3", RequestPriority.NORMAL);
+      enqueue(factory, url + "n4", RequestPriority.NORMAL);
+      enqueue(factory, url + "h", RequestPriority.HIGH);
+      for (int i = 3; i <= 5; i++) {
+        respond.release();
+        awaitArrivals(arrived, i);
+      }
+      // 超过 dispatcher 限制的请求留在这里排队，HIGH 不会排在 dispatcher 的 FIFO 队列里
+      assertEquals(Arrays.asList("h", "n3", "n4"), arrived.subList(2, 5));
+    } finally {
+      respond.release(5);
+      server.stop(0);
+      handlers.shutdownNow();
+      client.dispatcher().executorService().shutdown();
+    }
+  }
+
+  private static void enqueue(PriorityCallFactory factory, String url, RequestPriority priority) {
+    Request request =
+        new Request.Builder()
+            .url(url)
+            .tag(BaseReq.class, BaseReq.builder().priority(priority).build())
+            .build();
+    factory
+        .newCall(request)
+        .enqueue(
+            new Callback() {
+              @Override
+              public void onFailure(Call call, IOException e) {}
+
+              @Override
+              public void onResponse(Call call, Response response) {
+                response.close();
+              }
+            });
+  }
+
+  private static void awaitArrivals(List<String> arrived, int count) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5000;
+    while (arrived.size() < count && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(count, arrived.size());
+  }
+}
@@ -0,0 +1,96 @@
+package com.coze.openapi.service.service.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class AdaptiveRateLimiterTest {
+
+  @Test
+  void testBurstThenQueue() {
+    AdaptiveRateLimiter limiter =
+        AdaptiveRateLimiter.builder().permitsPerSecond(10).burst(2).build();
+
+    assertEquals(0, limiter.reserve("k", 0));
+    assertEquals(0, limiter.reserve("k", 0));
+    // 令牌用完后，fail fast 直接拒绝，排队则返回需要等待的时间
+    assertEquals(-1, limiter.reserve("k", 0));
+    long wait = limiter.reserve("k", 1000);
+    assertTrue(wait > 0 && wait <= 100, "wait " + wait);
+    long next = limiter.reserve("k", 1000);
+    assertTrue(next > wait, "queued reservations wait longer");
+  }
+
+  @Test
+  void testKeysAreIndependent() {
+    AdaptiveRateLimiter limiter =
+        AdaptiveRateLimiter.builder().permitsPerSecond(1).burst(1).build();
+
+    assertEquals(0, limiter.reserve("a", 0));
+    assertEquals(-1, limiter.reserve("a", 0));
+    assertEquals(0, limiter.reserve("b", 0));
+  }
+
+  @Test
+  void testThrottleShrinksRate() {
+    AdaptiveRateLimiter limiter =
+        AdaptiveRateLimiter.builder()
+            .permitsPerSecond(8)
+            .minPermitsPerSecond(1)
+            .decreaseFactor(0.5)
+            .recoveryPerSecond(0)
+            .build();
+
+    limiter.onThrottled("k");
+    assertEquals(4, limiter.rate("k"), 0.01);
+    limiter.onThrottled("k");
+    limiter.onThrottled("k");
+    limiter.onThrottled("k");
+    assertEquals(1, limiter.rate("k"), 0.01);
+    // 被限流后不再允许突发
+    assertEquals(-1, limiter.reserve("k", 0));
+  }
+
+  @Test
+  void testRateRecovers() throws InterruptedException {
+    AdaptiveRateLimiter limiter =
+        AdaptiveRateLimiter.builder()
+            .permitsPerSecond(10)
+            .decreaseFactor(0.1)
+            .recoveryPerSecond(100)
+            .build();
+
+    limiter.onThrottled("k");
+    assertTrue(limiter.rate("k") < 10);
+    Thread.sleep(100);
+    assertEquals(10, limiter.rate("k"), 0.01);
+  }
+
+  @Test
+  void testIdleFullBucketsAreEvicted() throws InterruptedException {
+    AdaptiveRateLimiter limiter =
+        AdaptiveRateLimiter.builder()
+            .permitsPerSecond(1000)
+            .burst(1)
+            .evictionIntervalMillis(0)
+            .build();
+
+    assertEquals(0, limiter.reserve("idle", 0));
+    Thread.sleep(20);
+    // idle 已经补满，下一次预约时被回收
+    assertEquals(0, limiter.reserve("other", 0));
+    assertEquals(1, limiter.size());
+
+    AdaptiveRateLimiter slow =
+        AdaptiveRateLimiter.builder()
+            .permitsPerSecond(1)
+            .burst(1)
+            .evictionIntervalMillis(0)
+            .build();
+    assertEquals(0, slow.reserve("busy", 0));
+    assertEquals(0, slow.reserve("other", 0));
+    // busy 的 token 还没有补满，不能回收，否则会重新获得突发额度
+    assertEquals(2, slow.size());
+    assertEquals(-1, slow.reserve("busy", 0));
+  }
+}
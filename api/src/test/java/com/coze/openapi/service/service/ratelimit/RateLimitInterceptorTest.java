@@ -0,0 +1,115 @@
+package com.coze.openapi.service.service.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.coze.openapi.client.common.BaseReq;
+import com.coze.openapi.service.auth.TokenAuth;
+import com.coze.openapi.service.utils.Utils;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+class RateLimitInterceptorTest {
+
+  @Mock private Interceptor.Chain chain;
+  @Mock private RateLimiter limiter;
+
+  private final TokenAuth auth = new TokenAuth("token");
+  private final Request request = new Request.Builder().url("https://api.coze.com/v1/bots").build();
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    when(chain.request()).thenReturn(request);
+  }
+
+  private Response response(int code, String json) {
+    return new Response.Builder()
+        .request(request)
+        .protocol(Protocol.HTTP_1_1)
+        .code(code)
+        .message("msg")
+        .body(ResponseBody.create(MediaType.parse("application/json"), json))
+        .build();
+  }
+
+  @Test
+  void testModes() throws IOException {
+    when(chain.proceed(request)).thenReturn(response(200, "{\"code\":0}"));
+    when(limiter.reserve(anyString(), anyLong())).thenReturn(0L);
+
+    for (RateLimitMode mode : RateLimitMode.values()) {
+      RateLimitConfig config =
+          RateLimitConfig.builder().limiter(limiter).mode(mode).maxWaitMillis(300).build();
+      new RateLimitInterceptor(config, auth).intercept(chain);
+    }
+
+    verify(limiter).reserve(anyString(), eq(Long.MAX_VALUE));
+    verify(limiter).reserve(anyString(), eq(0L));
+    verify(limiter).reserve(anyString(), eq(300L));
+    verify(limiter, never()).onThrottled(anyString());
+  }
+
+  @Test
+  void testRejected() throws IOException {
+    when(limiter.reserve(anyString(), anyLong())).thenReturn(-1L);
+    RateLimitConfig config =
+        RateLimitConfig.builder().limiter(limiter).mode(RateLimitMode.FAIL_FAST).build();
+
+    assertThrows(
+        RateLimitExceededException.class,
+        () -> new RateLimitInterceptor(config, auth).intercept(chain));
+    verify(chain, never()).proceed(any());
+  }
+
+  @Test
+  void testThrottleFeedback() throws IOException {
+    when(limiter.reserve(anyString(), anyLong())).thenReturn(0L);
+    when(chain.proceed(request))
+        .thenReturn(response(429, "{}"))
+        .thenReturn(response(200, "{\"code\":4013,\"msg\":\"rate limit\"}"));
+    RateLimitInterceptor interceptor =
+        new RateLimitInterceptor(RateLimitConfig.builder().limiter(limiter).build(), auth);
+
+    interceptor.intercept(chain);
+    interceptor.intercept(chain);
+
+    verify(limiter, times(2)).onThrottled(anyString());
+  }
+
+  @Test
+  void testRequestCredentialKey() throws IOException {
+    TokenAuth tenant = new TokenAuth("tenant");
+    Request tenantRequest =
+        request.newBuilder().tag(BaseReq.class, tenant.attach(BaseReq.builder().build())).build();
+    when(chain.request()).thenReturn(tenantRequest);
+    when(chain.proceed(tenantRequest)).thenReturn(response(200, "{\"code\":0}"));
+    when(limiter.reserve(anyString(), anyLong())).thenReturn(0L);
+
+    new RateLimitInterceptor(RateLimitConfig.builder().limiter(limiter).build(), auth)
+        .intercept(chain);
+    verify(limiter)
+        .reserve(startsWith(RateLimitInterceptor.credentialKey(tenant) + "|"), anyLong());
+  }
+
+  @Test
+  void testKeys() {
+    assertEquals("GET /v1/bots", Utils.endpointKey(request));
+    assertNotEquals(
+        RateLimitInterceptor.credentialKey(auth),
+        RateLimitInterceptor.credentialKey(new TokenAuth("token")));
+  }
+}
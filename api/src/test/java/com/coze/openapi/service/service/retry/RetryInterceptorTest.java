@@ -0,0 +1,198 @@
+package com.coze.openapi.service.service.retry;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.coze.openapi.client.common.BaseReq;
+import com.coze.openapi.client.common.Deadline;
+
+import okhttp3.Call;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+class RetryInterceptorTest {
+
+  @Mock private Interceptor.Chain chain;
+  @Mock private Call call;
+
+  private final Request get = new Request.Builder().url("https://api.coze.com/v1/bots").build();
+  private final Request post =
+      new Request.Builder()
+          .url("https://api.coze.com/v3/chat")
+          .post(RequestBody.create(MediaType.parse("application/json"), "{}"))
+          .build();
+
+  private final RetryPolicy fastPolicy =
+      RetryPolicy.builder().baseDelayMillis(1).maxDelayMillis(2).build();
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    when(chain.call()).thenReturn(call);
+  }
+
+  private static Response response(Request request, int code, String json) {
+    return new Response.Builder()
+        .request(request)
+        .protocol(Protocol.HTTP_1_1)
+        .code(code)
+        .message("msg")
+        .body(ResponseBody.create(MediaType.parse("application/json"), json))
+        .build();
+  }
+
+  @Test
+  void testRetryGetOnServerError() throws IOException {
+    when(chain.request()).thenReturn(get);
+    when(chain.proceed(get))
+        .thenReturn(response(get, 503, "{}"))
+        .thenReturn(response(get, 200, "{\"code\":0}"));
+
+    Response result = new RetryInterceptor(fastPolicy).intercept(chain);
+
+    assertEquals(200, result.code());
+    verify(chain, times(2)).proceed(get);
+  }
+
+  @Test
+  void testPostRequiresOptIn() throws IOException {
+    when(chain.request()).thenReturn(post);
+    when(chain.proceed(post))
+        .thenReturn(response(post, 502, "{}"))
+        .thenReturn(response(post, 200, "{\"code\":0}"));
+
+    assertEquals(502, new RetryInterceptor(fastPolicy).intercept(chain).code());
+    verify(chain, times(1)).proceed(post);
+
+    RetryPolicy optIn = fastPolicy.toBuilder().retryNonIdempotent(true).build();
+    assertEquals(200, new RetryInterceptor(optIn).intercept(chain).code());
+  }
+
+  @Test
+  void testRetryConnectionFailure() throws IOException {
+    when(chain.request()).thenReturn(get);
+    when(chain.proceed(get))
+        .thenThrow(new IOException("connection reset"))
+        .thenReturn(response(get, 200, "{\"code\":0}"));
+
+    assertEquals(200, new RetryInterceptor(fastPolicy).intercept(chain).code());
+  }
+
+  @Test
+  void testNoRetryWhenCanceled() throws IOException {
+    when(chain.request()).thenReturn(get);
+    when(call.isCanceled()).thenReturn(true);
+    when(chain.proceed(get)).thenThrow(new IOException("Canceled"));
+
+    assertThrows(IOException.class, () -> new RetryInterceptor(fastPolicy).intercept(chain));
+    verify(chain, times(1)).proceed(get);
+  }
+
+  @Test
+  void testNoRetryPastDeadline() throws IOException {
+    Request withDeadline =
+        get.newBuilder()
+            .tag(
+                BaseReq.class,
+                BaseReq.builder().deadline(Deadline.after(50, TimeUnit.MILLISECONDS)).build())
+            .build();
+    when(chain.request()).thenReturn(withDeadline);
+    when(chain.proceed(withDeadline))
+        .thenReturn(response(withDeadline, 503, "{}"))
+        .thenReturn(response(withDeadline, 200, "{\"code\":0}"));
+
+    // 退避时间超过剩余时间，不再重试
+    RetryPolicy slow = fastPolicy.toBuilder().baseDelayMillis(1000).maxDelayMillis(1000).build();
+    RetryInterceptor interceptor = spy(new RetryInterceptor(slow));
+    doReturn(1000L).when(interceptor).backoff(anyInt());
+    assertEquals(503, interceptor.intercept(chain).code());
+    verify(chain, times(1)).proceed(withDeadline);
+  }
+
+  @Test
+  void testRetryCozeErrorCode() throws IOException {
+    when(chain.request()).thenReturn(get);
+    when(chain.proceed(get))
+        .thenReturn(response(get, 200, "{\"code\":4013,\"msg\":\"rate limit\"}"))
+        .thenReturn(response(get, 200, "{\"code\":0}"));
+
+    Response result = new RetryInterceptor(fastPolicy).intercept(chain);
+
+    assertEquals("{\"code\":0}", result.body().string());
+    verify(chain, times(2)).proceed(get);
+  }
+
+  @Test
+  void testMaxRetries() throws IOException {
+    when(chain.request()).thenReturn(get);
+    when(chain.proceed(get)).thenAnswer(invocation -> response(get, 500, "{}"));
+
+    assertEquals(500, new RetryInterceptor(fastPolicy).intercept(chain).code());
+    verify(chain, times(3)).proceed(get);
+  }
+
+  @Test
+  void testRetryBudget() throws IOException {
+    when(chain.request()).thenReturn(get);
+    when(chain.proceed(get)).thenAnswer(invocation -> response(get, 500, "{}"));
+
+    RetryPolicy policy = fastPolicy.toBuilder().budgetMaxTokens(1).budgetRatio(0).build();
+    RetryInterceptor interceptor = new RetryInterceptor(policy);
+    interceptor.intercept(chain);
+    // 第一个请求用掉唯一的 token 后，后续请求不再重试
+    interceptor.intercept(chain);
+
+    verify(chain, times(3)).proceed(get);
+    assertEquals(0, interceptor.budget().available(), 0.0001);
+  }
+
+  @Test
+  void testBudgetRefill() {
+    RetryBudget budget = new RetryBudget(0.5, 1);
+    assertTrue(budget.tryAcquire());
+    assertFalse(budget.tryAcquire());
+    budget.onRequest();
+    budget.onRequest();
+    assertTrue(budget.tryAcquire());
+  }
+
+  @Test
+  void testRetryAfter() throws IOException {
+    when(chain.request()).thenReturn(get);
+    Response tooLong = response(get, 429, "{}").newBuilder().header("Retry-After", "120").build();
+    when(chain.proceed(get)).thenReturn(tooLong);
+
+    // Retry-After 超过 maxRetryAfterMillis 时直接返回
+    assertEquals(429, new RetryInterceptor(fastPolicy).intercept(chain).code());
+    verify(chain, times(1)).proceed(get);
+
+    assertEquals(120000L, RetryInterceptor.retryAfterMillis(tooLong));
+    Response date =
+        tooLong.newBuilder().header("Retry-After", "Wed, 21 Oct 2015 07:28:00 GMT").build();
+    assertEquals(0L, RetryInterceptor.retryAfterMillis(date));
+  }
+
+  @Test
+  void testBackoffIsBounded() {
+    RetryInterceptor interceptor =
+        new RetryInterceptor(
+            RetryPolicy.builder().baseDelayMillis(100).maxDelayMillis(1000).build());
+    for (int attempt = 0; attempt < 40; attempt++) {
+      long delay = interceptor.backoff(attempt);
+      assertTrue(delay >= 0 && delay <= 1000);
+    }
+  }
+}
@@ -0,0 +1,294 @@
+package com.coze.openapi.service.service.spool;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.coze.openapi.client.common.Deadline;
+import com.coze.openapi.client.connversations.message.CreateMessageReq;
+import com.coze.openapi.client.connversations.message.CreateMessageResp;
+import com.coze.openapi.client.connversations.message.model.MessageContentType;
+import com.coze.openapi.client.connversations.message.model.MessageRole;
+import com.coze.openapi.client.dataset.document.CreateDocumentReq;
+import com.coze.openapi.client.dataset.document.CreateDocumentResp;
+import com.coze.openapi.client.exception.CozeApiException;
+import com.coze.openapi.service.auth.TokenAuth;
+import com.coze.openapi.service.service.common.DeadlineExceededException;
+import com.coze.openapi.service.service.common.MissingCredentialException;
+import com.coze.openapi.service.service.conversation.MessageService;
+import com.coze.openapi.service.service.dataset.DocumentService;
+
+class MutationSpoolTest {
+  @TempDir Path dir;
+  @Mock private MessageService messages;
+  @Mock private DocumentService documents;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+  }
+
+  private SpoolConfig config() {
+    return SpoolConfig.builder()
+        .directory(dir.toString())
+        .syncIntervalMillis(1)
+        .baseDelayMillis(1)
+        .maxDelayMillis(10)
+        .build();
+  }
+
+  private static CreateMessageReq message(String conversationID, String content) {
+    return CreateMessageReq.builder()
+        .conversationID(conversationID)
+        .role(MessageRole.USER)
+        .content(content)
+        .contentType(MessageContentType.TEXT)
+        .build();
+  }
+
+  private static <T> T await(SpoolTicket<T> ticket) throws Exception {
+    return ticket.getResult().get(5, TimeUnit.SECONDS);
+  }
+
+  @Test
+  void testSendsInOrderPerConversation() throws Exception {
+    List<String> sent = Collections.synchronizedList(new ArrayList<>());
+    AtomicInteger inflight = new AtomicInteger();
+    AtomicInteger maxInflight = new AtomicInteger();
+    when(messages.create(any(CreateMessageReq.class)))
+        .thenAnswer(
+            invocation -> {
+              maxInflight.accumulateAndGet(inflight.incrementAndGet(), Math::max);
+              Thread.sleep(2);
+              sent.add(invocation.<CreateMessageReq>getArgument(0).getContent());
+              inflight.decrementAndGet();
+              return new CreateMessageResp();
+            });
+
+    List<String> expected = new ArrayList<>();
+    List<SpoolTicket<CreateMessageResp>> tickets = new ArrayList<>();
+    try (MutationSpool spool = new MutationSpool(messages, documents, config())) {
+      for (int i = 0; i < 10; i++) {
+        expected.add("m" + i);
+        tickets.add(spool.createMessage(message("c1", "m" + i)));
+      }
+      for (SpoolTicket<CreateMessageResp> ticket : tickets) {
+        assertNotNull(await(ticket));
+        assertTrue(ticket.getDurable().isDone());
+      }
+
+      assertEquals(expected, sent);
+      // 同一个会话同一时间只发送一个
+      assertEquals(1, maxInflight.get());
+      assertEquals(10, spool.stats().getCompleted());
+      assertEquals(0, spool.stats().getPending());
+    }
+  }
+
+  @Test
+  void testRetriesTransientFailure() throws Exception {
+    CreateDocumentResp resp = new CreateDocumentResp();
+    when(documents.create(any(CreateDocumentReq.class)))
+        .thenThrow(new RuntimeException(new IOException("connection reset")))
+        .thenThrow(new RuntimeException(new CozeApiException(503, "unavailable", "log-id")))
+        .thenReturn(resp);
+
+    try (MutationSpool spool = new MutationSpool(messages, documents, config())) {
+      SpoolTicket<CreateDocumentResp> ticket =
+          spool.createDocument(
+              CreateDocumentReq.builder()
+                  .datasetID(1L)
+                  .documentBases(Collections.emptyList())
+                  .build());
+
+      assertSame(resp, await(ticket));
+      assertEquals(2, spool.stats().getRetried());
+      verify(documents, times(3)).create(any(CreateDocumentReq.class));
+    }
+  }
+
+  @Test
+  void testRejectedMutationFailsItsTicketOnly() throws Exception {
+    CozeApiException rejected = new CozeApiException(4000, "invalid param", "log-id");
+    when(messages.create(any(CreateMessageReq.class)))
+        .thenAnswer(
+            invocation -> {
+              if ("bad".equals(invocation.<CreateMessageReq>getArgument(0).getContent())) {
+                throw new RuntimeException(rejected);
+              }
+              return new CreateMessageResp();
+            });
+
+    try (MutationSpool spool = new MutationSpool(messages, documents, config())) {
+      SpoolTicket<CreateMessageResp> bad = spool.createMessage(message("c1", "bad"));
+      SpoolTicket<CreateMessageResp> good = spool.createMessage(message("c1", "good"));
+
+      ExecutionException thrown = assertThrows(ExecutionException.class, () -> await(bad));
+      assertSame(rejected, thrown.getCause().getCause());
+      assertNotNull(await(good));
+      assertEquals(1, spool.stats().getFailed());
+      assertEquals(0, spool.stats().getRetried());
+    }
+  }
+
+  @Test
+  void testDeadlineAndMissingCredentialAreNotRetried() throws Exception {
+    DeadlineExceededException expired = new DeadlineExceededException("deadline exceeded");
+    MissingCredentialException anonymous = new MissingCredentialException("no credential");
+    when(messages.create(any(CreateMessageReq.class)))
+        .thenThrow(new RuntimeException(expired))
+        .thenThrow(new RuntimeException(anonymous));
+
+    try (MutationSpool spool = new MutationSpool(messages, documents, config())) {
+      SpoolTicket<CreateMessageResp> first = spool.createMessage(message("c1", "first"));
+      SpoolTicket<CreateMessageResp> second = spool.createMessage(message("c1", "second"));
+
+      assertSame(
+          expired,
+          assertThrows(ExecutionException.class, () -> await(first)).getCause().getCause());
+      assertSame(
+          anonymous,
+          assertThrows(ExecutionException.class, () -> await(second)).getCause().getCause());
+      assertEquals(0, spool.stats().getRetried());
+    }
+  }
+
+  @Test
+  void testRetriesAreCapped() throws Exception {
+    when(messages.create(any(CreateMessageReq.class)))
+        .thenThrow(new RuntimeException(new IOException("connection refused")))
+        .thenThrow(new RuntimeException(new IOException("connection refused")))
+        .thenThrow(new RuntimeException(new IOException("connection refused")))
+        .thenReturn(new CreateMessageResp());
+
+    try (MutationSpool spool =
+        new MutationSpool(messages, documents, config().toBuilder().maxAttempts(3).build())) {
+      SpoolTicket<CreateMessageResp> failing = spool.createMessage(message("c1", "failing"));
+      SpoolTicket<CreateMessageResp> next = spool.createMessage(message("c1", "next"));
+
+      assertThrows(ExecutionException.class, () -> await(failing));
+      // 放弃之后同一会话的下一个 mutation 继续发送
+      assertNotNull(await(next));
+      assertEquals(2, spool.stats().getRetried());
+      verify(messages, times(4)).create(any(CreateMessageReq.class));
+    }
+  }
+
+  @Test
+  void testPerCallAuthAndDeadlineAreRejected() throws Exception {
+    try (MutationSpool spool = new MutationSpool(messages, documents, config())) {
+      CreateMessageReq tenant = new TokenAuth("tenant").attach(message("c1", "tenant"));
+      assertThrows(IllegalArgumentException.class, () -> spool.createMessage(tenant));
+
+      CreateMessageReq bounded = message("c1", "bounded");
+      bounded.setDeadline(Deadline.after(1, TimeUnit.SECONDS));
+      assertThrows(IllegalArgumentException.class, () -> spool.createMessage(bounded));
+      assertEquals(0, spool.stats().getPending());
+    }
+  }
+
+  @Test
+  void testUnsentMutationsAreRecovered() throws Exception {
+    // 后端不可用：一直失败，关闭时 mutation 仍在日志里
+    when(messages.create(any(CreateMessageReq.class)))
+        .thenThrow(new RuntimeException(new IOException("connection refused")));
+    // 不限重试次数，关闭前 mutation 一直留在队列里
+    MutationSpool spool =
+        new MutationSpool(messages, documents, config().toBuilder().maxAttempts(0).build());
+    SpoolTicket<CreateMessageResp> first = spool.createMessage(message("c1", "first"));
+    spool.createMessage(message("c2", "second"));
+    first.getDurable().get(5, TimeUnit.SECONDS);
+    spool.close();
+    assertThrows(ExecutionException.class, () -> await(first));
+
+    MessageService recovered = mock(MessageService.class);
+    List<String> sent = Collections.synchronizedList(new ArrayList<>());
+    when(recovered.create(any(CreateMessageReq.class)))
+        .thenAnswer(
+            invocation -> {
+              CreateMessageReq req = invocation.getArgument(0);
+              assertEquals(MessageRole.USER, req.getRole());
+              sent.add(req.getConversationID() + "/" + req.getContent());
+              return new CreateMessageResp();
+            });
+
+    try (MutationSpool reopened = new MutationSpool(recovered, documents, config())) {
+      assertEquals(2, reopened.recovered().size());
+      CompletableFuture.allOf(
+              reopened.recovered().stream()
+                  .map(SpoolTicket::getResult)
+                  .toArray(CompletableFuture[]::new))
+          .get(5, TimeUnit.SECONDS);
+      Collections.sort(sent);
+      assertEquals(2, sent.size());
+      assertEquals("c1/first", sent.get(0));
+      assertEquals("c2/second", sent.get(1));
+    }
+
+    // 全部发送成功后不会再恢复
+    try (MutationSpool again = new MutationSpool(recovered, documents, config())) {
+      assertTrue(again.recovered().isEmpty());
+    }
+  }
+
+  // 写入成功但 fsync 失败的日志
+  private static class FailingSyncLog extends WriteAheadLog {
+    private final List<CompletableFuture<Void>> durables = new ArrayList<>();
+
+    FailingSyncLog(Path directory) throws IOException {
+      super(directory, 1 << 20);
+    }
+
+    @Override
+    synchronized long append(byte[] payload, CompletableFuture<Void> durable) throws IOException {
+      durables.add(durable);
+      return super.append(payload, new CompletableFuture<>());
+    }
+
+    @Override
+    synchronized void sync() {
+      super.sync();
+      durables.forEach(durable -> durable.completeExceptionally(new IOException("fsync failed")));
+      durables.clear();
+    }
+  }
+
+  @Test
+  void testMutationThatIsNotDurableIsNotRecovered() throws Exception {
+    try (MutationSpool spool =
+        new MutationSpool(messages, documents, config(), new FailingSyncLog(dir))) {
+      SpoolTicket<CreateMessageResp> ticket = spool.createMessage(message("c1", "lost"));
+      ExecutionException e = assertThrows(ExecutionException.class, () -> await(ticket));
+      assertTrue(e.getCause() instanceof IOException);
+    }
+
+    // 已经失败的 ticket 不会在下次打开时被发送
+    try (MutationSpool reopened = new MutationSpool(messages, documents, config())) {
+      assertTrue(reopened.recovered().isEmpty());
+    }
+    verify(messages, never()).create(any(CreateMessageReq.class));
+  }
+
+  @Test
+  void testClosedSpoolRejectsMutations() throws Exception {
+    MutationSpool spool = new MutationSpool(messages, documents, config());
+    spool.close();
+
+    assertThrows(IllegalStateException.class, () -> spool.createMessage(message("c1", "late")));
+  }
+}
@@ -0,0 +1,103 @@
+package com.coze.openapi.service.service.spool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class WriteAheadLogTest {
+  @TempDir Path dir;
+
+  private static byte[] bytes(String s) {
+    return s.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private long files() throws IOException {
+    try (Stream<Path> stream = Files.list(dir)) {
+      return stream.count();
+    }
+  }
+
+  @Test
+  void testRecoverUnacknowledged() throws Exception {
+    WriteAheadLog log = new WriteAheadLog(dir, 1 << 20);
+    CompletableFuture<Void> durable = new CompletableFuture<>();
+    assertEquals(1, log.append(bytes("a"), durable));
+    assertEquals(2, log.append(bytes("b"), new CompletableFuture<>()));
+    assertEquals(3, log.append(bytes("c"), new CompletableFuture<>()));
+    assertFalse(durable.isDone());
+
+    // 一次 sync 让之前所有的追加落盘
+    log.sync();
+    assertTrue(durable.isDone());
+    log.ack(2);
+    log.close();
+
+    WriteAheadLog reopened = new WriteAheadLog(dir, 1 << 20);
+    Map<Long, byte[]> recovered = reopened.recovered();
+    assertEquals(Arrays.asList(1L, 3L), Arrays.asList(recovered.keySet().toArray()));
+    assertArrayEquals(bytes("c"), recovered.get(3L));
+    assertEquals(4, reopened.append(bytes("d"), new CompletableFuture<>()));
+    reopened.close();
+  }
+
+  @Test
+  void testTornTailIsCutOff() throws Exception {
+    WriteAheadLog log = new WriteAheadLog(dir, 1 << 20);
+    log.append(bytes("a"), new CompletableFuture<>());
+    log.append(bytes("b"), new CompletableFuture<>());
+    log.close();
+
+    // 模拟写到一半时崩溃：只有部分 frame 头
+    Path segment;
+    try (Stream<Path> stream = Files.list(dir)) {
+      segment = stream.findFirst().get();
+    }
+    long size = Files.size(segment);
+    Files.write(segment, new byte[] {0, 0, 0, 42, 1, 2}, StandardOpenOption.APPEND);
+
+    WriteAheadLog reopened = new WriteAheadLog(dir, 1 << 20);
+    assertEquals(2, reopened.recovered().size());
+    assertEquals(size, Files.size(segment));
+    reopened.append(bytes("c"), new CompletableFuture<>());
+    reopened.close();
+
+    assertEquals(3, new WriteAheadLog(dir, 1 << 20).recovered().size());
+  }
+
+  @Test
+  void testAcknowledgedSegmentsAreDeleted() throws Exception {
+    // 每个 segment 只放得下一条
+    WriteAheadLog log = new WriteAheadLog(dir, 16);
+    for (int i = 0; i < 4; i++) {
+      log.append(bytes("mutation-" + i), new CompletableFuture<>());
+    }
+    assertEquals(4, log.segmentCount());
+
+    // 后面的 segment 先 ack 也不能删除，旧 segment 仍需要它之前的内容
+    log.ack(1);
+    log.ack(3);
+    assertEquals(3, log.segmentCount());
+    log.ack(2);
+    log.ack(4);
+    // 当前写入的 segment 保留
+    assertEquals(1, log.segmentCount());
+    assertEquals(1, files());
+    log.close();
+
+    WriteAheadLog reopened = new WriteAheadLog(dir, 16);
+    assertTrue(reopened.recovered().isEmpty());
+    assertEquals(5, reopened.append(bytes("next"), new CompletableFuture<>()));
+    reopened.close();
+  }
+}
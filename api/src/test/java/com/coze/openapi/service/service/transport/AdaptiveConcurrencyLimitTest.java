@@ -0,0 +1,91 @@
+package com.coze.openapi.service.service.transport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimitTest {
+
+  private static final long RTT = TimeUnit.MILLISECONDS.toNanos(100);
+
+  private static AdaptiveConcurrencyLimit limit(int initial) {
+    return new AdaptiveConcurrencyLimit(
+        ConcurrencyLimitConfig.builder().initialLimit(initial).minLimit(1).maxLimit(100).build());
+  }
+
+  @Test
+  void testRejectOverLimit() throws InterruptedException {
+    AdaptiveConcurrencyLimit limit = limit(2);
+
+    assertEquals(0, limit.acquire(0));
+    assertEquals(1, limit.acquire(0));
+    assertEquals(-1, limit.acquire(0));
+    assertEquals(1, limit.stats().getRejected());
+
+    limit.release();
+    assertEquals(1, limit.acquire(0));
+  }
+
+  @Test
+  void testGrowWhileRttIsStable() {
+    AdaptiveConcurrencyLimit limit = limit(10);
+    for (int i = 0; i < 50; i++) {
+      limit.onSample(RTT, 9);
+    }
+    assertTrue(limit.limit() > 10, "limit " + limit.limit());
+  }
+
+  @Test
+  void testNoGrowthWhenUnderused() {
+    AdaptiveConcurrencyLimit limit = limit(10);
+    for (int i = 0; i < 50; i++) {
+      limit.onSample(RTT, 0);
+    }
+    assertEquals(10, limit.limit());
+  }
+
+  @Test
+  void testShrinkWhenRttInflates() {
+    AdaptiveConcurrencyLimit limit = limit(50);
+    for (int i = 0; i < 100; i++) {
+      limit.onSample(RTT, 49);
+    }
+    int stable = limit.limit();
+    for (int i = 0; i < 20; i++) {
+      limit.onSample(RTT * 10, stable);
+    }
+    assertTrue(limit.limit() < stable, limit.limit() + " < " + stable);
+  }
+
+  @Test
+  void testDropBacksOff() {
+    AdaptiveConcurrencyLimit limit = limit(20);
+    limit.onDrop();
+    assertEquals(18, limit.limit());
+    for (int i = 0; i < 100; i++) {
+      limit.onDrop();
+    }
+    assertEquals(1, limit.limit());
+    assertEquals(101, limit.stats().getDropped());
+  }
+
+  @Test
+  void testWaitForPermit() throws InterruptedException {
+    AdaptiveConcurrencyLimit limit = limit(1);
+    limit.acquire(0);
+    Thread releaser =
+        new Thread(
+            () -> {
+              try {
+                Thread.sleep(50);
+              } catch (InterruptedException ignored) {
+              }
+              limit.release();
+            });
+    releaser.start();
+    assertEquals(0, limit.acquire(5000));
+    releaser.join();
+  }
+}
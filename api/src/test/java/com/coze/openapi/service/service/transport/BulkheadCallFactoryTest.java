@@ -0,0 +1,75 @@
+package com.coze.openapi.service.service.transport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import com.coze.openapi.api.ChatAPI;
+import com.coze.openapi.client.chat.CreateChatReq;
+import com.coze.openapi.client.common.BaseReq;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import retrofit2.Invocation;
+
+class BulkheadCallFactoryTest {
+
+  private static Request request(String methodName) throws Exception {
+    Invocation invocation =
+        Invocation.of(
+            ChatAPI.class.getMethod(methodName, String.class, CreateChatReq.class, BaseReq.class),
+            Collections.emptyList());
+    return new Request.Builder()
+        .url("https://api.coze.com/v3/chat")
+        .tag(Invocation.class, invocation)
+        .build();
+  }
+
+  @Test
+  void testRouteByStreamingAnnotation() throws Exception {
+    OkHttpClient unary = mock(OkHttpClient.class);
+    OkHttpClient stream = mock(OkHttpClient.class);
+    BulkheadCallFactory factory = new BulkheadCallFactory(unary, stream);
+
+    Request streamRequest = request("stream");
+    Request unaryRequest = request("chat");
+    factory.newCall(streamRequest);
+    factory.newCall(unaryRequest);
+
+    verify(stream).newCall(streamRequest);
+    verify(unary).newCall(unaryRequest);
+    assertTrue(BulkheadCallFactory.isStreaming(streamRequest));
+    assertFalse(BulkheadCallFactory.isStreaming(unaryRequest));
+    assertFalse(
+        BulkheadCallFactory.isStreaming(
+            new Request.Builder().url("https://api.coze.com/v1/files/upload").build()));
+  }
+
+  @Test
+  void testCreateAppliesBudgets() {
+    OkHttpClient base = new OkHttpClient();
+    BulkheadConfig config =
+        BulkheadConfig.builder()
+            .streamMaxRequests(100)
+            .streamMaxRequestsPerHost(50)
+            .unaryMaxRequests(20)
+            .unaryMaxRequestsPerHost(10)
+            .build();
+
+    BulkheadCallFactory factory = BulkheadCallFactory.create(base, config);
+    TransportStats stats = factory.stats();
+
+    assertTrue(stats.isBulkhead());
+    assertEquals(100, stats.getStream().getMaxRequests());
+    assertEquals(50, stats.getStream().getMaxRequestsPerHost());
+    assertEquals(20, stats.getUnary().getMaxRequests());
+    assertEquals(10, stats.getUnary().getMaxRequestsPerHost());
+    assertNotSame(factory.unaryClient().connectionPool(), factory.streamClient().connectionPool());
+    assertSame(
+        factory.unaryClient().dispatcher().executorService(),
+        factory.streamClient().dispatcher().executorService());
+  }
+}
@@ -0,0 +1,112 @@
+package com.coze.openapi.service.service.transport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.coze.openapi.api.ChatAPI;
+import com.coze.openapi.client.chat.CreateChatReq;
+import com.coze.openapi.client.common.BaseReq;
+
+import okhttp3.Call;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import retrofit2.Invocation;
+
+class ConcurrencyLimitInterceptorTest {
+
+  @Mock private Interceptor.Chain chain;
+  @Mock private Call call;
+
+  private ConcurrencyLimitInterceptor interceptor;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    when(chain.call()).thenReturn(call);
+    interceptor =
+        new ConcurrencyLimitInterceptor(
+            ConcurrencyLimitConfig.builder().initialLimit(1).build(),
+            ConcurrencyLimitConfig.builder().initialLimit(2).build());
+  }
+
+  private static Request request(String methodName) throws Exception {
+    Invocation invocation =
+        Invocation.of(
+            ChatAPI.class.getMethod(methodName, String.class, CreateChatReq.class, BaseReq.class),
+            Collections.emptyList());
+    return new Request.Builder()
+        .url("https://api.coze.com/v3/chat")
+        .tag(Invocation.class, invocation)
+        .build();
+  }
+
+  private static Response response(Request request, int code) {
+    return new Response.Builder()
+        .request(request)
+        .protocol(Protocol.HTTP_1_1)
+        .code(code)
+        .message("msg")
+        .body(ResponseBody.create(MediaType.parse("application/json"), "{}"))
+        .build();
+  }
+
+  @Test
+  void testPermitHeldUntilBodyClosed() throws Exception {
+    Request unary = request("chat");
+    when(chain.request()).thenReturn(unary);
+    when(chain.proceed(unary)).thenAnswer(invocation -> response(unary, 200));
+
+    Response first = interceptor.intercept(chain);
+    assertEquals(1, interceptor.unaryLimit().stats().getInflight());
+    assertThrows(ConcurrencyLimitExceededException.class, () -> interceptor.intercept(chain));
+
+    first.close();
+    assertEquals(0, interceptor.unaryLimit().stats().getInflight());
+    interceptor.intercept(chain).close();
+    assertEquals(1, interceptor.unaryLimit().stats().getRejected());
+  }
+
+  @Test
+  void testLanesAreSeparate() throws Exception {
+    Request unary = request("chat");
+    Request stream = request("stream");
+    when(chain.proceed(any())).thenAnswer(invocation -> response(invocation.getArgument(0), 200));
+
+    when(chain.request()).thenReturn(unary);
+    Response unaryResponse = interceptor.intercept(chain);
+    when(chain.request()).thenReturn(stream);
+    Response streamResponse = interceptor.intercept(chain);
+
+    assertEquals(1, interceptor.unaryLimit().stats().getInflight());
+    assertEquals(1, interceptor.streamLimit().stats().getInflight());
+    unaryResponse.close();
+    streamResponse.close();
+  }
+
+  @Test
+  void testDropOnFailure() throws Exception {
+    Request unary = request("chat");
+    when(chain.request()).thenReturn(unary);
+    when(chain.proceed(unary))
+        .thenThrow(new IOException("timeout"))
+        .thenReturn(response(unary, 429));
+
+    assertThrows(IOException.class, () -> interceptor.intercept(chain));
+    interceptor.intercept(chain).close();
+
+    assertEquals(2, interceptor.unaryLimit().stats().getDropped());
+    assertEquals(0, interceptor.unaryLimit().stats().getInflight());
+  }
+}
@@ -0,0 +1,49 @@
+package com.coze.openapi.service.service.transport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.Socket;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+class TransportProfileTest {
+
+  @Test
+  void testDefaultsKeepLegacySettings() {
+    OkHttpClient client = TransportProfile.defaults().applyTo(new OkHttpClient.Builder()).build();
+
+    assertEquals(64, client.dispatcher().getMaxRequests());
+    assertEquals(5, client.dispatcher().getMaxRequestsPerHost());
+    assertEquals(
+        Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1), client.protocols(), "okhttp default");
+    assertFalse(client.socketFactory() instanceof ConfiguringSocketFactory);
+  }
+
+  @Test
+  void testApplyProfile() throws Exception {
+    TransportProfile profile =
+        TransportProfile.highThroughputBatch().toBuilder().tcpNoDelay(Boolean.TRUE).build();
+    OkHttpClient client = profile.applyTo(new OkHttpClient.Builder()).build();
+
+    assertEquals(512, client.dispatcher().getMaxRequests());
+    assertEquals(128, client.dispatcher().getMaxRequestsPerHost());
+    assertEquals(Arrays.asList(Protocol.HTTP_1_1), client.protocols());
+    try (Socket socket = client.socketFactory().createSocket()) {
+      assertTrue(socket.getTcpNoDelay());
+      assertTrue(socket.getReceiveBufferSize() > 0);
+    }
+  }
+
+  @Test
+  void testLowLatencyPreset() {
+    TransportProfile profile = TransportProfile.lowLatencyInteractive();
+
+    assertEquals(Boolean.TRUE, profile.getTcpNoDelay());
+    assertEquals(5 * 60 * 1000L, profile.getKeepAliveMillis());
+    assertEquals(64, profile.getMaxRequestsPerHost());
+  }
+}
@@ -0,0 +1,93 @@
+package com.coze.openapi.service.service.transport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+import okhttp3.OkHttpClient;
+
+class TransportWarmerTest {
+
+  private HttpServer server;
+  private final AtomicInteger heads = new AtomicInteger();
+  private final AtomicInteger authorized = new AtomicInteger();
+
+  @BeforeEach
+  void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext(
+        "/",
+        exchange -> {
+          if ("HEAD".equals(exchange.getRequestMethod())) {
+            heads.incrementAndGet();
+          }
+          if (exchange.getRequestHeaders().containsKey("Authorization")) {
+            authorized.incrementAndGet();
+          }
+          exchange.sendResponseHeaders(404, -1);
+          exchange.close();
+        });
+    server.start();
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.stop(0);
+  }
+
+  private String url() {
+    return "http://127.0.0.1:" + server.getAddress().getPort();
+  }
+
+  @Test
+  void testOpensPooledConnections() throws Exception {
+    OkHttpClient client =
+        new OkHttpClient.Builder()
+            .addInterceptor(
+                chain ->
+                    chain.proceed(
+                        chain.request().newBuilder().header("Authorization", "Bearer x").build()))
+            .build();
+
+    WarmupReport report =
+        new TransportWarmer(WarmupConfig.builder().connections(3).build())
+            .add(client, url() + "/v1")
+            .addWebsocket(client, "ws://127.0.0.1:" + server.getAddress().getPort())
+            .start()
+            .get(10, TimeUnit.SECONDS);
+
+    assertTrue(report.isReady(), report.getErrors().toString());
+    assertEquals(6, report.getConnections());
+    assertEquals(6, heads.get());
+    assertTrue(report.getResolveMillis().containsKey("127.0.0.1"));
+    assertTrue(client.connectionPool().idleConnectionCount() > 0);
+    // 预热请求不经过拦截器，不会带上凭证
+    assertEquals(0, authorized.get());
+  }
+
+  @Test
+  void testReportsFailures() throws Exception {
+    int closedPort;
+    try (ServerSocket socket = new ServerSocket(0)) {
+      closedPort = socket.getLocalPort();
+    }
+    WarmupReport report =
+        new TransportWarmer(WarmupConfig.builder().connections(1).timeoutMillis(5000).build())
+            .add(new OkHttpClient(), "http://127.0.0.1:" + closedPort)
+            .run();
+
+    assertFalse(report.isReady());
+    assertEquals(0, report.getConnections());
+    assertEquals(1, report.getErrors().size());
+  }
+}
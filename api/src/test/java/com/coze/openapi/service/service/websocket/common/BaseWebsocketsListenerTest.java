@@ -1,11 +1,14 @@
 package com.coze.openapi.service.service.websocket.common;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -152,4 +155,30 @@ class BaseWebsocketsListenerTest {
     latch.await(2, TimeUnit.SECONDS);
     verify(mockHandleEvent, times(messageCount)).accept(any(), any());
   }
+
+  @Test
+  void testOnMessage_ThreadFactory() throws InterruptedException {
+    CountDownLatch latch = new CountDownLatch(1);
+    AtomicReference<String> threadName = new AtomicReference<>();
+    doAnswer(
+            invocation -> {
+              threadName.set(Thread.currentThread().getName());
+              latch.countDown();
+              return null;
+            })
+        .when(mockHandleEvent)
+        .accept(any(), any());
+
+    BaseWebsocketsListener custom =
+        new BaseWebsocketsListener(
+            mockHandleEvent,
+            mockCallbackHandler,
+            mockClient,
+            runnable -> new Thread(runnable, "ws-handler"));
+    custom.onMessage(mockWebSocket, "test message");
+
+    assertTrue(latch.await(1, TimeUnit.SECONDS));
+    assertEquals("ws-handler", threadName.get());
+    custom.shutdown();
+  }
 }
@@ -4,6 +4,9 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -19,6 +22,7 @@ import okhttp3.Request;
 import okhttp3.Response.Builder;
 import okhttp3.ResponseBody;
 import retrofit2.Call;
+import retrofit2.Callback;
 import retrofit2.Response;
 
 public class UtilsTest {
@@ -147,6 +151,102 @@ public class UtilsTest {
     assertTrue(sign.matches("[0-9a-f]+"));
   }
 
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testExecuteAsync() throws Exception {
+    BaseResponse<BaseResp> baseResponse = new BaseResponse<BaseResp>();
+    baseResponse.setData(new TestResponse());
+    okhttp3.Response rawResponse =
+        new Builder()
+            .request(new Request.Builder().url("http://test.com").build())
+            .protocol(Protocol.HTTP_1_1)
+            .code(200)
+            .message("OK")
+            .headers(Headers.of(Utils.LOG_HEADER, "async-log-id"))
+            .build();
+
+    Call<BaseResponse<BaseResp>> call = mock(Call.class);
+    doAnswer(
+            invocation -> {
+              Callback<BaseResponse<BaseResp>> cb = invocation.getArgument(0);
+              cb.onResponse(call, Response.success(baseResponse, rawResponse));
+              return null;
+            })
+        .when(call)
+        .enqueue(any());
+
+    BaseResponse<BaseResp> result = Utils.executeAsync(call).get(1, TimeUnit.SECONDS);
+
+    assertEquals("async-log-id", result.getLogID());
+    assertEquals("async-log-id", result.getData().getLogID());
+    verify(call, never()).execute();
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testExecuteAsyncFailure() {
+    Call<BaseResponse<BaseResp>> call = mock(Call.class);
+    IOException error = new IOException("connection reset");
+    doAnswer(
+            invocation -> {
+              Callback<BaseResponse<BaseResp>> cb = invocation.getArgument(0);
+              cb.onFailure(call, error);
+              return null;
+            })
+        .when(call)
+        .enqueue(any());
+
+    CompletableFuture<BaseResponse<BaseResp>> future = Utils.executeAsync(call);
+
+    ExecutionException thrown = assertThrows(ExecutionException.class, future::get);
+    assertTrue(thrown.getCause() instanceof RuntimeException);
+    assertSame(error, thrown.getCause().getCause());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testExecuteAsyncCancel() {
+    Call<BaseResponse<BaseResp>> call = mock(Call.class);
+
+    CompletableFuture<BaseResponse<BaseResp>> future = Utils.executeAsync(call);
+    future.cancel(true);
+
+    verify(call).cancel();
+  }
+
+  private static okhttp3.Response jsonResponse(String json) {
+    return new Builder()
+        .request(new Request.Builder().url("http://test.com").build())
+        .protocol(Protocol.HTTP_1_1)
+        .code(200)
+        .message("OK")
+        .body(ResponseBody.create(MediaType.parse("application/json"), json))
+        .build();
+  }
+
+  @Test
+  public void testPeekCode() throws Exception {
+    assertEquals(Integer.valueOf(4100), Utils.peekCode(jsonResponse("{\"code\":4100}")));
+    assertNull(Utils.peekCode(jsonResponse("{\"data\":{\"code\":4100}}")));
+    assertNull(Utils.peekCode(jsonResponse("{\"code\":\"4100\"}")));
+    assertNull(Utils.peekCode(jsonResponse("[4100]")));
+    assertNull(Utils.peekCode(jsonResponse("{\"code\":")));
+  }
+
+  @Test
+  public void testPeekCodeAfterLargeField() throws Exception {
+    StringBuilder data = new StringBuilder();
+    for (int i = 0; i < 100 * 1024; i++) {
+      data.append('x');
+    }
+    String json = "{\"data\":{\"text\":\"" + data + "\",\"code\":1},\"code\":4013}";
+    okhttp3.Response response = jsonResponse(json);
+
+    assertEquals(Integer.valueOf(4013), Utils.peekCode(response));
+    // body 没有被消费
+    assertEquals(json, response.body().string());
+  }
+
   // 用于测试JSON转换的内部类
   private static class TestObject {
     private String name;
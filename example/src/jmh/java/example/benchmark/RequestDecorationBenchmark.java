@@ -0,0 +1,244 @@
+package example.benchmark;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.coze.openapi.client.bots.RetrieveBotReq;
+import com.coze.openapi.client.common.BaseReq;
+import com.coze.openapi.service.auth.Auth;
+import com.coze.openapi.service.auth.TokenAuth;
+import com.coze.openapi.service.service.RequestDecorationInterceptor;
+import com.coze.openapi.service.service.TimeoutInterceptor;
+import com.coze.openapi.service.utils.VersionUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.Interceptor;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/*
+This benchmark measures the cost of decorating one request before it is sent: the Authorization
+and user agent headers and the per-call timeouts. "legacy" replays the former three interceptors
+(the token and both user agent headers rebuilt on every call), "decorated" runs the
+RequestDecorationInterceptor CozeAPI installs now. The chain ends in a stub that returns a fixed
+response, so no I/O is measured.
+
+Usage, from the repository root:
+
+  mvn -q -Pjmh -pl example -am install -DskipTests
+  mvn -q -Pjmh -pl example dependency:build-classpath -Dmdep.outputFile=target/jmh.classpath
+  java -cp "example/target/classes:$(cat example/target/jmh.classpath)" \
+      org.openjdk.jmh.Main RequestDecoration -prof gc
+
+gc.alloc.rate.norm is the number of bytes allocated per decorated request.
+* */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestDecorationBenchmark {
+
+  private Request request;
+  private List<Interceptor> legacy;
+  private List<Interceptor> decorated;
+
+  @Setup
+  public void setUp() {
+    BaseReq req = RetrieveBotReq.builder().botID("7373880376026103809").readTimeout(5000).build();
+    request =
+        new Request.Builder()
+            .url("https://api.coze.com/v1/bot/get_online_info?bot_id=7373880376026103809")
+            .tag(BaseReq.class, req)
+            .build();
+    Auth auth = new TokenAuth("pat_benchmark_token");
+    legacy =
+        Arrays.asList(
+            new LegacyAuthentication(auth), new TimeoutInterceptor(), new LegacyUserAgent());
+    decorated = Arrays.asList(new RequestDecorationInterceptor(auth));
+  }
+
+  @Benchmark
+  public Response legacy() throws IOException {
+    return new StubChain(legacy, 0, request).proceed(request);
+  }
+
+  @Benchmark
+  public Response decorated() throws IOException {
+    return new StubChain(decorated, 0, request).proceed(request);
+  }
+
+  // 替换前的 AuthenticationInterceptor：每次拼接 token
+  private static final class LegacyAuthentication implements Interceptor {
+    private final Auth auth;
+
+    LegacyAuthentication(Auth auth) {
+      this.auth = auth;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+      Request request =
+          chain
+              .request()
+              .newBuilder()
+              .header("Authorization", auth.tokenType() + " " + auth.token())
+              .build();
+      return chain.proceed(request);
+    }
+  }
+
+  // 替换前的 UserAgentInterceptor：每次读取系统属性、格式化并序列化 JSON
+  private static final class LegacyUserAgent implements Interceptor {
+    private static final String VERSION = VersionUtils.getVersion();
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+      Request request =
+          chain
+              .request()
+              .newBuilder()
+              .addHeader("User-Agent", userAgent())
+              .addHeader("X-Coze-Client-User-Agent", clientUserAgent())
+              .build();
+      return chain.proceed(request);
+    }
+
+    private static String userAgent() {
+      return String.format(
+              "cozejava/%s java/%s %s/%s",
+              VERSION,
+              System.getProperty("java.version"),
+              System.getProperty("os.name").toLowerCase(),
+              System.getProperty("os.version"))
+          .toLowerCase();
+    }
+
+    private static String clientUserAgent() {
+      try {
+        Map<String, String> ua = new HashMap<>();
+        ua.put("version", VERSION);
+        ua.put("lang", "java");
+        ua.put("lang_version", System.getProperty("java.version"));
+        ua.put("os_name", System.getProperty("os.name").toLowerCase());
+        ua.put("os_version", System.getProperty("os.version"));
+        return objectMapper.writeValueAsString(ua);
+      } catch (Exception e) {
+        return "";
+      }
+    }
+  }
+
+  // 按顺序执行拦截器，最后返回固定响应，和 OkHttp 的 RealInterceptorChain 行为一致
+  private static final class StubChain implements Interceptor.Chain {
+    private final List<Interceptor> interceptors;
+    private final int index;
+    private final Request request;
+    private final int connectTimeout;
+    private final int readTimeout;
+    private final int writeTimeout;
+
+    StubChain(List<Interceptor> interceptors, int index, Request request) {
+      this(interceptors, index, request, 10_000, 10_000, 10_000);
+    }
+
+    StubChain(
+        List<Interceptor> interceptors,
+        int index,
+        Request request,
+        int connectTimeout,
+        int readTimeout,
+        int writeTimeout) {
+      this.interceptors = interceptors;
+      this.index = index;
+      this.request = request;
+      this.connectTimeout = connectTimeout;
+      this.readTimeout = readTimeout;
+      this.writeTimeout = writeTimeout;
+    }
+
+    @Override
+    public Request request() {
+      return request;
+    }
+
+    @Override
+    public Response proceed(Request request) throws IOException {
+      if (index < interceptors.size()) {
+        StubChain next =
+            new StubChain(
+                interceptors, index + 1, request, connectTimeout, readTimeout, writeTimeout);
+        return interceptors.get(index).intercept(next);
+      }
+      return new Response.Builder()
+          .request(request)
+          .protocol(Protocol.HTTP_1_1)
+          .code(200)
+          .message("OK")
+          .build();
+    }
+
+    @Override
+    public Connection connection() {
+      return null;
+    }
+
+    @Override
+    public Call call() {
+      return null;
+    }
+
+    @Override
+    public int connectTimeoutMillis() {
+      return connectTimeout;
+    }
+
+    @Override
+    public Interceptor.Chain withConnectTimeout(int timeout, TimeUnit unit) {
+      return new StubChain(
+          interceptors, index, request, (int) unit.toMillis(timeout), readTimeout, writeTimeout);
+    }
+
+    @Override
+    public int readTimeoutMillis() {
+      return readTimeout;
+    }
+
+    @Override
+    public Interceptor.Chain withReadTimeout(int timeout, TimeUnit unit) {
+      return new StubChain(
+          interceptors, index, request, connectTimeout, (int) unit.toMillis(timeout), writeTimeout);
+    }
+
+    @Override
+    public int writeTimeoutMillis() {
+      return writeTimeout;
+    }
+
+    @Override
+    public Interceptor.Chain withWriteTimeout(int timeout, TimeUnit unit) {
+      return new StubChain(
+          interceptors, index, request, connectTimeout, readTimeout, (int) unit.toMillis(timeout));
+    }
+  }
+}
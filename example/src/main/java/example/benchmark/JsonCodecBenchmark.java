@@ -0,0 +1,156 @@
+package example.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.coze.openapi.client.chat.model.Chat;
+import com.coze.openapi.client.connversations.message.CreateMessageReq;
+import com.coze.openapi.client.connversations.message.model.Message;
+import com.coze.openapi.client.connversations.message.model.MessageContentType;
+import com.coze.openapi.client.connversations.message.model.MessageRole;
+import com.coze.openapi.client.websocket.event.downstream.ConversationMessageDeltaEvent;
+import com.coze.openapi.client.workflows.run.model.WorkflowEventMessage;
+import com.coze.openapi.service.service.codec.JsonCodec;
+import com.coze.openapi.service.service.codec.JsonCodecs;
+import com.coze.openapi.service.utils.Utils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/*
+This benchmark compares the throughput of JSON codecs on the models decoded for every streamed
+event and on a request body: "mapper" calls ObjectMapper.readValue and writeValueAsString per
+value, like the SDK did before JsonCodec; "jackson" is JacksonCodec, the default, which reuses
+one ObjectReader and ObjectWriter per type. A faster backend can be measured by adding its
+JsonCodec to codecs() and passed to the SDK with JsonCodecs.set.
+
+Usage: JsonCodecBenchmark [seconds=2] [rounds=3]
+
+For each workload and codec it prints the best of the rounds in operations per second.
+* */
+public class JsonCodecBenchmark {
+  private static final String MESSAGE =
+      "{\"id\":\"7382159487131\",\"conversation_id\":\"7382159487130\",\"bot_id\":\"7379462189365\","
+          + "\"chat_id\":\"7382159487132\",\"role\":\"assistant\",\"type\":\"answer\","
+          + "\"content\":\"The weather in Beijing is sunny\",\"content_type\":\"text\","
+          + "\"section_id\":\"7382159487133\",\"created_at\":1718609571,\"updated_at\":1718609571}";
+  private static final String CHAT =
+      "{\"id\":\"7382159487132\",\"conversation_id\":\"7382159487130\",\"bot_id\":\"7379462189365\","
+          + "\"created_at\":1718609571,\"completed_at\":1718609575,\"status\":\"completed\","
+          + "\"usage\":{\"token_count\":386,\"output_count\":45,\"input_count\":341}}";
+  private static final String WORKFLOW_MESSAGE =
+      "{\"content\":\"The weather in Beijing is sunny\",\"node_title\":\"End\","
+          + "\"node_seq_id\":\"0\",\"node_is_finish\":true,\"ext\":{\"var\":\"1\"}}";
+  private static final String WEBSOCKET_DELTA =
+      "{\"id\":\"event-1\",\"event_type\":\"conversation.message.delta\",\"data\":"
+          + MESSAGE
+          + ",\"detail\":{\"logid\":\"20241210152726467C48D89D6DB2F3E4B0\"}}";
+
+  public static void main(String[] args) throws Exception {
+    long seconds = args.length > 0 ? Long.parseLong(args[0]) : 2;
+    int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+
+    CreateMessageReq req =
+        CreateMessageReq.builder()
+            .conversationID("7382159487130")
+            .role(MessageRole.USER)
+            .content("What is the weather like in Beijing?")
+            .contentType(MessageContentType.TEXT)
+            .build();
+
+    for (Map.Entry<String, JsonCodec> codec : codecs().entrySet()) {
+      JsonCodec c = codec.getValue();
+      List<Workload> workloads =
+          Arrays.asList(
+              new Workload("Message", () -> c.decode(MESSAGE, Message.class)),
+              new Workload("Chat", () -> c.decode(CHAT, Chat.class)),
+              new Workload(
+                  "WorkflowEventMessage",
+                  () -> c.decode(WORKFLOW_MESSAGE, WorkflowEventMessage.class)),
+              new Workload(
+                  "websocket delta",
+                  () -> c.decode(WEBSOCKET_DELTA, ConversationMessageDeltaEvent.class)),
+              new Workload("CreateMessageReq", () -> c.encode(req)));
+      for (Workload workload : workloads) {
+        // 第一轮预热 JIT，不计入结果
+        workload.measure(seconds);
+        double best = 0;
+        for (int i = 0; i < rounds; i++) {
+          best = Math.max(best, workload.measure(seconds));
+        }
+        System.out.printf("%-8s %-21s %,12.0f ops/s%n", codec.getKey(), workload.name, best);
+      }
+    }
+  }
+
+  private static Map<String, JsonCodec> codecs() {
+    Map<String, JsonCodec> codecs = new LinkedHashMap<>();
+    codecs.put("mapper", new MapperCodec(Utils.getMapper()));
+    codecs.put("jackson", JsonCodecs.get());
+    return codecs;
+  }
+
+  private interface Operation {
+    Object run() throws IOException;
+  }
+
+  private static final class Workload {
+    final String name;
+    final Operation operation;
+    // 防止 JIT 把结果当作无用代码消除
+    int sink;
+
+    Workload(String name, Operation operation) {
+      this.name = name;
+      this.operation = operation;
+    }
+
+    double measure(long seconds) throws IOException {
+      long end = System.nanoTime() + seconds * 1_000_000_000L;
+      long start = System.nanoTime();
+      long ops = 0;
+      long now;
+      do {
+        for (int i = 0; i < 1000; i++) {
+          sink += operation.run().hashCode();
+        }
+        ops += 1000;
+        now = System.nanoTime();
+      } while (now < end);
+      return ops / ((now - start) / 1e9);
+    }
+  }
+
+  // 每次调用都通过 ObjectMapper 查找 (de)serializer
+  private static final class MapperCodec implements JsonCodec {
+    private final ObjectMapper mapper;
+
+    MapperCodec(ObjectMapper mapper) {
+      this.mapper = mapper;
+    }
+
+    @Override
+    public <T> T decode(String json, Class<T> type) throws IOException {
+      return mapper.readValue(json, type);
+    }
+
+    @Override
+    public <T> T decode(InputStream in, Type type) throws IOException {
+      return mapper.readValue(in, mapper.getTypeFactory().constructType(type));
+    }
+
+    @Override
+    public String encode(Object value) throws IOException {
+      return mapper.writeValueAsString(value);
+    }
+
+    @Override
+    public void encode(Object value, Type type, OutputStream out) throws IOException {
+      mapper.writerFor(mapper.getTypeFactory().constructType(type)).writeValue(out, value);
+    }
+  }
+}
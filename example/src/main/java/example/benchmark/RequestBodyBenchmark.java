@@ -0,0 +1,137 @@
+package example.benchmark;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import com.coze.openapi.client.dataset.document.CreateDocumentReq;
+import com.coze.openapi.client.dataset.document.model.DocumentBase;
+import com.coze.openapi.service.service.codec.JsonCodecConverterFactory;
+import com.coze.openapi.service.service.codec.JsonCodecs;
+
+import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Sink;
+import okio.Timeout;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+/*
+This benchmark compares the request body converters of CozeAPI for a large CreateDocumentReq:
+"buffered" (the body is serialized into a byte array before it is sent, the default) and
+"streaming" (the body is serialized into the connection, opted into with
+CozeAPI.Builder.streamingRequestBodies), both JsonCodecConverterFactory. Each body is written into
+a sink that discards the bytes, like a socket would, so only the client side is measured.
+
+Usage: RequestBodyBenchmark [documentKilobytes=4096] [requests=50]
+
+For each mode it prints
+  allocated: bytes allocated on the heap per request, conversion and writing included
+  first byte: median time from conversion until the first bytes reached the sink
+  total: median time until the whole body was written
+* */
+public class RequestBodyBenchmark {
+
+  public static void main(String[] args) throws Exception {
+    int kilobytes = args.length > 0 ? Integer.parseInt(args[0]) : 4096;
+    int requests = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+
+    byte[] content = new byte[kilobytes * 1024];
+    new Random(42).nextBytes(content);
+    CreateDocumentReq req =
+        CreateDocumentReq.builder()
+            .datasetID(1L)
+            .documentBases(
+                Arrays.asList(DocumentBase.buildLocalFile("benchmark.bin", content, "txt")))
+            .build();
+
+    Retrofit retrofit = new Retrofit.Builder().baseUrl("http://localhost/").build();
+    Converter<CreateDocumentReq, RequestBody> buffered =
+        converter(JsonCodecConverterFactory.create(JsonCodecs.get(), false), retrofit);
+    Converter<CreateDocumentReq, RequestBody> streaming =
+        converter(JsonCodecConverterFactory.create(JsonCodecs.get(), true), retrofit);
+
+    // 预热 JIT，两种方式各跑一轮不计入结果
+    run(buffered, req, requests);
+    run(streaming, req, requests);
+    print("buffered", run(buffered, req, requests));
+    print("streaming", run(streaming, req, requests));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Converter<CreateDocumentReq, RequestBody> converter(
+      Converter.Factory factory, Retrofit retrofit) {
+    return (Converter<CreateDocumentReq, RequestBody>)
+        factory.requestBodyConverter(
+            CreateDocumentReq.class, new Annotation[0], new Annotation[0], retrofit);
+  }
+
+  // 每个请求返回 {分配的字节数, 首字节耗时, 总耗时}
+  private static List<long[]> run(
+      Converter<CreateDocumentReq, RequestBody> converter, CreateDocumentReq req, int requests)
+      throws IOException {
+    com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long thread = Thread.currentThread().getId();
+    List<long[]> samples = new ArrayList<>();
+    for (int i = 0; i < requests; i++) {
+      DiscardingSink discarding = new DiscardingSink();
+      long allocated = threads.getThreadAllocatedBytes(thread);
+      long start = System.nanoTime();
+      RequestBody body = converter.convert(req);
+      try (BufferedSink sink = Okio.buffer(discarding)) {
+        body.writeTo(sink);
+      }
+      long end = System.nanoTime();
+      samples.add(
+          new long[] {
+            threads.getThreadAllocatedBytes(thread) - allocated,
+            discarding.firstWrite - start,
+            end - start
+          });
+    }
+    return samples;
+  }
+
+  private static void print(String mode, List<long[]> samples) {
+    long allocated = (long) samples.stream().mapToLong(sample -> sample[0]).average().orElse(0);
+    System.out.printf(
+        "%-9s allocated=%,dB first byte=%.2fms total=%.2fms%n",
+        mode, allocated, median(samples, 1) / 1e6, median(samples, 2) / 1e6);
+  }
+
+  private static long median(List<long[]> samples, int column) {
+    long[] values = samples.stream().mapToLong(sample -> sample[column]).sorted().toArray();
+    return values[values.length / 2];
+  }
+
+  // 丢弃写入的数据，只记录第一次写入的时间
+  private static final class DiscardingSink implements Sink {
+    long firstWrite;
+
+    @Override
+    public void write(Buffer source, long byteCount) throws IOException {
+      if (firstWrite == 0) {
+        firstWrite = System.nanoTime();
+      }
+      source.skip(byteCount);
+    }
+
+    @Override
+    public void flush() {}
+
+    @Override
+    public Timeout timeout() {
+      return Timeout.NONE;
+    }
+
+    @Override
+    public void close() {}
+  }
+}
@@ -0,0 +1,139 @@
+package example.benchmark;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.coze.openapi.client.bots.RetrieveBotReq;
+import com.coze.openapi.service.auth.TokenAuth;
+import com.coze.openapi.service.service.CozeAPI;
+import com.sun.net.httpserver.HttpServer;
+
+/*
+This benchmark measures the cold start of a short-lived process: how long it takes a fresh JVM to
+build a CozeAPI and complete its first request. Each run starts a new JVM with the classpath of
+this one, so class loading and proxy creation are included. A local server answers the request
+immediately, so the network is not measured.
+
+Both modes are measured: "lazy" (the default, services are created on first use) and "eager"
+(CozeAPI.Builder.eagerServices, every service is created and validated in build()).
+
+Usage: StartupBenchmark [runs=10]
+
+For each mode it prints the median over all runs of
+  build: time spent in CozeAPI.Builder.build()
+  first: time from the start of build() until the first response was parsed
+  uptime: JVM uptime when the first response was parsed
+* */
+public class StartupBenchmark {
+
+  private static final String BOT_BODY =
+      "{\"code\":0,\"msg\":\"\",\"data\":{\"bot_id\":\"bot\",\"name\":\"benchmark\"}}";
+
+  public static void main(String[] args) throws Exception {
+    if (args.length > 0 && "child".equals(args[0])) {
+      child(args[1], Boolean.parseBoolean(args[2]));
+      return;
+    }
+    int runs = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+
+    HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext(
+        "/",
+        exchange -> {
+          byte[] body = BOT_BODY.getBytes(StandardCharsets.UTF_8);
+          exchange.getResponseHeaders().set("Content-Type", "application/json");
+          exchange.sendResponseHeaders(200, body.length);
+          try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+          }
+        });
+    server.start();
+    String baseURL = "http://127.0.0.1:" + server.getAddress().getPort();
+    try {
+      for (boolean eager : new boolean[] {false, true}) {
+        List<long[]> samples = new ArrayList<>();
+        // 第一轮只用来预热磁盘缓存，不计入结果
+        spawn(baseURL, eager);
+        for (int i = 0; i < runs; i++) {
+          samples.add(spawn(baseURL, eager));
+        }
+        System.out.printf(
+            "%-5s runs=%d build=%dms first=%dms uptime=%dms%n",
+            eager ? "eager" : "lazy",
+            runs,
+            median(samples, 0),
+            median(samples, 1),
+            median(samples, 2));
+      }
+    } finally {
+      server.stop(0);
+    }
+  }
+
+  // 在新的 JVM 中构建 CozeAPI 并发出第一个请求
+  private static void child(String baseURL, boolean eager) {
+    long start = System.nanoTime();
+    CozeAPI coze =
+        new CozeAPI.Builder()
+            .baseURL(baseURL)
+            .auth(new TokenAuth("benchmark"))
+            .eagerServices(eager)
+            .build();
+    long built = System.nanoTime();
+    coze.bots().retrieve(RetrieveBotReq.of("bot"));
+    long first = System.nanoTime();
+    long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+    System.out.println(
+        TimeUnit.NANOSECONDS.toMicros(built - start)
+            + " "
+            + TimeUnit.NANOSECONDS.toMicros(first - start)
+            + " "
+            + uptime * 1000);
+    coze.shutdownExecutor();
+  }
+
+  private static long[] spawn(String baseURL, boolean eager)
+      throws IOException, InterruptedException {
+    String java =
+        System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+    Process process =
+        new ProcessBuilder(
+                java,
+                "-cp",
+                System.getProperty("java.class.path"),
+                StartupBenchmark.class.getName(),
+                "child",
+                baseURL,
+                String.valueOf(eager))
+            .redirectErrorStream(true)
+            .start();
+    String last = null;
+    try (BufferedReader reader =
+        new BufferedReader(
+            new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        last = line;
+      }
+    }
+    if (process.waitFor() != 0 || last == null) {
+      throw new IllegalStateException("child run failed: " + last);
+    }
+    return Arrays.stream(last.trim().split(" ")).mapToLong(Long::parseLong).toArray();
+  }
+
+  private static long median(List<long[]> samples, int column) {
+    long[] values = samples.stream().mapToLong(sample -> sample[column]).sorted().toArray();
+    return TimeUnit.MICROSECONDS.toMillis(values[values.length / 2]);
+  }
+}
@@ -0,0 +1,171 @@
+package example.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.coze.openapi.client.chat.CreateChatReq;
+import com.coze.openapi.client.connversations.message.model.Message;
+import com.coze.openapi.service.auth.TokenAuth;
+import com.coze.openapi.service.service.CozeAPI;
+import com.coze.openapi.service.service.common.VirtualThreads;
+import com.coze.openapi.service.service.transport.TransportProfile;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/*
+This benchmark compares platform threads with virtual threads when many streaming chats are
+in flight at the same time. A local server answers every chat after a fixed delay, so the numbers
+only reflect the client side: the peak number of live JVM threads and the latency of each chat.
+
+Usage: VirtualThreadsBenchmark [concurrency=10000] [delayMillis=500]
+
+Run it on Java 21 or later against the packaged multi-release jar, otherwise only the platform
+mode is measured. Each open chat uses a socket on both ends, so raise `ulimit -n` above twice the
+concurrency first.
+* */
+public class VirtualThreadsBenchmark {
+
+  private static final String SSE_BODY =
+      "event:conversation.chat.completed\n"
+          + "data:{\"id\":\"chat\",\"conversation_id\":\"conversation\",\"status\":\"completed\"}\n"
+          + "\n"
+          + "event:done\n"
+          + "data:\"[DONE]\"\n"
+          + "\n";
+
+  public static void main(String[] args) throws Exception {
+    int concurrency = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+    long delayMillis = args.length > 1 ? Long.parseLong(args[1]) : 500;
+
+    ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+    HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), concurrency);
+    // handler 只负责登记，响应由 timer 延迟发送，服务端线程数保持恒定
+    server.createContext(
+        "/v3/chat",
+        exchange -> {
+          drain(exchange.getRequestBody());
+          timer.schedule(() -> respond(exchange), delayMillis, TimeUnit.MILLISECONDS);
+        });
+    server.start();
+    String baseURL = "http://127.0.0.1:" + server.getAddress().getPort();
+
+    try {
+      // 先跑一轮小规模预热，避免类加载和 JIT 影响结果
+      run(baseURL, false, Math.min(concurrency, 100), false);
+      run(baseURL, false, concurrency, true);
+      if (VirtualThreads.isSupported()) {
+        run(baseURL, true, Math.min(concurrency, 100), false);
+        run(baseURL, true, concurrency, true);
+      } else {
+        System.out.println("virtual threads are not supported by this JVM, skip virtual mode");
+      }
+    } finally {
+      server.stop(0);
+      timer.shutdownNow();
+    }
+  }
+
+  private static void run(String baseURL, boolean virtualThreads, int concurrency, boolean report)
+      throws InterruptedException {
+    CozeAPI coze =
+        new CozeAPI.Builder()
+            .baseURL(baseURL)
+            .auth(new TokenAuth("benchmark"))
+            .readTimeout(60000)
+            .connectTimeout(60000)
+            .transportProfile(
+                TransportProfile.defaults()
+                    .toBuilder()
+                    .maxRequests(concurrency)
+                    .maxRequestsPerHost(concurrency)
+                    .maxIdleConnections(concurrency)
+                    .build())
+            .virtualThreads(virtualThreads)
+            .build();
+
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    threads.resetPeakThreadCount();
+    long[] latencies = new long[concurrency];
+    AtomicInteger failures = new AtomicInteger();
+    CountDownLatch done = new CountDownLatch(concurrency);
+    long start = System.nanoTime();
+    for (int i = 0; i < concurrency; i++) {
+      int index = i;
+      long begin = System.nanoTime();
+      CreateChatReq req =
+          CreateChatReq.builder()
+              .botID("bot")
+              .userID("user-" + i)
+              .messages(Collections.singletonList(Message.buildUserQuestionText("hi")))
+              .build();
+      coze.chat().stream(req)
+          .subscribe(
+              event -> {},
+              error -> {
+                failures.incrementAndGet();
+                latencies[index] = System.nanoTime() - begin;
+                done.countDown();
+              },
+              () -> {
+                latencies[index] = System.nanoTime() - begin;
+                done.countDown();
+              });
+    }
+    done.await();
+    long wall = System.nanoTime() - start;
+    int peakThreads = threads.getPeakThreadCount();
+    coze.shutdownExecutor();
+
+    if (!report) {
+      return;
+    }
+    Arrays.sort(latencies);
+    System.out.printf(
+        "%-8s chats=%d failures=%d peakThreads=%d wall=%dms p50=%dms p99=%dms max=%dms%n",
+        virtualThreads ? "virtual" : "platform",
+        concurrency,
+        failures.get(),
+        peakThreads,
+        TimeUnit.NANOSECONDS.toMillis(wall),
+        TimeUnit.NANOSECONDS.toMillis(percentile(latencies, 0.50)),
+        TimeUnit.NANOSECONDS.toMillis(percentile(latencies, 0.99)),
+        TimeUnit.NANOSECONDS.toMillis(latencies[latencies.length - 1]));
+  }
+
+  private static long percentile(long[] sorted, double p) {
+    int index = (int) Math.ceil(p * sorted.length) - 1;
+    return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+  }
+
+  private static void respond(HttpExchange exchange) {
+    try {
+      byte[] body = SSE_BODY.getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+      exchange.sendResponseHeaders(200, body.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+    } catch (IOException e) {
+      exchange.close();
+    }
+  }
+
+  private static void drain(InputStream in) throws IOException {
+    byte[] buffer = new byte[4096];
+    while (in.read(buffer) != -1) {
+      // discard
+    }
+  }
+}